@@ -16,6 +16,9 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Empty: the real OpenWeatherMap / Open-Meteo hosts (see ApiClient)
+        buildConfigField("String", "MOCK_API_BASE_URL", "\"\"")
     }
 
     buildTypes {
@@ -26,6 +29,15 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release build signed with the debug key, used by the :macrobenchmark module
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            // Served by the mock web server the benchmarks start on the device, with
+            // recorded responses from /fixtures: no network, stable timings
+            buildConfigField("String", "MOCK_API_BASE_URL", "\"http://127.0.0.1:8088\"")
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -33,10 +45,14 @@ android {
     }
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
 dependencies {
+    // Model, database, tracking pipeline and the other Android-independent layers
+    implementation(project(":core"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -44,21 +60,18 @@ dependencies {
     implementation(libs.recyclerview)
     implementation(libs.cardview)
     implementation(libs.swiperefreshlayout)
+    // ViewModels for the screens (state kept across configuration changes)
+    implementation(libs.lifecycle.viewmodel)
+    // Installs src/main/baseline-prof.txt on devices that do not get it from the Play Store
+    implementation(libs.profileinstaller)
 
-    // Networking
-    implementation(libs.retrofit)
+    // Networking (the services and responses are in :core)
     implementation(libs.retrofit.gson)
     implementation(libs.okhttp)
     implementation(libs.okhttp.logging)
-    implementation(libs.gson)
 
     // GPS
     implementation(libs.play.services.location)
-    implementation(libs.localbroadcastmanager)
-
-    // Room (local database)
-    implementation(libs.room.runtime)
-    annotationProcessor(libs.room.compiler)
 
     // Glide (image loading — webcam feed)
     implementation(libs.glide)
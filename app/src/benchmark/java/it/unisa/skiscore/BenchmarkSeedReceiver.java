@@ -0,0 +1,78 @@
+package it.unisa.skiscore;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.FavoriteResort;
+import it.unisa.skiscore.db.Resort;
+import it.unisa.skiscore.db.ResortCatalogue;
+import it.unisa.skiscore.db.SkiRun;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * Solo build "benchmark": riempie preferiti e diario con dati fissi, così i macrobenchmark
+ * misurano liste piene senza passare dalla UI. Idempotente; invocato dal modulo
+ * :macrobenchmark con {@code am broadcast -n it.unisa.skiscore/.BenchmarkSeedReceiver}.
+ * Scrive direttamente nel database: il processo va poi chiuso (force-stop) perché la cache
+ * del FavoritesManager lo rilegga.
+ */
+public class BenchmarkSeedReceiver extends BroadcastReceiver {
+
+    private static final int FAVORITES = 20;
+    private static final int SESSIONS = 300;
+    private static final int RUNS_PER_SESSION = 12;
+    private static final long DAY_MS = 86_400_000L;
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        PendingResult result = goAsync();
+        AppDatabase db = AppDatabase.getInstance(context);
+        new Thread(() -> {
+            try {
+                db.runInTransaction(() -> {
+                    if (db.favoriteDao().getAll().isEmpty()) seedFavorites(db);
+                    if (db.analyticsDao().getAllSeasons().isEmpty()) seedSessions(db);
+                });
+            } finally {
+                result.finish();
+            }
+        }, "benchmark-seed").start();
+    }
+
+    private static void seedFavorites(AppDatabase db) {
+        List<Resort> resorts = ResortCatalogue.RESORTS.subList(0, FAVORITES);
+        for (Resort r : resorts) {
+            SkiResort resort = new SkiResort(r.name, r.country, r.latE7 / 1e7, r.lonE7 / 1e7);
+            db.favoriteDao().insertAtEnd(FavoriteResort.from(resort));
+        }
+        db.resortDao().insertAll(resorts);
+    }
+
+    private static void seedSessions(AppDatabase db) {
+        // Un giorno ogni due, a ritroso da ieri
+        long start = System.currentTimeMillis() - DAY_MS;
+        for (int i = 0; i < SESSIONS; i++) {
+            long date = start - i * 2 * DAY_MS;
+            SkiSession session = new SkiSession(date, 5 * 3_600_000L, 60f + i % 30, 28f + i % 10,
+                    35f + i % 20, 4_000f + 37 * (i % 50), 4_100f + 37 * (i % 50));
+            session.runCount = RUNS_PER_SESSION;
+            session.resortId = ResortCatalogue.RESORTS.get(i % FAVORITES).id;
+            long sessionId = db.seasonStatsDao().insertSession(session);
+
+            List<SkiRun> runs = new ArrayList<>(RUNS_PER_SESSION);
+            for (int r = 0; r < RUNS_PER_SESSION; r++) {
+                SkiRun run = new SkiRun(r, date - session.duration + r * 1_200_000L, 420_000L,
+                        330f + r * 5, 2.8f, 55f + r, 26f);
+                run.sessionId = sessionId;
+                runs.add(run);
+            }
+            db.skiRunDao().insertAll(runs);
+        }
+    }
+}
@@ -8,21 +8,16 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
-import it.unisa.skiscore.api.ApiClient;
-import it.unisa.skiscore.api.OwmForecastResponse;
+import it.unisa.skiscore.ui.HourlyForecastViewModel;
 import it.unisa.skiscore.ui.HourlySlotAdapter;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * Shows a vertical list of 3-hourly weather slots for a specific forecast day.
@@ -44,6 +39,7 @@ public class HourlyForecastActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     private TextView tvEmpty;
     private HourlySlotAdapter adapter;
+    private HourlyForecastViewModel viewModel;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -70,58 +66,27 @@ public class HourlyForecastActivity extends AppCompatActivity {
         rvHourly.setLayoutManager(new LinearLayoutManager(this));
         rvHourly.setAdapter(adapter);
 
-        fetchHourlyForecast(lat, lon, date);
+        // Dopo una rotazione le fasce sono già nel ViewModel: nessuna nuova richiesta
+        viewModel = new ViewModelProvider(this).get(HourlyForecastViewModel.class);
+        viewModel.load(lat, lon, date);
+        observeSlots();
     }
 
-    /**
-     * Calls OWM /forecast, filters items whose dtTxt starts with the requested date,
-     * and passes them to the adapter.
-     */
-    private void fetchHourlyForecast(double lat, double lon, String targetDate) {
-        showLoading(true);
-
-        ApiClient.getForecastService().getForecast(
-                lat, lon,
-                ApiClient.OWM_API_KEY,
-                "metric",
-                "it"
-        ).enqueue(new Callback<OwmForecastResponse>() {
-            @Override
-            public void onResponse(Call<OwmForecastResponse> call,
-                                   Response<OwmForecastResponse> response) {
-                showLoading(false);
-                if (!response.isSuccessful() || response.body() == null) {
-                    showEmpty(true);
-                    return;
-                }
-
-                List<OwmForecastResponse.ForecastItem> allItems = response.body().list;
-                List<OwmForecastResponse.ForecastItem> daySlots = new ArrayList<>();
-
-                if (allItems != null && targetDate != null) {
-                    for (OwmForecastResponse.ForecastItem item : allItems) {
-                        // dtTxt = "2025-02-20 12:00:00" → first 10 chars = "2025-02-20"
-                        if (item.dtTxt != null && item.dtTxt.startsWith(targetDate)) {
-                            daySlots.add(item);
-                        }
-                    }
-                }
-
-                if (daySlots.isEmpty()) {
-                    showEmpty(true);
-                } else {
-                    adapter.setSlots(daySlots);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<OwmForecastResponse> call, Throwable t) {
-                showLoading(false);
+    private void observeSlots() {
+        viewModel.getSlots().observe(this, slots -> {
+            showLoading(slots == null);
+            if (slots == null) return;
+            if (slots.isEmpty()) {
                 showEmpty(true);
-                Toast.makeText(HourlyForecastActivity.this,
-                        "Errore di rete: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            } else {
+                adapter.setSlots(slots);
             }
         });
+        viewModel.getNetworkError().observe(this, message -> {
+            if (message == null) return;
+            Toast.makeText(this, "Errore di rete: " + message, Toast.LENGTH_SHORT).show();
+            viewModel.onErrorShown();
+        });
     }
 
     private void showLoading(boolean show) {
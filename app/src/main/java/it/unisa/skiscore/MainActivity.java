@@ -1,11 +1,13 @@
 package it.unisa.skiscore;
 
 import android.os.Bundle;
+import android.os.Trace;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
@@ -14,15 +16,28 @@ import it.unisa.skiscore.ui.HomeFragment;
 import it.unisa.skiscore.ui.TrackerFragment;
 
 /**
- * Main Activity — hosts the BottomNavigationView and swaps Fragments.
+ * Main Activity — hosts the BottomNavigationView and switches between the tab Fragments.
  *
  * Tabs:
  *   nav_home    → HomeFragment    (Meteo & Score)
  *   nav_tracker → TrackerFragment (Tracker ⏱)
  *   nav_diary   → DiaryFragment   (Diario Sciate)
+ *
+ * Each tab is created the first time it is selected and then kept: switching hides the
+ * current one and shows the other, so views, adapters, scroll positions and loaded data
+ * (weather, diary pages) survive the switch. Hidden tabs are capped at STARTED, so only
+ * the visible one is RESUMED. The FragmentManager restores all of them, hidden state
+ * included, after a configuration change.
  */
 public class MainActivity extends AppCompatActivity {
 
+    /** Trace section around a tab switch, measured by the :macrobenchmark module */
+    private static final String TRACE_SWITCH_TAB = "MainActivity.switchTab";
+
+    private static final String TAG_HOME    = "tab_home";
+    private static final String TAG_TRACKER = "tab_tracker";
+    private static final String TAG_DIARY   = "tab_diary";
+
     private BottomNavigationView bottomNavigationView;
 
     @Override
@@ -34,36 +49,65 @@ public class MainActivity extends AppCompatActivity {
 
         // Load HomeFragment at startup
         if (savedInstanceState == null) {
-            loadFragment(new HomeFragment());
+            showTab(TAG_HOME);
         }
 
         bottomNavigationView.setOnItemSelectedListener(item -> {
-            Fragment selected;
             int id = item.getItemId();
 
             if (id == R.id.nav_home) {
-                selected = new HomeFragment();
+                showTab(TAG_HOME);
             } else if (id == R.id.nav_tracker) {
-                selected = new TrackerFragment();
+                showTab(TAG_TRACKER);
             } else if (id == R.id.nav_diary) {
-                selected = new DiaryFragment();
+                showTab(TAG_DIARY);
             } else {
                 return false;
             }
-
-            loadFragment(selected);
             return true;
         });
+        // Tapping the current tab again: nothing to rebuild
+        bottomNavigationView.setOnItemReselectedListener(item -> { });
     }
 
     /**
-     * Replaces the current Fragment in fragment_container with the given one.
-     * Uses REPLACE + commit — no back stack entry (tabs don't need back nav).
+     * Shows the tab with the given tag, adding it on first use, and hides the others.
+     * No back stack entry (tabs don't need back nav). Committed synchronously so that the
+     * trace section covers the whole switch, view creation of a new tab included.
      */
-    private void loadFragment(Fragment fragment) {
-        FragmentManager manager = getSupportFragmentManager();
-        FragmentTransaction transaction = manager.beginTransaction();
-        transaction.replace(R.id.fragment_container, fragment);
-        transaction.commit();
+    private void showTab(String tag) {
+        Trace.beginSection(TRACE_SWITCH_TAB);
+        try {
+            FragmentManager manager = getSupportFragmentManager();
+            FragmentTransaction transaction = manager.beginTransaction()
+                    .setReorderingAllowed(true);
+
+            for (String other : new String[]{TAG_HOME, TAG_TRACKER, TAG_DIARY}) {
+                Fragment fragment = manager.findFragmentByTag(other);
+                if (fragment == null || other.equals(tag)) continue;
+                if (!fragment.isHidden()) transaction.hide(fragment);
+                transaction.setMaxLifecycle(fragment, Lifecycle.State.STARTED);
+            }
+
+            Fragment selected = manager.findFragmentByTag(tag);
+            if (selected == null) {
+                selected = createTab(tag);
+                transaction.add(R.id.fragment_container, selected, tag);
+            } else {
+                transaction.show(selected);
+            }
+            transaction.setMaxLifecycle(selected, Lifecycle.State.RESUMED);
+            transaction.commitNow();
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private static Fragment createTab(String tag) {
+        switch (tag) {
+            case TAG_TRACKER: return new TrackerFragment();
+            case TAG_DIARY:   return new DiaryFragment();
+            default:          return new HomeFragment();
+        }
     }
-}
\ No newline at end of file
+}
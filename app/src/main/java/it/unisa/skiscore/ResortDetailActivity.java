@@ -12,38 +12,35 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.List;
 
-import it.unisa.skiscore.api.ApiClient;
-import it.unisa.skiscore.api.OwmCurrentResponse;
-import it.unisa.skiscore.api.OwmForecastResponse;
-import it.unisa.skiscore.model.DailyForecast;
 import it.unisa.skiscore.model.SkiResort;
 import it.unisa.skiscore.model.WebcamModel;
 import it.unisa.skiscore.model.WeatherData;
 import it.unisa.skiscore.ui.ForecastAdapter;
+import it.unisa.skiscore.ui.ResortDetailViewModel;
 import it.unisa.skiscore.ui.SkiScoreView;
 import it.unisa.skiscore.ui.WebcamAdapter;
 import it.unisa.skiscore.util.FavoritesManager;
-import it.unisa.skiscore.util.SkiScoreCalculator;
 import it.unisa.skiscore.util.WeatherCodeMapper;
-import it.unisa.skiscore.util.WeatherMapper;
 import it.unisa.skiscore.util.WebcamRepository;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * Full weather dashboard for a single ski resort.
- * Fetches data from OpenWeatherMap Current + Forecast APIs.
+ * Data comes from OpenWeatherMap Current + Forecast APIs through a
+ * {@link ResortDetailViewModel}, so a rotation redraws what was already fetched.
  */
 public class ResortDetailActivity extends AppCompatActivity {
 
     private SkiResort resort;
+    private ResortDetailViewModel viewModel;
     private FavoritesManager favoritesManager;
+    /** L'utente ha già toccato la stella: il caricamento dei preferiti non la corregge più */
+    private boolean favoriteToggled;
     private ForecastAdapter forecastAdapter;
 
     // Views
@@ -77,12 +74,14 @@ public class ResortDetailActivity extends AppCompatActivity {
             return insets;
         });
 
-        favoritesManager = new FavoritesManager(this);
+        favoritesManager = FavoritesManager.getInstance(this);
+        favoritesManager.addOnFavoritesChangedListener(favoritesListener);
+        viewModel = new ViewModelProvider(this).get(ResortDetailViewModel.class);
         initViews();
         loadResortFromIntent();
         setupClickListeners();
         setupWebcams();
-        fetchWeather();
+        observeWeather();
     }
 
     private void initViews() {
@@ -138,12 +137,19 @@ public class ResortDetailActivity extends AppCompatActivity {
         double lat = getIntent().getDoubleExtra("resort_lat", 0);
         double lon = getIntent().getDoubleExtra("resort_lon", 0);
 
-        resort = new SkiResort(name, country, lat, lon);
-        resort.setFavorite(favoritesManager.isFavorite(resort));
+        // Alla prima creazione avvia il caricamento; dopo una rotazione riusa il resort già caricato
+        viewModel.load(new SkiResort(name, country, lat, lon));
+        resort = viewModel.getResort();
 
         tvName.setText(name);
         tvLocation.setText(country != null ? country : "");
-        updateFavoriteIcon();
+        // Subito se i preferiti sono già in memoria, altrimenti appena finito il caricamento:
+        // il thread principale non aspetta mai Room
+        favoritesManager.loadFavorites(favorites -> {
+            if (isDestroyed() || favoriteToggled) return;
+            resort.setFavorite(favoritesManager.isFavorite(resort));
+            updateFavoriteIcon();
+        });
 
         // Give the ForecastAdapter the context it needs to open HourlyForecastActivity
         forecastAdapter.setResortInfo(name, lat, lon);
@@ -153,6 +159,7 @@ public class ResortDetailActivity extends AppCompatActivity {
         ivBack.setOnClickListener(v -> finish());
 
         ivFav.setOnClickListener(v -> {
+            favoriteToggled = true;
             boolean isFav = favoritesManager.toggleFavorite(resort);
             resort.setFavorite(isFav);
             updateFavoriteIcon();
@@ -162,95 +169,54 @@ public class ResortDetailActivity extends AppCompatActivity {
         });
     }
 
-    private void updateFavoriteIcon() {
-        ivFav.setImageResource(resort.isFavorite()
-                ? android.R.drawable.btn_star_big_on
-                : android.R.drawable.btn_star_big_off);
+    @Override
+    protected void onDestroy() {
+        favoritesManager.removeOnFavoritesChangedListener(favoritesListener);
+        super.onDestroy();
     }
 
     /**
-     * Fetch current weather from OWM.
+     * Tiene la stella allineata ai cambi applicati dal {@link FavoritesManager}, compresi
+     * quelli messi in coda prima del caricamento e applicati dopo.
      */
-    private void fetchWeather() {
-        progressBar.setVisibility(View.VISIBLE);
-
-        ApiClient.getWeatherService()
-                .getCurrentWeather(
-                        resort.getLatitude(),
-                        resort.getLongitude(),
-                        ApiClient.OWM_API_KEY,
-                        "metric",
-                        "it"
-                )
-                .enqueue(new Callback<OwmCurrentResponse>() {
-                    @Override
-                    public void onResponse(Call<OwmCurrentResponse> call,
-                                           Response<OwmCurrentResponse> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            WeatherData data = WeatherMapper.mapOwmCurrentToWeatherData(response.body());
-                            resort.setWeatherData(data);
-                            resort.setSkiScore(SkiScoreCalculator.calculateSkiScore(data));
-
-                            runOnUiThread(() -> {
-                                progressBar.setVisibility(View.GONE);
-                                displayWeatherData(data);
-                            });
-
-                            // Also fetch forecast
-                            fetchForecast();
-                        } else {
-                            runOnUiThread(() -> {
-                                progressBar.setVisibility(View.GONE);
-                                Toast.makeText(ResortDetailActivity.this,
-                                        getString(R.string.error_generic),
-                                        Toast.LENGTH_SHORT).show();
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<OwmCurrentResponse> call, Throwable t) {
-                        runOnUiThread(() -> {
-                            progressBar.setVisibility(View.GONE);
-                            Toast.makeText(ResortDetailActivity.this,
-                                    getString(R.string.error_network),
-                                    Toast.LENGTH_SHORT).show();
-                        });
-                    }
-                });
+    private final FavoritesManager.OnFavoritesChangedListener favoritesListener =
+            new FavoritesManager.OnFavoritesChangedListener() {
+        @Override
+        public void onFavoriteAdded(SkiResort changed, int position) {
+            onFavoriteChanged(changed, true);
+        }
+
+        @Override
+        public void onFavoriteRemoved(SkiResort changed, int position) {
+            onFavoriteChanged(changed, false);
+        }
+
+        @Override
+        public void onFavoriteMoved(SkiResort changed, int fromPosition, int toPosition) {}
+    };
+
+    private void onFavoriteChanged(SkiResort changed, boolean favorite) {
+        if (resort == null || changed.getId() != resort.getId()) return;
+        resort.setFavorite(favorite);
+        updateFavoriteIcon();
     }
 
-    /**
-     * Fetch 5-day forecast from OWM.
-     */
-    private void fetchForecast() {
-        ApiClient.getForecastService()
-                .getForecast(
-                        resort.getLatitude(),
-                        resort.getLongitude(),
-                        ApiClient.OWM_API_KEY,
-                        "metric",
-                        "it"
-                )
-                .enqueue(new Callback<OwmForecastResponse>() {
-                    @Override
-                    public void onResponse(Call<OwmForecastResponse> call,
-                                           Response<OwmForecastResponse> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            List<DailyForecast> forecasts =
-                                    WeatherMapper.aggregateForecast(response.body());
-                            if (resort.getWeatherData() != null) {
-                                resort.getWeatherData().setForecast(forecasts);
-                            }
-                            runOnUiThread(() -> forecastAdapter.setForecasts(forecasts));
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<OwmForecastResponse> call, Throwable t) {
-                        // Forecast is secondary
-                    }
-                });
+    private void updateFavoriteIcon() {
+        ivFav.setImageResource(resort.isFavorite()
+                ? android.R.drawable.btn_star_big_on
+                : android.R.drawable.btn_star_big_off);
+    }
+
+    private void observeWeather() {
+        viewModel.getLoading().observe(this, busy ->
+                progressBar.setVisibility(busy ? View.VISIBLE : View.GONE));
+        viewModel.getCurrent().observe(this, this::displayWeatherData);
+        viewModel.getForecast().observe(this, forecastAdapter::setForecasts);
+        viewModel.getError().observe(this, message -> {
+            if (message == null) return;
+            Toast.makeText(this, getString(message), Toast.LENGTH_SHORT).show();
+            viewModel.onErrorShown();
+        });
     }
 
     private void displayWeatherData(WeatherData data) {
@@ -300,11 +266,7 @@ public class ResortDetailActivity extends AppCompatActivity {
                 ? capitalizeFirst(data.getWeatherDescription())
                 : WeatherCodeMapper.getConditionText(data.getWeatherMain()));
         tvVisibilityEmoji.setText(WeatherCodeMapper.getWeatherEmoji(data.getWeatherMain()));
-
-        // Forecast
-        if (data.getForecast() != null) {
-            forecastAdapter.setForecasts(data.getForecast());
-        }
+        // Le previsioni arrivano a parte, da viewModel.getForecast()
     }
 
     private static String capitalizeFirst(String s) {
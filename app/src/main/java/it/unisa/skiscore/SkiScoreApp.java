@@ -0,0 +1,50 @@
+package it.unisa.skiscore;
+
+import android.app.Application;
+import android.os.Looper;
+import android.os.Process;
+
+import com.bumptech.glide.Glide;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import it.unisa.skiscore.api.ApiClient;
+import it.unisa.skiscore.util.FavoritesManager;
+
+/**
+ * Application — avvio in due fasi.
+ *
+ * Sul main thread resta solo ciò che serve al primo frame della Home. Il caricamento dei
+ * preferiti (che apre Room) parte subito ma sul thread del {@link FavoritesManager}, così
+ * è pronto quando la Home lo chiede; Retrofit/OkHttp e Glide vengono costruiti in
+ * background solo quando il main thread è inattivo, cioè dopo il primo frame.
+ */
+public class SkiScoreApp extends Application {
+
+    private static final ExecutorService startupExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "skiscore-startup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FavoritesManager.getInstance(this);
+
+        Looper.myQueue().addIdleHandler(() -> {
+            startupExecutor.execute(this::warmUp);
+            return false; // una volta sola
+        });
+    }
+
+    /** Inizializzazioni non critiche: la prima richiesta meteo e la prima webcam non le pagano */
+    private void warmUp() {
+        ApiClient.warmUp();
+        Glide.get(this);
+    }
+}
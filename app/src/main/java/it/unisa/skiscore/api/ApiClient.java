@@ -1,5 +1,6 @@
 package it.unisa.skiscore.api;
 
+import it.unisa.skiscore.BuildConfig;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -9,11 +10,17 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Singleton Retrofit client builder for OpenWeatherMap and Open-Meteo Geocoding APIs.
+ * All services share one OkHttpClient (connection pool, dispatcher threads) and one Gson
+ * converter. Building them is not free, so {@link #warmUp()} lets the app do it off the
+ * main thread after the first frame.
  */
 public class ApiClient {
 
-    private static final String OWM_BASE_URL = "https://api.openweathermap.org";
-    private static final String GEOCODING_BASE_URL = "https://geocoding-api.open-meteo.com";
+    // The benchmark build points both APIs at a local mock server (see app/build.gradle.kts)
+    private static final String OWM_BASE_URL = BuildConfig.MOCK_API_BASE_URL.isEmpty()
+            ? "https://api.openweathermap.org" : BuildConfig.MOCK_API_BASE_URL;
+    private static final String GEOCODING_BASE_URL = BuildConfig.MOCK_API_BASE_URL.isEmpty()
+            ? "https://geocoding-api.open-meteo.com" : BuildConfig.MOCK_API_BASE_URL;
 
     /**
      * ⚠️ INSERISCI QUI LA TUA API KEY di OpenWeatherMap.
@@ -26,15 +33,33 @@ public class ApiClient {
     private static OwmForecastService forecastService;
     private static GeocodingService geocodingService;
 
-    private static OkHttpClient getHttpClient() {
-        HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-        logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+    private static OkHttpClient httpClient;
+    private static GsonConverterFactory converterFactory;
 
-        return new OkHttpClient.Builder()
-                .connectTimeout(15, TimeUnit.SECONDS)
-                .readTimeout(15, TimeUnit.SECONDS)
-                .addInterceptor(logging)
-                .build();
+    private static synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+            logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+
+            httpClient = new OkHttpClient.Builder()
+                    .connectTimeout(15, TimeUnit.SECONDS)
+                    .readTimeout(15, TimeUnit.SECONDS)
+                    .addInterceptor(logging)
+                    .build();
+        }
+        return httpClient;
+    }
+
+    private static synchronized GsonConverterFactory getConverterFactory() {
+        if (converterFactory == null) converterFactory = GsonConverterFactory.create();
+        return converterFactory;
+    }
+
+    /** Builds the client and every service ahead of the first request. Call off the main thread. */
+    public static void warmUp() {
+        getWeatherService();
+        getForecastService();
+        getGeocodingService();
     }
 
     public static synchronized OwmWeatherService getWeatherService() {
@@ -42,7 +67,7 @@ public class ApiClient {
             Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(OWM_BASE_URL)
                     .client(getHttpClient())
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .addConverterFactory(getConverterFactory())
                     .build();
             weatherService = retrofit.create(OwmWeatherService.class);
         }
@@ -54,7 +79,7 @@ public class ApiClient {
             Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(OWM_BASE_URL)
                     .client(getHttpClient())
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .addConverterFactory(getConverterFactory())
                     .build();
             forecastService = retrofit.create(OwmForecastService.class);
         }
@@ -66,7 +91,7 @@ public class ApiClient {
             Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(GEOCODING_BASE_URL)
                     .client(getHttpClient())
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .addConverterFactory(getConverterFactory())
                     .build();
             geocodingService = retrofit.create(GeocodingService.class);
         }
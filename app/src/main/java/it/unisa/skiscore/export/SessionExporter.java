@@ -0,0 +1,87 @@
+package it.unisa.skiscore.export;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.core.content.FileProvider;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.TrackPointDao;
+
+/**
+ * Writes recorded sessions to GPX or FIT files in the app cache, ready to be shared.
+ * Track points are streamed from a Room cursor straight into the writer, so memory
+ * use is constant regardless of how many sessions are exported.
+ *
+ * All methods must be called from a background thread.
+ */
+public final class SessionExporter {
+
+    public static final String MIME_GPX = "application/gpx+xml";
+    public static final String MIME_FIT = "application/vnd.ant.fit";
+
+    private static final String EXPORT_DIR = "exports";
+
+    private SessionExporter() {}
+
+    /** Writes all the given sessions, one track each, into a single GPX file. */
+    public static File exportGpx(Context context, List<SkiSession> sessions, String fileName)
+            throws IOException {
+        TrackPointDao dao = AppDatabase.getInstance(context).trackPointDao();
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+        File file = new File(exportDir(context), fileName);
+
+        try (GpxWriter gpx = new GpxWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), 64 * 1024))) {
+            for (SkiSession session : sessions) {
+                gpx.beginTrack("SkiScore " + sdf.format(new Date(session.date)));
+                try (Cursor c = dao.getPointsCursor(session.id)) {
+                    while (c.moveToNext()) {
+                        gpx.writePoint(c.getLong(0), c.getInt(1), c.getInt(2), c.getFloat(3), c.getFloat(4));
+                    }
+                }
+                gpx.endTrack();
+            }
+        }
+        return file;
+    }
+
+    /** Writes one session as a FIT activity file. */
+    public static File exportFit(Context context, SkiSession session, String fileName) throws IOException {
+        TrackPointDao dao = AppDatabase.getInstance(context).trackPointDao();
+        File file = new File(exportDir(context), fileName);
+
+        // The point count goes in the FIT header; a saved track is never modified afterwards
+        try (Cursor c = dao.getPointsCursor(session.id);
+             FitWriter fit = new FitWriter(new FileOutputStream(file), c.getCount(), session.date)) {
+            while (c.moveToNext()) {
+                fit.writePoint(c.getLong(0), c.getInt(1), c.getInt(2), c.getFloat(3), c.getFloat(4));
+            }
+        }
+        return file;
+    }
+
+    /** content:// URI for a file returned by this class, for ACTION_SEND. */
+    public static Uri getShareUri(Context context, File file) {
+        return FileProvider.getUriForFile(context, context.getPackageName() + ".fileprovider", file);
+    }
+
+    private static File exportDir(Context context) throws IOException {
+        File dir = new File(context.getCacheDir(), EXPORT_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        return dir;
+    }
+}
@@ -0,0 +1,154 @@
+package it.unisa.skiscore.export;
+
+import android.content.Context;
+import android.net.Uri;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.SkiRun;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.TrackCentroid;
+import it.unisa.skiscore.db.TrackPoint;
+import it.unisa.skiscore.tracker.GpsFix;
+import it.unisa.skiscore.tracker.RunStats;
+import it.unisa.skiscore.tracker.SkiTrackProcessor;
+import it.unisa.skiscore.tracker.TrackProcessor;
+
+/**
+ * Imports GPX or FIT files as new sessions. The format is detected from the content,
+ * each track becomes one session, and its statistics and runs are recomputed with the
+ * same {@link SkiTrackProcessor} used while recording. Sessions are tagged with the nearest
+ * resort like recorded ones.
+ *
+ * Points are written to Room in fixed-size batches while the file is parsed, and the
+ * whole import runs in one transaction: a file that fails half-way imports nothing.
+ * Must be called from a background thread.
+ */
+public final class SessionImporter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private SessionImporter() {}
+
+    /** @return number of sessions imported */
+    public static int importFile(Context context, Uri uri) throws IOException {
+        AppDatabase db = AppDatabase.getInstance(context);
+        ImportHandler handler = new ImportHandler(db);
+        try {
+            db.runInTransaction(() -> {
+                try (InputStream raw = context.getContentResolver().openInputStream(uri)) {
+                    if (raw == null) throw new IOException("Cannot open " + uri);
+                    BufferedInputStream in = new BufferedInputStream(raw, 64 * 1024);
+                    if (isFit(in)) FitReader.read(in, handler);
+                    else           GpxReader.read(in, handler);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return handler.sessionCount;
+    }
+
+    /** FIT files carry ".FIT" at bytes 8-11 of the header */
+    private static boolean isFit(BufferedInputStream in) throws IOException {
+        byte[] header = new byte[12];
+        in.mark(header.length);
+        int n = 0;
+        while (n < header.length) {
+            int r = in.read(header, n, header.length - n);
+            if (r < 0) break;
+            n += r;
+        }
+        in.reset();
+        return n == header.length
+                && header[8] == '.' && header[9] == 'F' && header[10] == 'I' && header[11] == 'T';
+    }
+
+    /** Rebuilds one session per track, as {@code SkiLocationService} does while recording */
+    private static final class ImportHandler implements TrackHandler {
+
+        private final AppDatabase db;
+        private final List<TrackPoint> batch = new ArrayList<>(BATCH_SIZE);
+        int sessionCount = 0;
+
+        private long sessionId = -1;
+        private long firstTime, lastTime;
+        private TrackProcessor processor;
+        private TrackCentroid centroid;
+
+        ImportHandler(AppDatabase db) {
+            this.db = db;
+        }
+
+        @Override
+        public void onTrackStart() {
+            sessionId = -1;
+            processor = new SkiTrackProcessor();
+            centroid = new TrackCentroid();
+        }
+
+        @Override
+        public void onPoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh) {
+            // No pressure samples on import: the recorded altitude passes through unchanged
+            GpsFix fix = new GpsFix(timeMs, latE7 / TrackPoint.E7, lonE7 / TrackPoint.E7,
+                    altitudeM, speedKmh / 3.6f, Float.NaN);
+            if (!processor.onFix(fix)) return; // out of order or duplicate
+
+            if (sessionId < 0) {
+                // The session row is created lazily so that empty tracks leave nothing behind
+                sessionId = db.skiSessionDao().insert(new SkiSession());
+                firstTime = timeMs;
+            }
+            TrackPoint p = new TrackPoint(timeMs, latE7, lonE7, altitudeM, processor.getSpeedKmh());
+            p.sessionId = sessionId;
+            batch.add(p);
+            centroid.add(latE7, lonE7);
+            if (batch.size() == BATCH_SIZE) flushBatch();
+            lastTime = timeMs;
+        }
+
+        @Override
+        public void onTrackEnd() {
+            if (sessionId < 0) return;
+            flushBatch();
+
+            List<RunStats> runs = processor.finish();
+            SkiSession session = new SkiSession(lastTime, lastTime - firstTime,
+                    processor.getMaxSpeedKmh(), processor.getAvgSpeedKmh(),
+                    processor.getDistanceMeters() / 1000f,
+                    processor.getDescentMeters(), processor.getAscentMeters());
+            session.id = sessionId;
+            session.runCount = runs.size();
+            session.resortId = db.resortDao().resortIdFor(centroid);
+            db.seasonStatsDao().completeSession(session);
+
+            List<SkiRun> runEntities = new ArrayList<>(runs.size());
+            for (int i = 0; i < runs.size(); i++) {
+                RunStats r = runs.get(i);
+                SkiRun run = new SkiRun(i, r.getStartTimeMs(), r.getDurationMs(),
+                        r.getVerticalDropMeters(), r.getDistanceMeters() / 1000f,
+                        r.getMaxSpeedKmh(), r.getAvgSpeedKmh());
+                run.sessionId = sessionId;
+                runEntities.add(run);
+            }
+            db.skiRunDao().insertAll(runEntities);
+
+            sessionId = -1;
+            sessionCount++;
+        }
+
+        private void flushBatch() {
+            if (batch.isEmpty()) return;
+            db.trackPointDao().insertAll(batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package it.unisa.skiscore.render;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import it.unisa.skiscore.db.TrackPoint;
+
+/**
+ * Heatmap stagionale a tasselli: conteggio dei passaggi per pixel in proiezione
+ * Web Mercator (la stessa delle mappe a tile), a uno zoom fisso.
+ *
+ * I punti consecutivi della stessa traccia vengono uniti con una linea rasterizzata,
+ * così i buchi tra un fix e l'altro non lasciano la heatmap punteggiata; un salto
+ * troppo lungo (perdita del segnale) non viene collegato. Solo i tasselli toccati
+ * vengono allocati. Classe in puro Java: va riempita e colorata fuori dal main thread.
+ */
+public final class HeatmapGrid {
+
+    public static final int TILE_SIZE = 256;
+
+    /** Zoom 15: circa 3 m per pixel alle latitudini delle Alpi */
+    public static final int DEFAULT_ZOOM = 15;
+
+    /** Oltre questo salto (pixel) due punti consecutivi non vengono uniti */
+    private static final int MAX_JOIN_PX = 48;
+
+    private final int zoom;
+    private final double worldSize;
+    private final Map<Long, int[]> tiles = new HashMap<>();
+    private int maxCount = 0;
+
+    private boolean hasPrevious = false;
+    private int prevX, prevY;
+
+    public HeatmapGrid() {
+        this(DEFAULT_ZOOM);
+    }
+
+    public HeatmapGrid(int zoom) {
+        this.zoom = zoom;
+        this.worldSize = (double) TILE_SIZE * (1L << zoom);
+    }
+
+    public int getZoom()     { return zoom; }
+    public int getMaxCount() { return maxCount; }
+
+    /** Tasselli non vuoti: chiave (vedi {@link #tileX}/{@link #tileY}) → conteggi TILE_SIZE² per righe */
+    public Map<Long, int[]> getTiles() {
+        return Collections.unmodifiableMap(tiles);
+    }
+
+    public static int tileX(long key) { return (int) (key >>> 32); }
+    public static int tileY(long key) { return (int) key; }
+
+    private static long tileKey(int tx, int ty) {
+        return ((long) tx << 32) | (ty & 0xFFFFFFFFL);
+    }
+
+    /** Interrompe la traccia corrente: il prossimo punto non verrà unito al precedente */
+    public void breakTrack() {
+        hasPrevious = false;
+    }
+
+    /** Aggiunge un punto della traccia corrente */
+    public void addPoint(int latE7, int lonE7) {
+        double lat = Math.max(-85.0, Math.min(85.0, latE7 / TrackPoint.E7));
+        double lon = lonE7 / TrackPoint.E7;
+        double sinLat = Math.sin(Math.toRadians(lat));
+        int px = (int) ((lon + 180.0) / 360.0 * worldSize);
+        int py = (int) ((0.5 - Math.log((1 + sinLat) / (1 - sinLat)) / (4 * Math.PI)) * worldSize);
+
+        if (!hasPrevious) {
+            increment(px, py);
+        } else if (px != prevX || py != prevY) {
+            int dx = px - prevX, dy = py - prevY;
+            int steps = Math.max(Math.abs(dx), Math.abs(dy));
+            if (steps > MAX_JOIN_PX) {
+                increment(px, py);
+            } else {
+                // DDA: il pixel di partenza è già stato contato col punto precedente
+                for (int s = 1; s <= steps; s++) {
+                    increment(prevX + Math.round((float) dx * s / steps),
+                              prevY + Math.round((float) dy * s / steps));
+                }
+            }
+        }
+        prevX = px;
+        prevY = py;
+        hasPrevious = true;
+    }
+
+    private void increment(int px, int py) {
+        long key = tileKey(px / TILE_SIZE, py / TILE_SIZE);
+        int[] counts = tiles.get(key);
+        if (counts == null) {
+            counts = new int[TILE_SIZE * TILE_SIZE];
+            tiles.put(key, counts);
+        }
+        int i = (py % TILE_SIZE) * TILE_SIZE + (px % TILE_SIZE);
+        int c = ++counts[i];
+        if (c > maxCount) maxCount = c;
+    }
+
+    /** Chiave del tassello con più passaggi in totale, o -1 se la griglia è vuota */
+    public long busiestTile() {
+        long best = -1;
+        long bestSum = -1;
+        for (Map.Entry<Long, int[]> e : tiles.entrySet()) {
+            long sum = 0;
+            for (int c : e.getValue()) sum += c;
+            if (sum > bestSum) {
+                bestSum = sum;
+                best = e.getKey();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Colora un tassello in pixel ARGB (per Bitmap.createBitmap). Scala logaritmica,
+     * così le piste percorse una sola volta restano visibili accanto a quelle abituali.
+     */
+    public int[] renderTile(long key) {
+        int[] counts = tiles.get(key);
+        int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+        if (counts == null || maxCount == 0) return pixels;
+        double norm = 1.0 / Math.log1p(maxCount);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) pixels[i] = heatColor((float) (Math.log1p(counts[i]) * norm));
+        }
+        return pixels;
+    }
+
+    /** Rampa di colore: blu traslucido → ciano → giallo → bianco (t in 0..1) */
+    static int heatColor(float t) {
+        t = Math.max(0f, Math.min(1f, t));
+        int a, r, g, b;
+        if (t < 0.33f) {
+            float u = t / 0.33f;
+            a = 120 + (int) (u * 100); r = 0; g = (int) (u * 229); b = 255;
+        } else if (t < 0.66f) {
+            float u = (t - 0.33f) / 0.33f;
+            a = 220 + (int) (u * 35); r = (int) (u * 255); g = 229 + (int) (u * 5); b = (int) (255 * (1 - u));
+        } else {
+            float u = (t - 0.66f) / 0.34f;
+            a = 255; r = 255; g = 234 + (int) (u * 21); b = (int) (u * 255);
+        }
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,144 @@
+package it.unisa.skiscore.render;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import it.unisa.skiscore.db.TrackPoint;
+
+/**
+ * Traccia di una sessione pronta per il disegno: coordinate proiettate in metri,
+ * semplificazione per livello di zoom e segmenti raggruppati per fascia di velocità.
+ *
+ * La costruzione (proiezione + {@link TrackSimplifier}) è O(n log n) e va fatta fuori
+ * dal main thread, come il primo calcolo di ogni livello ({@link #linesFor(float)});
+ * in onDraw si usa {@link #cachedLinesNear(float)}, che legge soltanto la cache.
+ * Le coordinate sono orientate come lo schermo: x verso est, y verso sud.
+ */
+public final class TrackGeometry {
+
+    /** Limiti superiori (km/h, esclusi) delle fasce di colore; l'ultima fascia è aperta */
+    public static final float[] SPEED_BUCKET_LIMITS_KMH = {10f, 20f, 35f, 50f, 65f};
+    public static final int SPEED_BUCKETS = SPEED_BUCKET_LIMITS_KMH.length + 1;
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final float[] x;
+    private final float[] y;
+    /** Somme cumulative della velocità: media di un tratto semplificato in O(1) */
+    private final double[] speedPrefix;
+    private final TrackSimplifier simplifier;
+    private final float minX, minY, maxX, maxY;
+    private final Map<Integer, float[][]> linesCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param latE7    latitudini in gradi × 1e7
+     * @param lonE7    longitudini in gradi × 1e7
+     * @param speedKmh velocità per punto (NaN = sconosciuta, trattata come 0)
+     * @param count    numero di punti validi negli array
+     */
+    public TrackGeometry(int[] latE7, int[] lonE7, float[] speedKmh, int count) {
+        x = new float[count];
+        y = new float[count];
+        speedPrefix = new double[count + 1];
+
+        // Proiezione equirettangolare attorno al primo punto: errore trascurabile su un comprensorio
+        double lat0 = count > 0 ? latE7[0] / TrackPoint.E7 : 0;
+        double lon0 = count > 0 ? lonE7[0] / TrackPoint.E7 : 0;
+        double kx = METERS_PER_DEGREE * Math.cos(Math.toRadians(lat0));
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            x[i] = (float) ((lonE7[i] / TrackPoint.E7 - lon0) * kx);
+            y[i] = (float) ((lat0 - latE7[i] / TrackPoint.E7) * METERS_PER_DEGREE);
+            float v = speedKmh[i];
+            speedPrefix[i + 1] = speedPrefix[i] + (Float.isNaN(v) ? 0 : v);
+            x0 = Math.min(x0, x[i]);
+            y0 = Math.min(y0, y[i]);
+            x1 = Math.max(x1, x[i]);
+            y1 = Math.max(y1, y[i]);
+        }
+        minX = count > 0 ? x0 : 0;
+        minY = count > 0 ? y0 : 0;
+        maxX = count > 0 ? x1 : 0;
+        maxY = count > 0 ? y1 : 0;
+        simplifier = new TrackSimplifier(x, y);
+    }
+
+    public int size()     { return x.length; }
+    public float getMinX() { return minX; }
+    public float getMinY() { return minY; }
+    public float getMaxX() { return maxX; }
+    public float getMaxY() { return maxY; }
+
+    /**
+     * Segmenti da disegnare con la tolleranza data (m), uno array per fascia di velocità
+     * nel formato di Canvas.drawLines (x0, y0, x1, y1, …). Gli array sono in cache per livello
+     * di dettaglio e non vanno modificati.
+     */
+    public synchronized float[][] linesFor(float toleranceM) {
+        int level = TrackSimplifier.levelFor(toleranceM);
+        float[][] cached = linesCache.get(level);
+        if (cached != null) return cached;
+
+        int[] idx = simplifier.indicesFor(toleranceM);
+        int[] counts = new int[SPEED_BUCKETS];
+        int[] buckets = new int[Math.max(0, idx.length - 1)];
+        for (int k = 0; k < buckets.length; k++) {
+            buckets[k] = speedBucket(averageSpeed(idx[k], idx[k + 1]));
+            counts[buckets[k]] += 4;
+        }
+
+        float[][] lines = new float[SPEED_BUCKETS][];
+        for (int b = 0; b < SPEED_BUCKETS; b++) lines[b] = new float[counts[b]];
+        int[] fill = new int[SPEED_BUCKETS];
+        for (int k = 0; k < buckets.length; k++) {
+            float[] out = lines[buckets[k]];
+            int o = fill[buckets[k]];
+            int i = idx[k], j = idx[k + 1];
+            out[o]     = x[i];
+            out[o + 1] = y[i];
+            out[o + 2] = x[j];
+            out[o + 3] = y[j];
+            fill[buckets[k]] = o + 4;
+        }
+        linesCache.put(level, lines);
+        return lines;
+    }
+
+    /** true se i segmenti per questa tolleranza sono già in cache */
+    public boolean hasLines(float toleranceM) {
+        return linesCache.containsKey(TrackSimplifier.levelFor(toleranceM));
+    }
+
+    /**
+     * Segmenti del livello in cache più vicino alla tolleranza data, a parità di distanza
+     * il più dettagliato; null se nessun livello è ancora stato calcolato. Non blocca mai.
+     */
+    public float[][] cachedLinesNear(float toleranceM) {
+        int level = TrackSimplifier.levelFor(toleranceM);
+        float[][] exact = linesCache.get(level);
+        if (exact != null) return exact;
+        float[][] best = null;
+        long bestDistance = Long.MAX_VALUE;
+        for (Map.Entry<Integer, float[][]> e : linesCache.entrySet()) {
+            long distance = Math.abs((long) e.getKey() - level) * 2 + (e.getKey() > level ? 1 : 0);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = e.getValue();
+            }
+        }
+        return best;
+    }
+
+    /** Velocità media (km/h) dei punti originali tra i e j compresi */
+    private float averageSpeed(int i, int j) {
+        return (float) ((speedPrefix[j + 1] - speedPrefix[i]) / (j - i + 1));
+    }
+
+    /** Fascia di colore (0 = più lenta) per una velocità in km/h */
+    public static int speedBucket(float speedKmh) {
+        for (int b = 0; b < SPEED_BUCKET_LIMITS_KMH.length; b++) {
+            if (speedKmh < SPEED_BUCKET_LIMITS_KMH[b]) return b;
+        }
+        return SPEED_BUCKET_LIMITS_KMH.length;
+    }
+}
@@ -0,0 +1,130 @@
+package it.unisa.skiscore.render;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Semplificazione Douglas–Peucker di una traccia, calcolata una sola volta per tutti i livelli di zoom.
+ *
+ * Nel costruttore ogni punto riceve la propria "significatività": la tolleranza oltre la quale
+ * Douglas–Peucker lo scarterebbe (minimo tra la sua distanza dal segmento e quella dei punti
+ * che l'hanno generato, così la scelta è monotona). La semplificazione per una tolleranza
+ * qualsiasi diventa un semplice filtro; le tolleranze sono arrotondate a potenze di due
+ * (un livello per raddoppio dello zoom) e gli indici risultanti restano in cache.
+ * Classe in puro Java, coordinate già proiettate in metri.
+ */
+public final class TrackSimplifier {
+
+    /** Tolleranze sotto questa soglia (m) restituiscono tutti i punti */
+    private static final float MIN_TOLERANCE_M = 0.25f;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] significance;
+    private final Map<Integer, int[]> cache = new HashMap<>();
+
+    /**
+     * @param x coordinate est (m), nell'ordine della traccia
+     * @param y coordinate nord (m), stessa lunghezza di x
+     */
+    public TrackSimplifier(float[] x, float[] y) {
+        if (x.length != y.length) throw new IllegalArgumentException("x e y di lunghezza diversa");
+        this.x = x;
+        this.y = y;
+        this.significance = computeSignificance(x, y);
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Indici dei punti da disegnare con la tolleranza data (m). Il primo e l'ultimo punto
+     * sono sempre inclusi. L'array restituito è condiviso dalla cache: non va modificato.
+     */
+    public synchronized int[] indicesFor(float toleranceM) {
+        int level = levelFor(toleranceM);
+        int[] cached = cache.get(level);
+        if (cached != null) return cached;
+
+        // Sotto la soglia minima tutti i punti, anche quelli esattamente allineati (significatività 0)
+        float tolerance = level == Integer.MIN_VALUE ? -1f : (float) Math.scalb(1.0, level);
+        int count = 0;
+        for (float s : significance) if (s > tolerance) count++;
+        int[] indices = new int[count];
+        for (int i = 0, k = 0; i < significance.length; i++) {
+            if (significance[i] > tolerance) indices[k++] = i;
+        }
+        cache.put(level, indices);
+        return indices;
+    }
+
+    /** Livello di dettaglio (esponente di 2) per una tolleranza; arrotonda per difetto */
+    static int levelFor(float toleranceM) {
+        if (!(toleranceM >= MIN_TOLERANCE_M)) return Integer.MIN_VALUE;
+        return Math.getExponent(toleranceM);
+    }
+
+    /**
+     * Douglas–Peucker iterativo (pila esplicita: niente ricorsione profonda su tracce lunghe).
+     */
+    private static float[] computeSignificance(float[] x, float[] y) {
+        int n = x.length;
+        float[] sig = new float[n];
+        if (n == 0) return sig;
+        sig[0] = Float.POSITIVE_INFINITY;
+        sig[n - 1] = Float.POSITIVE_INFINITY;
+        if (n < 3) return sig;
+
+        // Ogni voce: estremi dell'intervallo e significatività del punto che lo ha generato
+        int[] stackA = new int[64];
+        int[] stackB = new int[64];
+        float[] stackParent = new float[64];
+        int top = 0;
+        stackA[0] = 0;
+        stackB[0] = n - 1;
+        stackParent[0] = Float.POSITIVE_INFINITY;
+        top++;
+
+        while (top > 0) {
+            top--;
+            int a = stackA[top], b = stackB[top];
+            float parent = stackParent[top];
+            if (b - a < 2) continue;
+
+            int split = -1;
+            float maxDist = -1f;
+            for (int i = a + 1; i < b; i++) {
+                float d = segmentDistance(x[i], y[i], x[a], y[a], x[b], y[b]);
+                if (d > maxDist) {
+                    maxDist = d;
+                    split = i;
+                }
+            }
+            float s = Math.min(maxDist, parent);
+            sig[split] = s;
+
+            if (top + 2 > stackA.length) {
+                int len = stackA.length * 2;
+                stackA = Arrays.copyOf(stackA, len);
+                stackB = Arrays.copyOf(stackB, len);
+                stackParent = Arrays.copyOf(stackParent, len);
+            }
+            stackA[top] = a;     stackB[top] = split; stackParent[top] = s; top++;
+            stackA[top] = split; stackB[top] = b;     stackParent[top] = s; top++;
+        }
+        return sig;
+    }
+
+    /** Distanza del punto p dal segmento a–b */
+    private static float segmentDistance(float px, float py, float ax, float ay, float bx, float by) {
+        float dx = bx - ax, dy = by - ay;
+        float len2 = dx * dx + dy * dy;
+        float t = len2 > 0f ? ((px - ax) * dx + (py - ay) * dy) / len2 : 0f;
+        if (t < 0f) t = 0f;
+        else if (t > 1f) t = 1f;
+        float ex = px - (ax + t * dx), ey = py - (ay + t * dy);
+        return (float) Math.sqrt(ex * ex + ey * ey);
+    }
+}
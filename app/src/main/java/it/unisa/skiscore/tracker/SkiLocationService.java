@@ -5,17 +5,21 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
 import android.location.Location;
+import android.os.Binder;
 import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
 import android.util.Log;
+import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
-import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationCallback;
@@ -24,14 +28,36 @@ import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import it.unisa.skiscore.R;
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.SkiRun;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.TrackCentroid;
+import it.unisa.skiscore.db.TrackPoint;
 
 /**
  * Foreground Service che traccia il GPS per la sessione di sci.
  *
  * - FusedLocationProviderClient con aggiornamenti ogni 3s, PRIORITY_HIGH_ACCURACY.
- * - Calcola distanza, velocità e rileva seggiovia (ascesa consecutiva).
- * - Trasmette dati alla UI ogni secondo via LocalBroadcastManager.
+ * - "Modalità tasca": senza UI collegata i fix vengono consegnati a blocchi
+ *   (al più un risveglio del main thread al minuto invece di uno ogni 3s, stima dai
+ *   parametri della richiesta: il valore misurato è nel log allo STOP) e non si
+ *   prepara alcuno stato per la UI. I fix arrivano fino a un minuto in ritardo:
+ *   {@link AltitudeFusion} li fonde con la pressione del loro istante, non con l'ultima.
+ * - Converte ogni Location in {@link GpsFix} e la passa al {@link TrackProcessor}
+ *   (velocità, fusione quota barometro + GPS, segmentazione, dislivello, distanza):
+ *   l'algoritmo non dipende da Android ed è collaudato sulla JVM con il replay.
+ * - Espone alla UI, tramite Binder, un LiveData di {@link TrackingSnapshot} immutabili:
+ *   la UI si collega solo mentre è visibile e viene notificata solo quando
+ *   un valore mostrato cambia davvero.
+ * - La notifica in primo piano mostra distanza, dislivello, discese e velocità;
+ *   viene ripubblicata al massimo ogni 15s e solo se il testo cambia.
+ * - Allo STOP salva sessione, discese e traccia GPS nel database Room.
  */
 public class SkiLocationService extends Service {
 
@@ -41,56 +67,78 @@ public class SkiLocationService extends Service {
     public static final String ACTION_START = "START_TRACKING";
     public static final String ACTION_STOP  = "STOP_TRACKING";
 
-    // ---- Broadcast constants ----
-    public static final String ACTION_TRACKING_UPDATE = "it.unisa.skiscore.TRACKING_UPDATE";
-    public static final String EXTRA_SPEED_KMH        = "speed_kmh";
-    public static final String EXTRA_DISTANCE_KM      = "distance_km";
-    public static final String EXTRA_ELAPSED_MS       = "elapsed_ms";
-    public static final String EXTRA_MAX_SPEED_KMH    = "max_speed_kmh";
-    public static final String EXTRA_AVG_SPEED_KMH    = "avg_speed_kmh";
-    public static final String EXTRA_IS_RIDING_LIFT   = "is_riding_lift";
-    public static final String EXTRA_ALTITUDE_M       = "altitude_m";
+    // ---- Stato osservabile dalla UI ----
+    private final MutableLiveData<TrackingSnapshot> state =
+            new MutableLiveData<TrackingSnapshot>(TrackingSnapshot.EMPTY) {
+                @Override
+                protected void onActive() {
+                    // La UI torna visibile: stato aggiornato subito e fix di nuovo frequenti
+                    publishState();
+                    if (isTracking) {
+                        fusedClient.flushLocations(); // consegna subito i fix in attesa nel blocco
+                        requestLocationUpdates(false);
+                    }
+                }
+
+                @Override
+                protected void onInactive() {
+                    // Nessun osservatore: modalità tasca
+                    if (isTracking) requestLocationUpdates(true);
+                }
+            };
+    private final IBinder binder = new LocalBinder();
+
+    /** Binder locale: stesso processo, la UI legge direttamente il LiveData */
+    public class LocalBinder extends Binder {
+        public LiveData<TrackingSnapshot> getState() {
+            return state;
+        }
+    }
 
     // ---- Notification ----
     private static final String CHANNEL_ID    = "ski_tracking_channel";
     private static final int    NOTIFICATION_ID = 2001;
+    private static final long   NOTIFICATION_MIN_INTERVAL_MS = 15_000L;
+
+    /** Builder unico riusato per ogni aggiornamento della notifica */
+    private NotificationCompat.Builder notificationBuilder;
+    private NotificationManager notificationManager;
+    private long lastNotificationMs = 0L;
+    // Valori mostrati nell'ultima notifica, alla precisione visualizzata
+    private int notifiedDistanceHm = -1, notifiedDescentM = -1, notifiedRuns = -1, notifiedSpeedKmh = -1;
 
     // ---- GPS ----
+    private static final long LOCATION_INTERVAL_MS       = 3000L;
+    private static final long LOCATION_MIN_INTERVAL_MS   = 2000L;
+    private static final long INTERACTIVE_MAX_DELAY_MS   = 5000L;
+    private static final long POCKET_MAX_DELAY_MS        = 60_000L; // fix consegnati a blocchi
     private FusedLocationProviderClient fusedClient;
     private LocationCallback locationCallback;
 
+    // Risvegli del main thread dovuti al GPS: misura dell'effetto della modalità tasca (log allo STOP)
+    private int  locationWakeups = 0;
+    private int  locationFixes   = 0;
+
     // ---- Session state ----
     private boolean isTracking        = false;
     private long    startTimeMs       = 0L;
-    private Location lastLocation     = null;
 
     /** Esposta staticamente per lettura rapida dall'Activity (es. SOS) */
     public static volatile Location lastKnownLocation = null;
 
-    // Stats
-    private float totalDistanceMeters = 0f;
-    private float maxSpeedKmh         = 0f;
-    private float sumSpeedKmh         = 0f;
-    private int   speedSampleCount    = 0;
-    private float lastSpeedKmh        = 0f;
-
-    // Chairlift / seggiovia detection
-    private int     consecutiveAscentCount  = 0;
-    private boolean isRidingLift            = false;
-    private static final int   ASCENT_THRESHOLD_COUNT  = 3;    // # aggiornamenti di salita consecutivi
-    private static final float ASCENT_MIN_DELTA_METERS = 2.0f; // min dislivello positivo per contare
-
-    // ---- Broadcast timer (1 secondo) ----
-    private final Handler broadcastHandler = new Handler(Looper.getMainLooper());
-    private final Runnable broadcastRunnable = new Runnable() {
-        @Override
-        public void run() {
-            if (isTracking) {
-                broadcastUpdate();
-                broadcastHandler.postDelayed(this, 1000);
-            }
-        }
-    };
+    // Algoritmo di tracking (puro Java) + barometro opzionale (null se assente)
+    private TrackProcessor processor = new SkiTrackProcessor();
+    private PressureSource pressureSource;
+
+    // Traccia della sessione (salvata allo STOP insieme alla sessione, per export GPX/FIT)
+    private List<TrackPoint> trackPoints = new ArrayList<>();
+    // Baricentro della traccia, per associare la sessione alla stazione più vicina
+    private TrackCentroid centroid = new TrackCentroid();
+
+    /** Single-thread executor per Room (mai sul Main Thread) */
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     // -------- Lifecycle --------
 
@@ -98,6 +146,9 @@ public class SkiLocationService extends Service {
     public void onCreate() {
         super.onCreate();
         fusedClient = LocationServices.getFusedLocationProviderClient(this);
+        notificationManager = getSystemService(NotificationManager.class);
+        BarometerPressureSource barometer = new BarometerPressureSource(this);
+        pressureSource = barometer.isAvailable() ? barometer : null;
         createNotificationChannel();
         buildLocationCallback();
     }
@@ -114,14 +165,15 @@ public class SkiLocationService extends Service {
     @Nullable
     @Override
     public IBinder onBind(Intent intent) {
-        return null; // Non usiamo Binder — tutto via LocalBroadcast
+        return binder;
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
         fusedClient.removeLocationUpdates(locationCallback);
-        broadcastHandler.removeCallbacks(broadcastRunnable);
+        if (pressureSource != null) pressureSource.stop();
+        dbExecutor.shutdown(); // le scritture già accodate vengono comunque completate
     }
 
     // -------- Tracking control --------
@@ -130,162 +182,197 @@ public class SkiLocationService extends Service {
         if (isTracking) return;
         isTracking             = true;
         startTimeMs            = System.currentTimeMillis();
-        lastLocation           = null;
-        totalDistanceMeters    = 0f;
-        maxSpeedKmh            = 0f;
-        sumSpeedKmh            = 0f;
-        speedSampleCount       = 0;
-        lastSpeedKmh           = 0f;
-        consecutiveAscentCount = 0;
-        isRidingLift           = false;
+        processor              = new SkiTrackProcessor();
+        trackPoints            = new ArrayList<>();
+        centroid               = new TrackCentroid();
 
-        startForeground(NOTIFICATION_ID, buildNotification());
+        locationWakeups        = 0;
+        locationFixes          = 0;
+        lastNotificationMs     = 0L;
+        notifiedDistanceHm     = -1;
 
-        LocationRequest request = new LocationRequest.Builder(
-                Priority.PRIORITY_HIGH_ACCURACY, 3000L)
-                .setMinUpdateIntervalMillis(2000L)
-                .setMaxUpdateDelayMillis(5000L)
-                .build();
+        startForeground(NOTIFICATION_ID, buildNotification());
 
-        try {
-            fusedClient.requestLocationUpdates(request, locationCallback, Looper.getMainLooper());
-        } catch (SecurityException e) {
-            Log.e(TAG, "Permesso GPS mancante: " + e.getMessage());
+        if (!requestLocationUpdates(!state.hasActiveObservers())) {
+            isTracking = false;
             stopSelf();
             return;
         }
 
-        // Avvia il timer broadcast ogni 1 secondo
-        broadcastHandler.post(broadcastRunnable);
+        // Barometro a bassa frequenza, campioni raccolti a blocchi dal FIFO hardware
+        if (pressureSource != null) pressureSource.start(processor);
+
+        publishState();
     }
 
     private void stopTracking() {
+        boolean wasTracking = isTracking;
         isTracking = false;
-        broadcastHandler.removeCallbacks(broadcastRunnable);
         fusedClient.removeLocationUpdates(locationCallback);
-        // Ultimo broadcast finale
-        broadcastUpdate();
+        if (pressureSource != null) pressureSource.stop();
+        if (wasTracking) logWakeups();
+        // Ultimo stato finale
+        publishState();
+        // Salva qui e non nella UI: solo il Service conosce l'ultima discesa ancora aperta
+        if (wasTracking) saveSession();
         stopForeground(STOP_FOREGROUND_REMOVE);
         stopSelf();
     }
 
     // -------- LocationCallback --------
 
+    /**
+     * (Ri)registra gli aggiornamenti GPS. Stesso intervallo tra i fix in entrambe le modalità
+     * (la segmentazione ne ha bisogno), ma in modalità tasca vengono consegnati a blocchi.
+     * Una nuova richiesta con la stessa callback sostituisce la precedente.
+     *
+     * @return false se manca il permesso di localizzazione
+     */
+    private boolean requestLocationUpdates(boolean pocketMode) {
+        LocationRequest request = new LocationRequest.Builder(
+                Priority.PRIORITY_HIGH_ACCURACY, LOCATION_INTERVAL_MS)
+                .setMinUpdateIntervalMillis(LOCATION_MIN_INTERVAL_MS)
+                .setMaxUpdateDelayMillis(pocketMode ? POCKET_MAX_DELAY_MS : INTERACTIVE_MAX_DELAY_MS)
+                .build();
+        try {
+            fusedClient.requestLocationUpdates(request, locationCallback, Looper.getMainLooper());
+            return true;
+        } catch (SecurityException e) {
+            Log.e(TAG, "Permesso GPS mancante: " + e.getMessage());
+            return false;
+        }
+    }
+
     private void buildLocationCallback() {
         locationCallback = new LocationCallback() {
             @Override
             public void onLocationResult(LocationResult result) {
                 if (!isTracking || result == null) return;
-                Location location = result.getLastLocation();
-                if (location != null) {
+                locationWakeups++;
+                // Con la consegna a blocchi arrivano più fix: vanno elaborati tutti, in ordine
+                for (Location location : result.getLocations()) {
+                    locationFixes++;
                     processLocation(location);
                 }
+                publishState();
+                updateNotification();
             }
         };
     }
 
     /**
-     * Elabora ogni fix GPS ricevuto.
-     * Calcola velocità, distanza e rileva seggiovia.
+     * Elabora ogni fix GPS ricevuto: l'algoritmo è nel {@link TrackProcessor},
+     * qui resta solo la conversione da Location e la registrazione della traccia.
      */
     private void processLocation(Location location) {
+        float verticalAccuracy = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                && location.hasVerticalAccuracy() ? location.getVerticalAccuracyMeters() : Float.NaN;
+        GpsFix fix = new GpsFix(location.getTime(), location.getLatitude(), location.getLongitude(),
+                location.getAltitude(), location.hasSpeed() ? location.getSpeed() : Float.NaN,
+                verticalAccuracy);
+        if (!processor.onFix(fix)) return; // duplicato o fuori ordine
+
+        TrackPoint point = new TrackPoint(location.getTime(),
+                TrackPoint.toE7(location.getLatitude()), TrackPoint.toE7(location.getLongitude()),
+                processor.getAltitudeM(), processor.getSpeedKmh());
+        trackPoints.add(point);
+        centroid.add(point.latE7, point.lonE7);
 
-        // ---- 1. Rilevamento seggiovia (ascesa continua) ----
-        if (lastLocation != null) {
-            double altDelta = location.getAltitude() - lastLocation.getAltitude();
-            if (altDelta > ASCENT_MIN_DELTA_METERS) {
-                consecutiveAscentCount++;
-            } else {
-                // Ripristina se scende o rimane piatto
-                consecutiveAscentCount = 0;
-                isRidingLift = false;
-            }
-            if (consecutiveAscentCount >= ASCENT_THRESHOLD_COUNT) {
-                isRidingLift = true;
-            }
-        }
-
-        // ---- 2. Calcolo velocità istantanea ----
-        float speedKmh = computeSpeedKmh(location);
-        lastSpeedKmh = speedKmh;
-
-        // ---- 3. Aggiornamento distanza e statistiche (solo se in discesa) ----
-        if (!isRidingLift && lastLocation != null) {
-            float deltaMeters = location.distanceTo(lastLocation);
-
-            // Filtro anti-rumore: scarta salt GPS irrealistici
-            boolean isValid = deltaMeters > 0.5f && speedKmh < 200f;
-
-            if (isValid) {
-                totalDistanceMeters += deltaMeters;
-
-                // Aggiorna velocità media (solo > 2 km/h per escludere fermi)
-                if (speedKmh > 2f) {
-                    sumSpeedKmh += speedKmh;
-                    speedSampleCount++;
-                }
-
-                // Velocità massima
-                if (speedKmh > maxSpeedKmh) {
-                    maxSpeedKmh = speedKmh;
-                }
-            }
-        }
-
-        lastLocation = location;
         lastKnownLocation = location; // esposta staticamente per SOS
     }
 
+    // -------- Persistenza --------
+
     /**
-     * Calcola la velocità in km/h.
-     * Priorità: chip GPS (location.hasSpeed()) → derivata da spazio/tempo.
+     * Chiude la discesa in corso e salva sessione + discese + traccia in un'unica transazione Room,
+     * su un thread separato (Room non consente operazioni sul Main Thread).
      */
-    private float computeSpeedKmh(Location location) {
-        // Preferisci il dato diretto dal chip GPS
-        if (location.hasSpeed() && location.getSpeed() >= 0.3f) {
-            return location.getSpeed() * 3.6f;
-        }
-
-        // Fallback: deriva da distanza / tempo trascorso
-        if (lastLocation != null) {
-            float distanceM  = location.distanceTo(lastLocation);
-            long  timeDiffMs = location.getTime() - lastLocation.getTime();
-            if (timeDiffMs > 0) {
-                float speedMs = distanceM / (timeDiffMs / 1000f);
-                return speedMs * 3.6f;
-            }
+    private void saveSession() {
+        List<RunStats> runs = processor.finish();
+        final float distanceKm = processor.getDistanceMeters() / 1000f;
+        final float maxSpeed   = processor.getMaxSpeedKmh();
+        final int   runCount   = runs.size();
+        long now = System.currentTimeMillis();
+
+        final SkiSession session = new SkiSession(
+                now,                        // date: timestamp attuale
+                now - startTimeMs,          // duration in ms
+                maxSpeed,                   // km/h
+                processor.getAvgSpeedKmh(), // km/h
+                distanceKm,                 // km
+                processor.getDescentMeters(),
+                processor.getAscentMeters());
+        session.runCount = runCount;
+
+        final List<SkiRun> runEntities = new ArrayList<>(runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            RunStats r = runs.get(i);
+            runEntities.add(new SkiRun(i, r.getStartTimeMs(), r.getDurationMs(),
+                    r.getVerticalDropMeters(), r.getDistanceMeters() / 1000f,
+                    r.getMaxSpeedKmh(), r.getAvgSpeedKmh()));
         }
 
-        return 0f;
+        final List<TrackPoint> points = trackPoints;
+        final TrackCentroid trackCentroid = centroid;
+        trackPoints = new ArrayList<>();
+        centroid = new TrackCentroid();
+
+        final Context appContext = getApplicationContext();
+        dbExecutor.execute(() -> {
+            AppDatabase db = AppDatabase.getInstance(appContext);
+            db.runInTransaction(() -> {
+                // Stazione più vicina al baricentro, tra catalogo e preferiti
+                session.resortId = db.resortDao().resortIdFor(trackCentroid);
+
+                // Sessione e statistiche stagionali nella stessa transazione
+                long sessionId = db.seasonStatsDao().insertSession(session);
+                for (SkiRun run : runEntities) run.sessionId = sessionId;
+                db.skiRunDao().insertAll(runEntities);
+                for (TrackPoint p : points) p.sessionId = sessionId;
+                db.trackPointDao().insertAll(points);
+            });
+            // Feedback all'utente sul Main Thread
+            mainHandler.post(() -> Toast.makeText(appContext,
+                    String.format("✅ Sessione salvata! %.1f km · %.0f km/h max · %d discese",
+                            distanceKm, maxSpeed, runCount),
+                    Toast.LENGTH_LONG).show());
+        });
     }
 
+    // -------- Stato per la UI --------
+
     /**
-     * Calcola la velocità media solo delle discese (non seggiovia).
+     * Pubblica un nuovo {@link TrackingSnapshot} solo se un valore visibile è cambiato.
+     * Chiamato dal main thread (callback GPS, comandi START/STOP, UI che torna visibile),
+     * quindi setValue è sufficiente.
      */
-    private float getAvgSpeedKmh() {
-        return speedSampleCount > 0 ? sumSpeedKmh / speedSampleCount : 0f;
+    private void publishState() {
+        // Modalità tasca: nessun osservatore, nessuno snapshot (onActive ne pubblica uno fresco)
+        if (!state.hasActiveObservers()) return;
+        TrackingSnapshot next = new TrackingSnapshot(
+                isTracking,
+                startTimeMs,
+                processor.getSpeedKmh(),
+                processor.getDistanceMeters() / 1000f,
+                processor.getMaxSpeedKmh(),
+                processor.getAvgSpeedKmh(),
+                processor.isRidingLift(),
+                processor.getAltitudeM(),
+                processor.getDescentMeters(),
+                processor.getAscentMeters(),
+                processor.getRunCount());
+        if (next.differsVisiblyFrom(state.getValue())) {
+            state.setValue(next);
+        }
     }
 
-    // -------- Broadcast --------
-
-    /**
-     * Invia un Intent locale con tutti i dati aggiornati di sessione.
-     * Chiamato ogni secondo dal broadcastHandler.
-     */
-    private void broadcastUpdate() {
+    /** Log dei risvegli GPS del main thread, normalizzati all'ora */
+    private void logWakeups() {
         long elapsedMs = System.currentTimeMillis() - startTimeMs;
-
-        Intent intent = new Intent(ACTION_TRACKING_UPDATE);
-        intent.putExtra(EXTRA_SPEED_KMH,      lastSpeedKmh);
-        intent.putExtra(EXTRA_DISTANCE_KM,    totalDistanceMeters / 1000f);
-        intent.putExtra(EXTRA_ELAPSED_MS,     elapsedMs);
-        intent.putExtra(EXTRA_MAX_SPEED_KMH,  maxSpeedKmh);
-        intent.putExtra(EXTRA_AVG_SPEED_KMH,  getAvgSpeedKmh());
-        intent.putExtra(EXTRA_IS_RIDING_LIFT, isRidingLift);
-        intent.putExtra(EXTRA_ALTITUDE_M,
-                lastLocation != null ? (float) lastLocation.getAltitude() : 0f);
-
-        LocalBroadcastManager.getInstance(this).sendBroadcast(intent);
+        if (elapsedMs <= 0) return;
+        float hours = elapsedMs / 3_600_000f;
+        Log.i(TAG, String.format("Risvegli GPS: %d (%.0f/h) per %d fix",
+                locationWakeups, locationWakeups / hours, locationFixes));
     }
 
     // -------- Notification --------
@@ -300,18 +387,52 @@ public class SkiLocationService extends Service {
         }
     }
 
+    /** Crea il builder (una sola volta) e la notifica iniziale */
     private Notification buildNotification() {
-        Intent openIntent = new Intent(this, TrackerActivity.class);
-        openIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        PendingIntent pi = PendingIntent.getActivity(this, 0, openIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        return new NotificationCompat.Builder(this, CHANNEL_ID)
-                .setContentTitle("🎿 SkiScore — Tracking attivo")
-                .setContentText("Registrazione discesa in corso…")
-                .setSmallIcon(R.drawable.ic_launcher_foreground)
-                .setContentIntent(pi)
-                .setOngoing(true)
-                .build();
+        if (notificationBuilder == null) {
+            Intent openIntent = new Intent(this, TrackerActivity.class);
+            openIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            PendingIntent pi = PendingIntent.getActivity(this, 0, openIntent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+            notificationBuilder = new NotificationCompat.Builder(this, CHANNEL_ID)
+                    .setContentTitle("🎿 SkiScore — Tracking attivo")
+                    .setSmallIcon(R.drawable.ic_launcher_foreground)
+                    .setContentIntent(pi)
+                    .setOngoing(true)
+                    .setOnlyAlertOnce(true)
+                    .setShowWhen(false);
+        }
+        notificationBuilder.setContentText("Registrazione discesa in corso…");
+        return notificationBuilder.build();
+    }
+
+    /**
+     * Aggiorna la notifica con le statistiche della sessione.
+     * Limitata a una ogni {@link #NOTIFICATION_MIN_INTERVAL_MS} e saltata se i valori
+     * mostrati (alla loro precisione) non sono cambiati: nessun testo allocato invano.
+     */
+    private void updateNotification() {
+        if (!isTracking || notificationManager == null) return;
+        long now = System.currentTimeMillis();
+        if (now - lastNotificationMs < NOTIFICATION_MIN_INTERVAL_MS) return;
+
+        int distanceHm = Math.round(processor.getDistanceMeters() / 100f); // ettometri (decimi di km)
+        int descentM   = Math.round(processor.getDescentMeters());
+        int runs       = processor.getRunCount();
+        int speedKmh   = Math.round(processor.getSpeedKmh());
+        if (distanceHm == notifiedDistanceHm && descentM == notifiedDescentM
+                && runs == notifiedRuns && speedKmh == notifiedSpeedKmh) return;
+
+        notifiedDistanceHm = distanceHm;
+        notifiedDescentM   = descentM;
+        notifiedRuns       = runs;
+        notifiedSpeedKmh   = speedKmh;
+        lastNotificationMs = now;
+
+        String text = String.format("%.1f km · ↓ %d m · %d discese · %d km/h",
+                distanceHm / 10f, descentM, runs, speedKmh);
+        notificationBuilder.setContentText(text);
+        notificationManager.notify(NOTIFICATION_ID, notificationBuilder.build());
     }
 }
@@ -1,18 +1,14 @@
 package it.unisa.skiscore.tracker;
 
-import it.unisa.skiscore.db.AppDatabase;
-import it.unisa.skiscore.db.SkiSession;
-import it.unisa.skiscore.db.SkiSessionDao;
-
 import android.Manifest;
-import android.content.BroadcastReceiver;
-import android.content.Context;
+import android.content.ComponentName;
 import android.content.Intent;
-import android.content.IntentFilter;
+import android.content.ServiceConnection;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.IBinder;
 import android.os.Looper;
 import android.view.View;
 import android.widget.ImageButton;
@@ -24,7 +20,7 @@ import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
-import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+import androidx.lifecycle.LiveData;
 
 import com.google.android.material.button.MaterialButton;
 
@@ -38,72 +34,85 @@ import it.unisa.skiscore.R;
  *   2. Se Android 10+ (Q), richiede ACCESS_BACKGROUND_LOCATION come secondo step
  *      (Android richiede che sia in dialog separato, dopo la location di base)
  *
- * Comunicazione: BroadcastReceiver → LocalBroadcastManager (dal SkiLocationService).
+ * Comunicazione: bind al SkiLocationService mentre l'Activity è visibile (onStart/onStop)
+ * e osservazione del suo LiveData di {@link TrackingSnapshot}.
  */
 public class TrackerActivity extends AppCompatActivity {
 
     // ---- Views ----
-    private TextView tvSpeed, tvDistance, tvTime, tvMaxSpeed, tvAvgSpeed, tvChairlift;
+    private TextView tvSpeed, tvDistance, tvTime, tvMaxSpeed, tvAvgSpeed, tvVertical, tvChairlift;
     private MaterialButton btnStartStop;
     private MaterialButton btnSos;
     private ImageButton btnBack;
 
     private boolean isTracking = false;
 
-    /** Single-thread executor for Room operations (never run DB on Main Thread) */
-    private final java.util.concurrent.ExecutorService dbExecutor =
-            java.util.concurrent.Executors.newSingleThreadExecutor();
-
-    /** Last stats received from Service broadcast — used to persist on STOP */
-    private float lastSpeed = 0f, lastDistance = 0f, lastMaxSpeed = 0f, lastAvgSpeed = 0f;
-    private long  lastElapsedMs = 0L;
-
-    // ---- Cronometro UI (indipendente dal GPS, 200ms) ----
+    // ---- Cronometro UI (indipendente dal GPS, allineato al secondo, solo se visibile) ----
     private final Handler timerHandler = new Handler(Looper.getMainLooper());
     private long startTimeMs = 0L;
     private final Runnable timerRunnable = new Runnable() {
         @Override
         public void run() {
             if (isTracking) {
-                tvTime.setText(formatTime(System.currentTimeMillis() - startTimeMs));
-                timerHandler.postDelayed(this, 200);
+                long elapsed = System.currentTimeMillis() - startTimeMs;
+                tvTime.setText(formatTime(elapsed));
+                // Un solo risveglio al secondo, appena dopo il cambio della cifra
+                timerHandler.postDelayed(this, 1000 - elapsed % 1000);
             }
         }
     };
 
-    // -------- BroadcastReceiver --------
+    // -------- Collegamento al Service --------
+
+    private LiveData<TrackingSnapshot> trackingState;
+    private boolean bound = false;
 
     /**
-     * Riceve aggiornamenti GPS ogni ~1 secondo dal SkiLocationService.
-     * Aggiorna tutte le TextView con valori formattati.
+     * Bind senza BIND_AUTO_CREATE: non crea il Service, ma si collega appena
+     * viene avviato da START (e si ricollega se viene ricreato).
      */
-    private final BroadcastReceiver trackingReceiver = new BroadcastReceiver() {
+    private final ServiceConnection serviceConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            if (trackingState != null) trackingState.removeObservers(TrackerActivity.this);
+            trackingState = ((SkiLocationService.LocalBinder) service).getState();
+            trackingState.observe(TrackerActivity.this, TrackerActivity.this::render);
+        }
+
         @Override
-        public void onReceive(Context context, Intent intent) {
-            float   speed    = intent.getFloatExtra(SkiLocationService.EXTRA_SPEED_KMH, 0f);
-            float   distance = intent.getFloatExtra(SkiLocationService.EXTRA_DISTANCE_KM, 0f);
-            float   maxSpeed = intent.getFloatExtra(SkiLocationService.EXTRA_MAX_SPEED_KMH, 0f);
-            float   avgSpeed = intent.getFloatExtra(SkiLocationService.EXTRA_AVG_SPEED_KMH, 0f);
-            boolean onLift   = intent.getBooleanExtra(SkiLocationService.EXTRA_IS_RIDING_LIFT, false);
-
-            // Formattazione leggibile stile cartello da pista
-            tvSpeed.setText(String.format("%.1f", speed));        // "45.2"
-            tvDistance.setText(String.format("%.2f", distance));   // "12.40"
-            tvMaxSpeed.setText(String.format("%.1f km/h", maxSpeed));  // "78.3 km/h"
-            tvAvgSpeed.setText(String.format("%.1f km/h", avgSpeed));  // "34.6 km/h"
-
-            // Banner seggiovia
-            tvChairlift.setVisibility(onLift ? View.VISIBLE : View.GONE);
-
-            // Cache per salvataggio su DB alla pressione di STOP
-            lastSpeed     = speed;
-            lastDistance  = distance;
-            lastMaxSpeed  = maxSpeed;
-            lastAvgSpeed  = avgSpeed;
-            lastElapsedMs = intent.getLongExtra(SkiLocationService.EXTRA_ELAPSED_MS, 0L);
+        public void onServiceDisconnected(ComponentName name) {
+            if (trackingState != null) trackingState.removeObservers(TrackerActivity.this);
+            trackingState = null;
         }
     };
 
+    /**
+     * Aggiorna tutte le TextView con l'ultimo stato pubblicato dal Service.
+     * Chiamato solo quando un valore visibile cambia, e solo con l'Activity visibile.
+     */
+    private void render(TrackingSnapshot state) {
+        // Riallinea pulsante e cronometro (es. Activity ricreata a tracking in corso)
+        if (state.isTracking() && !isTracking) {
+            startTimeMs = state.getStartTimeMs();
+            setTrackingUi(true);
+        } else if (state.isTracking()) {
+            startTimeMs = state.getStartTimeMs();
+        } else if (isTracking && state.getStartTimeMs() >= startTimeMs) {
+            // Stato finale della sessione corrente (uno stato più vecchio viene ignorato)
+            setTrackingUi(false);
+        }
+
+        // Formattazione leggibile stile cartello da pista
+        tvSpeed.setText(String.format("%.1f", state.getSpeedKmh()));               // "45.2"
+        tvDistance.setText(String.format("%.2f", state.getDistanceKm()));           // "12.40"
+        tvMaxSpeed.setText(String.format("%.1f km/h", state.getMaxSpeedKmh()));     // "78.3 km/h"
+        tvAvgSpeed.setText(String.format("%.1f km/h", state.getAvgSpeedKmh()));     // "34.6 km/h"
+        tvVertical.setText(String.format("↓ %.0f m", state.getDescentM()));         // "↓ 1250 m"
+
+        // Banner seggiovia
+        tvChairlift.setVisibility(state.isRidingLift() ? View.VISIBLE : View.GONE);
+    }
+
     // -------- Permission launchers --------
 
     /** Step 1: chiede FINE + COARSE location */
@@ -149,6 +158,7 @@ public class TrackerActivity extends AppCompatActivity {
         tvTime       = findViewById(R.id.tv_time);
         tvMaxSpeed   = findViewById(R.id.tv_max_speed);
         tvAvgSpeed   = findViewById(R.id.tv_avg_speed);
+        tvVertical   = findViewById(R.id.tv_vertical);
         tvChairlift  = findViewById(R.id.tv_chairlift_warning);
         btnStartStop = findViewById(R.id.btnStartStop);
         btnSos       = findViewById(R.id.btn_sos);
@@ -197,18 +207,22 @@ public class TrackerActivity extends AppCompatActivity {
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        // Registra il receiver per aggiornamenti GPS dal Service
-        IntentFilter filter = new IntentFilter(SkiLocationService.ACTION_TRACKING_UPDATE);
-        LocalBroadcastManager.getInstance(this).registerReceiver(trackingReceiver, filter);
+    protected void onStart() {
+        super.onStart();
+        // Collegati al Service (se attivo) per ricevere lo stato del tracking
+        bound = bindService(new Intent(this, SkiLocationService.class), serviceConnection, 0);
+        if (isTracking) timerHandler.post(timerRunnable);
     }
 
     @Override
-    protected void onPause() {
-        super.onPause();
-        // De-registra il receiver (non servono update quando Activity è in background)
-        LocalBroadcastManager.getInstance(this).unregisterReceiver(trackingReceiver);
+    protected void onStop() {
+        super.onStop();
+        // Scollegati: nessun aggiornamento quando l'Activity non è visibile
+        timerHandler.removeCallbacks(timerRunnable);
+        if (bound) unbindService(serviceConnection);
+        bound = false;
+        if (trackingState != null) trackingState.removeObservers(this);
+        trackingState = null;
     }
 
     @Override
@@ -275,13 +289,8 @@ public class TrackerActivity extends AppCompatActivity {
     // -------- START / STOP --------
 
     private void doStartTracking() {
-        isTracking  = true;
         startTimeMs = System.currentTimeMillis();
-
-        // Aggiorna il pulsante → STOP rosso
-        btnStartStop.setText("STOP");
-        btnStartStop.setBackgroundTintList(
-                android.content.res.ColorStateList.valueOf(0xFFFF1744));
+        setTrackingUi(true);
 
         // Avvia il Foreground Service
         Intent intent = new Intent(this, SkiLocationService.class);
@@ -289,55 +298,32 @@ public class TrackerActivity extends AppCompatActivity {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) startForegroundService(intent);
         else                                                 startService(intent);
 
-        // Avvia il cronometro UI
-        timerHandler.post(timerRunnable);
         Toast.makeText(this, "🎿 Tracking avviato!", Toast.LENGTH_SHORT).show();
     }
 
     private void stopTracking() {
-        isTracking = false;
-        timerHandler.removeCallbacks(timerRunnable);
-
-        // Ripristina il pulsante → START ciano
-        btnStartStop.setText("START");
-        btnStartStop.setBackgroundTintList(
-                android.content.res.ColorStateList.valueOf(0xFF00E5FF));
+        setTrackingUi(false);
 
-        // Ferma il Service
+        // Ferma il Service: sessione e discese vengono salvate da lui nel database Room
         Intent intent = new Intent(this, SkiLocationService.class);
         intent.setAction(SkiLocationService.ACTION_STOP);
         startService(intent);
-
-        // Salva la sessione nel database Room in background
-        saveSessionToDatabase();
     }
 
-    /**
-     * Crea una SkiSession con i dati dell'ultima discesa e la inserisce nel database
-     * su un thread separato tramite ExecutorService (Room non consente operazioni sul Main Thread).
-     */
-    private void saveSessionToDatabase() {
-        final SkiSession session = new SkiSession(
-                System.currentTimeMillis(), // date: timestamp attuale
-                lastElapsedMs,              // duration in ms
-                lastMaxSpeed,               // km/h
-                lastAvgSpeed,               // km/h
-                lastDistance,               // km
-                SkiLocationService.lastKnownLocation != null
-                        ? (float) SkiLocationService.lastKnownLocation.getAltitude() : 0f
-        );
-
-        dbExecutor.execute(() -> {
-            SkiSessionDao dao = AppDatabase.getInstance(TrackerActivity.this).skiSessionDao();
-            dao.insert(session);
-            // Feedback all'utente sul Main Thread
-            runOnUiThread(() -> android.widget.Toast.makeText(
-                    TrackerActivity.this,
-                    String.format("✅ Sessione salvata! %.1f km · %.0f km/h max",
-                            lastDistance, lastMaxSpeed),
-                    android.widget.Toast.LENGTH_LONG
-            ).show());
-        });
+    /** Pulsante STOP rosso + cronometro attivo, oppure START ciano + cronometro fermo */
+    private void setTrackingUi(boolean tracking) {
+        isTracking = tracking;
+        timerHandler.removeCallbacks(timerRunnable);
+        if (tracking) {
+            btnStartStop.setText("STOP");
+            btnStartStop.setBackgroundTintList(
+                    android.content.res.ColorStateList.valueOf(0xFFFF1744));
+            timerHandler.post(timerRunnable);
+        } else {
+            btnStartStop.setText("START");
+            btnStartStop.setBackgroundTintList(
+                    android.content.res.ColorStateList.valueOf(0xFF00E5FF));
+        }
     }
 
     // -------- S.O.S. --------
@@ -1,41 +1,70 @@
 package it.unisa.skiscore.ui;
 
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
+import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
-import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import kotlin.Unit;
+
 import it.unisa.skiscore.R;
 import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.SeasonStats;
 import it.unisa.skiscore.db.SkiSession;
-import it.unisa.skiscore.db.SkiSessionDao;
+import it.unisa.skiscore.export.SessionExporter;
+import it.unisa.skiscore.export.SessionImporter;
+import it.unisa.skiscore.render.TrackGeometry;
 
 /**
  * DiaryFragment — mostra lo storico delle sessioni sci dal database Room.
- * Statistiche stagionali: km totali, velocità massima, giorni sciati.
+ * Statistiche della stagione corrente: km totali, velocità massima, giorni sciati.
+ * Traccia di una sessione colorata per velocità (tap) e heatmap della stagione,
+ * entrambe costruite in background e tenute in cache nel {@link DiaryViewModel}.
+ * Export GPX/FIT o eliminazione di una sessione (long-press), export della stagione, import da file.
  */
 public class DiaryFragment extends Fragment {
 
     private TextView tvTotalDistance, tvMaxSpeedSeason, tvDaysSkied, tvDiaryEmpty;
     private RecyclerView rvSessions;
     private DiarySessionAdapter sessionAdapter;
+    private DiaryViewModel viewModel;
+    /** Export e import: scrittura/lettura dei file in background */
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
 
+    /** Selettore file di sistema per l'import (GPX o FIT, il formato è riconosciuto dal contenuto) */
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) importSessions(uri);
+            });
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -55,55 +84,244 @@ public class DiaryFragment extends Fragment {
         rvSessions       = view.findViewById(R.id.rv_sessions);
 
         sessionAdapter = new DiarySessionAdapter();
+        sessionAdapter.setOnSessionClickListener(this::showTrack);
+        sessionAdapter.setOnSessionLongClickListener(this::showSessionMenu);
         rvSessions.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvSessions.setAdapter(sessionAdapter);
 
+        view.findViewById(R.id.btn_season_heatmap).setOnClickListener(v -> showHeatmap());
+        view.findViewById(R.id.btn_import_sessions).setOnClickListener(v ->
+                importLauncher.launch(new String[]{"*/*"}));
+        view.findViewById(R.id.btn_export_season).setOnClickListener(v -> exportSeason());
+
+        viewModel = new ViewModelProvider(this).get(DiaryViewModel.class);
         loadData();
     }
 
     private void loadData() {
-        SkiSessionDao dao = AppDatabase.getInstance(requireContext()).skiSessionDao();
+        // Pagine in cache nel ViewModel: dopo una rotazione la lista riappare senza rileggere Room
+        viewModel.getSessions().observe(getViewLifecycleOwner(), page ->
+                sessionAdapter.submitData(getViewLifecycleOwner().getLifecycle(), page));
 
-        // Osserva la lista sessioni con LiveData — si aggiorna automaticamente
-        dao.getAllSessions().observe(getViewLifecycleOwner(), sessions -> {
-            if (sessions == null || sessions.isEmpty()) {
-                rvSessions.setVisibility(View.GONE);
-                tvDiaryEmpty.setVisibility(View.VISIBLE);
+        // Stato vuoto solo a caricamento concluso, per non lampeggiare all'apertura
+        sessionAdapter.addLoadStateListener(states -> {
+            if (states.getRefresh() instanceof LoadState.NotLoading) {
+                boolean empty = sessionAdapter.getItemCount() == 0;
+                rvSessions.setVisibility(empty ? View.GONE : View.VISIBLE);
+                tvDiaryEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
+            }
+            return Unit.INSTANCE;
+        });
+
+        viewModel.getSeasonStats().observe(getViewLifecycleOwner(), this::showSeasonStats);
+    }
+
+    private void showSeasonStats(@Nullable SeasonStats stats) {
+        float totalKm  = stats != null ? stats.totalDistance : 0f;
+        float maxSpeed = stats != null ? stats.maxSpeed : 0f;
+        int   days     = stats != null ? stats.daysSkied : 0;
+        tvTotalDistance.setText(String.format(Locale.getDefault(), "%.1f km", totalKm));
+        tvMaxSpeedSeason.setText(String.format(Locale.getDefault(), "%.0f km/h", maxSpeed));
+        tvDaysSkied.setText(String.valueOf(days));
+    }
+
+    // ---- Traccia e heatmap ----
+
+    private void showTrack(SkiSession session) {
+        viewModel.loadTrack(session, geometry -> {
+            if (!isAdded()) return;
+            if (geometry == null) {
+                Toast.makeText(requireContext(), "Nessuna traccia GPS per questa sessione",
+                        Toast.LENGTH_LONG).show();
             } else {
-                rvSessions.setVisibility(View.VISIBLE);
-                tvDiaryEmpty.setVisibility(View.GONE);
-                sessionAdapter.setSessions(sessions);
+                showTrackDialog(session, geometry);
+            }
+        });
+    }
+
+    private void showTrackDialog(SkiSession session, TrackGeometry geometry) {
+        if (!isAdded()) return;
+        TrackView trackView = new TrackView(requireContext());
+        trackView.setBackgroundColor(0xFF0B1224);
+        trackView.setTrack(geometry);
+        showCanvasDialog(new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault())
+                .format(new Date(session.date)), trackView);
+    }
+
+    private void showHeatmap() {
+        if (!viewModel.isHeatmapReady()) {
+            Toast.makeText(requireContext(), "Calcolo heatmap…", Toast.LENGTH_SHORT).show();
+        }
+        viewModel.loadHeatmap(tiles -> {
+            if (!isAdded()) return;
+            if (tiles.isEmpty()) {
+                Toast.makeText(requireContext(), "Nessuna traccia GPS registrata",
+                        Toast.LENGTH_LONG).show();
+            } else {
+                showHeatmapDialog(tiles);
+            }
+        });
+    }
+
+    private void showHeatmapDialog(List<HeatmapView.Tile> tiles) {
+        if (!isAdded()) return;
+        HeatmapView heatmapView = new HeatmapView(requireContext());
+        heatmapView.setBackgroundColor(0xFF0B1224);
+        heatmapView.setTiles(tiles);
+        showCanvasDialog("Heatmap stagione", heatmapView);
+    }
+
+    /** Dialog con una vista zoomabile di altezza fissa; doppio tap per ripristinare lo zoom */
+    private void showCanvasDialog(String title, View content) {
+        int height = Math.round(360 * getResources().getDisplayMetrics().density);
+        content.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, height));
+        content.setMinimumHeight(height);
+        new AlertDialog.Builder(requireContext())
+                .setTitle(title)
+                .setView(content)
+                .setPositiveButton("Chiudi", null)
+                .show();
+    }
+
+    // ---- Export / Import ----
+
+    private void showSessionMenu(SkiSession session) {
+        Context ctx = requireContext().getApplicationContext();
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Sessione")
+                .setItems(new String[]{"Esporta GPX", "Esporta FIT", "Elimina"}, (d, which) -> {
+                    String name = "skiscore_" + session.id;
+                    if (which == 0) {
+                        runExport(() -> SessionExporter.exportGpx(ctx,
+                                Collections.singletonList(session), name + ".gpx"),
+                                SessionExporter.MIME_GPX);
+                    } else if (which == 1) {
+                        runExport(() -> SessionExporter.exportFit(ctx, session, name + ".fit"),
+                                SessionExporter.MIME_FIT);
+                    } else {
+                        confirmDelete(session);
+                    }
+                })
+                .show();
+    }
+
+    private void confirmDelete(SkiSession session) {
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Eliminare la sessione?")
+                .setMessage("La traccia GPS e le discese verranno eliminate definitivamente.")
+                .setNegativeButton("Annulla", null)
+                // Lista e riepilogo si aggiornano da soli (invalidazione di Room)
+                .setPositiveButton("Elimina", (d, w) -> viewModel.deleteSession(session))
+                .show();
+    }
+
+    private void exportSeason() {
+        Context ctx = requireContext().getApplicationContext();
+        runExport(() -> {
+            List<SkiSession> all = AppDatabase.getInstance(ctx).skiSessionDao().getAllSessionsSync();
+            if (all.isEmpty()) throw new IOException("Nessuna sessione da esportare");
+            return SessionExporter.exportGpx(ctx, all, "skiscore_stagione.gpx");
+        }, SessionExporter.MIME_GPX);
+    }
+
+    /** Scrittura del file in background, poi condivisione tramite il selettore di sistema */
+    private interface ExportTask {
+        File export() throws IOException;
+    }
+
+    private void runExport(ExportTask task, String mime) {
+        Context ctx = requireContext().getApplicationContext();
+        Toast.makeText(ctx, "Esportazione in corso…", Toast.LENGTH_SHORT).show();
+        executor.execute(() -> {
+            File file;
+            try {
+                file = task.export();
+            } catch (IOException e) {
+                postToast("⚠️ Esportazione non riuscita: " + e.getMessage());
+                return;
             }
+            if (getActivity() == null) return;
+            getActivity().runOnUiThread(() -> {
+                Intent share = new Intent(Intent.ACTION_SEND);
+                share.setType(mime);
+                share.putExtra(Intent.EXTRA_STREAM, SessionExporter.getShareUri(ctx, file));
+                share.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+                startActivity(Intent.createChooser(share, "Condividi traccia…"));
+            });
         });
+    }
 
-        // Statistiche aggregate — eseguite in background
+    private void importSessions(Uri uri) {
+        Context ctx = requireContext().getApplicationContext();
         executor.execute(() -> {
-            float totalKm  = dao.getTotalDistance();
-            float maxSpeed = dao.getMaxSpeedSeason();
-            int   days     = dao.getTotalDaysSkied();
-
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    tvTotalDistance.setText(String.format(Locale.getDefault(), "%.1f km", totalKm));
-                    tvMaxSpeedSeason.setText(String.format(Locale.getDefault(), "%.0f km/h", maxSpeed));
-                    tvDaysSkied.setText(String.valueOf(days));
-                });
+            try {
+                int count = SessionImporter.importFile(ctx, uri);
+                postToast(count > 0 ? "✅ Sessioni importate: " + count
+                                    : "Nessuna traccia trovata nel file");
+                // Lista e riepilogo si aggiornano da soli (invalidazione di Room)
+            } catch (IOException e) {
+                postToast("⚠️ File non valido: " + e.getMessage());
             }
         });
     }
 
+    private void postToast(String message) {
+        if (getActivity() == null) return;
+        getActivity().runOnUiThread(() ->
+                Toast.makeText(getActivity(), message, Toast.LENGTH_LONG).show());
+    }
+
     // ---- Inner adapter for sessions list ----
 
+    /**
+     * Adapter paginato: le pagine arrivano da Room, DiffUtil anima solo le righe cambiate.
+     * Con i placeholder la lista conosce subito il numero totale di sessioni; le righe
+     * non ancora caricate restano vuote (stessa altezza) finché arriva la pagina.
+     */
     private static class DiarySessionAdapter
-            extends RecyclerView.Adapter<DiarySessionAdapter.SessionViewHolder> {
+            extends PagingDataAdapter<SkiSession, DiarySessionAdapter.SessionViewHolder> {
+
+        private static final DiffUtil.ItemCallback<SkiSession> DIFF =
+                new DiffUtil.ItemCallback<SkiSession>() {
+                    @Override
+                    public boolean areItemsTheSame(@NonNull SkiSession a, @NonNull SkiSession b) {
+                        return a.id == b.id;
+                    }
 
-        private List<SkiSession> sessions;
+                    @Override
+                    public boolean areContentsTheSame(@NonNull SkiSession a, @NonNull SkiSession b) {
+                        // Solo i campi mostrati nella riga
+                        return a.date == b.date
+                                && a.duration == b.duration
+                                && a.totalDistance == b.totalDistance
+                                && a.maxSpeed == b.maxSpeed
+                                && a.avgSpeed == b.avgSpeed;
+                    }
+                };
+
+        private OnSessionClickListener clickListener;
+        private OnSessionLongClickListener longClickListener;
         private final SimpleDateFormat sdf =
                 new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
 
-        void setSessions(List<SkiSession> sessions) {
-            this.sessions = sessions;
-            notifyDataSetChanged();
+        interface OnSessionClickListener {
+            void onSessionClick(SkiSession session);
+        }
+
+        interface OnSessionLongClickListener {
+            void onSessionLongClick(SkiSession session);
+        }
+
+        DiarySessionAdapter() {
+            super(DIFF);
+        }
+
+        void setOnSessionClickListener(OnSessionClickListener listener) {
+            this.clickListener = listener;
+        }
+
+        void setOnSessionLongClickListener(OnSessionLongClickListener listener) {
+            this.longClickListener = listener;
         }
 
         @NonNull
@@ -125,43 +343,57 @@ public class DiaryFragment extends Fragment {
 
         @Override
         public void onBindViewHolder(@NonNull SessionViewHolder holder, int position) {
-            holder.bind(sessions.get(position));
-        }
-
-        @Override
-        public int getItemCount() {
-            return sessions == null ? 0 : sessions.size();
+            SkiSession s = getItem(position);
+            if (s == null) holder.bindPlaceholder();
+            else holder.bind(s);
         }
 
         class SessionViewHolder extends RecyclerView.ViewHolder {
-            android.widget.LinearLayout container;
+            final android.widget.LinearLayout container;
+            final TextView tvDate, tvStats, tvDuration;
+            private SkiSession session;
 
             SessionViewHolder(View itemView) {
                 super(itemView);
                 container = (android.widget.LinearLayout) itemView;
-            }
-
-            void bind(SkiSession s) {
-                container.removeAllViews();
-
-                TextView tvDate = makeText(sdf.format(new Date(s.date)), 13, 0x80B0C4D8);
-                TextView tvStats = makeText(
-                        String.format(Locale.getDefault(),
-                                "📏 %.2f km  ·  ⚡ %.0f km/h max  ·  ⌀ %.0f km/h",
-                                s.totalDistance, s.maxSpeed, s.avgSpeed),
-                        16, 0xFFE8EAF6);
+                // Le TextView sono create una volta sola e riusate a ogni bind
+                tvDate     = makeText(13, 0x80B0C4D8);
+                tvStats    = makeText(16, 0xFFE8EAF6);
                 tvStats.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
-                TextView tvDuration = makeText(
-                        "⏱ " + formatDuration(s.duration), 13, 0x80B0C4D8);
-
+                tvDuration = makeText(13, 0x80B0C4D8);
                 container.addView(tvDate);
                 container.addView(tvStats);
                 container.addView(tvDuration);
+
+                container.setOnClickListener(v -> {
+                    if (session != null && clickListener != null) clickListener.onSessionClick(session);
+                });
+                container.setOnLongClickListener(v -> {
+                    if (session == null || longClickListener == null) return false;
+                    longClickListener.onSessionLongClick(session);
+                    return true;
+                });
+            }
+
+            void bind(SkiSession s) {
+                session = s;
+                tvDate.setText(sdf.format(new Date(s.date)));
+                tvStats.setText(String.format(Locale.getDefault(),
+                        "📏 %.2f km  ·  ⚡ %.0f km/h max  ·  ⌀ %.0f km/h",
+                        s.totalDistance, s.maxSpeed, s.avgSpeed));
+                tvDuration.setText("⏱ " + formatDuration(s.duration));
+            }
+
+            /** Riga non ancora caricata: testo vuoto ma stessa altezza, nessuna azione */
+            void bindPlaceholder() {
+                session = null;
+                tvDate.setText(" ");
+                tvStats.setText(" ");
+                tvDuration.setText(" ");
             }
 
-            private TextView makeText(String text, int spSize, int color) {
+            private TextView makeText(int spSize, int color) {
                 TextView tv = new TextView(container.getContext());
-                tv.setText(text);
                 tv.setTextSize(spSize);
                 tv.setTextColor(color);
                 return tv;
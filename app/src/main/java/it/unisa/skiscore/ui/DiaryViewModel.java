@@ -0,0 +1,200 @@
+package it.unisa.skiscore.ui;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.room.InvalidationTracker;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.SeasonCalendar;
+import it.unisa.skiscore.db.SeasonStats;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.TrackPointDao;
+import it.unisa.skiscore.render.HeatmapGrid;
+import it.unisa.skiscore.render.TrackGeometry;
+
+/**
+ * Dati del Diario: lista paginata delle sessioni, riepilogo della stagione corrente,
+ * tracce e heatmap già calcolate. Le pagine sono tenute in cache nel ViewModel, quindi
+ * dopo una rotazione la lista riappare subito senza rileggere Room, così come le tracce
+ * già aperte e la heatmap.
+ */
+public class DiaryViewModel extends AndroidViewModel {
+
+    /**
+     * Paginazione del diario: una pagina riempie circa due schermate, la successiva viene
+     * chiesta a mezza pagina dalla fine; oltre MAX_LOADED_ITEMS le pagine lontane vengono
+     * scartate (e tornano placeholder), così la memoria non cresce con lo storico.
+     */
+    private static final int PAGE_SIZE          = 20;
+    private static final int PREFETCH_DISTANCE  = 10;
+    private static final int MAX_LOADED_ITEMS   = 100;
+
+    /** Traccia di una sessione; null se non ci sono almeno due punti GPS */
+    public interface OnTrackLoadedListener {
+        void onTrackLoaded(@Nullable TrackGeometry geometry);
+    }
+
+    /** Heatmap della stagione; lista vuota se non c'è nessuna traccia registrata */
+    public interface OnHeatmapLoadedListener {
+        void onHeatmapLoaded(List<HeatmapView.Tile> tiles);
+    }
+
+    private final AppDatabase db;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final LiveData<PagingData<SkiSession>> sessions;
+    private final LiveData<SeasonStats> seasonStats;
+
+    /** Tracce già proiettate e semplificate, per riaprire una sessione senza ricalcolo */
+    private final LruCache<Long, TrackGeometry> trackCache = new LruCache<>(4);
+    /** Heatmap della stagione; azzerata quando cambiano i punti GPS registrati */
+    private volatile List<HeatmapView.Tile> heatmapTiles;
+
+    private final InvalidationTracker.Observer trackPointsObserver =
+            new InvalidationTracker.Observer("track_points") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    heatmapTiles = null;
+                }
+            };
+
+    public DiaryViewModel(@NonNull Application application) {
+        super(application);
+        db = AppDatabase.getInstance(application);
+
+        // Lista paginata: Room invalida la PagingSource a ogni modifica di ski_sessions
+        Pager<Integer, SkiSession> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, true, PAGE_SIZE, MAX_LOADED_ITEMS),
+                db.skiSessionDao()::getSessionsPaged);
+        sessions = PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager), this);
+
+        // Riepilogo della stagione corrente: una riga di season_stats, riletta da Room
+        // quando la transazione che ha modificato le sessioni si chiude
+        seasonStats = db.seasonStatsDao().observeSeason(SeasonCalendar.currentSeason());
+
+        db.getInvalidationTracker().addObserver(trackPointsObserver);
+    }
+
+    @Override
+    protected void onCleared() {
+        db.getInvalidationTracker().removeObserver(trackPointsObserver);
+        executor.shutdown();
+    }
+
+    public LiveData<PagingData<SkiSession>> getSessions() {
+        return sessions;
+    }
+
+    public LiveData<SeasonStats> getSeasonStats() {
+        return seasonStats;
+    }
+
+    // ---- Traccia e heatmap ----
+
+    /** Traccia di {@code session}, dalla cache o calcolata in background; risultato sul main thread */
+    public void loadTrack(SkiSession session, OnTrackLoadedListener listener) {
+        TrackGeometry cached = trackCache.get(session.id);
+        if (cached != null) {
+            listener.onTrackLoaded(cached);
+            return;
+        }
+        TrackPointDao dao = db.trackPointDao();
+        executor.execute(() -> {
+            TrackGeometry geometry = loadTrack(dao, session.id);
+            if (geometry.size() < 2) {
+                mainHandler.post(() -> listener.onTrackLoaded(null));
+                return;
+            }
+            trackCache.put(session.id, geometry);
+            mainHandler.post(() -> listener.onTrackLoaded(geometry));
+        });
+    }
+
+    /** Legge i punti in array primitivi e precalcola la semplificazione (thread in background) */
+    private static TrackGeometry loadTrack(TrackPointDao dao, long sessionId) {
+        try (Cursor c = dao.getPointsCursor(sessionId)) {
+            int n = c.getCount();
+            int[] lat = new int[n], lon = new int[n];
+            float[] speed = new float[n];
+            int iLat = c.getColumnIndexOrThrow("latE7");
+            int iLon = c.getColumnIndexOrThrow("lonE7");
+            int iSpeed = c.getColumnIndexOrThrow("speed");
+            int i = 0;
+            while (c.moveToNext() && i < n) {
+                lat[i] = c.getInt(iLat);
+                lon[i] = c.getInt(iLon);
+                speed[i] = c.isNull(iSpeed) ? Float.NaN : c.getFloat(iSpeed);
+                i++;
+            }
+            TrackGeometry geometry = new TrackGeometry(lat, lon, speed, i);
+            // Livello per la vista iniziale (~1000 px sul lato lungo): il primo frame non aspetta
+            float extent = Math.max(geometry.getMaxX() - geometry.getMinX(),
+                                    geometry.getMaxY() - geometry.getMinY());
+            geometry.linesFor(extent / 2000f);
+            return geometry;
+        }
+    }
+
+    /** true se la heatmap è già pronta e {@link #loadHeatmap} risponderà subito */
+    public boolean isHeatmapReady() {
+        return heatmapTiles != null;
+    }
+
+    /** Heatmap di tutte le tracce, dalla cache o calcolata in background; risultato sul main thread */
+    public void loadHeatmap(OnHeatmapLoadedListener listener) {
+        List<HeatmapView.Tile> cached = heatmapTiles;
+        if (cached != null) {
+            listener.onHeatmapLoaded(cached);
+            return;
+        }
+        TrackPointDao dao = db.trackPointDao();
+        executor.execute(() -> {
+            HeatmapGrid grid = new HeatmapGrid();
+            try (Cursor c = dao.getAllPositionsCursor()) {
+                long currentSession = -1;
+                while (c.moveToNext()) {
+                    long sessionId = c.getLong(0);
+                    if (sessionId != currentSession) {
+                        grid.breakTrack();
+                        currentSession = sessionId;
+                    }
+                    grid.addPoint(c.getInt(1), c.getInt(2));
+                }
+            }
+            List<HeatmapView.Tile> tiles = HeatmapView.buildTiles(grid);
+            if (tiles.isEmpty()) {
+                mainHandler.post(() -> listener.onHeatmapLoaded(Collections.emptyList()));
+                return;
+            }
+            heatmapTiles = tiles;
+            mainHandler.post(() -> listener.onHeatmapLoaded(tiles));
+        });
+    }
+
+    /** Elimina la sessione con traccia e discese; lista e riepilogo si aggiornano da soli */
+    public void deleteSession(SkiSession session) {
+        executor.execute(() -> {
+            db.seasonStatsDao().deleteSession(session);
+            trackCache.remove(session.id);
+        });
+    }
+}
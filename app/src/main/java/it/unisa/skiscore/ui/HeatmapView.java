@@ -0,0 +1,113 @@
+package it.unisa.skiscore.ui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import it.unisa.skiscore.render.HeatmapGrid;
+
+/**
+ * Mostra la heatmap stagionale come mosaico di bitmap 256×256.
+ *
+ * I tasselli vengono colorati da {@link #buildTiles(HeatmapGrid)} in background; onDraw
+ * si limita a disegnare le bitmap. All'apertura inquadra la zona più frequentata.
+ */
+public class HeatmapView extends ZoomableView {
+
+    /** Tetto ai tasselli in memoria (256 KB l'uno): oltre si tengono i più vicini alla zona principale */
+    private static final int MAX_TILES = 48;
+
+    /** Raggio (in tasselli) della zona inquadrata all'apertura */
+    private static final int FOCUS_RADIUS_TILES = 3;
+
+    /** Un tassello colorato, pronto da disegnare */
+    public static final class Tile {
+        final int tx, ty;
+        final Bitmap bitmap;
+
+        Tile(int tx, int ty, Bitmap bitmap) {
+            this.tx = tx;
+            this.ty = ty;
+            this.bitmap = bitmap;
+        }
+    }
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private List<Tile> tiles = Collections.emptyList();
+
+    public HeatmapView(Context context) {
+        super(context);
+    }
+
+    public HeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public HeatmapView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * Colora i tasselli della griglia. Da chiamare fuori dal main thread.
+     * Il primo elemento è il tassello più frequentato.
+     */
+    @NonNull
+    public static List<Tile> buildTiles(HeatmapGrid grid) {
+        long busiest = grid.busiestTile();
+        if (busiest == -1) return Collections.emptyList();
+        int cx = HeatmapGrid.tileX(busiest), cy = HeatmapGrid.tileY(busiest);
+
+        List<Long> keys = new ArrayList<>(grid.getTiles().keySet());
+        keys.sort((a, b) -> Integer.compare(
+                chebyshev(a, cx, cy), chebyshev(b, cx, cy)));
+        if (keys.size() > MAX_TILES) keys = keys.subList(0, MAX_TILES);
+
+        List<Tile> result = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            Bitmap bmp = Bitmap.createBitmap(grid.renderTile(key),
+                    HeatmapGrid.TILE_SIZE, HeatmapGrid.TILE_SIZE, Bitmap.Config.ARGB_8888);
+            result.add(new Tile(HeatmapGrid.tileX(key), HeatmapGrid.tileY(key), bmp));
+        }
+        return result;
+    }
+
+    private static int chebyshev(long key, int cx, int cy) {
+        return Math.max(Math.abs(HeatmapGrid.tileX(key) - cx), Math.abs(HeatmapGrid.tileY(key) - cy));
+    }
+
+    /** Imposta i tasselli costruiti da {@link #buildTiles(HeatmapGrid)} */
+    public void setTiles(@NonNull List<Tile> tiles) {
+        this.tiles = tiles;
+        if (!tiles.isEmpty()) {
+            int cx = tiles.get(0).tx, cy = tiles.get(0).ty;
+            int minX = cx, minY = cy, maxX = cx, maxY = cy;
+            for (Tile t : tiles) {
+                if (Math.abs(t.tx - cx) > FOCUS_RADIUS_TILES || Math.abs(t.ty - cy) > FOCUS_RADIUS_TILES) continue;
+                minX = Math.min(minX, t.tx);
+                minY = Math.min(minY, t.ty);
+                maxX = Math.max(maxX, t.tx);
+                maxY = Math.max(maxY, t.ty);
+            }
+            int size = HeatmapGrid.TILE_SIZE;
+            setContentBounds(minX * size, minY * size, (maxX + 1) * size, (maxY + 1) * size);
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onDrawContent(@NonNull Canvas canvas, float scale) {
+        int size = HeatmapGrid.TILE_SIZE;
+        for (Tile t : tiles) {
+            canvas.drawBitmap(t.bitmap, (float) t.tx * size, (float) t.ty * size, bitmapPaint);
+        }
+    }
+}
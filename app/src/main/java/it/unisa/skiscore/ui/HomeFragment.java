@@ -16,9 +16,12 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.FullyDrawnReporter;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -27,20 +30,12 @@ import java.util.List;
 
 import it.unisa.skiscore.R;
 import it.unisa.skiscore.ResortDetailActivity;
-import it.unisa.skiscore.api.ApiClient;
-import it.unisa.skiscore.api.GeocodingResponse;
-import it.unisa.skiscore.api.OwmCurrentResponse;
 import it.unisa.skiscore.model.SkiResort;
-import it.unisa.skiscore.model.WeatherData;
 import it.unisa.skiscore.util.FavoritesManager;
-import it.unisa.skiscore.util.SkiScoreCalculator;
-import it.unisa.skiscore.util.WeatherMapper;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * HomeFragment — ricerca resort, caricamento meteo OWM, lista preferiti con SkiScore.
+ * Dati e richieste stanno nell'{@link HomeViewModel}: qui solo viste e adapter.
  */
 public class HomeFragment extends Fragment {
 
@@ -56,8 +51,11 @@ public class HomeFragment extends Fragment {
     private ResortCardAdapter resortCardAdapter;
 
     // Data
+    private HomeViewModel viewModel;
     private FavoritesManager favoritesManager;
-    private final List<SkiResort> displayedResorts = new ArrayList<>();
+    /** Tenuto finché il primo caricamento non finisce; null se già rilasciato */
+    @Nullable
+    private FullyDrawnReporter fullyDrawnReporter;
 
     // Search debounce
     private final Handler searchHandler = new Handler(Looper.getMainLooper());
@@ -83,17 +81,30 @@ public class HomeFragment extends Fragment {
         tvSectionLabel  = view.findViewById(R.id.tv_section_label);
         llEmptyState    = view.findViewById(R.id.ll_empty_state);
 
-        favoritesManager = new FavoritesManager(requireContext());
+        viewModel = new ViewModelProvider(this).get(HomeViewModel.class);
+        favoritesManager = FavoritesManager.getInstance(requireContext());
 
         setupSearchRecycler();
         setupResortRecycler();
-        loadFavorites();
+
+        viewModel.getLoading().observe(getViewLifecycleOwner(), busy ->
+                progressBar.setVisibility(busy ? View.VISIBLE : View.GONE));
+        viewModel.setOnResortsChangedListener(resortsListener);
+        if (viewModel.isFavoritesLoaded()) {
+            // Vista ricreata (rotazione): la lista è già nel ViewModel, meteo compreso
+            showResorts(viewModel.getResorts());
+        } else {
+            loadFavorites();
+        }
     }
 
     @Override
-    public void onResume() {
-        super.onResume();
-        loadFavorites();
+    public void onDestroyView() {
+        viewModel.setOnResortsChangedListener(null);
+        searchHandler.removeCallbacksAndMessages(null);
+        // L'Activity può essere distrutta (rotazione) prima della fine del caricamento
+        releaseFullyDrawnReporter();
+        super.onDestroyView();
     }
 
     // ---- Setup ----
@@ -107,12 +118,15 @@ public class HomeFragment extends Fragment {
             hideKeyboard();
             rvSearchResults.setVisibility(View.GONE);
             etSearch.setText("");
+            viewModel.clearSearch();
+
+            viewModel.showResort(new SkiResort(result.getDisplayName(),
+                    result.country, result.latitude, result.longitude));
+        });
 
-            SkiResort resort = new SkiResort(result.getDisplayName(),
-                    result.country, result.latitude, result.longitude);
-            resort.setFavorite(favoritesManager.isFavorite(resort));
-            addOrUpdateResort(resort);
-            fetchWeatherForResort(resort);
+        viewModel.getSearchResults().observe(getViewLifecycleOwner(), results -> {
+            searchResultAdapter.setResults(results);
+            rvSearchResults.setVisibility(results.isEmpty() ? View.GONE : View.VISIBLE);
         });
 
         etSearch.addTextChangedListener(new TextWatcher() {
@@ -124,7 +138,7 @@ public class HomeFragment extends Fragment {
                     rvSearchResults.setVisibility(View.GONE);
                     return;
                 }
-                pendingSearch = () -> searchResorts(query);
+                pendingSearch = () -> viewModel.search(query);
                 searchHandler.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
             }
             @Override public void afterTextChanged(Editable s) {}
@@ -145,115 +159,107 @@ public class HomeFragment extends Fragment {
             startActivity(intent);
         });
 
+        // Trascinamento (pressione prolungata) per riordinare i preferiti
+        new ItemTouchHelper(new ItemTouchHelper.SimpleCallback(
+                ItemTouchHelper.UP | ItemTouchHelper.DOWN, 0) {
+            @Override
+            public int getMovementFlags(@NonNull RecyclerView recyclerView,
+                                        @NonNull RecyclerView.ViewHolder holder) {
+                int index = holder.getBindingAdapterPosition();
+                return viewModel.isFavoriteAt(index) ? super.getMovementFlags(recyclerView, holder) : 0;
+            }
+
+            @Override
+            public boolean onMove(@NonNull RecyclerView recyclerView,
+                                  @NonNull RecyclerView.ViewHolder holder,
+                                  @NonNull RecyclerView.ViewHolder target) {
+                int from = holder.getBindingAdapterPosition();
+                int to = target.getBindingAdapterPosition();
+                if (!viewModel.isFavoriteAt(from) || !viewModel.isFavoriteAt(to)) return false;
+                favoritesManager.moveFavorite(viewModel.favoriteRank(from), viewModel.favoriteRank(to));
+                return true;
+            }
+
+            @Override
+            public void onSwiped(@NonNull RecyclerView.ViewHolder holder, int direction) {}
+        }).attachToRecyclerView(rvResorts);
+
+        // La lista si aggiorna tramite resortsListener
         resortCardAdapter.setOnFavoriteClickListener((resort, position) -> {
             boolean isFav = favoritesManager.toggleFavorite(resort);
-            resort.setFavorite(isFav);
-            resortCardAdapter.updateResort(position, resort);
             Toast.makeText(requireContext(),
                     isFav ? "Aggiunto ai preferiti ⭐" : "Rimosso dai preferiti",
                     Toast.LENGTH_SHORT).show();
-            if (!isFav) {
-                displayedResorts.removeIf(r -> r.getKey().equals(resort.getKey()));
-                resortCardAdapter.setResorts(new ArrayList<>(displayedResorts));
-                updateEmptyState();
-            }
         });
     }
 
-    // ---- Data loading ----
+    // ---- Lista ----
+
+    private final HomeViewModel.OnResortsChangedListener resortsListener =
+            new HomeViewModel.OnResortsChangedListener() {
+        @Override
+        public void onResortsLoaded(List<SkiResort> resorts) {
+            showResorts(resorts);
+        }
+
+        @Override
+        public void onResortInserted(int index, SkiResort resort) {
+            resortCardAdapter.insertResort(index, resort);
+            updateEmptyState();
+        }
+
+        @Override
+        public void onResortUpdated(int index, SkiResort resort) {
+            resortCardAdapter.updateResort(index, resort);
+        }
 
+        @Override
+        public void onResortRemoved(int index) {
+            resortCardAdapter.removeResort(index);
+            updateEmptyState();
+        }
+
+        @Override
+        public void onResortMoved(int from, int to) {
+            resortCardAdapter.moveResort(from, to);
+        }
+    };
+
+    /**
+     * Primo caricamento: la schermata è "completamente disegnata" (reportFullyDrawn, misurato
+     * dal macrobenchmark come time-to-full-display) quando i preferiti sono in lista e il
+     * meteo di ognuno è arrivato o è fallito.
+     */
     private void loadFavorites() {
-        List<SkiResort> favorites = favoritesManager.getFavorites();
-        tvSectionLabel.setText("⭐ I tuoi preferiti");
-        displayedResorts.clear();
-        displayedResorts.addAll(favorites);
-        resortCardAdapter.setResorts(new ArrayList<>(displayedResorts));
-        updateEmptyState();
-        for (SkiResort resort : favorites) {
-            fetchWeatherForResort(resort);
+        if (!Boolean.TRUE.equals(viewModel.getFavoritesDone().getValue())) {
+            fullyDrawnReporter = requireActivity().getFullyDrawnReporter();
+            fullyDrawnReporter.addReporter();
         }
+        viewModel.getFavoritesDone().observe(getViewLifecycleOwner(), done -> {
+            if (done) releaseFullyDrawnReporter();
+        });
+        viewModel.loadFavorites();
     }
 
-    private void addOrUpdateResort(SkiResort resort) {
-        for (int i = 0; i < displayedResorts.size(); i++) {
-            if (displayedResorts.get(i).getKey().equals(resort.getKey())) {
-                displayedResorts.set(i, resort);
-                resortCardAdapter.setResorts(new ArrayList<>(displayedResorts));
-                return;
-            }
-        }
-        displayedResorts.add(0, resort);
-        resortCardAdapter.setResorts(new ArrayList<>(displayedResorts));
+    /** Rilascia il reporter, a caricamento finito o quando la vista viene distrutta prima */
+    private void releaseFullyDrawnReporter() {
+        if (fullyDrawnReporter == null) return;
+        fullyDrawnReporter.removeReporter();
+        fullyDrawnReporter = null;
+    }
+
+    private void showResorts(List<SkiResort> resorts) {
+        tvSectionLabel.setText("⭐ I tuoi preferiti");
+        resortCardAdapter.setResorts(new ArrayList<>(resorts));
         updateEmptyState();
     }
 
     private void updateEmptyState() {
-        boolean empty = displayedResorts.isEmpty();
+        boolean empty = viewModel.getResorts().isEmpty();
         llEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
         rvResorts.setVisibility(empty ? View.GONE : View.VISIBLE);
     }
 
-    // ---- Search ----
-
-    private void searchResorts(String query) {
-        ApiClient.getGeocodingService()
-                .searchLocation(query, 8, "it", "json")
-                .enqueue(new Callback<GeocodingResponse>() {
-                    @Override
-                    public void onResponse(Call<GeocodingResponse> call,
-                                           Response<GeocodingResponse> response) {
-                        if (!isAdded()) return;
-                        if (response.isSuccessful() && response.body() != null
-                                && response.body().results != null) {
-                            searchResultAdapter.setResults(response.body().results);
-                            rvSearchResults.setVisibility(
-                                    response.body().results.isEmpty() ? View.GONE : View.VISIBLE);
-                        } else {
-                            rvSearchResults.setVisibility(View.GONE);
-                        }
-                    }
-                    @Override
-                    public void onFailure(Call<GeocodingResponse> call, Throwable t) {
-                        if (!isAdded()) return;
-                        rvSearchResults.setVisibility(View.GONE);
-                    }
-                });
-    }
-
-    // ---- Weather Fetch ----
-
-    private void fetchWeatherForResort(SkiResort resort) {
-        progressBar.setVisibility(View.VISIBLE);
-        ApiClient.getWeatherService()
-                .getCurrentWeather(resort.getLatitude(), resort.getLongitude(),
-                        ApiClient.OWM_API_KEY, "metric", "it")
-                .enqueue(new Callback<OwmCurrentResponse>() {
-                    @Override
-                    public void onResponse(Call<OwmCurrentResponse> call,
-                                           Response<OwmCurrentResponse> response) {
-                        if (!isAdded()) return;
-                        progressBar.setVisibility(View.GONE);
-                        if (response.isSuccessful() && response.body() != null) {
-                            WeatherData data = WeatherMapper.mapOwmCurrentToWeatherData(response.body());
-                            resort.setWeatherData(data);
-                            resort.setSkiScore(SkiScoreCalculator.calculateSkiScore(data));
-                            for (int i = 0; i < displayedResorts.size(); i++) {
-                                if (displayedResorts.get(i).getKey().equals(resort.getKey())) {
-                                    displayedResorts.set(i, resort);
-                                    resortCardAdapter.updateResort(i, resort);
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    @Override
-                    public void onFailure(Call<OwmCurrentResponse> call, Throwable t) {
-                        if (!isAdded()) return;
-                        progressBar.setVisibility(View.GONE);
-                    }
-                });
-    }
-
     // ---- Utility ----
 
     private void hideKeyboard() {
@@ -0,0 +1,358 @@
+package it.unisa.skiscore.ui;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unisa.skiscore.api.ApiClient;
+import it.unisa.skiscore.api.GeocodingResponse;
+import it.unisa.skiscore.api.OwmCurrentResponse;
+import it.unisa.skiscore.model.SkiResort;
+import it.unisa.skiscore.model.WeatherData;
+import it.unisa.skiscore.util.FavoritesManager;
+import it.unisa.skiscore.util.SkiScoreCalculator;
+import it.unisa.skiscore.util.WeatherCache;
+import it.unisa.skiscore.util.WeatherMapper;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Stato della Home: la lista mostrata (preferiti + resort aperti dalla ricerca) con il meteo
+ * già scaricato, e i risultati dell'ultima ricerca. Sopravvive alla rotazione: il fragment
+ * ricreato rimostra la lista così com'è, senza rileggere i preferiti né ripetere le
+ * richieste meteo. Le modifiche arrivano al fragment come operazioni puntuali
+ * ({@link OnResortsChangedListener}), così l'adapter anima solo le card interessate.
+ *
+ * Da usare solo sul main thread.
+ */
+public class HomeViewModel extends AndroidViewModel {
+
+    /** Modifiche alla lista mostrata, da applicare all'adapter nello stesso ordine */
+    public interface OnResortsChangedListener {
+        void onResortsLoaded(List<SkiResort> resorts);
+
+        void onResortInserted(int index, SkiResort resort);
+
+        void onResortUpdated(int index, SkiResort resort);
+
+        void onResortRemoved(int index);
+
+        void onResortMoved(int from, int to);
+    }
+
+    private final FavoritesManager favoritesManager;
+
+    private final List<SkiResort> resorts = new ArrayList<>();
+    // id → posizione in resorts, per trovare una card in O(1)
+    private final Map<Long, Integer> positionById = new HashMap<>();
+    private OnResortsChangedListener listener;
+
+    /** Preferiti già chiesti / lista dei preferiti pronta */
+    private boolean favoritesRequested, favoritesLoaded;
+    /** true quando la lista è pronta e anche il meteo di ogni preferito è arrivato (o è fallito) */
+    private final MutableLiveData<Boolean> favoritesDone = new MutableLiveData<>(false);
+
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private int pendingWeather;
+
+    private final MutableLiveData<List<GeocodingResponse.GeoResult>> searchResults =
+            new MutableLiveData<>(Collections.emptyList());
+    private String lastQuery;
+    private Call<GeocodingResponse> searchCall;
+
+    /** Richieste meteo in corso, annullate quando la Home viene chiusa */
+    private final List<Call<OwmCurrentResponse>> weatherCalls = new ArrayList<>();
+
+    public HomeViewModel(@NonNull Application application) {
+        super(application);
+        favoritesManager = FavoritesManager.getInstance(application);
+        // Le stelle cambiate altrove (es. dal dettaglio) arrivano come singole modifiche
+        favoritesManager.addOnFavoritesChangedListener(favoritesListener);
+    }
+
+    @Override
+    protected void onCleared() {
+        favoritesManager.removeOnFavoritesChangedListener(favoritesListener);
+        for (Call<OwmCurrentResponse> call : weatherCalls) call.cancel();
+        weatherCalls.clear();
+        if (searchCall != null) searchCall.cancel();
+    }
+
+    public void setOnResortsChangedListener(@Nullable OnResortsChangedListener listener) {
+        this.listener = listener;
+    }
+
+    /** La lista mostrata (sola lettura) */
+    public List<SkiResort> getResorts() {
+        return Collections.unmodifiableList(resorts);
+    }
+
+    public boolean isFavoritesLoaded() {
+        return favoritesLoaded;
+    }
+
+    /**
+     * Fine del primo caricamento (preferiti e loro meteo). È uno stato e non una callback,
+     * così il ViewModel non trattiene nulla della vista o dell'Activity che lo aspetta.
+     */
+    public LiveData<Boolean> getFavoritesDone() {
+        return favoritesDone;
+    }
+
+    /** true mentre almeno una richiesta meteo è in corso */
+    public LiveData<Boolean> getLoading() {
+        return loading;
+    }
+
+    public LiveData<List<GeocodingResponse.GeoResult>> getSearchResults() {
+        return searchResults;
+    }
+
+    // ---- Preferiti ----
+
+    /**
+     * Primo caricamento dei preferiti e del loro meteo; la fine arriva su
+     * {@link #getFavoritesDone()}. Chiamate ripetute non ripetono il caricamento.
+     */
+    public void loadFavorites() {
+        if (favoritesRequested) return;
+        favoritesRequested = true;
+
+        favoritesManager.loadFavorites(favorites -> {
+            favoritesLoaded = true;
+            resorts.clear();
+            resorts.addAll(favorites);
+            positionById.clear();
+            reindex(0, resorts.size() - 1);
+            if (listener != null) listener.onResortsLoaded(new ArrayList<>(resorts));
+
+            int[] remaining = {favorites.size()};
+            if (remaining[0] == 0) favoritesDone.setValue(true);
+            for (SkiResort resort : favorites) {
+                fetchWeather(resort, () -> {
+                    if (--remaining[0] == 0) favoritesDone.setValue(true);
+                });
+            }
+        });
+    }
+
+    /** Mostra in cima un resort scelto dalla ricerca (o aggiorna la sua card) e ne scarica il meteo */
+    public void showResort(SkiResort resort) {
+        resort.setFavorite(favoritesManager.isFavorite(resort));
+        int index = indexOf(resort);
+        if (index >= 0) {
+            resorts.set(index, resort);
+            if (listener != null) listener.onResortUpdated(index, resort);
+        } else {
+            resorts.add(0, resort);
+            reindex(0, resorts.size() - 1);
+            if (listener != null) listener.onResortInserted(0, resort);
+        }
+        fetchWeather(resort, null);
+        if (!favoritesManager.isLoaded()) {
+            // Preferiti non ancora caricati: la stella si corregge appena lo sono
+            favoritesManager.loadFavorites(favorites -> refreshFavorite(resort));
+        }
+    }
+
+    /** Allinea la stella di un resort in lista ai preferiti caricati */
+    private void refreshFavorite(SkiResort resort) {
+        int index = indexOf(resort);
+        if (index < 0) return;
+        SkiResort shown = resorts.get(index);
+        boolean favorite = favoritesManager.isFavorite(shown);
+        if (shown.isFavorite() == favorite) return;
+        shown.setFavorite(favorite);
+        if (listener != null) listener.onResortUpdated(index, shown);
+    }
+
+    public boolean isFavoriteAt(int index) {
+        return index >= 0 && index < resorts.size() && resorts.get(index).isFavorite();
+    }
+
+    /** Posizione tra i preferiti dell'elemento in lista a {@code index} */
+    public int favoriteRank(int index) {
+        int rank = 0;
+        for (int i = 0; i < index; i++) {
+            if (resorts.get(i).isFavorite()) rank++;
+        }
+        return rank;
+    }
+
+    private final FavoritesManager.OnFavoritesChangedListener favoritesListener =
+            new FavoritesManager.OnFavoritesChangedListener() {
+        @Override
+        public void onFavoriteAdded(SkiResort resort, int position) {
+            int index = indexOf(resort);
+            if (index >= 0) {
+                // Già in lista (risultato di ricerca appena stellato): basta aggiornare la stella
+                SkiResort shown = resorts.get(index);
+                shown.setFavorite(true);
+                if (listener != null) listener.onResortUpdated(index, shown);
+                return;
+            }
+            resorts.add(resort);
+            positionById.put(resort.getId(), resorts.size() - 1);
+            if (listener != null) listener.onResortInserted(resorts.size() - 1, resort);
+            fetchWeather(resort, null);
+        }
+
+        @Override
+        public void onFavoriteRemoved(SkiResort resort, int position) {
+            int index = indexOf(resort);
+            if (index < 0) return;
+            resorts.remove(index);
+            positionById.remove(resort.getId());
+            reindex(index, resorts.size() - 1);
+            if (listener != null) listener.onResortRemoved(index);
+        }
+
+        @Override
+        public void onFavoriteMoved(SkiResort resort, int fromPosition, int toPosition) {
+            int from = indexOf(resort);
+            if (from < 0) return;
+            SkiResort shown = resorts.remove(from);
+            // Prima del preferito che ora occupa toPosition; i risultati di ricerca restano dove sono
+            int to = resorts.size();
+            int rank = 0;
+            for (int i = 0; i < resorts.size(); i++) {
+                if (!resorts.get(i).isFavorite()) continue;
+                if (rank++ == toPosition) {
+                    to = i;
+                    break;
+                }
+            }
+            resorts.add(to, shown);
+            reindex(Math.min(from, to), Math.max(from, to));
+            if (listener != null) listener.onResortMoved(from, to);
+        }
+    };
+
+    private int indexOf(SkiResort resort) {
+        Integer index = positionById.get(resort.getId());
+        return index != null ? index : -1;
+    }
+
+    /** Aggiorna positionById per le posizioni da {@code from} a {@code to} incluse */
+    private void reindex(int from, int to) {
+        for (int i = from; i <= to && i < resorts.size(); i++) {
+            positionById.put(resorts.get(i).getId(), i);
+        }
+    }
+
+    // ---- Ricerca ----
+
+    /** Cerca i resort per nome; la stessa query dell'ultima ricerca riusa i risultati */
+    public void search(String query) {
+        if (query.equals(lastQuery) && searchCall == null) {
+            searchResults.setValue(searchResults.getValue());
+            return;
+        }
+        if (searchCall != null) searchCall.cancel();
+        lastQuery = query;
+        Call<GeocodingResponse> call = ApiClient.getGeocodingService()
+                .searchLocation(query, 8, "it", "json");
+        searchCall = call;
+        call.enqueue(new Callback<GeocodingResponse>() {
+            @Override
+            public void onResponse(Call<GeocodingResponse> call,
+                                   Response<GeocodingResponse> response) {
+                if (call != searchCall) return;
+                searchCall = null;
+                if (response.isSuccessful() && response.body() != null
+                        && response.body().results != null) {
+                    searchResults.setValue(response.body().results);
+                } else {
+                    searchResults.setValue(Collections.emptyList());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<GeocodingResponse> call, Throwable t) {
+                if (call != searchCall) return;
+                searchCall = null;
+                lastQuery = null;
+                searchResults.setValue(Collections.emptyList());
+            }
+        });
+    }
+
+    public void clearSearch() {
+        if (searchCall != null) searchCall.cancel();
+        searchCall = null;
+        lastQuery = null;
+        searchResults.setValue(Collections.emptyList());
+    }
+
+    // ---- Meteo ----
+
+    /**
+     * Meteo attuale di un resort: dal {@link WeatherCache} se ancora fresco, altrimenti dalla
+     * rete; ciò che arriva va nella cache, così il dettaglio si apre già popolato.
+     * @param onDone eseguito a risposta ricevuta o fallita
+     */
+    private void fetchWeather(SkiResort resort, @Nullable Runnable onDone) {
+        WeatherCache.Entry cached = WeatherCache.getInstance().get(resort.getId());
+        if (cached != null && cached.isFresh()) {
+            applyWeather(resort, cached.data, cached.skiScore);
+            if (onDone != null) onDone.run();
+            return;
+        }
+        setPendingWeather(pendingWeather + 1);
+        Call<OwmCurrentResponse> call = ApiClient.getWeatherService()
+                .getCurrentWeather(resort.getLatitude(), resort.getLongitude(),
+                        ApiClient.OWM_API_KEY, "metric", "it");
+        weatherCalls.add(call);
+        call.enqueue(new Callback<OwmCurrentResponse>() {
+            @Override
+            public void onResponse(Call<OwmCurrentResponse> call,
+                                   Response<OwmCurrentResponse> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    WeatherData data = WeatherMapper.mapOwmCurrentToWeatherData(response.body());
+                    int score = SkiScoreCalculator.calculateSkiScore(data);
+                    WeatherCache.getInstance().put(resort.getId(), data, score);
+                    applyWeather(resort, data, score);
+                }
+                done(call);
+            }
+
+            @Override
+            public void onFailure(Call<OwmCurrentResponse> call, Throwable t) {
+                done(call);
+            }
+
+            private void done(Call<OwmCurrentResponse> call) {
+                weatherCalls.remove(call);
+                setPendingWeather(pendingWeather - 1);
+                if (onDone != null) onDone.run();
+            }
+        });
+    }
+
+    private void applyWeather(SkiResort resort, WeatherData data, int score) {
+        resort.setWeatherData(data);
+        resort.setSkiScore(score);
+        int index = indexOf(resort);
+        if (index >= 0) {
+            resorts.set(index, resort);
+            if (listener != null) listener.onResortUpdated(index, resort);
+        }
+    }
+
+    private void setPendingWeather(int pending) {
+        pendingWeather = pending;
+        boolean busy = pending > 0;
+        if (!Boolean.valueOf(busy).equals(loading.getValue())) loading.setValue(busy);
+    }
+}
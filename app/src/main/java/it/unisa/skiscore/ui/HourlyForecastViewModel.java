@@ -0,0 +1,95 @@
+package it.unisa.skiscore.ui;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import java.util.Collections;
+import java.util.List;
+
+import it.unisa.skiscore.api.ApiClient;
+import it.unisa.skiscore.api.OwmForecastResponse;
+import it.unisa.skiscore.model.SkiResort;
+import it.unisa.skiscore.util.ForecastStore;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Fasce orarie (3 h) di un giorno di previsione. Di solito il dettaglio del resort ha appena
+ * scaricato la stessa previsione: le fasce si leggono dal {@link ForecastStore} (indice per
+ * giorno, nessuna scansione) e la rete serve solo se la previsione manca o è vecchia.
+ * Dopo una rotazione l'Activity le ritrova qui senza una nuova richiesta.
+ *
+ * Da usare solo sul main thread.
+ */
+public class HourlyForecastViewModel extends ViewModel {
+
+    /** null finché la richiesta è in corso; lista vuota se il giorno non ha fasce o c'è stato un errore */
+    private final MutableLiveData<List<OwmForecastResponse.ForecastItem>> slots = new MutableLiveData<>();
+    /** Messaggio d'errore di rete da mostrare una volta, poi {@link #onErrorShown()} */
+    private final MutableLiveData<String> networkError = new MutableLiveData<>();
+
+    private Call<OwmForecastResponse> call;
+
+    public LiveData<List<OwmForecastResponse.ForecastItem>> getSlots() {
+        return slots;
+    }
+
+    public LiveData<String> getNetworkError() {
+        return networkError;
+    }
+
+    public void onErrorShown() {
+        networkError.setValue(null);
+    }
+
+    /**
+     * Slots of {@code targetDate} ("yyyy-MM-dd") from the stored forecast of the resort at
+     * lat/lon, or from OWM /forecast on a miss. No-op if already loaded or loading.
+     */
+    public void load(double lat, double lon, String targetDate) {
+        if (call != null || slots.getValue() != null) return;
+
+        long resortId = SkiResort.idOf(lat, lon);
+        ForecastStore.Forecast stored = ForecastStore.getInstance().get(resortId);
+        if (stored != null && stored.isFresh()) {
+            slots.setValue(stored.slotsFor(targetDate));
+            return;
+        }
+
+        call = ApiClient.getForecastService().getForecast(
+                lat, lon,
+                ApiClient.OWM_API_KEY,
+                "metric",
+                "it"
+        );
+        call.enqueue(new Callback<OwmForecastResponse>() {
+            @Override
+            public void onResponse(Call<OwmForecastResponse> call,
+                                   Response<OwmForecastResponse> response) {
+                HourlyForecastViewModel.this.call = null;
+                if (!response.isSuccessful() || response.body() == null) {
+                    slots.setValue(Collections.emptyList());
+                    return;
+                }
+
+                slots.setValue(ForecastStore.getInstance()
+                        .put(resortId, response.body()).slotsFor(targetDate));
+            }
+
+            @Override
+            public void onFailure(Call<OwmForecastResponse> call, Throwable t) {
+                HourlyForecastViewModel.this.call = null;
+                if (call.isCanceled()) return;
+                slots.setValue(Collections.emptyList());
+                networkError.setValue(t.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (call != null) call.cancel();
+    }
+}
@@ -54,6 +54,23 @@ public class ResortCardAdapter extends RecyclerView.Adapter<ResortCardAdapter.Vi
         }
     }
 
+    public void insertResort(int position, SkiResort resort) {
+        resorts.add(position, resort);
+        notifyItemInserted(position);
+    }
+
+    public void removeResort(int position) {
+        if (position >= 0 && position < resorts.size()) {
+            resorts.remove(position);
+            notifyItemRemoved(position);
+        }
+    }
+
+    public void moveResort(int from, int to) {
+        resorts.add(to, resorts.remove(from));
+        notifyItemMoved(from, to);
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -0,0 +1,182 @@
+package it.unisa.skiscore.ui;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import java.util.List;
+
+import it.unisa.skiscore.R;
+import it.unisa.skiscore.api.ApiClient;
+import it.unisa.skiscore.api.OwmCurrentResponse;
+import it.unisa.skiscore.api.OwmForecastResponse;
+import it.unisa.skiscore.model.DailyForecast;
+import it.unisa.skiscore.model.SkiResort;
+import it.unisa.skiscore.model.WeatherData;
+import it.unisa.skiscore.util.ForecastStore;
+import it.unisa.skiscore.util.SkiScoreCalculator;
+import it.unisa.skiscore.util.WeatherCache;
+import it.unisa.skiscore.util.WeatherMapper;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Stato del dettaglio di un resort: meteo attuale (con Ski Score) e previsioni a 5 giorni,
+ * scaricati una volta sola. Le due richieste partono insieme e sono indipendenti: ognuna
+ * viene mostrata appena arriva e l'errore di una non blocca l'altra. Le previsioni stanno
+ * solo in {@link #getForecast()}: il {@link WeatherData} è la stessa istanza condivisa con
+ * {@link WeatherCache} e con la card della Home, quindi non va mai modificato.
+ * Se la card della Home aveva già il meteo ({@link WeatherCache}) il dettaglio parte da
+ * quello: la rete serve solo se il dato manca o è vecchio, e in quel caso l'aggiornamento
+ * avviene in background senza rotella. Lo stesso vale per le previsioni ({@link ForecastStore}),
+ * che restano lì anche per la schermata oraria.
+ * L'Activity ricreata dopo una rotazione ritrova qui i dati già arrivati, o le richieste
+ * ancora in corso, invece di ripeterle; le richieste vengono annullate solo quando il
+ * dettaglio viene chiuso.
+ *
+ * Da usare solo sul main thread.
+ */
+public class ResortDetailViewModel extends ViewModel {
+
+    private SkiResort resort;
+
+    private final MutableLiveData<WeatherData> current = new MutableLiveData<>();
+    private final MutableLiveData<List<DailyForecast>> forecast = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    /** Messaggio d'errore da mostrare una volta (id di stringa), poi {@link #onErrorShown()} */
+    private final MutableLiveData<Integer> error = new MutableLiveData<>();
+
+    private Call<OwmCurrentResponse> currentCall;
+    private Call<OwmForecastResponse> forecastCall;
+
+    /**
+     * Carica il meteo di {@code resort} alla prima chiamata; le successive (Activity ricreata)
+     * non fanno nulla e {@link #getResort()} restituisce il resort già caricato.
+     */
+    public void load(SkiResort resort) {
+        if (this.resort != null) return;
+        this.resort = resort;
+        WeatherCache.Entry cached = WeatherCache.getInstance().get(resort.getId());
+        if (cached != null) {
+            resort.setWeatherData(cached.data);
+            resort.setSkiScore(cached.skiScore);
+            current.setValue(cached.data);
+        }
+        // Due round-trip indipendenti: in parallelo, non uno dopo l'altro
+        if (cached == null || !cached.isFresh()) fetchWeather(cached == null);
+        fetchForecast();
+    }
+
+    /** Il resort mostrato, con meteo e Ski Score una volta arrivati; null prima di {@link #load} */
+    @Nullable
+    public SkiResort getResort() {
+        return resort;
+    }
+
+    public LiveData<WeatherData> getCurrent() {
+        return current;
+    }
+
+    public LiveData<List<DailyForecast>> getForecast() {
+        return forecast;
+    }
+
+    public LiveData<Boolean> getLoading() {
+        return loading;
+    }
+
+    public LiveData<Integer> getError() {
+        return error;
+    }
+
+    public void onErrorShown() {
+        error.setValue(null);
+    }
+
+    @Override
+    protected void onCleared() {
+        if (currentCall != null) currentCall.cancel();
+        if (forecastCall != null) forecastCall.cancel();
+    }
+
+    /**
+     * Fetch current weather from OWM.
+     * @param showProgress false when a stale copy is already on screen
+     */
+    private void fetchWeather(boolean showProgress) {
+        loading.setValue(showProgress);
+        currentCall = ApiClient.getWeatherService()
+                .getCurrentWeather(
+                        resort.getLatitude(),
+                        resort.getLongitude(),
+                        ApiClient.OWM_API_KEY,
+                        "metric",
+                        "it"
+                );
+        currentCall.enqueue(new Callback<OwmCurrentResponse>() {
+            @Override
+            public void onResponse(Call<OwmCurrentResponse> call,
+                                   Response<OwmCurrentResponse> response) {
+                currentCall = null;
+                loading.setValue(false);
+                if (response.isSuccessful() && response.body() != null) {
+                    WeatherData data = WeatherMapper.mapOwmCurrentToWeatherData(response.body());
+                    resort.setWeatherData(data);
+                    resort.setSkiScore(SkiScoreCalculator.calculateSkiScore(data));
+                    WeatherCache.getInstance().put(resort.getId(), data, resort.getSkiScore());
+                    current.setValue(data);
+                } else if (showProgress) {
+                    // Con una copia già a schermo l'aggiornamento fallito resta silenzioso
+                    error.setValue(R.string.error_generic);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<OwmCurrentResponse> call, Throwable t) {
+                currentCall = null;
+                if (call.isCanceled()) return;
+                loading.setValue(false);
+                if (showProgress) error.setValue(R.string.error_network);
+            }
+        });
+    }
+
+    /**
+     * Fetch 5-day forecast from OWM, unless a fresh one is already stored.
+     */
+    private void fetchForecast() {
+        ForecastStore.Forecast stored = ForecastStore.getInstance().get(resort.getId());
+        if (stored != null && stored.isFresh()) {
+            forecast.setValue(WeatherMapper.aggregateForecast(stored.response));
+            return;
+        }
+        forecastCall = ApiClient.getForecastService()
+                .getForecast(
+                        resort.getLatitude(),
+                        resort.getLongitude(),
+                        ApiClient.OWM_API_KEY,
+                        "metric",
+                        "it"
+                );
+        forecastCall.enqueue(new Callback<OwmForecastResponse>() {
+            @Override
+            public void onResponse(Call<OwmForecastResponse> call,
+                                   Response<OwmForecastResponse> response) {
+                forecastCall = null;
+                if (response.isSuccessful() && response.body() != null) {
+                    // Indicizzata per giorno, per la schermata oraria
+                    ForecastStore.getInstance().put(resort.getId(), response.body());
+                    forecast.setValue(WeatherMapper.aggregateForecast(response.body()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<OwmForecastResponse> call, Throwable t) {
+                forecastCall = null;
+                // Forecast is secondary: the current weather is shown anyway
+            }
+        });
+    }
+}
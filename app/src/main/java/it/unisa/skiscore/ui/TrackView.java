@@ -0,0 +1,98 @@
+package it.unisa.skiscore.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import it.unisa.skiscore.render.TrackGeometry;
+
+/**
+ * Disegna la traccia di una sessione colorata per velocità (blu = lento, rosso = veloce).
+ *
+ * Il livello di dettaglio segue lo zoom: ogni frame disegna solo i punti che differiscono
+ * di almeno mezzo pixel (semplificazione precalcolata in {@link TrackGeometry}), con una
+ * drawLines per fascia di velocità invece di una chiamata per segmento. Un livello non
+ * ancora in cache viene calcolato in background; nel frattempo si disegna il più vicino.
+ */
+public class TrackView extends ZoomableView {
+
+    /** Colori delle fasce di {@link TrackGeometry#SPEED_BUCKET_LIMITS_KMH} */
+    private static final int[] SPEED_COLORS = {
+            0xFF448AFF, 0xFF00E5FF, 0xFF00E676, 0xFFFFD600, 0xFFFF9100, 0xFFFF1744
+    };
+
+    /** Tolleranza di semplificazione in pixel dello schermo */
+    private static final float TOLERANCE_PX = 0.5f;
+
+    /** Calcolo dei livelli di dettaglio, condiviso da tutte le TrackView */
+    private static final ExecutorService lodExecutor = Executors.newSingleThreadExecutor();
+
+    private final Paint[] paints = new Paint[TrackGeometry.SPEED_BUCKETS];
+    private float strokeWidthPx;
+    private TrackGeometry geometry;
+
+    public TrackView(Context context) {
+        super(context);
+        init();
+    }
+
+    public TrackView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public TrackView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        strokeWidthPx = 3f * getResources().getDisplayMetrics().density;
+        for (int b = 0; b < paints.length; b++) {
+            Paint p = new Paint(Paint.ANTI_ALIAS_FLAG);
+            p.setStyle(Paint.Style.STROKE);
+            p.setStrokeCap(Paint.Cap.ROUND);
+            p.setColor(SPEED_COLORS[b]);
+            paints[b] = p;
+        }
+    }
+
+    /** Imposta la traccia (costruita in background) e la inquadra */
+    public void setTrack(@Nullable TrackGeometry geometry) {
+        this.geometry = geometry;
+        if (geometry != null) {
+            setContentBounds(geometry.getMinX(), geometry.getMinY(),
+                    geometry.getMaxX(), geometry.getMaxY());
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onDrawContent(@NonNull Canvas canvas, float scale) {
+        if (geometry == null || geometry.size() < 2) return;
+
+        float tolerance = TOLERANCE_PX / scale;
+        if (!geometry.hasLines(tolerance)) {
+            TrackGeometry g = geometry;
+            lodExecutor.execute(() -> {
+                g.linesFor(tolerance);
+                if (g == geometry) postInvalidate();
+            });
+        }
+        float[][] lines = geometry.cachedLinesNear(tolerance);
+        if (lines == null) return;
+        for (int b = 0; b < lines.length; b++) {
+            if (lines[b].length == 0) continue;
+            // Il canvas è in metri: lo spessore va riportato in pixel
+            paints[b].setStrokeWidth(strokeWidthPx / scale);
+            canvas.drawLines(lines[b], paints[b]);
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package it.unisa.skiscore.ui;
 
 import android.Manifest;
-import android.content.BroadcastReceiver;
-import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
@@ -23,73 +20,64 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
-import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.google.android.material.button.MaterialButton;
 
 import it.unisa.skiscore.R;
-import it.unisa.skiscore.db.AppDatabase;
-import it.unisa.skiscore.db.SkiSession;
-import it.unisa.skiscore.db.SkiSessionDao;
 import it.unisa.skiscore.tracker.SkiLocationService;
+import it.unisa.skiscore.tracker.TrackingSnapshot;
 
 /**
  * TrackerFragment — tutta la logica GPS tracker nella tab "Tracker".
- * Contiene: permessi, avvio/arresto Service, BroadcastReceiver, cronometro, SOS, salvataggio Room.
+ * Contiene: permessi, avvio/arresto Service, bind allo stato del Service, cronometro, SOS.
+ * Il salvataggio su Room della sessione avviene nel SkiLocationService allo STOP.
  */
 public class TrackerFragment extends Fragment {
 
     // Views
-    private TextView tvSpeed, tvDistance, tvTime, tvMaxSpeed, tvAvgSpeed, tvChairlift;
+    private TextView tvSpeed, tvDistance, tvTime, tvMaxSpeed, tvAvgSpeed, tvVertical, tvChairlift;
     private MaterialButton btnStartStop, btnSos;
 
     private boolean isTracking = false;
 
-    // Executor per Room (mai sul Main Thread)
-    private final java.util.concurrent.ExecutorService dbExecutor =
-            java.util.concurrent.Executors.newSingleThreadExecutor();
-
-    // Cache ultime stats per salvataggio DB
-    private float lastSpeed = 0f, lastDistance = 0f, lastMaxSpeed = 0f, lastAvgSpeed = 0f;
-    private long  lastElapsedMs = 0L;
-
-    // Cronometro UI
+    // Cronometro UI: 1 Hz allineato al secondo, fermo quando la tab non è visibile
     private final Handler timerHandler = new Handler(Looper.getMainLooper());
     private long startTimeMs = 0L;
     private final Runnable timerRunnable = new Runnable() {
         @Override
         public void run() {
             if (isTracking && tvTime != null) {
-                tvTime.setText(formatTime(System.currentTimeMillis() - startTimeMs));
-                timerHandler.postDelayed(this, 200);
+                long elapsed = System.currentTimeMillis() - startTimeMs;
+                tvTime.setText(formatTime(elapsed));
+                timerHandler.postDelayed(this, 1000 - elapsed % 1000);
             }
         }
     };
 
-    // BroadcastReceiver — riceve dati GPS ogni ~1s dal SkiLocationService
-    private final BroadcastReceiver trackingReceiver = new BroadcastReceiver() {
-        @Override
-        public void onReceive(Context context, Intent intent) {
-            float   speed    = intent.getFloatExtra(SkiLocationService.EXTRA_SPEED_KMH, 0f);
-            float   distance = intent.getFloatExtra(SkiLocationService.EXTRA_DISTANCE_KM, 0f);
-            float   maxSpeed = intent.getFloatExtra(SkiLocationService.EXTRA_MAX_SPEED_KMH, 0f);
-            float   avgSpeed = intent.getFloatExtra(SkiLocationService.EXTRA_AVG_SPEED_KMH, 0f);
-            boolean onLift   = intent.getBooleanExtra(SkiLocationService.EXTRA_IS_RIDING_LIFT, false);
-
-            if (tvSpeed == null) return;
-            tvSpeed.setText(String.format("%.1f", speed));
-            tvDistance.setText(String.format("%.2f", distance));
-            tvMaxSpeed.setText(String.format("%.1f km/h", maxSpeed));
-            tvAvgSpeed.setText(String.format("%.1f km/h", avgSpeed));
-            tvChairlift.setVisibility(onLift ? View.VISIBLE : View.GONE);
-
-            lastSpeed     = speed;
-            lastDistance  = distance;
-            lastMaxSpeed  = maxSpeed;
-            lastAvgSpeed  = avgSpeed;
-            lastElapsedMs = intent.getLongExtra(SkiLocationService.EXTRA_ELAPSED_MS, 0L);
+    // Collegamento al Service nel ViewModel, osservato solo con la tab visibile
+    private TrackerViewModel viewModel;
+
+    private void render(TrackingSnapshot state) {
+        if (state == null || tvSpeed == null) return;
+        // Riallinea pulsante e cronometro (es. tab ricreata a tracking in corso)
+        if (state.isTracking() && !isTracking) {
+            startTimeMs = state.getStartTimeMs();
+            setTrackingUi(true);
+        } else if (state.isTracking()) {
+            startTimeMs = state.getStartTimeMs();
+        } else if (isTracking && state.getStartTimeMs() >= startTimeMs) {
+            setTrackingUi(false);
         }
-    };
+
+        tvSpeed.setText(String.format("%.1f", state.getSpeedKmh()));
+        tvDistance.setText(String.format("%.2f", state.getDistanceKm()));
+        tvMaxSpeed.setText(String.format("%.1f km/h", state.getMaxSpeedKmh()));
+        tvAvgSpeed.setText(String.format("%.1f km/h", state.getAvgSpeedKmh()));
+        tvVertical.setText(String.format("↓ %.0f m", state.getDescentM()));
+        tvChairlift.setVisibility(state.isRidingLift() ? View.VISIBLE : View.GONE);
+    }
 
     // Permission launchers — devono essere registrati PRIMA di onCreateView
     private final ActivityResultLauncher<String[]> locationPermLauncher =
@@ -129,6 +117,7 @@ public class TrackerFragment extends Fragment {
         tvTime       = view.findViewById(R.id.tv_time);
         tvMaxSpeed   = view.findViewById(R.id.tv_max_speed);
         tvAvgSpeed   = view.findViewById(R.id.tv_avg_speed);
+        tvVertical   = view.findViewById(R.id.tv_vertical);
         tvChairlift  = view.findViewById(R.id.tv_chairlift_warning);
         btnStartStop = view.findViewById(R.id.btnStartStop);
         btnSos       = view.findViewById(R.id.btn_sos);
@@ -143,23 +132,46 @@ public class TrackerFragment extends Fragment {
         btnSos.setOnClickListener(v ->
                 Toast.makeText(requireContext(), "Tieni premuto per inviare SOS", Toast.LENGTH_SHORT).show());
 
+        viewModel = new ViewModelProvider(this).get(TrackerViewModel.class);
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+
         // Richiedi permessi GPS all'apertura della tab
         requestPermissionsIfNeeded();
     }
 
     @Override
-    public void onResume() {
-        super.onResume();
-        LocalBroadcastManager.getInstance(requireContext())
-                .registerReceiver(trackingReceiver,
-                        new IntentFilter(SkiLocationService.ACTION_TRACKING_UPDATE));
+    public void onStart() {
+        super.onStart();
+        // La MainActivity tiene vive le tab nascoste (STARTED): collegati solo se visibile
+        if (!isHidden()) connect();
     }
 
     @Override
-    public void onPause() {
-        super.onPause();
-        LocalBroadcastManager.getInstance(requireContext())
-                .unregisterReceiver(trackingReceiver);
+    public void onStop() {
+        super.onStop();
+        // In rotazione il collegamento resta al ViewModel: nessun unbind/bind
+        if (requireActivity().isChangingConfigurations()) {
+            timerHandler.removeCallbacks(timerRunnable);
+        } else {
+            disconnect();
+        }
+    }
+
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (hidden) disconnect();
+        else if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) connect();
+    }
+
+    private void connect() {
+        viewModel.connect();
+        if (isTracking) timerHandler.post(timerRunnable);
+    }
+
+    private void disconnect() {
+        timerHandler.removeCallbacks(timerRunnable);
+        viewModel.disconnect();
     }
 
     @Override
@@ -214,12 +226,8 @@ public class TrackerFragment extends Fragment {
     // ---- START / STOP ----
 
     private void doStartTracking() {
-        isTracking  = true;
         startTimeMs = System.currentTimeMillis();
-
-        btnStartStop.setText("STOP");
-        btnStartStop.setBackgroundTintList(
-                android.content.res.ColorStateList.valueOf(0xFFFF1744));
+        setTrackingUi(true);
 
         Intent intent = new Intent(requireContext(), SkiLocationService.class);
         intent.setAction(SkiLocationService.ACTION_START);
@@ -228,42 +236,31 @@ public class TrackerFragment extends Fragment {
         else
             requireContext().startService(intent);
 
-        timerHandler.post(timerRunnable);
         Toast.makeText(requireContext(), "🎿 Tracking avviato!", Toast.LENGTH_SHORT).show();
     }
 
     private void stopTracking() {
-        isTracking = false;
-        timerHandler.removeCallbacks(timerRunnable);
-
-        btnStartStop.setText("START");
-        btnStartStop.setBackgroundTintList(
-                android.content.res.ColorStateList.valueOf(0xFF00E5FF));
+        setTrackingUi(false);
 
         Intent intent = new Intent(requireContext(), SkiLocationService.class);
         intent.setAction(SkiLocationService.ACTION_STOP);
         requireContext().startService(intent);
-
-        saveSessionToDatabase();
+        // Sessione e discese vengono salvate dal Service (unico a conoscere l'ultima discesa)
     }
 
-    private void saveSessionToDatabase() {
-        final SkiSession session = new SkiSession(
-                System.currentTimeMillis(), lastElapsedMs, lastMaxSpeed, lastAvgSpeed, lastDistance,
-                SkiLocationService.lastKnownLocation != null
-                        ? (float) SkiLocationService.lastKnownLocation.getAltitude() : 0f);
-
-        dbExecutor.execute(() -> {
-            SkiSessionDao dao = AppDatabase.getInstance(requireContext()).skiSessionDao();
-            dao.insert(session);
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() ->
-                        Toast.makeText(requireContext(),
-                                String.format("✅ Sessione salvata! %.1f km · %.0f km/h max",
-                                        lastDistance, lastMaxSpeed),
-                                Toast.LENGTH_LONG).show());
-            }
-        });
+    private void setTrackingUi(boolean tracking) {
+        isTracking = tracking;
+        timerHandler.removeCallbacks(timerRunnable);
+        if (tracking) {
+            btnStartStop.setText("STOP");
+            btnStartStop.setBackgroundTintList(
+                    android.content.res.ColorStateList.valueOf(0xFFFF1744));
+            timerHandler.post(timerRunnable);
+        } else {
+            btnStartStop.setText("START");
+            btnStartStop.setBackgroundTintList(
+                    android.content.res.ColorStateList.valueOf(0xFF00E5FF));
+        }
     }
 
     // ---- S.O.S. ----
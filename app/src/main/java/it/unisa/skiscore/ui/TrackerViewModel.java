@@ -0,0 +1,77 @@
+package it.unisa.skiscore.ui;
+
+import android.app.Application;
+import android.content.ComponentName;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.IBinder;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import it.unisa.skiscore.tracker.SkiLocationService;
+import it.unisa.skiscore.tracker.TrackingSnapshot;
+
+/**
+ * Collegamento al {@link SkiLocationService} per la tab Tracker. Il bind è fatto con il
+ * contesto dell'applicazione e vive nel ViewModel, quindi una rotazione non scollega né
+ * ricollega il Service: il fragment ricreato riceve subito l'ultimo {@link TrackingSnapshot}.
+ *
+ * Da usare solo sul main thread.
+ */
+public class TrackerViewModel extends AndroidViewModel {
+
+    /** Ultimo stato del Service; null quando non si è collegati */
+    private final MediatorLiveData<TrackingSnapshot> state = new MediatorLiveData<>();
+    private LiveData<TrackingSnapshot> source;
+    private boolean bound = false;
+
+    private final ServiceConnection serviceConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            detach();
+            source = ((SkiLocationService.LocalBinder) service).getState();
+            state.addSource(source, state::setValue);
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            detach();
+        }
+    };
+
+    public TrackerViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    public LiveData<TrackingSnapshot> getState() {
+        return state;
+    }
+
+    /** Si collega al Service, se è avviato (senza BIND_AUTO_CREATE); idempotente */
+    public void connect() {
+        if (bound) return;
+        Application app = getApplication();
+        bound = app.bindService(new Intent(app, SkiLocationService.class), serviceConnection, 0);
+    }
+
+    public void disconnect() {
+        if (!bound) return;
+        getApplication().unbindService(serviceConnection);
+        bound = false;
+        detach();
+    }
+
+    private void detach() {
+        if (source != null) state.removeSource(source);
+        source = null;
+        state.setValue(null);
+    }
+
+    @Override
+    protected void onCleared() {
+        disconnect();
+    }
+}
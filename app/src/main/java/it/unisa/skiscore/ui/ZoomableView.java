@@ -0,0 +1,144 @@
+package it.unisa.skiscore.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Base per le viste con contenuto in coordinate "mondo" (metri o pixel di mappa):
+ * adatta il contenuto alla vista, pinch per lo zoom, trascinamento per lo spostamento,
+ * doppio tap per tornare alla vista iniziale.
+ *
+ * Le sottoclassi disegnano in {@link #onDrawContent(Canvas, float)} con il canvas già
+ * trasformato; la scala (pixel per unità) serve a scegliere il livello di dettaglio.
+ */
+public abstract class ZoomableView extends View {
+
+    private static final float MAX_ZOOM = 64f;
+    private static final float FIT_MARGIN = 0.9f;
+
+    private final RectF contentBounds = new RectF();
+    private float fitScale = 1f;
+    private float zoom = 1f;
+    private float panX = 0f, panY = 0f;
+
+    private ScaleGestureDetector scaleDetector;
+    private GestureDetector gestureDetector;
+
+    public ZoomableView(Context context) {
+        super(context);
+        init(context);
+    }
+
+    public ZoomableView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        init(context);
+    }
+
+    public ZoomableView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(context);
+    }
+
+    private void init(Context context) {
+        scaleDetector = new ScaleGestureDetector(context,
+                new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+                    @Override
+                    public boolean onScale(@NonNull ScaleGestureDetector d) {
+                        float newZoom = Math.max(1f, Math.min(MAX_ZOOM, zoom * d.getScaleFactor()));
+                        float f = newZoom / zoom;
+                        // Zoom attorno al punto focale del gesto
+                        float cx = getWidth() / 2f + panX, cy = getHeight() / 2f + panY;
+                        panX += (d.getFocusX() - cx) * (1 - f);
+                        panY += (d.getFocusY() - cy) * (1 - f);
+                        zoom = newZoom;
+                        invalidate();
+                        return true;
+                    }
+                });
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(@Nullable MotionEvent e1, @NonNull MotionEvent e2,
+                                    float distanceX, float distanceY) {
+                panX -= distanceX;
+                panY -= distanceY;
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                resetZoom();
+                return true;
+            }
+        });
+    }
+
+    /** Rettangolo del contenuto da inquadrare all'apertura, in coordinate mondo */
+    protected void setContentBounds(float left, float top, float right, float bottom) {
+        contentBounds.set(left, top, right, bottom);
+        updateFitScale(getWidth(), getHeight());
+        resetZoom();
+    }
+
+    public void resetZoom() {
+        zoom = 1f;
+        panX = 0f;
+        panY = 0f;
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateFitScale(w, h);
+    }
+
+    private void updateFitScale(int w, int h) {
+        float cw = Math.max(1f, contentBounds.width());
+        float ch = Math.max(1f, contentBounds.height());
+        if (w > 0 && h > 0) fitScale = FIT_MARGIN * Math.min(w / cw, h / ch);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            // Dentro un dialog o una lista: i gesti restano alla vista
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected final void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        float scale = fitScale * zoom;
+        canvas.save();
+        canvas.translate(getWidth() / 2f + panX, getHeight() / 2f + panY);
+        canvas.scale(scale, scale);
+        canvas.translate(-contentBounds.centerX(), -contentBounds.centerY());
+        onDrawContent(canvas, scale);
+        canvas.restore();
+    }
+
+    /**
+     * @param canvas canvas in coordinate mondo
+     * @param scale  pixel dello schermo per unità di mondo
+     */
+    protected abstract void onDrawContent(@NonNull Canvas canvas, float scale);
+}
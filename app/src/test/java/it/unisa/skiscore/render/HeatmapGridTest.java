@@ -0,0 +1,66 @@
+package it.unisa.skiscore.render;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rasterisation of tracks into {@link HeatmapGrid} tiles.
+ */
+public class HeatmapGridTest {
+
+    @Test
+    public void consecutivePoints_areJoinedWithoutGaps() {
+        HeatmapGrid grid = new HeatmapGrid();
+        // 0.0007° east at zoom 15: 17 px away, well under the join limit
+        grid.addPoint(465_000_000, 118_000_000);
+        grid.addPoint(465_000_000, 118_007_000);
+
+        assertEquals(1 + 17, countPixels(grid));
+        assertEquals(1, grid.getMaxCount());
+    }
+
+    @Test
+    public void longJumpsAndBrokenTracks_areNotJoined() {
+        HeatmapGrid grid = new HeatmapGrid();
+        grid.addPoint(465_000_000, 118_000_000);
+        grid.addPoint(465_000_000, 118_100_000);   // ~770 m: lost signal
+        assertEquals(2, countPixels(grid));
+
+        grid.breakTrack();
+        grid.addPoint(465_000_000, 118_107_000);   // close, but a new track
+        assertEquals(3, countPixels(grid));
+    }
+
+    @Test
+    public void repeatedPasses_areCountedAndColouredBrighter() {
+        HeatmapGrid grid = new HeatmapGrid();
+        for (int pass = 0; pass < 3; pass++) {
+            grid.breakTrack();
+            grid.addPoint(465_000_000, 118_000_000);
+            grid.addPoint(465_000_000, 118_002_000);
+        }
+        grid.breakTrack();
+        grid.addPoint(465_010_000, 118_050_000);
+
+        assertEquals(3, grid.getMaxCount());
+        int[] pixels = grid.renderTile(grid.busiestTile());
+        int brightest = 0, faintest = Integer.MAX_VALUE;
+        for (int p : pixels) {
+            if (p == 0) continue;
+            brightest = Math.max(brightest, p >>> 24);
+            faintest  = Math.min(faintest, p >>> 24);
+        }
+        assertEquals(255, brightest);   // alpha of the busiest pixels
+        assertTrue(faintest < brightest);
+    }
+
+    private static int countPixels(HeatmapGrid grid) {
+        int n = 0;
+        for (int[] tile : grid.getTiles().values()) {
+            for (int c : tile) if (c > 0) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,83 @@
+package it.unisa.skiscore.render;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Speed buckets and the level cache that {@link TrackGeometry} serves to onDraw.
+ */
+public class TrackGeometryTest {
+
+    @Test
+    public void speedBucket_limitsAreExclusive() {
+        assertEquals(0, TrackGeometry.speedBucket(0f));
+        assertEquals(0, TrackGeometry.speedBucket(9.99f));
+        assertEquals(1, TrackGeometry.speedBucket(10f));
+        assertEquals(3, TrackGeometry.speedBucket(49.9f));
+        assertEquals(TrackGeometry.SPEED_BUCKETS - 1, TrackGeometry.speedBucket(65f));
+        assertEquals(TrackGeometry.SPEED_BUCKETS - 1, TrackGeometry.speedBucket(120f));
+    }
+
+    @Test
+    public void linesFor_putsEachSegmentInTheBucketOfItsAverageSpeed() {
+        // Straight line north: slow first half, fast second half, one NaN speed
+        int n = 10;
+        int[] lat = new int[n], lon = new int[n];
+        float[] speed = new float[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 465_000_000 + i * 1_000; // ~11 m apart
+            lon[i] = 118_000_000;
+            speed[i] = i < 5 ? 5f : 55f;
+        }
+        speed[0] = Float.NaN;
+        TrackGeometry g = new TrackGeometry(lat, lon, speed, n);
+
+        float[][] all = g.linesFor(0f);
+        assertEquals(4 * 4, all[0].length);                       // 4 segments under 10 km/h
+        assertEquals(4, all[2].length);                           // (5 + 55) / 2 = 30 km/h
+        assertEquals(4 * 4, all[4].length);                       // 4 segments at 55 km/h
+        float[][] simplified = g.linesFor(5f);                    // collinear: one segment
+        int segments = 0;
+        for (float[] bucket : simplified) segments += bucket.length / 4;
+        assertEquals(1, segments);
+        assertEquals(-(n - 1) * 11.132f, g.getMinY(), 0.1f);      // y grows southwards
+    }
+
+    @Test
+    public void cachedLinesNear_prefersTheClosestLevelThenTheMoreDetailed() {
+        TrackGeometry g = zigzag();
+        assertNull(g.cachedLinesNear(4f));
+        assertFalse(g.hasLines(4f));
+
+        float[][] level1 = g.linesFor(2f);   // 2 m
+        float[][] level3 = g.linesFor(8f);   // 8 m
+        assertTrue(g.hasLines(3f));
+        assertSame(level1, g.cachedLinesNear(2.5f));  // exact level
+        assertSame(level3, g.cachedLinesNear(9f));    // exact level
+        assertSame(level1, g.cachedLinesNear(4f));    // level 2: a tie, the detailed one wins
+        assertSame(level3, g.cachedLinesNear(16f));   // level 4: 8 m is closer
+        assertSame(level1, g.cachedLinesNear(0.5f));  // level -1: 2 m is closer
+        assertSame(level1, g.cachedLinesNear(0f));    // full detail: the finest cached level
+
+        float[][] level2 = g.linesFor(4f);
+        assertSame(level2, g.cachedLinesNear(5f));
+    }
+
+    /** 200 points zig-zagging 1 m around a line, so every level differs */
+    private static TrackGeometry zigzag() {
+        int n = 200;
+        int[] lat = new int[n], lon = new int[n];
+        float[] speed = new float[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 465_000_000 + i * 300;
+            lon[i] = 118_000_000 + (i % 2) * 130 * (1 + i % 7);
+            speed[i] = 30f;
+        }
+        return new TrackGeometry(lat, lon, speed, n);
+    }
+}
@@ -0,0 +1,88 @@
+package it.unisa.skiscore.render;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Douglas–Peucker significances and the per-level index cache of {@link TrackSimplifier}.
+ */
+public class TrackSimplifierTest {
+
+    private static final float[] TOLERANCES = {0f, 0.1f, 0.5f, 1f, 3f, 7f, 16f, 50f, 200f, 1e4f};
+
+    @Test
+    public void endpoints_areAlwaysKept() {
+        TrackSimplifier s = randomWalk(500, 1);
+        for (float tolerance : TOLERANCES) {
+            int[] idx = s.indicesFor(tolerance);
+            assertTrue("tolerance " + tolerance, idx.length >= 2);
+            assertEquals(0, idx[0]);
+            assertEquals(s.size() - 1, idx[idx.length - 1]);
+        }
+    }
+
+    @Test
+    public void pointCount_neverGrowsWithTheTolerance() {
+        TrackSimplifier s = randomWalk(2000, 2);
+        int previous = Integer.MAX_VALUE;
+        for (float tolerance : TOLERANCES) {
+            int[] idx = s.indicesFor(tolerance);
+            assertTrue("tolerance " + tolerance + ": " + idx.length + " > " + previous,
+                    idx.length <= previous);
+            for (int k = 1; k < idx.length; k++) assertTrue(idx[k] > idx[k - 1]);
+            previous = idx.length;
+        }
+        assertEquals(2000, s.indicesFor(0f).length);
+        assertEquals(2, s.indicesFor(1e4f).length);
+    }
+
+    @Test
+    public void collinearTrack_collapsesToItsEndpoints() {
+        int n = 100;
+        float[] x = new float[n], y = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i * 3.7f;
+            y[i] = -i * 1.3f;
+        }
+        TrackSimplifier s = new TrackSimplifier(x, y);
+        assertArrayEquals(new int[]{0, n - 1}, s.indicesFor(1f));
+        assertEquals(n, s.indicesFor(0f).length); // below the minimum tolerance: every point
+    }
+
+    @Test
+    public void spike_isKeptUntilTheToleranceExceedsItsHeight() {
+        // Flat 100 m line with a 10 m spike in the middle
+        float[] x = {0, 25, 50, 75, 100};
+        float[] y = {0, 0, 10, 0, 0};
+        TrackSimplifier s = new TrackSimplifier(x, y);
+        assertArrayEquals(new int[]{0, 2, 4}, s.indicesFor(8f));
+        assertArrayEquals(new int[]{0, 4}, s.indicesFor(16f));
+    }
+
+    @Test
+    public void tolerancesOfTheSameLevel_shareTheCachedIndices() {
+        TrackSimplifier s = randomWalk(300, 3);
+        assertSame(s.indicesFor(4f), s.indicesFor(7.9f));
+        assertEquals(TrackSimplifier.levelFor(4f), TrackSimplifier.levelFor(7.9f));
+        assertTrue(TrackSimplifier.levelFor(8f) > TrackSimplifier.levelFor(7.9f));
+    }
+
+    /** Ski-like track: 5 m steps with a slowly wandering heading */
+    static TrackSimplifier randomWalk(int n, long seed) {
+        Random random = new Random(seed);
+        float[] x = new float[n], y = new float[n];
+        double heading = 0;
+        for (int i = 1; i < n; i++) {
+            heading += random.nextGaussian() * 0.3;
+            x[i] = x[i - 1] + (float) (5 * Math.cos(heading));
+            y[i] = y[i - 1] + (float) (5 * Math.sin(heading));
+        }
+        return new TrackSimplifier(x, y);
+    }
+}
@@ -0,0 +1,46 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+}
+
+android {
+    namespace = "it.unisa.skiscore.benchmark"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        minSdk = 24
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    // Benchmarks run against a release build of the library, like the app ships
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isDefault = true
+        }
+    }
+
+    sourceSets {
+        // The same recorded API responses the macrobenchmarks serve
+        getByName("androidTest").assets.srcDir("../fixtures")
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    // The code under test is exactly what the app ships
+    implementation(project(":core"))
+
+    // Synthetic ski days for the tracking benchmark
+    androidTestImplementation(testFixtures(project(":core")))
+
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.benchmark.junit4)
+}
@@ -0,0 +1,148 @@
+package it.unisa.skiscore.benchmark;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.analytics.SeasonAnalytics;
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.ResortCatalogue;
+import it.unisa.skiscore.db.SkiRun;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.TrackPoint;
+
+/**
+ * The season dashboard queries against five seasons of history: 300 sessions of 12 runs,
+ * each with its full track (one point every 10 s, ~540,000 points in all). The target is
+ * under 50 ms for any of them; none should read the tracks, so the numbers must not move
+ * with the size of track_points.
+ *
+ * The database is a file, like the app's, written once for the whole class.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DashboardBenchmark {
+
+    private static final String DB_NAME = "dashboard-benchmark.db";
+    private static final int SEASONS = 5;
+    private static final int SESSIONS_PER_SEASON = 60;
+    private static final int RUNS_PER_SESSION = 12;
+    private static final int RESORTS = 20;
+    private static final long DAY_MS = 86_400_000L;
+    private static final long SESSION_MS = 5 * 3_600_000L;
+    private static final long POINT_EVERY_MS = 10_000L;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private static AppDatabase db;
+    private static SeasonAnalytics analytics;
+
+    @BeforeClass
+    public static void seed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        db = Room.databaseBuilder(context, AppDatabase.class, DB_NAME).build();
+        db.runInTransaction(() -> {
+            db.resortDao().insertAll(ResortCatalogue.RESORTS);
+            // Two or three days a week through each winter, ending yesterday
+            long end = System.currentTimeMillis() - DAY_MS;
+            for (int season = 0; season < SEASONS; season++) {
+                for (int i = 0; i < SESSIONS_PER_SEASON; i++) {
+                    seedSession(end - season * 365 * DAY_MS - i * 3 * DAY_MS, season * SESSIONS_PER_SEASON + i);
+                }
+            }
+        });
+        analytics = new SeasonAnalytics(db.analyticsDao());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        db.close();
+        InstrumentationRegistry.getInstrumentation().getTargetContext().deleteDatabase(DB_NAME);
+    }
+
+    private static void seedSession(long date, int n) {
+        SkiSession session = new SkiSession(date, SESSION_MS, 60f + n % 30, 28f + n % 10,
+                35f + n % 20, 4_000f + 37 * (n % 50), 4_100f + 37 * (n % 50));
+        session.runCount = RUNS_PER_SESSION;
+        session.resortId = ResortCatalogue.RESORTS.get(n % RESORTS).id;
+        long sessionId = db.seasonStatsDao().insertSession(session);
+
+        long start = date - SESSION_MS;
+        List<SkiRun> runs = new ArrayList<>(RUNS_PER_SESSION);
+        for (int r = 0; r < RUNS_PER_SESSION; r++) {
+            SkiRun run = new SkiRun(r, start + r * 1_200_000L, 420_000L,
+                    300f + (n * 7 + r * 13) % 400, 2f + (n + r) % 30 / 10f, 50f + (n * 3 + r) % 45, 26f);
+            run.sessionId = sessionId;
+            runs.add(run);
+        }
+        db.skiRunDao().insertAll(runs);
+
+        List<TrackPoint> points = new ArrayList<>((int) (SESSION_MS / POINT_EVERY_MS));
+        for (long t = start; t < date; t += POINT_EVERY_MS) {
+            TrackPoint p = new TrackPoint(t, 465_000_000 + (int) (t % 100_000),
+                    118_000_000 + (int) (t / 7 % 100_000), 1_500f + t % 900, 20f);
+            p.sessionId = sessionId;
+            points.add(p);
+        }
+        db.trackPointDao().insertAll(points);
+    }
+
+    /** Rolling weekly volume for a year, 4-week window: the dashboard chart */
+    @Test
+    public void recentWeeks() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            analytics.recentWeeks(52, 4);
+        }
+    }
+
+    @Test
+    public void seasons() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            analytics.seasons();
+        }
+    }
+
+    @Test
+    public void resorts() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            analytics.resorts();
+        }
+    }
+
+    @Test
+    public void personalBests() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            analytics.personalBests();
+        }
+    }
+
+    /** Everything the dashboard shows on open */
+    @Test
+    public void fullDashboard() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            analytics.recentWeeks(52, 4);
+            analytics.seasons();
+            analytics.resorts();
+            analytics.personalBests();
+        }
+    }
+}
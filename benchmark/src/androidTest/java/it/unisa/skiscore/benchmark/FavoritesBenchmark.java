@@ -0,0 +1,86 @@
+package it.unisa.skiscore.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import it.unisa.skiscore.db.Resort;
+import it.unisa.skiscore.db.ResortCatalogue;
+import it.unisa.skiscore.model.SkiResort;
+import it.unisa.skiscore.util.FavoritesManager;
+
+/**
+ * Favorite lookups as the search results and resort cards do them, against 20 stored
+ * favorites. The database writes of a toggle run on the manager's executor and are not
+ * part of the measured time, exactly as on the main thread of the app; the benchmark
+ * waits for them between iterations, untimed, so they never pile up or overlap it.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FavoritesBenchmark {
+
+    private static final int FAVORITES = 20;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private FavoritesManager favorites;
+    private final List<SkiResort> candidates = new ArrayList<>();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        favorites = FavoritesManager.getInstance(
+                InstrumentationRegistry.getInstrumentation().getTargetContext());
+        // Reads never wait for the initial load, so wait here: measure the loaded state
+        CountDownLatch loaded = new CountDownLatch(1);
+        favorites.loadFavorites(list -> loaded.countDown());
+        loaded.await();
+        // Half of the lookups hit a favorite, half miss
+        for (int i = 0; i < 2 * FAVORITES; i++) {
+            Resort r = ResortCatalogue.RESORTS.get(i);
+            SkiResort resort = new SkiResort(r.name, r.country, r.latE7 / 1e7, r.lonE7 / 1e7);
+            if (i < FAVORITES && !favorites.isFavorite(resort)) favorites.addFavorite(resort);
+            candidates.add(resort);
+        }
+    }
+
+    @Test
+    public void isFavorite() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (SkiResort resort : candidates) favorites.isFavorite(resort);
+        }
+    }
+
+    @Test
+    public void toggleFavorite() throws InterruptedException {
+        SkiResort resort = candidates.get(2 * FAVORITES - 1);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            favorites.toggleFavorite(resort);
+            favorites.toggleFavorite(resort);
+            // Each pair queues two transactions: let them finish untimed, so the queue does not
+            // grow across iterations and its disk I/O does not overlap the next measurement
+            state.pauseTiming();
+            favorites.awaitPendingWrites();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void getFavorites() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            favorites.getFavorites();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package it.unisa.skiscore.benchmark;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/** Reads the recorded API responses in /fixtures, packaged as test assets */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static String read(String name) throws IOException {
+        try (InputStream in = InstrumentationRegistry.getInstrumentation().getContext()
+                .getAssets().open(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) out.write(buffer, 0, n);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
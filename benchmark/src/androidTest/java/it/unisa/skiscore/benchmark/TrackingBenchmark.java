@@ -0,0 +1,65 @@
+package it.unisa.skiscore.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import it.unisa.skiscore.replay.ReplayEngine;
+import it.unisa.skiscore.replay.SyntheticTrackGenerator;
+import it.unisa.skiscore.tracker.GpsFix;
+import it.unisa.skiscore.tracker.SimulatedPressureSource;
+import it.unisa.skiscore.tracker.SkiTrackProcessor;
+
+/**
+ * The tracking pipeline the service runs for every GPS fix (speed, altitude fusion,
+ * segmentation, vertical, distance), over a synthetic day of 12 laps (~8,000 fixes).
+ * Divide the reported time by the fix count for the cost of one fix.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TrackingBenchmark {
+
+    private static final long START_MS = 1_706_000_000_000L;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private SyntheticTrackGenerator day;
+    private List<GpsFix> fixes;
+
+    @Before
+    public void setUp() {
+        day = new SyntheticTrackGenerator(9, START_MS, 3000, 46.5, 11.8, 1600)
+                .withNoise(4, 8, 0.5).withOutliers(0.005, 100);
+        for (int lap = 0; lap < 12; lap++) day.idle(60).lift(360, 400).run(300, 400).idle(60);
+        fixes = day.build();
+    }
+
+    @Test
+    public void processDay() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            SkiTrackProcessor processor = new SkiTrackProcessor();
+            for (GpsFix fix : fixes) processor.onFix(fix);
+            processor.finish();
+        }
+    }
+
+    @Test
+    public void processDayWithBarometer() throws InterruptedException {
+        ReplayEngine engine = new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            // 1 Hz pressure in 10-sample batches, as the barometer FIFO delivers it
+            SimulatedPressureSource barometer =
+                    new SimulatedPressureSource(day, START_MS, 1000, 10, 0.05, 9);
+            engine.replay(fixes, new SkiTrackProcessor(), barometer, null);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package it.unisa.skiscore.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import it.unisa.skiscore.api.GeocodingResponse;
+import it.unisa.skiscore.api.OwmCurrentResponse;
+import it.unisa.skiscore.api.OwmForecastResponse;
+import it.unisa.skiscore.model.WeatherData;
+import it.unisa.skiscore.util.SkiScoreCalculator;
+import it.unisa.skiscore.util.WeatherMapper;
+
+/**
+ * The work done for every resort card and detail page once the responses have arrived:
+ * JSON parsing (the same Gson setup Retrofit uses), mapping, daily aggregation of the
+ * 40-slot forecast and the Ski Score.
+ * Run with ./gradlew :benchmark:connectedReleaseAndroidTest on a physical device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WeatherBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final Gson gson = new Gson();
+    private String currentJson;
+    private String forecastJson;
+    private String searchJson;
+
+    @Before
+    public void setUp() throws IOException {
+        currentJson = Fixtures.read("owm_current.json");
+        forecastJson = Fixtures.read("owm_forecast.json");
+        searchJson = Fixtures.read("geocoding_search.json");
+    }
+
+    @Test
+    public void parseCurrent() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            gson.fromJson(currentJson, OwmCurrentResponse.class);
+        }
+    }
+
+    @Test
+    public void parseForecast() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            gson.fromJson(forecastJson, OwmForecastResponse.class);
+        }
+    }
+
+    @Test
+    public void parseSearch() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            gson.fromJson(searchJson, GeocodingResponse.class);
+        }
+    }
+
+    @Test
+    public void aggregateForecast() {
+        OwmForecastResponse forecast = gson.fromJson(forecastJson, OwmForecastResponse.class);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            WeatherMapper.aggregateForecast(forecast);
+        }
+    }
+
+    @Test
+    public void mapAndScore() {
+        OwmCurrentResponse current = gson.fromJson(currentJson, OwmCurrentResponse.class);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            WeatherData data = WeatherMapper.mapOwmCurrentToWeatherData(current);
+            SkiScoreCalculator.calculateSkiScore(data);
+        }
+    }
+}
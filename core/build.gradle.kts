@@ -0,0 +1,56 @@
+plugins {
+    alias(libs.plugins.android.library)
+}
+
+// The app's Android-independent layers: model, API responses, Room database, analytics,
+// tracking pipeline, track formats and caches. Nothing here may use the app's resources,
+// BuildConfig or UI: :app and :benchmark both depend on this module.
+android {
+    namespace = "it.unisa.skiscore.core"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        minSdk = 24
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Room: export the schema of every database version to core/schemas
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf(
+                    "room.schemaLocation" to "$projectDir/schemas",
+                    "room.incremental" to "true"
+                )
+            }
+        }
+    }
+
+    // Synthetic and recorded ski days (replay/*, SimulatedPressureSource): used by the JVM
+    // tests here and by :benchmark, never shipped
+    testFixtures {
+        enable = true
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    // Part of the API of the DAOs and services: exposed to the modules using them
+    api(libs.room.runtime)
+    api(libs.room.paging)
+    api(libs.paging.runtime)
+    api(libs.lifecycle.livedata)
+    api(libs.retrofit)
+    api(libs.gson)
+    annotationProcessor(libs.room.compiler)
+
+    testImplementation(libs.junit)
+    // XmlPullParser implementation for JVM tests (android.jar only has stubs)
+    testImplementation(libs.kxml2)
+    androidTestImplementation(libs.ext.junit)
+}
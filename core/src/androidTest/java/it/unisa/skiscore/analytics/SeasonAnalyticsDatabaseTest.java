@@ -0,0 +1,296 @@
+package it.unisa.skiscore.analytics;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import it.unisa.skiscore.db.AnalyticsDao;
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.Resort;
+import it.unisa.skiscore.db.ResortCatalogue;
+import it.unisa.skiscore.db.SeasonCalendar;
+import it.unisa.skiscore.db.SeasonStats;
+import it.unisa.skiscore.db.SkiRun;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.WeeklyStats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link SeasonAnalytics} and the {@link AnalyticsDao} queries against an in-memory database
+ * seeded with three seasons, written through the same DAOs the app uses. Expected totals are
+ * recomputed here from the seeded sessions, independently of the rollup code.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SeasonAnalyticsDatabaseTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final float EPS = 0.01f;
+
+    private static final Resort RESORT_A = ResortCatalogue.RESORTS.get(0);
+    private static final Resort RESORT_B = ResortCatalogue.RESORTS.get(1);
+
+    private AppDatabase db;
+    private SeasonAnalytics analytics;
+    private final List<SkiSession> sessions = new ArrayList<>();
+
+    /** The record runs, each in a different session and season */
+    private SkiSession biggestDropSession, fastestSession, longestSession;
+
+    @Before
+    public void setUp() {
+        db = Room.inMemoryDatabaseBuilder(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                AppDatabase.class).build();
+        db.resortDao().insertAll(ResortCatalogue.RESORTS);
+        analytics = new SeasonAnalytics(db.analyticsDao());
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    /** Three seasons; two sessions share a day, two more share a week; two have no resort. */
+    private void seedSeasons() {
+        // Season 2022 (winter 2022/23)
+        seed(2022, Calendar.DECEMBER, 10, RESORT_A, run(320, 2.5f, 55), run(300, 2.2f, 58));
+        seed(2022, Calendar.DECEMBER, 10, RESORT_A, run(280, 2.0f, 52));
+        biggestDropSession = seed(2023, Calendar.JANUARY, 15, RESORT_B,
+                run(1450, 3.9f, 68), run(350, 2.6f, 60));
+        seed(2023, Calendar.MARCH, 4, null, run(410, 3.1f, 62));
+        // Season 2023
+        seed(2023, Calendar.DECEMBER, 23, RESORT_A, run(330, 2.4f, 57), run(360, 2.7f, 59));
+        fastestSession = seed(2024, Calendar.JANUARY, 2, RESORT_B,
+                run(500, 3.5f, 98.5f), run(340, 2.5f, 61));
+        seed(2024, Calendar.JANUARY, 3, RESORT_B, run(380, 2.9f, 63));
+        seed(2024, Calendar.FEBRUARY, 18, RESORT_A, run(420, 3.3f, 64), run(390, 3.0f, 66));
+        // Season 2024
+        seed(2024, Calendar.DECEMBER, 28, RESORT_B, run(310, 2.3f, 56));
+        longestSession = seed(2025, Calendar.JANUARY, 4, RESORT_A,
+                run(600, 9.8f, 70), run(300, 2.1f, 54));
+        seed(2025, Calendar.APRIL, 12, null, run(260, 1.9f, 50));
+    }
+
+    @Test
+    public void emptyDatabase_hasNoSeasonsResortsOrBests() {
+        assertEquals(0, analytics.seasons().size());
+        assertEquals(0, analytics.resorts().size());
+        SeasonAnalytics.PersonalBests bests = analytics.personalBests();
+        assertNull(bests.fastestRun);
+        assertNull(bests.biggestDropRun);
+        assertNull(bests.longestRun);
+    }
+
+    @Test
+    public void seasons_totalTheirSessions() {
+        seedSeasons();
+        List<SeasonStats> seasons = analytics.seasons();
+
+        assertEquals(3, seasons.size());
+        int[] sessionCounts = {4, 4, 3};
+        int[] daysSkied     = {3, 4, 3};
+        for (int i = 0; i < 3; i++) {
+            SeasonStats s = seasons.get(i);
+            assertEquals(2022 + i, s.season);
+            assertEquals(sessionCounts[i], s.sessionCount);
+            assertEquals(daysSkied[i], s.daysSkied);
+
+            float distance = 0, drop = 0, maxSpeed = 0;
+            long duration = 0;
+            for (SkiSession session : sessionsOfSeason(s.season)) {
+                distance += session.totalDistance;
+                drop     += session.verticalDrop;
+                maxSpeed  = Math.max(maxSpeed, session.maxSpeed);
+                duration += session.duration;
+            }
+            assertEquals(distance, s.totalDistance, EPS);
+            assertEquals(drop, s.verticalDrop, EPS);
+            assertEquals(maxSpeed, s.maxSpeed, EPS);
+            assertEquals(duration, s.totalDuration);
+            assertEquals(drop * HOUR_MS / duration, SeasonAnalytics.verticalPerHour(s), EPS);
+        }
+    }
+
+    @Test
+    public void weeks_rollUpTheSessionsOfEachWeek() {
+        seedSeasons();
+        Map<Integer, WeeklyStats> expected = new TreeMap<>();
+        for (SkiSession session : sessions) {
+            int weekStart = SeasonCalendar.weekStart(session.localDay);
+            WeeklyStats week = expected.get(weekStart);
+            if (week == null) expected.put(weekStart, week = new WeeklyStats(weekStart));
+            week.sessionCount++;
+            week.runCount      += session.runCount;
+            week.totalDistance += session.totalDistance;
+            week.verticalDrop  += session.verticalDrop;
+            week.totalDuration += session.duration;
+        }
+
+        int first = SeasonCalendar.firstDay(2022);
+        int last  = SeasonCalendar.lastDay(2024);
+        List<WeeklyStats> weeks = db.analyticsDao().getWeeks(first, last);
+
+        // 11 sessions: one pair on the same day, another in the same week
+        assertEquals(9, weeks.size());
+        int i = 0;
+        for (WeeklyStats want : expected.values()) {
+            WeeklyStats got = weeks.get(i++);
+            assertEquals(want.weekStart, got.weekStart);
+            assertEquals(want.sessionCount, got.sessionCount);
+            assertEquals(want.runCount, got.runCount);
+            assertEquals(want.totalDistance, got.totalDistance, EPS);
+            assertEquals(want.verticalDrop, got.verticalDrop, EPS);
+            assertEquals(want.totalDuration, got.totalDuration);
+        }
+        // One season only: 23 Dec, 2-3 Jan (one week), 18 Feb
+        assertEquals(3, db.analyticsDao()
+                .getWeeks(SeasonCalendar.firstDay(2023), SeasonCalendar.lastDay(2023)).size());
+    }
+
+    @Test
+    public void recentWeeks_zeroFillsAndSumsTheTrailingWindow() {
+        SkiSession yesterday = seedDaysAgo(1, run(400, 3.0f, 60));
+        SkiSession twoWeeksAgo = seedDaysAgo(15, run(350, 2.5f, 58), run(300, 2.0f, 55));
+
+        List<WeekVolume> weeks = analytics.recentWeeks(4, 2);
+        int today = SeasonCalendar.localDay(System.currentTimeMillis(), TimeZone.getDefault());
+
+        assertEquals(4, weeks.size());
+        assertEquals(SeasonCalendar.weekStart(today), weeks.get(3).getWeekStart());
+        int sessionCount = 0, runCount = 0;
+        float distance = 0;
+        for (int i = 0; i < weeks.size(); i++) {
+            WeekVolume w = weeks.get(i);
+            if (i > 0) assertEquals(7, w.getWeekStart() - weeks.get(i - 1).getWeekStart());
+            sessionCount += w.getSessionCount();
+            runCount     += w.getRunCount();
+            distance     += w.getDistanceKm();
+            // Nothing was recorded in the week before the first one shown
+            float previous = i > 0 ? weeks.get(i - 1).getDistanceKm() : 0f;
+            assertEquals(w.getDistanceKm() + previous, w.getRollingDistanceKm(), EPS);
+        }
+        assertEquals(2, sessionCount);
+        assertEquals(3, runCount);
+        assertEquals(yesterday.totalDistance + twoWeeksAgo.totalDistance, distance, EPS);
+    }
+
+    @Test
+    public void personalBests_pickTheRecordRunsWithTheirSessionDate() {
+        seedSeasons();
+        SeasonAnalytics.PersonalBests bests = analytics.personalBests();
+
+        assertEquals(98.5f, bests.fastestRun.run.maxSpeed, EPS);
+        assertEquals(fastestSession.date, bests.fastestRun.sessionDate);
+        assertEquals(fastestSession.id, bests.fastestRun.run.sessionId);
+
+        assertEquals(1450f, bests.biggestDropRun.run.verticalDrop, EPS);
+        assertEquals(biggestDropSession.date, bests.biggestDropRun.sessionDate);
+
+        assertEquals(9.8f, bests.longestRun.run.distance, EPS);
+        assertEquals(longestSession.date, bests.longestRun.sessionDate);
+    }
+
+    @Test
+    public void resorts_areTotalledMostVisitedFirst() {
+        seedSeasons();
+        List<AnalyticsDao.ResortTotals> resorts = analytics.resorts();
+
+        // Sessions without a resort are left out
+        assertEquals(2, resorts.size());
+        assertResortTotals(RESORT_A, 5, resorts.get(0));
+        assertResortTotals(RESORT_B, 4, resorts.get(1));
+    }
+
+    private void assertResortTotals(Resort resort, int sessionCount, AnalyticsDao.ResortTotals got) {
+        assertEquals(resort.id, got.resortId);
+        assertEquals(resort.name, got.name);
+        assertEquals(resort.country, got.country);
+        assertEquals(sessionCount, got.sessionCount);
+        float distance = 0, drop = 0, maxSpeed = 0;
+        long lastDate = 0;
+        for (SkiSession s : sessions) {
+            if (s.resortId == null || s.resortId != resort.id) continue;
+            distance += s.totalDistance;
+            drop     += s.verticalDrop;
+            maxSpeed  = Math.max(maxSpeed, s.maxSpeed);
+            lastDate  = Math.max(lastDate, s.date);
+        }
+        assertEquals(distance, got.totalDistance, EPS);
+        assertEquals(drop, got.verticalDrop, EPS);
+        assertEquals(maxSpeed, got.maxSpeed, EPS);
+        assertEquals(lastDate, got.lastDate);
+    }
+
+    // ---- Seeding ----
+
+    /** A run: vertical drop (m), distance (km), top speed (km/h) */
+    private static float[] run(float verticalDrop, float distance, float maxSpeed) {
+        return new float[]{verticalDrop, distance, maxSpeed};
+    }
+
+    /** A session starting at 10:00 local time on the given day */
+    private SkiSession seed(int year, int month, int day, Resort resort, float[]... runs) {
+        Calendar c = new GregorianCalendar();
+        c.clear();
+        c.set(year, month, day, 10, 0);
+        return seed(c.getTimeInMillis(), resort, runs);
+    }
+
+    private SkiSession seedDaysAgo(int days, float[]... runs) {
+        Calendar c = new GregorianCalendar();
+        c.add(Calendar.DAY_OF_MONTH, -days);
+        c.set(Calendar.HOUR_OF_DAY, 10);
+        c.set(Calendar.MINUTE, 0);
+        return seed(c.getTimeInMillis(), null, runs);
+    }
+
+    /** Writes a session and its runs through the DAOs the app uses; the session totals its runs */
+    private SkiSession seed(long startMs, Resort resort, float[]... runs) {
+        long duration = 4 * HOUR_MS + sessions.size() * 60_000L;
+        float drop = 0, distance = 0, maxSpeed = 0;
+        for (float[] r : runs) {
+            drop     += r[0];
+            distance += r[1];
+            maxSpeed  = Math.max(maxSpeed, r[2]);
+        }
+        SkiSession session = new SkiSession(startMs + duration, duration, maxSpeed, 30f,
+                distance, drop, drop + 50f);
+        session.runCount = runs.length;
+        session.resortId = resort != null ? resort.id : null;
+        long id = db.seasonStatsDao().insertSession(session);
+
+        List<SkiRun> rows = new ArrayList<>(runs.length);
+        for (int i = 0; i < runs.length; i++) {
+            SkiRun run = new SkiRun(i, startMs + i * HOUR_MS, 600_000L,
+                    runs[i][0], runs[i][1], runs[i][2], 30f);
+            run.sessionId = id;
+            rows.add(run);
+        }
+        db.skiRunDao().insertAll(rows);
+        sessions.add(session);
+        return session;
+    }
+
+    private List<SkiSession> sessionsOfSeason(int season) {
+        List<SkiSession> result = new ArrayList<>();
+        for (SkiSession s : sessions) {
+            if (SeasonCalendar.seasonOf(s.localDay) == season) result.add(s);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,243 @@
+package it.unisa.skiscore.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import it.unisa.skiscore.model.SkiResort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Upgrades databases written by older app versions to the current schema.
+ *
+ * The old databases are created with the exact SQL those versions used, filled with a
+ * season's worth of data or more, then opened through Room: Room runs the migrations and
+ * validates the result against the entities, so a wrong migration fails the open itself.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String DB_NAME = "migration-test.db";
+
+    /** Generous bound for a mid-range device; an upgrade that rewrites tables would exceed it */
+    private static final long MAX_UPGRADE_MS = 3_000;
+
+    private static final String V1_SESSIONS = "CREATE TABLE `ski_sessions` ("
+            + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+            + "`date` INTEGER NOT NULL, `duration` INTEGER NOT NULL, "
+            + "`maxSpeed` REAL NOT NULL, `avgSpeed` REAL NOT NULL, "
+            + "`totalDistance` REAL NOT NULL, `verticalDrop` REAL NOT NULL)";
+
+    private static final String V3_SESSIONS = "CREATE TABLE `ski_sessions` ("
+            + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+            + "`date` INTEGER NOT NULL, `duration` INTEGER NOT NULL, "
+            + "`maxSpeed` REAL NOT NULL, `avgSpeed` REAL NOT NULL, "
+            + "`totalDistance` REAL NOT NULL, `verticalDrop` REAL NOT NULL, "
+            + "`verticalAscent` REAL NOT NULL DEFAULT 0)";
+
+    private static final String V2_RUNS = "CREATE TABLE `ski_runs` ("
+            + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+            + "`sessionId` INTEGER NOT NULL, `runIndex` INTEGER NOT NULL, "
+            + "`startTime` INTEGER NOT NULL, `duration` INTEGER NOT NULL, "
+            + "`verticalDrop` REAL NOT NULL, `distance` REAL NOT NULL, "
+            + "`maxSpeed` REAL NOT NULL, `avgSpeed` REAL NOT NULL, "
+            + "FOREIGN KEY(`sessionId`) REFERENCES `ski_sessions`(`id`) "
+            + "ON UPDATE NO ACTION ON DELETE CASCADE )";
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void v1_withManySessions_upgradesQuicklyAndKeepsHistory() {
+        int sessions = 20_000;
+        try (SQLiteDatabase db = createRaw(1, V1_SESSIONS)) {
+            db.beginTransaction();
+            for (int i = 0; i < sessions; i++) {
+                // v1 stored the final altitude in verticalDrop
+                db.insert("ski_sessions", null, session(i, 1800f));
+            }
+            db.setTransactionSuccessful();
+            db.endTransaction();
+        }
+
+        AppDatabase room = openWithRoom();
+        try {
+            long ms = timeUpgrade(room);
+            assertTrue("upgrade from v1 took " + ms + " ms", ms < MAX_UPGRADE_MS);
+
+            SupportSQLiteDatabase db = room.getOpenHelper().getReadableDatabase();
+            assertEquals(sessions, queryLong(db, "SELECT COUNT(*) FROM ski_sessions"));
+            // No runs were recorded before v2: the bogus altitude is reset
+            assertEquals(0, queryLong(db, "SELECT COUNT(*) FROM ski_sessions WHERE verticalDrop != 0"));
+            assertEquals(0, queryLong(db, "SELECT COUNT(*) FROM ski_sessions WHERE verticalAscent != 0"));
+            assertIndexExists(db, "index_ski_sessions_date");
+            assertIndexExists(db, "index_ski_sessions_localDay");
+            assertIndexExists(db, "index_ski_runs_sessionId");
+            assertIndexExists(db, "index_track_points_sessionId");
+            assertIndexExists(db, "index_favorites_position");
+
+            // One session per day: the season summary is rebuilt from the history
+            assertEquals(sessions, queryLong(db, "SELECT SUM(sessionCount) FROM season_stats"));
+            assertEquals(sessions, queryLong(db, "SELECT SUM(daysSkied) FROM season_stats"));
+            assertEquals(sessions, queryLong(db, "SELECT SUM(sessionCount) FROM weekly_stats"));
+            assertEquals(0, queryLong(db, "SELECT COUNT(*) FROM ski_sessions WHERE localDay = 0"));
+            // Without a track there is nothing to tag
+            assertEquals(0, queryLong(db, "SELECT COUNT(*) FROM ski_sessions WHERE resortId IS NOT NULL"));
+            assertEquals(ResortCatalogue.RESORTS.size(), queryLong(db, "SELECT COUNT(*) FROM resorts"));
+        } finally {
+            room.close();
+        }
+    }
+
+    @Test
+    public void v2_verticalDropIsRebuiltFromRuns() {
+        try (SQLiteDatabase db = createRaw(2, V1_SESSIONS, V2_RUNS,
+                "CREATE INDEX `index_ski_runs_sessionId` ON `ski_runs` (`sessionId`)")) {
+            long id = db.insert("ski_sessions", null, session(0, 2100f));
+            for (int r = 0; r < 3; r++) {
+                ContentValues run = new ContentValues();
+                run.put("sessionId", id);
+                run.put("runIndex", r);
+                run.put("startTime", 1_700_000_000_000L + r * 600_000L);
+                run.put("duration", 300_000L);
+                run.put("verticalDrop", 400f + r * 50);
+                run.put("distance", 2.5f);
+                run.put("maxSpeed", 60f);
+                run.put("avgSpeed", 35f);
+                db.insert("ski_runs", null, run);
+            }
+        }
+
+        AppDatabase room = openWithRoom();
+        try {
+            SupportSQLiteDatabase db = room.getOpenHelper().getReadableDatabase();
+            assertEquals(400 + 450 + 500,
+                    queryLong(db, "SELECT CAST(verticalDrop AS INTEGER) FROM ski_sessions"));
+            assertEquals(3, queryLong(db, "SELECT COUNT(*) FROM ski_runs"));
+        } finally {
+            room.close();
+        }
+    }
+
+    @Test
+    public void v4_withLargeTrackTable_upgradesQuickly() {
+        int sessions = 50;
+        int pointsPerSession = 10_000;   // ~8 h at one fix every 3 s
+        try (SQLiteDatabase db = createRaw(4,
+                V3_SESSIONS,
+                V2_RUNS,
+                "CREATE INDEX `index_ski_runs_sessionId` ON `ski_runs` (`sessionId`)",
+                "CREATE TABLE `track_points` ("
+                        + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "`sessionId` INTEGER NOT NULL, `time` INTEGER NOT NULL, "
+                        + "`latE7` INTEGER NOT NULL, `lonE7` INTEGER NOT NULL, "
+                        + "`altitude` REAL NOT NULL, `speed` REAL NOT NULL, "
+                        + "FOREIGN KEY(`sessionId`) REFERENCES `ski_sessions`(`id`) "
+                        + "ON UPDATE NO ACTION ON DELETE CASCADE )",
+                "CREATE INDEX `index_track_points_sessionId` ON `track_points` (`sessionId`)")) {
+            db.beginTransaction();
+            for (int s = 0; s < sessions; s++) {
+                long id = db.insert("ski_sessions", null, session(s, 0f));
+                ContentValues p = new ContentValues();
+                for (int i = 0; i < pointsPerSession; i++) {
+                    p.put("sessionId", id);
+                    p.put("time", 1_700_000_000_000L + s * 86_400_000L + i * 3_000L);
+                    // Around Cervinia, so the upgrade tags every session with it
+                    p.put("latE7", 459_336_000 + i);
+                    p.put("lonE7", 76_297_000 + i);
+                    p.put("altitude", 2000f - i % 500);
+                    p.put("speed", 30f);
+                    db.insert("track_points", null, p);
+                }
+            }
+            db.setTransactionSuccessful();
+            db.endTransaction();
+        }
+
+        AppDatabase room = openWithRoom();
+        try {
+            long ms = timeUpgrade(room);
+            assertTrue("upgrade from v4 took " + ms + " ms", ms < MAX_UPGRADE_MS);
+
+            SupportSQLiteDatabase db = room.getOpenHelper().getReadableDatabase();
+            assertEquals((long) sessions * pointsPerSession,
+                    queryLong(db, "SELECT COUNT(*) FROM track_points"));
+            assertIndexExists(db, "index_ski_sessions_date");
+            assertIndexExists(db, "index_ski_sessions_resortId");
+            assertEquals(sessions, queryLong(db, "SELECT COUNT(*) FROM ski_sessions "
+                    + "WHERE resortId = " + SkiResort.idOf(45.9336, 7.6297)));
+        } finally {
+            room.close();
+        }
+    }
+
+    // ---- Helpers ----
+
+    /** Creates the database with the given statements and stamps it with an old version */
+    private SQLiteDatabase createRaw(int version, String... statements) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DB_NAME), null);
+        for (String sql : statements) db.execSQL(sql);
+        db.setVersion(version);
+        return db;
+    }
+
+    private static ContentValues session(int i, float verticalDrop) {
+        ContentValues v = new ContentValues();
+        v.put("date", 1_700_000_000_000L + i * 86_400_000L);
+        v.put("duration", 6 * 3_600_000L);
+        v.put("maxSpeed", 70f);
+        v.put("avgSpeed", 30f);
+        v.put("totalDistance", 40f);
+        v.put("verticalDrop", verticalDrop);
+        return v;
+    }
+
+    private AppDatabase openWithRoom() {
+        return Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addMigrations(AppDatabase.ALL_MIGRATIONS)
+                .build();
+    }
+
+    /** Opening the database runs the migrations and Room's schema validation */
+    private static long timeUpgrade(AppDatabase room) {
+        long start = SystemClock.elapsedRealtime();
+        room.getOpenHelper().getWritableDatabase();
+        return SystemClock.elapsedRealtime() - start;
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor c = db.query(sql)) {
+            assertTrue(c.moveToFirst());
+            return c.getLong(0);
+        }
+    }
+
+    private static void assertIndexExists(SupportSQLiteDatabase db, String name) {
+        assertEquals(name + " missing", 1, queryLong(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = '" + name + "'"));
+    }
+}
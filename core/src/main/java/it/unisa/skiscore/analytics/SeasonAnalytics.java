@@ -0,0 +1,133 @@
+package it.unisa.skiscore.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import it.unisa.skiscore.db.AnalyticsDao;
+import it.unisa.skiscore.db.SeasonCalendar;
+import it.unisa.skiscore.db.SeasonStats;
+import it.unisa.skiscore.db.SkiSession;
+import it.unisa.skiscore.db.WeeklyStats;
+
+/**
+ * Dashboard queries over the recorded history: rolling weekly volume, vertical per hour,
+ * per-season and per-resort totals and personal bests.
+ *
+ * All figures come from the rollup tables maintained on every session write
+ * ({@link SeasonStats}, {@link WeeklyStats}) and from indexed lookups on the runs, so each
+ * call costs a handful of rows regardless of how many seasons of tracks are stored.
+ * The minimum SQLite on API 24 has no window functions: rolling sums are computed here
+ * over the weekly rows. Methods hit the database and must run off the main thread.
+ */
+public class SeasonAnalytics {
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    /** Personal bests; each field is null until a run has been recorded */
+    public static final class PersonalBests {
+        public final AnalyticsDao.RunRecord fastestRun;
+        public final AnalyticsDao.RunRecord biggestDropRun;
+        public final AnalyticsDao.RunRecord longestRun;
+
+        PersonalBests(AnalyticsDao.RunRecord fastestRun, AnalyticsDao.RunRecord biggestDropRun,
+                      AnalyticsDao.RunRecord longestRun) {
+            this.fastestRun     = fastestRun;
+            this.biggestDropRun = biggestDropRun;
+            this.longestRun     = longestRun;
+        }
+    }
+
+    private final AnalyticsDao dao;
+
+    public SeasonAnalytics(AnalyticsDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * The last {@code weeks} weeks up to the current one, oldest first.
+     *
+     * @param window length of the trailing sums, in weeks (4 = rolling month)
+     */
+    public List<WeekVolume> recentWeeks(int weeks, int window) {
+        int today = SeasonCalendar.localDay(System.currentTimeMillis(), TimeZone.getDefault());
+        int lastWeek = SeasonCalendar.weekStart(today);
+        int firstWeek = lastWeek - (weeks - 1) * DAYS_PER_WEEK;
+        // The window also needs the weeks before the first one shown
+        int fetchFrom = firstWeek - (window - 1) * DAYS_PER_WEEK;
+        return rolling(dao.getWeeks(fetchFrom, lastWeek), firstWeek, weeks, window);
+    }
+
+    /** Totals of every season, oldest first; vertical per hour via {@link #verticalPerHour}. */
+    public List<SeasonStats> seasons() {
+        return dao.getAllSeasons();
+    }
+
+    /** Totals per resort the sessions were tagged with, most visited first. */
+    public List<AnalyticsDao.ResortTotals> resorts() {
+        return dao.getResortTotals();
+    }
+
+    public PersonalBests personalBests() {
+        return new PersonalBests(dao.getFastestRun(), dao.getBiggestDropRun(), dao.getLongestRun());
+    }
+
+    /** Vertical drop per hour on the slopes (m/h); 0 for an empty duration */
+    public static float verticalPerHour(float verticalDropM, long durationMs) {
+        return durationMs > 0 ? verticalDropM * 3_600_000f / durationMs : 0f;
+    }
+
+    public static float verticalPerHour(SeasonStats stats) {
+        return verticalPerHour(stats.verticalDrop, stats.totalDuration);
+    }
+
+    public static float verticalPerHour(SkiSession session) {
+        return verticalPerHour(session.verticalDrop, session.duration);
+    }
+
+    /**
+     * Zero-fills the weekly rows and adds trailing sums.
+     *
+     * @param rows      weekly rollups ordered by weekStart, possibly with gaps, covering at
+     *                  least the {@code window - 1} weeks before {@code firstWeek}
+     * @param firstWeek weekStart of the first week returned
+     * @param weeks     number of weeks returned
+     * @param window    trailing window in weeks (≥ 1)
+     */
+    static List<WeekVolume> rolling(List<WeeklyStats> rows, int firstWeek, int weeks, int window) {
+        if (window < 1) throw new IllegalArgumentException("window < 1");
+        int span = weeks + window - 1;
+        int origin = firstWeek - (window - 1) * DAYS_PER_WEEK;
+
+        // Dense arrays indexed by week, from the start of the first window
+        WeeklyStats[] dense = new WeeklyStats[span];
+        for (WeeklyStats w : rows) {
+            int diff = w.weekStart - origin;
+            if (diff < 0 || diff % DAYS_PER_WEEK != 0) continue;
+            int i = diff / DAYS_PER_WEEK;
+            if (i < span) dense[i] = w;
+        }
+
+        List<WeekVolume> result = new ArrayList<>(weeks);
+        double sumDistance = 0, sumVertical = 0;
+        for (int i = 0; i < span; i++) {
+            WeeklyStats w = dense[i];
+            if (w != null) {
+                sumDistance += w.totalDistance;
+                sumVertical += w.verticalDrop;
+            }
+            WeeklyStats leaving = i >= window ? dense[i - window] : null;
+            if (leaving != null) {
+                sumDistance -= leaving.totalDistance;
+                sumVertical -= leaving.verticalDrop;
+            }
+            if (i < window - 1) continue;
+            result.add(w == null
+                    ? new WeekVolume(origin + i * DAYS_PER_WEEK, 0, 0, 0f, 0f, 0L,
+                            (float) sumDistance, (float) sumVertical)
+                    : new WeekVolume(w.weekStart, w.sessionCount, w.runCount, w.totalDistance,
+                            w.verticalDrop, w.totalDuration, (float) sumDistance, (float) sumVertical));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package it.unisa.skiscore.analytics;
+
+/**
+ * Volume of one week, with trailing sums over the analysis window (this week included).
+ * Weeks without sessions are present with zero volume, so charts have no gaps.
+ */
+public final class WeekVolume {
+
+    private final int   weekStart;
+    private final int   sessionCount;
+    private final int   runCount;
+    private final float distanceKm;
+    private final float verticalDropM;
+    private final long  durationMs;
+    private final float rollingDistanceKm;
+    private final float rollingVerticalDropM;
+
+    WeekVolume(int weekStart, int sessionCount, int runCount, float distanceKm, float verticalDropM,
+               long durationMs, float rollingDistanceKm, float rollingVerticalDropM) {
+        this.weekStart            = weekStart;
+        this.sessionCount         = sessionCount;
+        this.runCount             = runCount;
+        this.distanceKm           = distanceKm;
+        this.verticalDropM        = verticalDropM;
+        this.durationMs           = durationMs;
+        this.rollingDistanceKm    = rollingDistanceKm;
+        this.rollingVerticalDropM = rollingVerticalDropM;
+    }
+
+    /** Local day of the Monday starting the week */
+    public int   getWeekStart()            { return weekStart; }
+    public int   getSessionCount()         { return sessionCount; }
+    public int   getRunCount()             { return runCount; }
+    public float getDistanceKm()           { return distanceKm; }
+    public float getVerticalDropM()        { return verticalDropM; }
+    public long  getDurationMs()           { return durationMs; }
+    public float getRollingDistanceKm()    { return rollingDistanceKm; }
+    public float getRollingVerticalDropM() { return rollingVerticalDropM; }
+
+    /** Vertical drop per hour on the slopes during the week (m/h), 0 without sessions */
+    public float getVerticalPerHour() {
+        return SeasonAnalytics.verticalPerHour(verticalDropM, durationMs);
+    }
+}
@@ -0,0 +1,73 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Dao;
+import androidx.room.Embedded;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Read-only queries behind the season analytics. Every query is either a primary-key
+ * range over a rollup table or a single index lookup, so its cost does not grow with the
+ * number of recorded track points.
+ * All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public interface AnalyticsDao {
+
+    /** A run together with the date of its session, for personal-best listings. */
+    class RunRecord {
+        @Embedded
+        public SkiRun run;
+
+        /** {@link SkiSession#date} of the owning session */
+        public long sessionDate;
+    }
+
+    /** Totals of the sessions tagged with one resort. */
+    class ResortTotals {
+        public long resortId;
+        public String name;
+        public String country;
+        public int sessionCount;
+        /** km */
+        public float totalDistance;
+        /** m */
+        public float verticalDrop;
+        /** Best session top speed (km/h) */
+        public float maxSpeed;
+        /** {@link SkiSession#date} of the latest session there */
+        public long lastDate;
+    }
+
+    /** Weekly rollups with weekStart in [fromWeek, toWeek], oldest first. Weeks without sessions are absent. */
+    @Query("SELECT * FROM weekly_stats WHERE weekStart BETWEEN :fromWeek AND :toWeek ORDER BY weekStart")
+    List<WeeklyStats> getWeeks(int fromWeek, int toWeek);
+
+    /** Totals of every season, oldest first. */
+    @Query("SELECT * FROM season_stats ORDER BY season")
+    List<SeasonStats> getAllSeasons();
+
+    /**
+     * Per-resort breakdown, most visited first. Reads session rows only (never the tracks);
+     * sessions without a resort are left out.
+     */
+    @Query("SELECT s.resortId, r.name, r.country, COUNT(*) AS sessionCount, "
+            + "SUM(s.totalDistance) AS totalDistance, SUM(s.verticalDrop) AS verticalDrop, "
+            + "MAX(s.maxSpeed) AS maxSpeed, MAX(s.date) AS lastDate "
+            + "FROM ski_sessions s JOIN resorts r ON r.id = s.resortId "
+            + "GROUP BY s.resortId ORDER BY sessionCount DESC, lastDate DESC")
+    List<ResortTotals> getResortTotals();
+
+    @Query("SELECT r.*, s.date AS sessionDate FROM ski_runs r "
+            + "JOIN ski_sessions s ON s.id = r.sessionId ORDER BY r.maxSpeed DESC LIMIT 1")
+    RunRecord getFastestRun();
+
+    @Query("SELECT r.*, s.date AS sessionDate FROM ski_runs r "
+            + "JOIN ski_sessions s ON s.id = r.sessionId ORDER BY r.verticalDrop DESC LIMIT 1")
+    RunRecord getBiggestDropRun();
+
+    @Query("SELECT r.*, s.date AS sessionDate FROM ski_runs r "
+            + "JOIN ski_sessions s ON s.id = r.sessionId ORDER BY r.distance DESC LIMIT 1")
+    RunRecord getLongestRun();
+}
@@ -0,0 +1,355 @@
+package it.unisa.skiscore.db;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * Singleton Room database for SkiScore.
+ *
+ * The schema of every version is exported to core/schemas (see room.schemaLocation in
+ * build.gradle.kts) and must be committed. Each version bump needs a Migration added to
+ * {@link #ALL_MIGRATIONS}; there is deliberately no destructive fallback, so a missing
+ * migration fails loudly instead of wiping the user's history.
+ *
+ * Usage:
+ *   AppDatabase db = AppDatabase.getInstance(context);
+ *   SkiSessionDao dao = db.skiSessionDao();
+ */
+@Database(entities = {SkiSession.class, SkiRun.class, TrackPoint.class,
+        SeasonStats.class, WeeklyStats.class, Resort.class, FavoriteResort.class},
+        version = 10, exportSchema = true)
+public abstract class AppDatabase extends RoomDatabase {
+
+    public abstract SkiSessionDao skiSessionDao();
+
+    public abstract SkiRunDao skiRunDao();
+
+    public abstract TrackPointDao trackPointDao();
+
+    public abstract SeasonStatsDao seasonStatsDao();
+
+    public abstract AnalyticsDao analyticsDao();
+
+    public abstract ResortDao resortDao();
+
+    public abstract FavoriteDao favoriteDao();
+
+    /** v1 → v2: per-run statistics table. */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `ski_runs` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sessionId` INTEGER NOT NULL, "
+                    + "`runIndex` INTEGER NOT NULL, "
+                    + "`startTime` INTEGER NOT NULL, "
+                    + "`duration` INTEGER NOT NULL, "
+                    + "`verticalDrop` REAL NOT NULL, "
+                    + "`distance` REAL NOT NULL, "
+                    + "`maxSpeed` REAL NOT NULL, "
+                    + "`avgSpeed` REAL NOT NULL, "
+                    + "FOREIGN KEY(`sessionId`) REFERENCES `ski_sessions`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_runs_sessionId` "
+                    + "ON `ski_runs` (`sessionId`)");
+        }
+    };
+
+    /**
+     * v2 → v3: adds verticalAscent. verticalDrop used to hold the final altitude of the
+     * session, so it is rebuilt from the recorded runs (0 when none were recorded).
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `ski_sessions` "
+                    + "ADD COLUMN `verticalAscent` REAL NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `ski_sessions` SET `verticalDrop` = "
+                    + "(SELECT COALESCE(SUM(r.`verticalDrop`), 0) FROM `ski_runs` r "
+                    + "WHERE r.`sessionId` = `ski_sessions`.`id`)");
+        }
+    };
+
+    /** v3 → v4: recorded GPS track of each session (for GPX/FIT export). */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `track_points` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sessionId` INTEGER NOT NULL, "
+                    + "`time` INTEGER NOT NULL, "
+                    + "`latE7` INTEGER NOT NULL, "
+                    + "`lonE7` INTEGER NOT NULL, "
+                    + "`altitude` REAL NOT NULL, "
+                    + "`speed` REAL NOT NULL, "
+                    + "FOREIGN KEY(`sessionId`) REFERENCES `ski_sessions`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_track_points_sessionId` "
+                    + "ON `track_points` (`sessionId`)");
+        }
+    };
+
+    /** v4 → v5: index on session date, used by the diary list and the season queries. */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_sessions_date` "
+                    + "ON `ski_sessions` (`date`)");
+        }
+    };
+
+    /**
+     * v5 → v6: session local day and the season_stats summary table. The history is
+     * bucketed with the current device time zone, the best information available.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `ski_sessions` ADD COLUMN `localDay` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_sessions_localDay` "
+                    + "ON `ski_sessions` (`localDay`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `season_stats` ("
+                    + "`season` INTEGER NOT NULL, "
+                    + "`sessionCount` INTEGER NOT NULL, "
+                    + "`daysSkied` INTEGER NOT NULL, "
+                    + "`totalDistance` REAL NOT NULL, "
+                    + "`maxSpeed` REAL NOT NULL, "
+                    + "`verticalDrop` REAL NOT NULL, "
+                    + "`totalDuration` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`season`))");
+
+            Map<Integer, SeasonStats> seasons = new HashMap<>();
+            Set<Integer> days = new HashSet<>();
+            SupportSQLiteStatement setDay =
+                    db.compileStatement("UPDATE `ski_sessions` SET `localDay` = ? WHERE `id` = ?");
+            try (Cursor c = db.query("SELECT `id`, `date`, `duration`, `totalDistance`, "
+                    + "`maxSpeed`, `verticalDrop` FROM `ski_sessions`")) {
+                while (c.moveToNext()) {
+                    SkiSession s = new SkiSession();
+                    s.date          = c.getLong(1);
+                    s.duration      = c.getLong(2);
+                    s.totalDistance = c.getFloat(3);
+                    s.maxSpeed      = c.getFloat(4);
+                    s.verticalDrop  = c.getFloat(5);
+                    int day = SeasonCalendar.localDayOf(s);
+                    setDay.bindLong(1, day);
+                    setDay.bindLong(2, c.getLong(0));
+                    setDay.executeUpdateDelete();
+
+                    int season = SeasonCalendar.seasonOf(day);
+                    SeasonStats stats = seasons.get(season);
+                    if (stats == null) {
+                        stats = new SeasonStats(season);
+                        seasons.put(season, stats);
+                    }
+                    stats.sessionCount++;
+                    stats.totalDistance += s.totalDistance;
+                    stats.verticalDrop  += s.verticalDrop;
+                    stats.totalDuration += s.duration;
+                    stats.maxSpeed = Math.max(stats.maxSpeed, s.maxSpeed);
+                    if (days.add(day)) stats.daysSkied++;
+                }
+            }
+            for (SeasonStats stats : seasons.values()) {
+                db.execSQL("INSERT INTO `season_stats` VALUES (?, ?, ?, ?, ?, ?, ?)", new Object[]{
+                        stats.season, stats.sessionCount, stats.daysSkied, stats.totalDistance,
+                        stats.maxSpeed, stats.verticalDrop, stats.totalDuration});
+            }
+        }
+    };
+
+    /**
+     * v6 → v7: per-session run count, the weekly_stats rollup and indices on the run
+     * personal-best metrics. Everything is rebuilt with set-based SQL from the history.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `ski_sessions` ADD COLUMN `runCount` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `ski_sessions` SET `runCount` = "
+                    + "(SELECT COUNT(*) FROM `ski_runs` r WHERE r.`sessionId` = `ski_sessions`.`id`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `weekly_stats` ("
+                    + "`weekStart` INTEGER NOT NULL, "
+                    + "`sessionCount` INTEGER NOT NULL, "
+                    + "`runCount` INTEGER NOT NULL, "
+                    + "`totalDistance` REAL NOT NULL, "
+                    + "`verticalDrop` REAL NOT NULL, "
+                    + "`totalDuration` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`weekStart`))");
+            // Same bucketing as SeasonCalendar.weekStart (day 0 was a Thursday)
+            db.execSQL("INSERT INTO `weekly_stats` "
+                    + "SELECT `localDay` - (((`localDay` + 3) % 7) + 7) % 7 AS `ws`, COUNT(*), "
+                    + "SUM(`runCount`), SUM(`totalDistance`), SUM(`verticalDrop`), SUM(`duration`) "
+                    + "FROM `ski_sessions` GROUP BY `ws`");
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_runs_maxSpeed` ON `ski_runs` (`maxSpeed`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_runs_verticalDrop` "
+                    + "ON `ski_runs` (`verticalDrop`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_runs_distance` ON `ski_runs` (`distance`)");
+        }
+    };
+
+    /**
+     * v7 → v8: resorts table seeded with the {@link ResortCatalogue}, and the resortId tag on
+     * sessions. Recorded sessions are tagged from the centroid of their stored track; the
+     * favorites join the table when they are starred (see FavoritesManager).
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL(CREATE_RESORTS);
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_resorts_latE7_lonE7` "
+                    + "ON `resorts` (`latE7`, `lonE7`)");
+            insertCatalogue(db);
+
+            // SQLite accepts a REFERENCES clause on an added column as long as it defaults to NULL
+            db.execSQL("ALTER TABLE `ski_sessions` ADD COLUMN `resortId` INTEGER "
+                    + "REFERENCES `resorts`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ski_sessions_resortId` "
+                    + "ON `ski_sessions` (`resortId`)");
+
+            SupportSQLiteStatement tag =
+                    db.compileStatement("UPDATE `ski_sessions` SET `resortId` = ? WHERE `id` = ?");
+            try (Cursor c = db.query("SELECT `sessionId`, AVG(`latE7`), AVG(`lonE7`) "
+                    + "FROM `track_points` GROUP BY `sessionId`")) {
+                while (c.moveToNext()) {
+                    Resort resort = Resort.nearest(ResortCatalogue.RESORTS,
+                            (int) Math.round(c.getDouble(1)), (int) Math.round(c.getDouble(2)),
+                            ResortDao.MAX_TAG_DISTANCE_M);
+                    if (resort == null) continue;
+                    tag.bindLong(1, resort.id);
+                    tag.bindLong(2, c.getLong(0));
+                    tag.executeUpdateDelete();
+                }
+            }
+        }
+    };
+
+    /**
+     * v8 → v9: favorites table. The favorites themselves are moved from the old preference
+     * blob by {@link it.unisa.skiscore.util.FavoritesManager}, which owns those preferences.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `favorites` ("
+                    + "`key` TEXT NOT NULL, "
+                    + "`name` TEXT, "
+                    + "`country` TEXT, "
+                    + "`latitude` REAL NOT NULL, "
+                    + "`longitude` REAL NOT NULL, "
+                    + "`position` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_position` "
+                    + "ON `favorites` (`position`)");
+        }
+    };
+
+    /**
+     * v9 → v10: favorites keyed by the numeric resort id instead of the name + coordinates
+     * string. The table is small, so it is rebuilt with the ids computed here.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `favorites_new` ("
+                    + "`id` INTEGER NOT NULL, "
+                    + "`name` TEXT, "
+                    + "`country` TEXT, "
+                    + "`latitude` REAL NOT NULL, "
+                    + "`longitude` REAL NOT NULL, "
+                    + "`position` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`id`))");
+            SupportSQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO "
+                    + "`favorites_new` (`id`, `name`, `country`, `latitude`, `longitude`, `position`) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)");
+            try (Cursor c = db.query("SELECT `name`, `country`, `latitude`, `longitude`, "
+                    + "`position` FROM `favorites` ORDER BY `position`")) {
+                while (c.moveToNext()) {
+                    insert.bindLong(1, SkiResort.idOf(c.getDouble(2), c.getDouble(3)));
+                    if (c.isNull(0)) insert.bindNull(2); else insert.bindString(2, c.getString(0));
+                    if (c.isNull(1)) insert.bindNull(3); else insert.bindString(3, c.getString(1));
+                    insert.bindDouble(4, c.getDouble(2));
+                    insert.bindDouble(5, c.getDouble(3));
+                    insert.bindLong(6, c.getInt(4));
+                    insert.executeInsert();
+                }
+            }
+            db.execSQL("DROP TABLE `favorites`");
+            db.execSQL("ALTER TABLE `favorites_new` RENAME TO `favorites`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_position` "
+                    + "ON `favorites` (`position`)");
+        }
+    };
+
+    private static final String CREATE_RESORTS = "CREATE TABLE IF NOT EXISTS `resorts` ("
+            + "`id` INTEGER NOT NULL, "
+            + "`name` TEXT, "
+            + "`country` TEXT, "
+            + "`latE7` INTEGER NOT NULL, "
+            + "`lonE7` INTEGER NOT NULL, "
+            + "PRIMARY KEY(`id`))";
+
+    private static void insertCatalogue(SupportSQLiteDatabase db) {
+        List<Resort> resorts = ResortCatalogue.RESORTS;
+        SupportSQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO `resorts` "
+                + "(`id`, `name`, `country`, `latE7`, `lonE7`) VALUES (?, ?, ?, ?, ?)");
+        for (Resort r : resorts) {
+            insert.bindLong(1, r.id);
+            insert.bindString(2, r.name);
+            insert.bindString(3, r.country);
+            insert.bindLong(4, r.latE7);
+            insert.bindLong(5, r.lonE7);
+            insert.executeInsert();
+        }
+    }
+
+    /** Seeds the catalogue into a freshly created database (upgrades get it from MIGRATION_7_8). */
+    private static final Callback SEED_CATALOGUE = new Callback() {
+        @Override
+        public void onCreate(SupportSQLiteDatabase db) {
+            insertCatalogue(db);
+        }
+    };
+
+    /** Every migration, in order; also used by the migration tests. */
+    static final Migration[] ALL_MIGRATIONS = {
+            MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+            MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10
+    };
+
+    private static volatile AppDatabase INSTANCE;
+
+    public static AppDatabase getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (AppDatabase.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = Room.databaseBuilder(
+                                    context.getApplicationContext(),
+                                    AppDatabase.class,
+                                    "skiscore.db")
+                            .addMigrations(ALL_MIGRATIONS)
+                            .addCallback(SEED_CATALOGUE)
+                            .build();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+}
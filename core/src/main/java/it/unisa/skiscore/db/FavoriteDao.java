@@ -0,0 +1,47 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the favorites table. Callers go through
+ * {@link it.unisa.skiscore.util.FavoritesManager}, which keeps the in-memory copy in sync.
+ * All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public abstract class FavoriteDao {
+
+    /** Every favorite, in display order. */
+    @Query("SELECT * FROM favorites ORDER BY position")
+    public abstract List<FavoriteResort> getAll();
+
+    /** Appends a favorite after the last one; no-op if it is already stored. */
+    @Transaction
+    public void insertAtEnd(FavoriteResort favorite) {
+        favorite.position = getNextPosition();
+        insert(favorite);
+    }
+
+    @Query("DELETE FROM favorites WHERE id = :id")
+    public abstract void delete(long id);
+
+    /** Rewrites the positions so that the favorites follow the order of {@code ids}. */
+    @Transaction
+    public void setOrder(List<Long> ids) {
+        for (int i = 0; i < ids.size(); i++) updatePosition(ids.get(i), i);
+    }
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract void insert(FavoriteResort favorite);
+
+    @Query("SELECT COALESCE(MAX(position) + 1, 0) FROM favorites")
+    abstract int getNextPosition();
+
+    @Query("UPDATE favorites SET position = :position WHERE id = :id")
+    abstract void updatePosition(long id, int position);
+}
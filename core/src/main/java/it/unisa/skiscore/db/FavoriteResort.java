@@ -0,0 +1,47 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * A resort starred by the user. Keyed by {@link SkiResort#getId()}; {@link #position}
+ * gives the order shown on the home screen (indexed, since every load sorts by it).
+ */
+@Entity(tableName = "favorites", indices = @Index("position"))
+public class FavoriteResort {
+
+    @PrimaryKey
+    public long id;
+
+    public String name;
+
+    public String country;
+
+    public double latitude;
+
+    public double longitude;
+
+    /** Display order, ascending; may have gaps after removals */
+    public int position;
+
+    public FavoriteResort() {}
+
+    public static FavoriteResort from(SkiResort resort) {
+        FavoriteResort f = new FavoriteResort();
+        f.id        = resort.getId();
+        f.name      = resort.getName();
+        f.country   = resort.getCountry();
+        f.latitude  = resort.getLatitude();
+        f.longitude = resort.getLongitude();
+        return f;
+    }
+
+    public SkiResort toSkiResort() {
+        SkiResort resort = new SkiResort(name, country, latitude, longitude);
+        resort.setFavorite(true);
+        return resort;
+    }
+}
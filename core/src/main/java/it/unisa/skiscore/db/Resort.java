@@ -0,0 +1,75 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.List;
+
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * A known ski resort that sessions can be tagged with: the built-in
+ * {@link ResortCatalogue} plus every resort the user has starred.
+ *
+ * The id is {@link SkiResort#getId()}, derived from the coordinates only, so the same place
+ * gets the same id whether it comes from the catalogue, a favorite or a search result, and
+ * re-inserting it is a no-op. The (latE7, lonE7) index serves the bounding-box queries of
+ * {@link ResortDao#findNearest}.
+ */
+@Entity(tableName = "resorts", indices = @Index({"latE7", "lonE7"}))
+public class Resort {
+
+    @PrimaryKey
+    public long id;
+
+    public String name;
+
+    public String country;
+
+    /** Latitude in degrees × 10^7 (same scale as {@link TrackPoint}) */
+    public int latE7;
+
+    /** Longitude in degrees × 10^7 */
+    public int lonE7;
+
+    public Resort() {}
+
+    public Resort(String name, String country, double latitude, double longitude) {
+        this.id      = SkiResort.idOf(latitude, longitude);
+        this.name    = name;
+        this.country = country;
+        this.latE7   = TrackPoint.toE7(latitude);
+        this.lonE7   = TrackPoint.toE7(longitude);
+    }
+
+    public static Resort from(SkiResort resort) {
+        return new Resort(resort.getName(), resort.getCountry(),
+                resort.getLatitude(), resort.getLongitude());
+    }
+
+    /**
+     * Distance in meters between two E7 positions. Equirectangular approximation: well
+     * under 0.1% off at the few-kilometre scale of a ski area.
+     */
+    public static double distanceM(int latE7a, int lonE7a, int latE7b, int lonE7b) {
+        double meanLat = Math.toRadians((latE7a + (double) latE7b) / 2.0 / TrackPoint.E7);
+        double dy = Math.toRadians((latE7b - latE7a) / TrackPoint.E7);
+        double dx = Math.toRadians((lonE7b - lonE7a) / TrackPoint.E7) * Math.cos(meanLat);
+        return 6_371_000.0 * Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** The candidate closest to a position, or null if none is within {@code maxDistanceM} */
+    public static Resort nearest(List<Resort> candidates, int latE7, int lonE7, double maxDistanceM) {
+        Resort best = null;
+        double bestDistance = maxDistanceM;
+        for (Resort r : candidates) {
+            double d = distanceM(latE7, lonE7, r.latE7, r.lonE7);
+            if (d <= bestDistance) {
+                best = r;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+}
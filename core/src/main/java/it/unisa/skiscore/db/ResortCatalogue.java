@@ -0,0 +1,69 @@
+package it.unisa.skiscore.db;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Built-in list of ski resorts used to tag sessions recorded away from any favorite.
+ * Coordinates are those of the main village or base station: the nearest-resort lookup
+ * only needs them to land within a few kilometres of the lifts.
+ * Seeded into the resorts table when the database is created or migrated.
+ */
+public final class ResortCatalogue {
+
+    private ResortCatalogue() { /* utility class */ }
+
+    public static final List<Resort> RESORTS = Collections.unmodifiableList(Arrays.asList(
+            // Valle d'Aosta
+            new Resort("Cervinia", "Italia", 45.9336, 7.6297),
+            new Resort("Courmayeur", "Italia", 45.7969, 6.9690),
+            new Resort("La Thuile", "Italia", 45.7167, 6.9500),
+            new Resort("Pila", "Italia", 45.7333, 7.3167),
+            new Resort("Champoluc", "Italia", 45.8339, 7.7264),
+            new Resort("Gressoney-La-Trinité", "Italia", 45.8300, 7.8250),
+            // Piemonte
+            new Resort("Sestriere", "Italia", 44.9578, 6.8797),
+            new Resort("Sauze d'Oulx", "Italia", 45.0275, 6.8594),
+            new Resort("Bardonecchia", "Italia", 45.0786, 6.7033),
+            new Resort("Limone Piemonte", "Italia", 44.2008, 7.5772),
+            new Resort("Prato Nevoso", "Italia", 44.2539, 7.7819),
+            // Lombardia
+            new Resort("Livigno", "Italia", 46.5386, 10.1357),
+            new Resort("Bormio", "Italia", 46.4676, 10.3703),
+            new Resort("Aprica", "Italia", 46.1536, 10.1497),
+            new Resort("Chiesa in Valmalenco", "Italia", 46.2656, 9.8514),
+            new Resort("Foppolo", "Italia", 46.0439, 9.7572),
+            new Resort("Ponte di Legno", "Italia", 46.2586, 10.5097),
+            // Trentino-Alto Adige
+            new Resort("Passo del Tonale", "Italia", 46.2617, 10.5811),
+            new Resort("Madonna di Campiglio", "Italia", 46.2299, 10.8266),
+            new Resort("Folgarida", "Italia", 46.3017, 10.8689),
+            new Resort("Canazei", "Italia", 46.4764, 11.7700),
+            new Resort("San Martino di Castrozza", "Italia", 46.2622, 11.8017),
+            new Resort("Obereggen", "Italia", 46.3833, 11.5333),
+            new Resort("Selva di Val Gardena", "Italia", 46.5556, 11.7611),
+            new Resort("Corvara in Badia", "Italia", 46.5500, 11.8736),
+            new Resort("Plan de Corones", "Italia", 46.7381, 11.9561),
+            // Veneto e Friuli
+            new Resort("Cortina d'Ampezzo", "Italia", 46.5405, 12.1357),
+            new Resort("Arabba", "Italia", 46.4975, 11.8750),
+            new Resort("Tarvisio", "Italia", 46.5050, 13.5790),
+            // Appennini e isole
+            new Resort("Abetone", "Italia", 44.1436, 10.6628),
+            new Resort("Monte Amiata", "Italia", 42.8869, 11.6231),
+            new Resort("Campo Imperatore", "Italia", 42.4431, 13.5589),
+            new Resort("Ovindoli", "Italia", 42.1372, 13.5156),
+            new Resort("Roccaraso", "Italia", 41.8478, 14.0789),
+            new Resort("Campitello Matese", "Italia", 41.4617, 14.3900),
+            new Resort("Camigliatello Silano", "Italia", 39.3500, 16.4500),
+            new Resort("Etna Sud", "Italia", 37.6997, 14.9986),
+            // Oltre confine
+            new Resort("Zermatt", "Svizzera", 46.0207, 7.7491),
+            new Resort("St. Moritz", "Svizzera", 46.4908, 9.8355),
+            new Resort("Chamonix", "Francia", 45.9237, 6.8694),
+            new Resort("Val d'Isère", "Francia", 45.4481, 6.9806),
+            new Resort("Kitzbühel", "Austria", 47.4463, 12.3925),
+            new Resort("St. Anton am Arlberg", "Austria", 47.1297, 10.2686)
+    ));
+}
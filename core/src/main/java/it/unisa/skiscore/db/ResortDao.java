@@ -0,0 +1,66 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * Data Access Object for the {@link Resort} table and the nearest-resort lookup used to
+ * tag sessions. All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public abstract class ResortDao {
+
+    /** A session is tagged only if its centroid is this close to a resort */
+    public static final double MAX_TAG_DISTANCE_M = 8_000.0;
+
+    /** Meters per degree of latitude */
+    private static final double METERS_PER_DEGREE = 111_195.0;
+
+    /**
+     * Adds resorts that are not stored yet. Existing rows are left alone: REPLACE would
+     * delete them first and clear the tag of their sessions.
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertAll(List<Resort> resorts);
+
+    @Query("SELECT * FROM resorts WHERE id = :id")
+    public abstract Resort getResort(long id);
+
+    /** Resorts inside a box, through the (latE7, lonE7) index */
+    @Query("SELECT * FROM resorts WHERE latE7 BETWEEN :minLatE7 AND :maxLatE7 "
+            + "AND lonE7 BETWEEN :minLonE7 AND :maxLonE7")
+    abstract List<Resort> getInBox(int minLatE7, int maxLatE7, int minLonE7, int maxLonE7);
+
+    /** Makes the user's favorites available as tagging candidates. */
+    public void insertFavorites(List<SkiResort> favorites) {
+        List<Resort> rows = new ArrayList<>(favorites.size());
+        for (SkiResort f : favorites) rows.add(Resort.from(f));
+        insertAll(rows);
+    }
+
+    /**
+     * The resort closest to a position within {@link #MAX_TAG_DISTANCE_M}, or null.
+     * Only the few rows in the surrounding box are read and compared.
+     */
+    public Resort findNearest(int latE7, int lonE7) {
+        int dLat = (int) Math.ceil(MAX_TAG_DISTANCE_M / METERS_PER_DEGREE * TrackPoint.E7);
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latE7 / TrackPoint.E7)));
+        int dLon = (int) Math.min(Integer.MAX_VALUE / 2, Math.ceil(dLat / cosLat));
+        List<Resort> candidates = getInBox(latE7 - dLat, latE7 + dLat, lonE7 - dLon, lonE7 + dLon);
+        return Resort.nearest(candidates, latE7, lonE7, MAX_TAG_DISTANCE_M);
+    }
+
+    /** Id of the resort a track belongs to, or null for an empty track or one far from any resort */
+    public Long resortIdFor(TrackCentroid centroid) {
+        if (centroid.isEmpty()) return null;
+        Resort resort = findNearest(centroid.getLatE7(), centroid.getLonE7());
+        return resort != null ? resort.id : null;
+    }
+}
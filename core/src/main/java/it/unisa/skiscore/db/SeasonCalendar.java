@@ -0,0 +1,65 @@
+package it.unisa.skiscore.db;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Day and season bucketing for the season statistics.
+ *
+ * A "local day" is the number of days since 1970-01-01 in the device time zone at the time
+ * the session is saved (or imported, or bucketed by a migration), so a session at 00:30 in
+ * Italy counts for that day and not the previous UTC one. The recording offset is not
+ * stored: a session saved or imported after the device changed zone is bucketed in the new
+ * one. A season runs from 1 September to 31 August and is named after the year it starts
+ * in (season 2025 = winter 2025/26).
+ */
+public final class SeasonCalendar {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private SeasonCalendar() { /* utility class */ }
+
+    /** Local day of an instant in the given time zone, including its DST offset at that instant */
+    public static int localDay(long timeMs, TimeZone zone) {
+        return (int) Math.floorDiv(timeMs + zone.getOffset(timeMs), DAY_MS);
+    }
+
+    /** Local day a session belongs to: the day it started on, in the device time zone */
+    public static int localDayOf(SkiSession session) {
+        return localDay(session.date - session.duration, TimeZone.getDefault());
+    }
+
+    /** Local day of the Monday starting the week that contains a local day */
+    public static int weekStart(int localDay) {
+        // Day 0 (1970-01-01) was a Thursday
+        return localDay - Math.floorMod(localDay + 3, 7);
+    }
+
+    /** Season containing a local day */
+    public static int seasonOf(int localDay) {
+        Calendar c = new GregorianCalendar(UTC);
+        c.setTimeInMillis(localDay * DAY_MS);
+        int year = c.get(Calendar.YEAR);
+        return c.get(Calendar.MONTH) >= Calendar.SEPTEMBER ? year : year - 1;
+    }
+
+    /** Season the device is currently in */
+    public static int currentSeason() {
+        return seasonOf(localDay(System.currentTimeMillis(), TimeZone.getDefault()));
+    }
+
+    /** First local day of a season (1 September) */
+    public static int firstDay(int season) {
+        Calendar c = new GregorianCalendar(UTC);
+        c.clear();
+        c.set(season, Calendar.SEPTEMBER, 1);
+        return (int) (c.getTimeInMillis() / DAY_MS);
+    }
+
+    /** Last local day of a season (31 August of the following year) */
+    public static int lastDay(int season) {
+        return firstDay(season + 1) - 1;
+    }
+}
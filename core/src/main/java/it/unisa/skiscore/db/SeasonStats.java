@@ -0,0 +1,41 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Running totals for one ski season (see {@link SeasonCalendar}), so the diary header is a
+ * single-row read instead of aggregates over the whole history.
+ * Kept up to date by {@link SeasonStatsDao} in the same transaction as each session change.
+ */
+@Entity(tableName = "season_stats")
+public class SeasonStats {
+
+    /** Starting year of the season (2025 = winter 2025/26) */
+    @PrimaryKey
+    public int season;
+
+    /** Number of sessions recorded in the season */
+    public int sessionCount;
+
+    /** Distinct local days with at least one session */
+    public int daysSkied;
+
+    /** Total distance covered (km) */
+    public float totalDistance;
+
+    /** Best single-session top speed (km/h) */
+    public float maxSpeed;
+
+    /** Total vertical drop (m) */
+    public float verticalDrop;
+
+    /** Total time on the slopes (ms) */
+    public long totalDuration;
+
+    public SeasonStats() {}
+
+    public SeasonStats(int season) {
+        this.season = season;
+    }
+}
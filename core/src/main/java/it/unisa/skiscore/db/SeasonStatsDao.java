@@ -0,0 +1,152 @@
+package it.unisa.skiscore.db;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+
+/**
+ * Data Access Object for the maintained summaries: {@link SeasonStats} and {@link WeeklyStats}.
+ *
+ * Sessions that count towards the statistics must be written through this DAO, which
+ * updates the session row, its season's totals and its week's rollup in one transaction.
+ * Increments are O(1);
+ * only removing the fastest session of a season re-reads that season's sessions, through
+ * the localDay index.
+ * All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public abstract class SeasonStatsDao {
+
+    @Query("SELECT * FROM season_stats WHERE season = :season")
+    public abstract SeasonStats getSeason(int season);
+
+    /**
+     * The same row, re-read whenever season_stats changes. Since every session write updates
+     * the row in its own transaction, each change costs one single-row query after commit
+     * (null until the season has a session).
+     */
+    @Query("SELECT * FROM season_stats WHERE season = :season")
+    public abstract LiveData<SeasonStats> observeSeason(int season);
+
+    /** Inserts a finished session and adds it to its season. @return the new session id */
+    @Transaction
+    public long insertSession(SkiSession session) {
+        session.localDay = SeasonCalendar.localDayOf(session);
+        session.id = insertSessionRow(session);
+        add(session);
+        return session.id;
+    }
+
+    /**
+     * Completes a session row created earlier as a placeholder (e.g. while importing a
+     * track) and adds it to its season. The placeholder must not have been counted yet.
+     */
+    @Transaction
+    public void completeSession(SkiSession session) {
+        session.localDay = SeasonCalendar.localDayOf(session);
+        updateSessionRow(session);
+        add(session);
+    }
+
+    /** Deletes a session (runs and track points cascade) and removes it from its season. */
+    @Transaction
+    public void deleteSession(SkiSession session) {
+        deleteSessionRow(session);
+        removeFromWeek(session);
+        int season = SeasonCalendar.seasonOf(session.localDay);
+        SeasonStats stats = getSeason(season);
+        if (stats == null) return;
+
+        stats.sessionCount--;
+        if (stats.sessionCount <= 0) {
+            deleteStats(stats);
+            return;
+        }
+        stats.totalDistance = Math.max(0f, stats.totalDistance - session.totalDistance);
+        stats.verticalDrop  = Math.max(0f, stats.verticalDrop - session.verticalDrop);
+        stats.totalDuration = Math.max(0L, stats.totalDuration - session.duration);
+        if (countSessionsOnDay(session.localDay) == 0) stats.daysSkied--;
+        if (session.maxSpeed >= stats.maxSpeed) {
+            stats.maxSpeed = getMaxSpeedBetween(
+                    SeasonCalendar.firstDay(season), SeasonCalendar.lastDay(season));
+        }
+        upsertStats(stats);
+    }
+
+    /** Adds a session that has just been written, with its localDay set. */
+    private void add(SkiSession session) {
+        int season = SeasonCalendar.seasonOf(session.localDay);
+        SeasonStats stats = getSeason(season);
+        if (stats == null) stats = new SeasonStats(season);
+
+        stats.sessionCount++;
+        stats.totalDistance += session.totalDistance;
+        stats.verticalDrop  += session.verticalDrop;
+        stats.totalDuration += session.duration;
+        stats.maxSpeed = Math.max(stats.maxSpeed, session.maxSpeed);
+        // The session itself is already written: 1 means it is the first one of the day
+        if (countSessionsOnDay(session.localDay) == 1) stats.daysSkied++;
+        upsertStats(stats);
+
+        int weekStart = SeasonCalendar.weekStart(session.localDay);
+        WeeklyStats week = getWeek(weekStart);
+        if (week == null) week = new WeeklyStats(weekStart);
+        week.sessionCount++;
+        week.runCount      += session.runCount;
+        week.totalDistance += session.totalDistance;
+        week.verticalDrop  += session.verticalDrop;
+        week.totalDuration += session.duration;
+        upsertWeek(week);
+    }
+
+    private void removeFromWeek(SkiSession session) {
+        WeeklyStats week = getWeek(SeasonCalendar.weekStart(session.localDay));
+        if (week == null) return;
+        week.sessionCount--;
+        if (week.sessionCount <= 0) {
+            deleteWeek(week);
+            return;
+        }
+        week.runCount      = Math.max(0, week.runCount - session.runCount);
+        week.totalDistance = Math.max(0f, week.totalDistance - session.totalDistance);
+        week.verticalDrop  = Math.max(0f, week.verticalDrop - session.verticalDrop);
+        week.totalDuration = Math.max(0L, week.totalDuration - session.duration);
+        upsertWeek(week);
+    }
+
+    @Insert
+    abstract long insertSessionRow(SkiSession session);
+
+    @Update
+    abstract void updateSessionRow(SkiSession session);
+
+    @Delete
+    abstract void deleteSessionRow(SkiSession session);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void upsertStats(SeasonStats stats);
+
+    @Delete
+    abstract void deleteStats(SeasonStats stats);
+
+    @Query("SELECT * FROM weekly_stats WHERE weekStart = :weekStart")
+    abstract WeeklyStats getWeek(int weekStart);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void upsertWeek(WeeklyStats week);
+
+    @Delete
+    abstract void deleteWeek(WeeklyStats week);
+
+    @Query("SELECT COUNT(*) FROM ski_sessions WHERE localDay = :localDay")
+    abstract int countSessionsOnDay(int localDay);
+
+    @Query("SELECT COALESCE(MAX(maxSpeed), 0) FROM ski_sessions "
+            + "WHERE localDay BETWEEN :firstDay AND :lastDay")
+    abstract float getMaxSpeedBetween(int firstDay, int lastDay);
+}
@@ -0,0 +1,61 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A single descent ("run") inside a {@link SkiSession}, as delimited by the tracker's
+ * segmentation engine. Deleted together with its parent session.
+ * Indexed on the personal-best metrics, so each record is a single index lookup.
+ */
+@Entity(tableName = "ski_runs",
+        foreignKeys = @ForeignKey(entity = SkiSession.class,
+                parentColumns = "id",
+                childColumns = "sessionId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index("sessionId"), @Index("maxSpeed"),
+                @Index("verticalDrop"), @Index("distance")})
+public class SkiRun {
+
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    /** Id of the owning session */
+    public long sessionId;
+
+    /** 0-based position of the run within the session */
+    public int runIndex;
+
+    /** Timestamp (ms since epoch) of the start of the run */
+    public long startTime;
+
+    /** Duration of the run in milliseconds */
+    public long duration;
+
+    /** Vertical drop of the run in meters */
+    public float verticalDrop;
+
+    /** Distance covered during the run (km) */
+    public float distance;
+
+    /** Maximum speed reached during the run (km/h) */
+    public float maxSpeed;
+
+    /** Average moving speed during the run (km/h) */
+    public float avgSpeed;
+
+    public SkiRun() {}
+
+    public SkiRun(int runIndex, long startTime, long duration, float verticalDrop,
+                  float distance, float maxSpeed, float avgSpeed) {
+        this.runIndex     = runIndex;
+        this.startTime    = startTime;
+        this.duration     = duration;
+        this.verticalDrop = verticalDrop;
+        this.distance     = distance;
+        this.maxSpeed     = maxSpeed;
+        this.avgSpeed     = avgSpeed;
+    }
+}
@@ -0,0 +1,22 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the runs of a session.
+ * All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public interface SkiRunDao {
+
+    @Insert
+    void insertAll(List<SkiRun> runs);
+
+    /** Runs of one session in the order they were skied. */
+    @Query("SELECT * FROM ski_runs WHERE sessionId = :sessionId ORDER BY runIndex")
+    List<SkiRun> getRunsForSession(long sessionId);
+}
@@ -0,0 +1,72 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Represents a single ski session saved to the local Room database.
+ * Indexed on date (the diary lists sessions in date order), on localDay
+ * (day and season lookups of the season statistics) and on resortId (per-resort history).
+ */
+@Entity(tableName = "ski_sessions",
+        foreignKeys = @ForeignKey(entity = Resort.class,
+                parentColumns = "id",
+                childColumns = "resortId",
+                onDelete = ForeignKey.SET_NULL),
+        indices = {@Index("date"), @Index("localDay"), @Index("resortId")})
+public class SkiSession {
+
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    /** Timestamp (ms since epoch) of when the session was recorded */
+    public long date;
+
+    /** Duration of the session in milliseconds */
+    public long duration;
+
+    /** Maximum speed reached during the session (km/h) */
+    public float maxSpeed;
+
+    /** Average speed during descent (chairlift excluded) (km/h) */
+    public float avgSpeed;
+
+    /** Total distance covered during the session (km) */
+    public float totalDistance;
+
+    /** Total vertical drop (negative elevation change) in meters */
+    public float verticalDrop;
+
+    /** Total vertical ascent (positive elevation change, mostly lifts) in meters */
+    public float verticalAscent;
+
+    /**
+     * Day the session started on, in the device time zone when it was saved (see
+     * {@link SeasonCalendar}). Set by {@link SeasonStatsDao} when the session is counted.
+     */
+    public int localDay;
+
+    /** Number of runs recorded in the session (rows in ski_runs) */
+    public int runCount;
+
+    /**
+     * {@link Resort} nearest to the centroid of the track, or null when the track is empty
+     * or further than {@link ResortDao#MAX_TAG_DISTANCE_M} from any known resort.
+     */
+    public Long resortId;
+
+    public SkiSession() {}
+
+    public SkiSession(long date, long duration, float maxSpeed, float avgSpeed,
+                      float totalDistance, float verticalDrop, float verticalAscent) {
+        this.date           = date;
+        this.duration       = duration;
+        this.maxSpeed       = maxSpeed;
+        this.avgSpeed       = avgSpeed;
+        this.totalDistance  = totalDistance;
+        this.verticalDrop   = verticalDrop;
+        this.verticalAscent = verticalAscent;
+    }
+}
@@ -0,0 +1,44 @@
+package it.unisa.skiscore.db;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data Access Object for ski sessions.
+ * All query methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public interface SkiSessionDao {
+
+    /**
+     * Insert a new session. Replaces on conflict (shouldn't happen with autoGenerate PK).
+     * The session is not counted in the season statistics: finished sessions go through
+     * {@link SeasonStatsDao#insertSession}, placeholders through {@link SeasonStatsDao#completeSession}.
+     * @return the generated row id, used as sessionId for the session's runs
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long insert(SkiSession session);
+
+    @Query("SELECT * FROM ski_sessions WHERE id = :id")
+    SkiSession getSession(long id);
+
+    /** All sessions, oldest first (season export). */
+    @Query("SELECT * FROM ski_sessions ORDER BY date ASC")
+    List<SkiSession> getAllSessionsSync();
+
+    /** Sessions tagged with a resort, newest first, through the resortId index. */
+    @Query("SELECT * FROM ski_sessions WHERE resortId = :resortId ORDER BY date DESC")
+    List<SkiSession> getSessionsAtResort(long resortId);
+
+    /**
+     * Sessions newest first, loaded page by page for the diary list. Room invalidates the
+     * source whenever ski_sessions changes; the ORDER BY walks the date index.
+     */
+    @Query("SELECT * FROM ski_sessions ORDER BY date DESC")
+    PagingSource<Integer, SkiSession> getSessionsPaged();
+}
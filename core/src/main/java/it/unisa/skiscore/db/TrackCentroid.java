@@ -0,0 +1,31 @@
+package it.unisa.skiscore.db;
+
+/**
+ * Running mean of the points of a track, accumulated while the points are recorded or
+ * imported so that tagging a session never re-reads its track.
+ * Coordinates are averaged linearly, which is fine at the scale of a ski area.
+ */
+public final class TrackCentroid {
+
+    private long sumLatE7;
+    private long sumLonE7;
+    private int count;
+
+    public void add(int latE7, int lonE7) {
+        sumLatE7 += latE7;
+        sumLonE7 += lonE7;
+        count++;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getLatE7() {
+        return count > 0 ? (int) Math.round((double) sumLatE7 / count) : 0;
+    }
+
+    public int getLonE7() {
+        return count > 0 ? (int) Math.round((double) sumLonE7 / count) : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One GPS fix of a recorded {@link SkiSession}, kept so sessions can be exported
+ * and re-analysed. Coordinates are stored as degrees × 10^7 integers (the same
+ * resolution GPS chips report) to keep rows small on season-long histories.
+ */
+@Entity(tableName = "track_points",
+        foreignKeys = @ForeignKey(entity = SkiSession.class,
+                parentColumns = "id",
+                childColumns = "sessionId",
+                onDelete = ForeignKey.CASCADE),
+        indices = @Index("sessionId"))
+public class TrackPoint {
+
+    /** Scale between degrees and the stored integer coordinates */
+    public static final double E7 = 1e7;
+
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    /** Id of the owning session */
+    public long sessionId;
+
+    /** Timestamp (ms since epoch) of the fix */
+    public long time;
+
+    /** Latitude in degrees × 10^7 */
+    public int latE7;
+
+    /** Longitude in degrees × 10^7 */
+    public int lonE7;
+
+    /** Altitude in meters (barometer-fused when available) */
+    public float altitude;
+
+    /** Speed in km/h */
+    public float speed;
+
+    public TrackPoint() {}
+
+    public TrackPoint(long time, int latE7, int lonE7, float altitude, float speed) {
+        this.time     = time;
+        this.latE7    = latE7;
+        this.lonE7    = lonE7;
+        this.altitude = altitude;
+        this.speed    = speed;
+    }
+
+    /** Degrees → degrees × 10^7, rounded */
+    public static int toE7(double degrees) {
+        return (int) Math.round(degrees * E7);
+    }
+}
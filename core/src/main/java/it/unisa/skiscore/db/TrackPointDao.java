@@ -0,0 +1,37 @@
+package it.unisa.skiscore.db;
+
+import android.database.Cursor;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the GPS track of a session.
+ * All methods must be called from a background thread (Room enforces this).
+ */
+@Dao
+public interface TrackPointDao {
+
+    @Insert
+    void insertAll(List<TrackPoint> points);
+
+    /**
+     * Points of one session in time order, as a raw cursor so that exports can stream
+     * hundreds of thousands of rows without materialising them. Columns:
+     * time, latE7, lonE7, altitude, speed. The caller must close the cursor.
+     */
+    @Query("SELECT time, latE7, lonE7, altitude, speed FROM track_points "
+            + "WHERE sessionId = :sessionId ORDER BY time")
+    Cursor getPointsCursor(long sessionId);
+
+    /**
+     * Positions of every recorded session, grouped by session and in recording order,
+     * for the season heatmap. Points are inserted in time order, so ordering by id walks the
+     * sessionId index without a sort. Columns: sessionId, latE7, lonE7.
+     */
+    @Query("SELECT sessionId, latE7, lonE7 FROM track_points ORDER BY sessionId, id")
+    Cursor getAllPositionsCursor();
+}
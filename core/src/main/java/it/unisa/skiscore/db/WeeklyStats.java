@@ -0,0 +1,38 @@
+package it.unisa.skiscore.db;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Rollup of the sessions of one week (Monday to Sunday, local days), for trend charts
+ * over several seasons without scanning the session history.
+ * Kept up to date by {@link SeasonStatsDao} together with {@link SeasonStats}.
+ */
+@Entity(tableName = "weekly_stats")
+public class WeeklyStats {
+
+    /** Local day of the Monday starting the week (see {@link SeasonCalendar#weekStart}) */
+    @PrimaryKey
+    public int weekStart;
+
+    /** Number of sessions recorded in the week */
+    public int sessionCount;
+
+    /** Number of runs skied in the week */
+    public int runCount;
+
+    /** Total distance covered (km) */
+    public float totalDistance;
+
+    /** Total vertical drop (m) */
+    public float verticalDrop;
+
+    /** Total time on the slopes (ms) */
+    public long totalDuration;
+
+    public WeeklyStats() {}
+
+    public WeeklyStats(int weekStart) {
+        this.weekStart = weekStart;
+    }
+}
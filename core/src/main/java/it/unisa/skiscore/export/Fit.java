@@ -0,0 +1,65 @@
+package it.unisa.skiscore.export;
+
+/**
+ * Constants of the subset of the Garmin FIT protocol used by {@link FitWriter}
+ * and {@link FitReader}, plus the FIT CRC-16.
+ */
+final class Fit {
+
+    /** FIT timestamps count seconds from 1989-12-31T00:00:00Z */
+    static final long EPOCH_MS = 631_065_600_000L;
+
+    static final int HEADER_SIZE      = 14;
+    static final int PROTOCOL_VERSION = 0x20;   // 2.0
+    static final int PROFILE_VERSION  = 2140;   // 21.40
+
+    // Global message numbers
+    static final int MESG_FILE_ID = 0;
+    static final int MESG_RECORD  = 20;
+
+    // file_id fields
+    static final int FILE_ID_TYPE         = 0;
+    static final int FILE_ID_MANUFACTURER = 1;
+    static final int FILE_ID_TIME_CREATED = 4;
+    static final int FILE_TYPE_ACTIVITY   = 4;
+    static final int MANUFACTURER_DEVELOPMENT = 255;
+
+    // record fields
+    static final int FIELD_TIMESTAMP         = 253;
+    static final int RECORD_POSITION_LAT     = 0;
+    static final int RECORD_POSITION_LONG    = 1;
+    static final int RECORD_ALTITUDE         = 2;   // uint16, scale 5, offset 500 (m)
+    static final int RECORD_SPEED            = 6;   // uint16, scale 1000 (m/s)
+    static final int RECORD_ENHANCED_SPEED   = 73;  // uint32, scale 1000 (m/s)
+    static final int RECORD_ENHANCED_ALTITUDE = 78; // uint32, scale 5, offset 500 (m)
+
+    // Base types
+    static final int BASE_ENUM   = 0x00;
+    static final int BASE_UINT16 = 0x84;
+    static final int BASE_SINT32 = 0x85;
+    static final int BASE_UINT32 = 0x86;
+
+    static final int INVALID_SINT32 = 0x7FFFFFFF;
+    static final int INVALID_UINT16 = 0xFFFF;
+    static final long INVALID_UINT32 = 0xFFFFFFFFL;
+
+    /** Semicircles (2^31 per 180°) per unit of degrees × 10^7 */
+    static final double SEMICIRCLES_PER_E7 = 2147483648.0 / 1.8e9;
+
+    private static final int[] CRC_TABLE = {
+            0x0000, 0xCC01, 0xD801, 0x1400, 0xF001, 0x3C00, 0x2800, 0xE401,
+            0xA001, 0x6C00, 0x7800, 0xB401, 0x5000, 0x9C01, 0x8801, 0x4400
+    };
+
+    private Fit() {}
+
+    /** Updates the FIT CRC-16 with one byte. */
+    static int crc16(int crc, int b) {
+        int tmp = CRC_TABLE[crc & 0xF];
+        crc = (crc >> 4) & 0x0FFF;
+        crc = crc ^ tmp ^ CRC_TABLE[b & 0xF];
+        tmp = CRC_TABLE[crc & 0xF];
+        crc = (crc >> 4) & 0x0FFF;
+        return crc ^ tmp ^ CRC_TABLE[(b >> 4) & 0xF];
+    }
+}
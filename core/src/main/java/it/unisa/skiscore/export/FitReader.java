@@ -0,0 +1,181 @@
+package it.unisa.skiscore.export;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader for FIT activity files: only record messages are decoded,
+ * every other message is skipped by size. Handles both byte orders, compressed
+ * timestamp headers and developer fields, and verifies the file CRC.
+ *
+ * The whole file is reported as a single track.
+ */
+public final class FitReader {
+
+    /** Field layout of one local message type, from its definition message */
+    private static final class Definition {
+        int     globalMesg;
+        boolean bigEndian;
+        int[]   fieldNums;
+        int[]   fieldSizes;
+        int     developerBytes;
+    }
+
+    private final InputStream in;
+    private final Definition[] definitions = new Definition[16];
+    private int  crc = 0;
+    private long consumed = 0;
+    private long lastTimestamp = -1;
+
+    private FitReader(InputStream in) {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+    }
+
+    public static void read(InputStream in, TrackHandler handler) throws IOException {
+        new FitReader(in).parse(handler);
+    }
+
+    private void parse(TrackHandler handler) throws IOException {
+        int headerSize = readU8();
+        if (headerSize < 12) throw new IOException("Invalid FIT header size " + headerSize);
+        readU8();                                   // protocol version
+        readU16(false);                             // profile version
+        long dataSize = readU32(false);
+        if (readU8() != '.' || readU8() != 'F' || readU8() != 'I' || readU8() != 'T') {
+            throw new IOException("Not a FIT file");
+        }
+        for (int i = 12; i < headerSize; i++) readU8(); // header CRC / future fields
+
+        long dataEnd = headerSize + dataSize;
+        handler.onTrackStart();
+        while (consumed < dataEnd) {
+            int header = readU8();
+            if ((header & 0x80) != 0) {
+                // Compressed timestamp header: 5-bit offset from the last full timestamp
+                int offset = header & 0x1F;
+                if (lastTimestamp >= 0) {
+                    long ts = (lastTimestamp & ~0x1FL) + offset;
+                    if (offset < (lastTimestamp & 0x1F)) ts += 0x20;
+                    lastTimestamp = ts;
+                }
+                readData((header >> 5) & 0x03, handler);
+            } else if ((header & 0x40) != 0) {
+                readDefinition(header & 0x0F, (header & 0x20) != 0);
+            } else {
+                readData(header & 0x0F, handler);
+            }
+        }
+
+        int expected = crc;
+        int fileCrc = readU8() | (readU8() << 8);
+        if (fileCrc != expected) throw new IOException("FIT CRC mismatch");
+        handler.onTrackEnd();
+    }
+
+    private void readDefinition(int localType, boolean hasDeveloperFields) throws IOException {
+        Definition def = new Definition();
+        readU8();                                   // reserved
+        def.bigEndian  = readU8() == 1;
+        def.globalMesg = readU16(def.bigEndian);
+        int count = readU8();
+        def.fieldNums  = new int[count];
+        def.fieldSizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            def.fieldNums[i]  = readU8();
+            def.fieldSizes[i] = readU8();
+            readU8();                               // base type
+        }
+        if (hasDeveloperFields) {
+            int devCount = readU8();
+            for (int i = 0; i < devCount; i++) {
+                readU8();                           // field number
+                def.developerBytes += readU8();
+                readU8();                           // developer data index
+            }
+        }
+        definitions[localType] = def;
+    }
+
+    private void readData(int localType, TrackHandler handler) throws IOException {
+        Definition def = definitions[localType];
+        if (def == null) throw new IOException("FIT data message without definition");
+
+        boolean record = def.globalMesg == Fit.MESG_RECORD;
+        long lat = Fit.INVALID_SINT32, lon = Fit.INVALID_SINT32;
+        double altitude = Double.NaN, speedMs = Double.NaN;
+
+        for (int i = 0; i < def.fieldNums.length; i++) {
+            int size = def.fieldSizes[i];
+            if (size != 1 && size != 2 && size != 4) {
+                skip(size);
+                continue;
+            }
+            long raw = size == 1 ? readU8() : size == 2 ? readU16(def.bigEndian) : readU32(def.bigEndian);
+            int num = def.fieldNums[i];
+            if (num == Fit.FIELD_TIMESTAMP && size == 4) {
+                lastTimestamp = raw;
+            } else if (!record) {
+                continue;
+            }
+            switch (num) {
+                case Fit.RECORD_POSITION_LAT:
+                    if (size == 4) lat = (int) raw;
+                    break;
+                case Fit.RECORD_POSITION_LONG:
+                    if (size == 4) lon = (int) raw;
+                    break;
+                case Fit.RECORD_ALTITUDE:
+                    if (size == 2 && raw != Fit.INVALID_UINT16 && Double.isNaN(altitude)) {
+                        altitude = raw / 5.0 - 500.0;
+                    }
+                    break;
+                case Fit.RECORD_ENHANCED_ALTITUDE:
+                    if (size == 4 && raw != Fit.INVALID_UINT32) altitude = raw / 5.0 - 500.0;
+                    break;
+                case Fit.RECORD_SPEED:
+                    if (size == 2 && raw != Fit.INVALID_UINT16 && Double.isNaN(speedMs)) {
+                        speedMs = raw / 1000.0;
+                    }
+                    break;
+                case Fit.RECORD_ENHANCED_SPEED:
+                    if (size == 4 && raw != Fit.INVALID_UINT32) speedMs = raw / 1000.0;
+                    break;
+                default:
+                    break;
+            }
+        }
+        skip(def.developerBytes);
+
+        if (!record || lastTimestamp < 0 || lat == Fit.INVALID_SINT32 || lon == Fit.INVALID_SINT32) return;
+        handler.onPoint(Fit.EPOCH_MS + lastTimestamp * 1000L,
+                (int) Math.round(lat / Fit.SEMICIRCLES_PER_E7),
+                (int) Math.round(lon / Fit.SEMICIRCLES_PER_E7),
+                Double.isNaN(altitude) ? 0f : (float) altitude,
+                Double.isNaN(speedMs) ? Float.NaN : (float) (speedMs * 3.6));
+    }
+
+    private void skip(int bytes) throws IOException {
+        for (int i = 0; i < bytes; i++) readU8();
+    }
+
+    private int readU8() throws IOException {
+        int b = in.read();
+        if (b < 0) throw new EOFException("Truncated FIT file");
+        crc = Fit.crc16(crc, b);
+        consumed++;
+        return b;
+    }
+
+    private int readU16(boolean bigEndian) throws IOException {
+        int a = readU8(), b = readU8();
+        return bigEndian ? (a << 8) | b : (b << 8) | a;
+    }
+
+    private long readU32(boolean bigEndian) throws IOException {
+        long a = readU8(), b = readU8(), c = readU8(), d = readU8();
+        return bigEndian ? (a << 24) | (b << 16) | (c << 8) | d
+                         : (d << 24) | (c << 16) | (b << 8) | a;
+    }
+}
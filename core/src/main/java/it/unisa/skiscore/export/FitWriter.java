@@ -0,0 +1,140 @@
+package it.unisa.skiscore.export;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming writer for FIT activity files: a file_id message followed by one
+ * record message per point (timestamp, position, altitude, speed).
+ *
+ * FIT stores the data size in the file header, so the number of points must be
+ * known up front; every record has the same fixed size, which lets the header be
+ * written first and the points streamed without buffering. The CRC is computed on
+ * the fly. Timestamps have one-second resolution and positions are stored in
+ * semicircles, as in every FIT file.
+ */
+public class FitWriter implements Closeable {
+
+    private static final int LOCAL_FILE_ID = 0;
+    private static final int LOCAL_RECORD  = 1;
+
+    private static final int FILE_ID_DEF_SIZE  = 6 + 3 * 3;
+    private static final int FILE_ID_DATA_SIZE = 1 + 1 + 2 + 4;
+    private static final int RECORD_DEF_SIZE   = 6 + 5 * 3;
+    private static final int RECORD_DATA_SIZE  = 1 + 4 + 4 + 4 + 2 + 2;
+
+    private final OutputStream out;
+    private final long expectedPoints;
+    private long writtenPoints = 0;
+    private int  crc = 0;
+
+    /**
+     * @param out        destination, closed by {@link #close()}
+     * @param pointCount exact number of points that will be written
+     * @param createdMs  creation time of the activity (ms since epoch)
+     */
+    public FitWriter(OutputStream out, long pointCount, long createdMs) throws IOException {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out);
+        this.expectedPoints = pointCount;
+
+        long dataSize = FILE_ID_DEF_SIZE + FILE_ID_DATA_SIZE + RECORD_DEF_SIZE
+                + pointCount * RECORD_DATA_SIZE;
+        if (dataSize > 0xFFFFFFFFL) throw new IllegalArgumentException("Too many points for FIT");
+
+        // ---- File header (with its own CRC over the first 12 bytes) ----
+        writeU8(Fit.HEADER_SIZE);
+        writeU8(Fit.PROTOCOL_VERSION);
+        writeU16(Fit.PROFILE_VERSION);
+        writeU32(dataSize);
+        writeU8('.'); writeU8('F'); writeU8('I'); writeU8('T');
+        writeU16(crc);
+
+        // ---- file_id ----
+        writeDefinition(LOCAL_FILE_ID, Fit.MESG_FILE_ID, new int[][]{
+                {Fit.FILE_ID_TYPE,         1, Fit.BASE_ENUM},
+                {Fit.FILE_ID_MANUFACTURER, 2, Fit.BASE_UINT16},
+                {Fit.FILE_ID_TIME_CREATED, 4, Fit.BASE_UINT32}});
+        writeU8(LOCAL_FILE_ID);
+        writeU8(Fit.FILE_TYPE_ACTIVITY);
+        writeU16(Fit.MANUFACTURER_DEVELOPMENT);
+        writeU32(toFitTime(createdMs));
+
+        // ---- record definition ----
+        writeDefinition(LOCAL_RECORD, Fit.MESG_RECORD, new int[][]{
+                {Fit.FIELD_TIMESTAMP,      4, Fit.BASE_UINT32},
+                {Fit.RECORD_POSITION_LAT,  4, Fit.BASE_SINT32},
+                {Fit.RECORD_POSITION_LONG, 4, Fit.BASE_SINT32},
+                {Fit.RECORD_ALTITUDE,      2, Fit.BASE_UINT16},
+                {Fit.RECORD_SPEED,         2, Fit.BASE_UINT16}});
+    }
+
+    public void writePoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh)
+            throws IOException {
+        if (writtenPoints == expectedPoints) {
+            throw new IllegalStateException("More points than declared (" + expectedPoints + ")");
+        }
+        writeU8(LOCAL_RECORD);
+        writeU32(toFitTime(timeMs));
+        writeU32((int) Math.round(latE7 * Fit.SEMICIRCLES_PER_E7));
+        writeU32((int) Math.round(lonE7 * Fit.SEMICIRCLES_PER_E7));
+        writeU16(clampU16(Math.round((altitudeM + 500.0) * 5.0)));
+        writeU16(speedKmh >= 0 ? clampU16(Math.round(speedKmh / 3.6 * 1000.0)) : Fit.INVALID_UINT16);
+        writtenPoints++;
+    }
+
+    /** Writes the file CRC. Fails if fewer points than declared were written. */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writtenPoints != expectedPoints) {
+                throw new IllegalStateException("Declared " + expectedPoints
+                        + " points but wrote " + writtenPoints);
+            }
+            int fileCrc = crc;
+            out.write(fileCrc & 0xFF);
+            out.write((fileCrc >> 8) & 0xFF);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeDefinition(int localType, int globalMesg, int[][] fields) throws IOException {
+        writeU8(0x40 | localType);
+        writeU8(0);                 // reserved
+        writeU8(0);                 // little endian
+        writeU16(globalMesg);
+        writeU8(fields.length);
+        for (int[] f : fields) {
+            writeU8(f[0]);
+            writeU8(f[1]);
+            writeU8(f[2]);
+        }
+    }
+
+    private static long toFitTime(long timeMs) {
+        return Math.floorDiv(timeMs - Fit.EPOCH_MS, 1000L);
+    }
+
+    private static int clampU16(long value) {
+        return (int) Math.max(0, Math.min(0xFFFE, value));
+    }
+
+    private void writeU8(int b) throws IOException {
+        out.write(b);
+        crc = Fit.crc16(crc, b & 0xFF);
+    }
+
+    private void writeU16(int v) throws IOException {
+        writeU8(v & 0xFF);
+        writeU8((v >> 8) & 0xFF);
+    }
+
+    private void writeU32(long v) throws IOException {
+        writeU8((int) (v & 0xFF));
+        writeU8((int) ((v >> 8) & 0xFF));
+        writeU8((int) ((v >> 16) & 0xFF));
+        writeU8((int) ((v >> 24) & 0xFF));
+    }
+}
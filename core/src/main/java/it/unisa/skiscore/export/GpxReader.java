@@ -0,0 +1,80 @@
+package it.unisa.skiscore.export;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming GPX reader (1.0 and 1.1) based on XmlPullParser: points are handed to a
+ * {@link TrackHandler} as they are parsed, no document tree is built.
+ *
+ * Each {@code <trk>} becomes one track; all its segments are concatenated.
+ * Points without a timestamp are skipped. Speed is read from any {@code <speed>}
+ * element inside the point (GPX 1.0, Garmin TrackPointExtension), in m/s.
+ */
+public final class GpxReader {
+
+    private GpxReader() {}
+
+    public static void read(InputStream in, TrackHandler handler) throws IOException {
+        try {
+            XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            XmlPullParser parser = factory.newPullParser();
+            parser.setInput(in, null);
+            parse(parser, handler);
+        } catch (XmlPullParserException | IllegalArgumentException e) {
+            throw new IOException("Invalid GPX: " + e.getMessage(), e);
+        }
+    }
+
+    private static void parse(XmlPullParser parser, TrackHandler handler)
+            throws XmlPullParserException, IOException {
+        boolean inTrack = false, inPoint = false;
+        int   latE7 = 0, lonE7 = 0;
+        long  timeMs = 0;
+        boolean hasTime = false;
+        float altitude = 0f, speedKmh = Float.NaN;
+
+        for (int event = parser.next(); event != XmlPullParser.END_DOCUMENT; event = parser.next()) {
+            if (event == XmlPullParser.START_TAG) {
+                String name = parser.getName();
+                if ("trk".equals(name)) {
+                    inTrack = true;
+                    handler.onTrackStart();
+                } else if (inTrack && "trkpt".equals(name)) {
+                    inPoint  = true;
+                    latE7    = parseE7(parser.getAttributeValue(null, "lat"));
+                    lonE7    = parseE7(parser.getAttributeValue(null, "lon"));
+                    hasTime  = false;
+                    altitude = 0f;
+                    speedKmh = Float.NaN;
+                } else if (inPoint && "ele".equals(name)) {
+                    altitude = Float.parseFloat(parser.nextText().trim());
+                } else if (inPoint && "time".equals(name)) {
+                    timeMs  = Iso8601.parse(parser.nextText().trim());
+                    hasTime = true;
+                } else if (inPoint && "speed".equals(name)) {
+                    speedKmh = Float.parseFloat(parser.nextText().trim()) * 3.6f;
+                }
+            } else if (event == XmlPullParser.END_TAG) {
+                String name = parser.getName();
+                if (inPoint && "trkpt".equals(name)) {
+                    inPoint = false;
+                    if (hasTime) handler.onPoint(timeMs, latE7, lonE7, altitude, speedKmh);
+                } else if (inTrack && "trk".equals(name)) {
+                    inTrack = false;
+                    handler.onTrackEnd();
+                }
+            }
+        }
+    }
+
+    private static int parseE7(String degrees) {
+        if (degrees == null) throw new IllegalArgumentException("trkpt without lat/lon");
+        return (int) Math.round(Double.parseDouble(degrees.trim()) * 1e7);
+    }
+}
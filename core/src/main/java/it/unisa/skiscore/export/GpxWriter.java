@@ -0,0 +1,117 @@
+package it.unisa.skiscore.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming GPX 1.1 writer: each point is formatted into a reused buffer and
+ * written straight through, so memory use does not depend on the track length.
+ *
+ * Speed goes into the Garmin TrackPointExtension (m/s), which most GPX tools read.
+ * Usage: {@code beginTrack} / {@code writePoint}… / {@code endTrack}, repeated once per
+ * session, then {@link #close()}.
+ */
+public class GpxWriter implements Closeable {
+
+    private static final String HEADER =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<gpx version=\"1.1\" creator=\"SkiScore\""
+            + " xmlns=\"http://www.topografix.com/GPX/1/1\""
+            + " xmlns:gpxtpx=\"http://www.garmin.com/xmlschemas/TrackPointExtension/v2\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://www.topografix.com/GPX/1/1"
+            + " http://www.topografix.com/GPX/1/1/gpx.xsd\">\n";
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+    private boolean inTrack = false;
+
+    /** @param out destination; should be buffered, it is closed by {@link #close()} */
+    public GpxWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+    }
+
+    public void beginTrack(String name) throws IOException {
+        if (inTrack) endTrack();
+        line.setLength(0);
+        line.append(" <trk>\n  <name>");
+        appendEscaped(line, name);
+        line.append("</name>\n  <trkseg>\n");
+        flushLine();
+        inTrack = true;
+    }
+
+    public void writePoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh)
+            throws IOException {
+        if (!inTrack) throw new IllegalStateException("writePoint outside of a track");
+        line.setLength(0);
+        line.append("   <trkpt lat=\"");
+        appendFixed(line, latE7, 7);
+        line.append("\" lon=\"");
+        appendFixed(line, lonE7, 7);
+        line.append("\"><ele>");
+        appendFixed(line, Math.round(altitudeM * 10.0), 1);
+        line.append("</ele><time>");
+        Iso8601.appendUtc(line, timeMs);
+        line.append("</time>");
+        if (speedKmh >= 0) {
+            line.append("<extensions><gpxtpx:TrackPointExtension><gpxtpx:speed>");
+            appendFixed(line, Math.round(speedKmh / 3.6 * 100.0), 2);
+            line.append("</gpxtpx:speed></gpxtpx:TrackPointExtension></extensions>");
+        }
+        line.append("</trkpt>\n");
+        flushLine();
+    }
+
+    public void endTrack() throws IOException {
+        if (!inTrack) return;
+        out.write("  </trkseg>\n </trk>\n");
+        inTrack = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            endTrack();
+            out.write("</gpx>\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void flushLine() throws IOException {
+        out.append(line);
+    }
+
+    /** Appends {@code scaled / 10^decimals} with exactly {@code decimals} fraction digits. */
+    static void appendFixed(StringBuilder sb, long scaled, int decimals) {
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        long pow = 1;
+        for (int i = 0; i < decimals; i++) pow *= 10;
+        sb.append(scaled / pow);
+        if (decimals == 0) return;
+        sb.append('.');
+        long frac = scaled % pow;
+        for (long p = pow / 10; p > 1 && frac < p; p /= 10) sb.append('0');
+        sb.append(frac);
+    }
+
+    private static void appendEscaped(StringBuilder sb, String text) {
+        if (text == null) return;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':  sb.append("&lt;");   break;
+                case '>':  sb.append("&gt;");   break;
+                case '&':  sb.append("&amp;");  break;
+                case '"':  sb.append("&quot;"); break;
+                default:   sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package it.unisa.skiscore.export;
+
+/**
+ * Allocation-free UTC timestamp formatting and parsing for GPX
+ * ({@code 2024-01-31T09:15:02.250Z}). java.time needs API 26 and
+ * SimpleDateFormat is too slow for season-sized exports.
+ */
+final class Iso8601 {
+
+    private static final long MS_PER_DAY = 86_400_000L;
+
+    private Iso8601() {}
+
+    /** Appends {@code timeMs} as UTC; milliseconds are written only when non-zero. */
+    static void appendUtc(StringBuilder sb, long timeMs) {
+        long days     = Math.floorDiv(timeMs, MS_PER_DAY);
+        long msOfDay  = Math.floorMod(timeMs, MS_PER_DAY);
+
+        // Civil date from days since 1970-01-01 (H. Hinnant's algorithm)
+        long z   = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp  = (5 * doy + 2) / 153;
+        long day   = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year  = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+        pad(sb, year, 4).append('-');
+        pad(sb, month, 2).append('-');
+        pad(sb, day, 2).append('T');
+        pad(sb, msOfDay / 3_600_000, 2).append(':');
+        pad(sb, msOfDay / 60_000 % 60, 2).append(':');
+        pad(sb, msOfDay / 1000 % 60, 2);
+        if (msOfDay % 1000 != 0) {
+            sb.append('.');
+            pad(sb, msOfDay % 1000, 3);
+        }
+        sb.append('Z');
+    }
+
+    /**
+     * Parses {@code YYYY-MM-DDThh:mm:ss[.fraction][Z|±hh:mm|±hhmm]}; no zone means UTC.
+     *
+     * @throws IllegalArgumentException if the text is not a timestamp in that form
+     */
+    static long parse(CharSequence s) {
+        try {
+            int year   = digits(s, 0, 4);
+            int month  = digits(s, 5, 2);
+            int day    = digits(s, 8, 2);
+            int hour   = digits(s, 11, 2);
+            int minute = digits(s, 14, 2);
+            int second = digits(s, 17, 2);
+            if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+                throw new IllegalArgumentException("Not an ISO-8601 timestamp: " + s);
+            }
+
+            int i = 19;
+            long millis = 0;
+            if (i < s.length() && s.charAt(i) == '.') {
+                i++;
+                int scale = 100;
+                while (i < s.length() && Character.isDigit(s.charAt(i))) {
+                    millis += (s.charAt(i) - '0') * scale;
+                    scale /= 10;
+                    i++;
+                }
+            }
+
+            long offsetMs = 0;
+            if (i < s.length()) {
+                char c = s.charAt(i);
+                if (c == '+' || c == '-') {
+                    int oh = digits(s, i + 1, 2);
+                    int om = s.length() > i + 3 && s.charAt(i + 3) == ':'
+                            ? digits(s, i + 4, 2) : digits(s, i + 3, 2);
+                    offsetMs = (oh * 60L + om) * 60_000L * (c == '+' ? 1 : -1);
+                } else if (c != 'Z') {
+                    throw new IllegalArgumentException("Bad zone in timestamp: " + s);
+                }
+            }
+
+            long days = daysFromCivil(year, month, day);
+            return days * MS_PER_DAY + ((hour * 60L + minute) * 60L + second) * 1000L + millis - offsetMs;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated timestamp: " + s);
+        }
+    }
+
+    private static long daysFromCivil(long y, long m, long d) {
+        y -= m <= 2 ? 1 : 0;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (m + (m > 2 ? -3 : 9)) + 2) / 5 + d - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+
+    private static int digits(CharSequence s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new IllegalArgumentException("Bad digit in timestamp: " + s);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static StringBuilder pad(StringBuilder sb, long value, int width) {
+        for (long limit = 10, w = 1; w < width; w++, limit *= 10) {
+            if (value < limit) sb.append('0');
+        }
+        return sb.append(value);
+    }
+}
@@ -0,0 +1,25 @@
+package it.unisa.skiscore.export;
+
+/**
+ * Receives the content of a track file as it is parsed, one point at a time,
+ * so that readers never hold a whole track in memory.
+ */
+public interface TrackHandler {
+
+    /** A new track (one recorded session) begins. */
+    void onTrackStart();
+
+    /**
+     * One point of the current track.
+     *
+     * @param timeMs    timestamp (ms since epoch, UTC)
+     * @param latE7     latitude in degrees × 10^7
+     * @param lonE7     longitude in degrees × 10^7
+     * @param altitudeM altitude in meters, 0 when the file has none
+     * @param speedKmh  speed in km/h, {@link Float#NaN} when the file has none
+     */
+    void onPoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh);
+
+    /** The current track is complete. */
+    void onTrackEnd();
+}
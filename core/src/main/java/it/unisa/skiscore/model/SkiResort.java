@@ -4,8 +4,16 @@ import java.io.Serializable;
 
 /**
  * Represents a ski resort with its location, weather data, and computed ski score.
+ *
+ * A resort is identified by {@link #getId()}, a number derived from its coordinates: the
+ * same place gets the same id whether it comes from a search, the favorites or the
+ * resort catalogue, and the id is the key of the favorites and resorts tables.
  */
 public class SkiResort implements Serializable {
+
+    /** Bits per axis in {@link #idOf}: 2^26 steps over 180°/360° ≈ 0.3/0.6 m */
+    private static final int ID_BITS = 26;
+
     private String name;
     private String country;
     private double latitude;
@@ -14,6 +22,10 @@ public class SkiResort implements Serializable {
     private transient WeatherData weatherData;
     private int skiScore;
 
+    /** Cached {@link #idOf} of the coordinates; not stored, Gson and old blobs lack it */
+    private transient long id;
+    private transient boolean hasId;
+
     public SkiResort() {}
 
     public SkiResort(String name, String country, double latitude, double longitude) {
@@ -33,10 +45,10 @@ public class SkiResort implements Serializable {
     public void setCountry(String country) { this.country = country; }
 
     public double getLatitude() { return latitude; }
-    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; hasId = false; }
 
     public double getLongitude() { return longitude; }
-    public void setLongitude(double longitude) { this.longitude = longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; hasId = false; }
 
     public boolean isFavorite() { return isFavorite; }
     public void setFavorite(boolean favorite) { isFavorite = favorite; }
@@ -48,27 +60,46 @@ public class SkiResort implements Serializable {
     public void setSkiScore(int skiScore) { this.skiScore = skiScore; }
 
     /**
-     * Unique key for favorites storage.
+     * Stable id of the resort, used for equality, maps and database keys.
      */
-    public String getKey() {
-        return name + "_" + latitude + "_" + longitude;
+    public long getId() {
+        if (!hasId) {
+            id = idOf(latitude, longitude);
+            hasId = true;
+        }
+        return id;
+    }
+
+    /**
+     * Id of a position: latitude and longitude quantized to {@value #ID_BITS} bits and
+     * interleaved bit by bit, like a binary geohash. Nearby places share the high bits, and
+     * coordinates that differ only by floating-point noise map to the same id.
+     */
+    public static long idOf(double latitude, double longitude) {
+        long lat = quantize(latitude + 90.0, 180.0);
+        long lon = quantize(longitude + 180.0, 360.0);
+        long id = 0;
+        for (int bit = ID_BITS - 1; bit >= 0; bit--) {
+            id = (id << 2) | (((lon >>> bit) & 1L) << 1) | ((lat >>> bit) & 1L);
+        }
+        return id;
+    }
+
+    private static long quantize(double value, double range) {
+        long max = (1L << ID_BITS) - 1;
+        long q = (long) Math.floor(value / range * (1L << ID_BITS));
+        return Math.max(0L, Math.min(max, q));
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        SkiResort that = (SkiResort) o;
-        return Double.compare(that.latitude, latitude) == 0
-                && Double.compare(that.longitude, longitude) == 0
-                && name.equals(that.name);
+        return getId() == ((SkiResort) o).getId();
     }
 
     @Override
     public int hashCode() {
-        int result = name.hashCode();
-        result = 31 * result + Double.hashCode(latitude);
-        result = 31 * result + Double.hashCode(longitude);
-        return result;
+        return Long.hashCode(getId());
     }
 }
@@ -0,0 +1,178 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Fusione barometro + GPS per un segnale di quota stabile (filtro complementare).
+ *
+ * - Il barometro dà variazioni di quota precise (rumore ~0.5 m) ma con uno
+ *   scostamento assoluto ignoto che deriva lentamente col meteo.
+ * - Il GPS dà la quota assoluta ma con rumore di decine di metri.
+ * - Quota fusa = quota barometrica + offset, dove l'offset insegue lentamente
+ *   (GPS − barometro), pesato sull'accuratezza verticale del fix.
+ *
+ * I due flussi arrivano a blocchi e con ritardi diversi: i campioni di pressione
+ * dal FIFO hardware (~10 s), i fix GPS in modalità tasca fino a 60 s dopo.
+ * La quota barometrica filtrata viene quindi conservata per gli ultimi ~2 minuti
+ * e ogni fix viene fuso con quella del proprio istante (interpolata); solo un fix
+ * più recente dell'ultimo campione usa l'estrapolazione con la velocità verticale
+ * barometrica. Senza barometro la quota GPS passa invariata.
+ * Classe in puro Java: nessuna dipendenza da android.hardware.
+ */
+public class AltitudeFusion {
+
+    /** Pressione standard al livello del mare (hPa) */
+    public static final double SEA_LEVEL_HPA = 1013.25;
+
+    private static final double BARO_TAU_S             = 2.0;     // filtro rumore barometro
+    private static final double BARO_RATE_TAU_S        = 5.0;     // filtro vel. verticale barometrica
+    private static final double OFFSET_TAU_S           = 60.0;    // inseguimento offset GPS
+    private static final double REFERENCE_ACCURACY_M   = 5.0;     // accuratezza a cui vale OFFSET_TAU_S
+    private static final double OUTLIER_M              = 50.0;    // scarto GPS ignorato
+    private static final int    MAX_OUTLIERS_IN_ROW    = 10;      // poi l'offset viene ri-allineato
+    private static final long   MAX_EXTRAPOLATION_MS   = 15_000L;
+    private static final long   BARO_STALE_MS          = 60_000L; // oltre: barometro assente
+    private static final int    HISTORY_SIZE           = 256;
+    private static final long   HISTORY_STEP_MS        = 500L;    // 256 × 0.5 s: oltre 2 minuti
+
+    // ---- Barometro ----
+    private boolean hasBaro = false;
+    private long    baroTimeMs;
+    private double  baroAltitude;
+    private double  baroRateMs;
+
+    // Storia della quota barometrica filtrata (buffer circolare, in ordine di tempo)
+    private final long[]   historyTimes     = new long[HISTORY_SIZE];
+    private final double[] historyAltitudes = new double[HISTORY_SIZE];
+    private int historyStart = 0, historySize = 0;
+
+    // ---- Offset GPS − barometro ----
+    private boolean hasOffset = false;
+    private long    offsetTimeMs;
+    private double  offset;
+    private int     outliersInRow = 0;
+
+    /** Quota barometrica (atmosfera standard) per una pressione in hPa */
+    public static double pressureToAltitude(double pressureHpa) {
+        return 44330.0 * (1.0 - Math.pow(pressureHpa / SEA_LEVEL_HPA, 1.0 / 5.255));
+    }
+
+    /** Inversa di {@link #pressureToAltitude(double)} */
+    public static double altitudeToPressure(double altitudeM) {
+        return SEA_LEVEL_HPA * Math.pow(1.0 - altitudeM / 44330.0, 5.255);
+    }
+
+    /**
+     * Nuovo campione di pressione. Compatibile con {@link PressureSource.Listener}.
+     */
+    public void onPressure(long timestampMs, float pressureHpa) {
+        double altitude = pressureToAltitude(pressureHpa);
+        if (!hasBaro || timestampMs - baroTimeMs > BARO_STALE_MS) {
+            hasBaro      = true;
+            baroTimeMs   = timestampMs;
+            baroAltitude = altitude;
+            baroRateMs   = 0;
+            historySize  = 0; // dopo un buco la storia precedente non serve più
+            record(timestampMs, altitude);
+            return;
+        }
+
+        double dtS = (timestampMs - baroTimeMs) / 1000.0;
+        if (dtS <= 0) return;
+
+        double prev = baroAltitude;
+        baroAltitude += alpha(dtS, BARO_TAU_S) * (altitude - baroAltitude);
+        baroRateMs   += alpha(dtS, BARO_RATE_TAU_S) * ((baroAltitude - prev) / dtS - baroRateMs);
+        baroTimeMs    = timestampMs;
+        record(timestampMs, baroAltitude);
+    }
+
+    /**
+     * Nuovo fix GPS: aggiorna l'offset e restituisce la quota fusa.
+     *
+     * @param timeMs              istante del fix (ms)
+     * @param gpsAltitudeM        quota GPS (m)
+     * @param verticalAccuracyM   accuratezza verticale del fix (m)
+     */
+    public double onGpsAltitude(long timeMs, double gpsAltitudeM, float verticalAccuracyM) {
+        if (!isBarometerActive(timeMs)) return gpsAltitudeM;
+
+        double baroNow = baroAltitudeAt(timeMs);
+        double innovation = gpsAltitudeM - baroNow;
+
+        if (!hasOffset || outliersInRow >= MAX_OUTLIERS_IN_ROW) {
+            // Primo fix, o il GPS concorda da tempo su un altro offset: ri-allinea
+            offset        = innovation;
+            offsetTimeMs  = timeMs;
+            hasOffset     = true;
+            outliersInRow = 0;
+        } else if (Math.abs(innovation - offset) > OUTLIER_M) {
+            outliersInRow++;
+        } else {
+            double dtS = Math.max(0, (timeMs - offsetTimeMs) / 1000.0);
+            double tau = OFFSET_TAU_S * Math.max(1.0, verticalAccuracyM / REFERENCE_ACCURACY_M);
+            offset       += alpha(dtS, tau) * (innovation - offset);
+            offsetTimeMs  = timeMs;
+            outliersInRow = 0;
+        }
+        return baroNow + offset;
+    }
+
+    /** true se c'è un campione di pressione vicino all'istante {@code timeMs} */
+    public boolean isBarometerActive(long timeMs) {
+        return hasBaro
+                && timeMs <= baroTimeMs + BARO_STALE_MS
+                && timeMs >= historyTimes[historyStart] - BARO_STALE_MS;
+    }
+
+    /**
+     * Quota barometrica filtrata all'istante {@code timeMs}: interpolata tra i campioni
+     * conservati, estrapolata (al più {@link #MAX_EXTRAPOLATION_MS}) oltre l'ultimo.
+     */
+    private double baroAltitudeAt(long timeMs) {
+        if (timeMs >= baroTimeMs) {
+            long dtMs = Math.min(MAX_EXTRAPOLATION_MS, timeMs - baroTimeMs);
+            return baroAltitude + baroRateMs * dtMs / 1000.0;
+        }
+        if (timeMs <= historyTimes[historyStart]) return historyAltitudes[historyStart];
+
+        // Ricerca binaria dell'ultimo campione non successivo a timeMs
+        int lo = 0, hi = historySize - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (historyTimes[slot(mid)] <= timeMs) lo = mid; else hi = mid;
+        }
+        int a = slot(lo), b = slot(hi);
+        double f = (timeMs - historyTimes[a]) / (double) (historyTimes[b] - historyTimes[a]);
+        return historyAltitudes[a] + (historyAltitudes[b] - historyAltitudes[a]) * f;
+    }
+
+    /**
+     * Aggiunge la quota filtrata alla storia, al più un campione ogni {@link #HISTORY_STEP_MS}:
+     * l'ultimo viene sempre aggiornato, così la storia termina sul valore corrente.
+     */
+    private void record(long timeMs, double altitude) {
+        if (historySize > 1) {
+            int last = slot(historySize - 1), prev = slot(historySize - 2);
+            if (timeMs - historyTimes[prev] < HISTORY_STEP_MS) {
+                historyTimes[last]     = timeMs;
+                historyAltitudes[last] = altitude;
+                return;
+            }
+        }
+        if (historySize == HISTORY_SIZE) {
+            historyStart = (historyStart + 1) % HISTORY_SIZE;
+            historySize--;
+        }
+        int i = slot(historySize++);
+        historyTimes[i]     = timeMs;
+        historyAltitudes[i] = altitude;
+    }
+
+    private int slot(int index) {
+        return (historyStart + index) % HISTORY_SIZE;
+    }
+
+    /** Coefficiente EMA per un passo dt con costante di tempo tau */
+    private static double alpha(double dtS, double tauS) {
+        return dtS / (tauS + dtS);
+    }
+}
@@ -0,0 +1,64 @@
+package it.unisa.skiscore.tracker;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.SystemClock;
+
+/**
+ * Barometro del dispositivo (Sensor.TYPE_PRESSURE).
+ *
+ * - Campionamento a 1 Hz: la quota non richiede di più e il sensore consuma meno.
+ * - maxReportLatency di 10 s: i campioni si accumulano nel FIFO hardware e
+ *   arrivano a blocchi, senza svegliare il processore a ogni misura.
+ *   Sui sensori senza FIFO la latenza viene ignorata dal sistema.
+ */
+public class BarometerPressureSource implements PressureSource, SensorEventListener {
+
+    private static final int SAMPLING_PERIOD_US    = 1_000_000;
+    private static final int MAX_REPORT_LATENCY_US = 10_000_000;
+
+    private final SensorManager sensorManager;
+    private final Sensor sensor;
+    private Listener listener;
+
+    public BarometerPressureSource(Context context) {
+        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        sensor = sensorManager != null ? sensorManager.getDefaultSensor(Sensor.TYPE_PRESSURE) : null;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return sensor != null;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        if (sensor == null) return;
+        this.listener = listener;
+        sensorManager.registerListener(this, sensor, SAMPLING_PERIOD_US, MAX_REPORT_LATENCY_US);
+    }
+
+    @Override
+    public void stop() {
+        if (sensor == null) return;
+        sensorManager.unregisterListener(this);
+        listener = null;
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        if (listener == null) return;
+        // event.timestamp è in base elapsedRealtimeNanos: riportato all'ora di sistema,
+        // così i campioni arrivati in blocco mantengono il loro istante reale
+        long ageMs = (SystemClock.elapsedRealtimeNanos() - event.timestamp) / 1_000_000L;
+        listener.onPressure(System.currentTimeMillis() - ageMs, event.values[0]);
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        // Non usato
+    }
+}
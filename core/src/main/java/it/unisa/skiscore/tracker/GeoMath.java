@@ -0,0 +1,42 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Funzioni geodetiche in puro Java (nessuna dipendenza da android.location),
+ * così la logica del tracker può girare anche nei test JVM.
+ */
+public final class GeoMath {
+
+    /** Raggio medio terrestre (m), lo stesso usato da Location.distanceTo su brevi distanze */
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    private GeoMath() { /* utility class */ }
+
+    /**
+     * Distanza ortodromica (haversine) in metri tra due coordinate in gradi.
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lon2 - lon1);
+
+        double sinPhi = Math.sin(dPhi / 2);
+        double sinLambda = Math.sin(dLambda / 2);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Rotta iniziale in radianti (0 = nord, senso orario) da (lat1, lon1) verso (lat2, lon2).
+     */
+    public static double bearingRadians(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLambda = Math.toRadians(lon2 - lon1);
+
+        double y = Math.sin(dLambda) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2)
+                - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda);
+        return Math.atan2(y, x);
+    }
+}
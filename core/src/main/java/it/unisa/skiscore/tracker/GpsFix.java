@@ -0,0 +1,43 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Fix GPS immutabile, indipendente da android.location.Location, così la pipeline
+ * di tracking può essere alimentata dal Service, da un file registrato o da un
+ * generatore sintetico.
+ */
+public final class GpsFix {
+
+    private final long   timeMs;
+    private final double lat;
+    private final double lon;
+    private final double altitudeM;
+    private final float  speedMs;            // NaN se il chip non la riporta
+    private final float  verticalAccuracyM;  // NaN se il chip non la riporta
+
+    /**
+     * @param timeMs            timestamp del fix (ms)
+     * @param lat               latitudine (gradi)
+     * @param lon               longitudine (gradi)
+     * @param altitudeM         quota GPS (m)
+     * @param speedMs           velocità dal chip (m/s), {@link Float#NaN} se assente
+     * @param verticalAccuracyM accuratezza verticale (m), {@link Float#NaN} se assente
+     */
+    public GpsFix(long timeMs, double lat, double lon, double altitudeM,
+                  float speedMs, float verticalAccuracyM) {
+        this.timeMs            = timeMs;
+        this.lat               = lat;
+        this.lon               = lon;
+        this.altitudeM         = altitudeM;
+        this.speedMs           = speedMs;
+        this.verticalAccuracyM = verticalAccuracyM;
+    }
+
+    public long   getTimeMs()            { return timeMs; }
+    public double getLat()               { return lat; }
+    public double getLon()               { return lon; }
+    public double getAltitudeM()         { return altitudeM; }
+    public float  getSpeedMs()           { return speedMs; }
+    public float  getVerticalAccuracyM() { return verticalAccuracyM; }
+    public boolean hasSpeed()            { return !Float.isNaN(speedMs); }
+    public boolean hasVerticalAccuracy() { return !Float.isNaN(verticalAccuracyM); }
+}
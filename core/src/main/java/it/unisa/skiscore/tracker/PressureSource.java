@@ -0,0 +1,25 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Sorgente di campioni di pressione atmosferica per {@link AltitudeFusion}.
+ * Implementata dal barometro reale ({@link BarometerPressureSource}) e, nei test,
+ * da un sensore simulato (SimulatedPressureSource) per validare la fusione
+ * sulla JVM senza barometro.
+ */
+public interface PressureSource {
+
+    interface Listener {
+        /**
+         * @param timestampMs istante della misura (ms, stessa base di Location.getTime())
+         * @param pressureHpa pressione in hPa
+         */
+        void onPressure(long timestampMs, float pressureHpa);
+    }
+
+    /** true se la sorgente può produrre campioni su questo dispositivo */
+    boolean isAvailable();
+
+    void start(Listener listener);
+
+    void stop();
+}
@@ -0,0 +1,34 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Statistiche immutabili di una singola discesa, prodotte da {@link SegmentationEngine}.
+ * Una discesa va dall'ingresso in DESCENT fino all'imbarco sull'impianto successivo
+ * (o alla fine della sessione); traversi e soste brevi nel mezzo ne fanno parte.
+ */
+public final class RunStats {
+
+    private final long  startTimeMs;
+    private final long  endTimeMs;
+    private final float verticalDropMeters;
+    private final float distanceMeters;
+    private final float maxSpeedKmh;
+    private final float avgSpeedKmh;
+
+    public RunStats(long startTimeMs, long endTimeMs, float verticalDropMeters,
+                    float distanceMeters, float maxSpeedKmh, float avgSpeedKmh) {
+        this.startTimeMs        = startTimeMs;
+        this.endTimeMs          = endTimeMs;
+        this.verticalDropMeters = verticalDropMeters;
+        this.distanceMeters     = distanceMeters;
+        this.maxSpeedKmh        = maxSpeedKmh;
+        this.avgSpeedKmh        = avgSpeedKmh;
+    }
+
+    public long  getStartTimeMs()        { return startTimeMs; }
+    public long  getEndTimeMs()          { return endTimeMs; }
+    public long  getDurationMs()         { return endTimeMs - startTimeMs; }
+    public float getVerticalDropMeters() { return verticalDropMeters; }
+    public float getDistanceMeters()     { return distanceMeters; }
+    public float getMaxSpeedKmh()        { return maxSpeedKmh; }
+    public float getAvgSpeedKmh()        { return avgSpeedKmh; }
+}
@@ -0,0 +1,307 @@
+package it.unisa.skiscore.tracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Motore di segmentazione della sessione: classifica il flusso di fix GPS in
+ * IMPIANTO (LIFT), DISCESA (DESCENT), TRAVERSO (TRAVERSE) e SOSTA (IDLE).
+ *
+ * - Altitudine e velocità verticale sono filtrate con una media esponenziale
+ *   pesata sul tempo, così il rumore del GPS non fa "sfarfallare" lo stato.
+ * - La varianza circolare della rotta distingue l'impianto (linea retta)
+ *   dalle curve di una discesa.
+ * - Isteresi doppia: soglie di uscita più permissive di quelle di ingresso e
+ *   un tempo minimo di permanenza del nuovo stato prima di cambiare. Un tratto
+ *   piano della seggiovia non interrompe quindi il segmento LIFT.
+ *
+ * Una discesa si apre entrando in DESCENT e si chiude all'imbarco successivo
+ * (o dopo una sosta prolungata); traversi e brevi soste ne fanno parte.
+ * Classe in puro Java: nessuna dipendenza da android.location.
+ */
+public class SegmentationEngine {
+
+    public enum Segment { IDLE, LIFT, DESCENT, TRAVERSE }
+
+    // ---- Filtri ----
+    private static final double ALTITUDE_TAU_S      = 8.0;     // costante di tempo quota
+    private static final double VSPEED_TAU_S        = 12.0;    // costante di tempo vel. verticale
+    private static final long   DROPOUT_MS          = 60_000L; // buco GPS: re-inizializza i filtri
+    private static final int    HEADING_WINDOW      = 8;       // # rotte nella finestra
+    private static final double HEADING_MIN_STEP_M  = 3.0;     // spostamento minimo per una rotta
+
+    // ---- Soglie di classificazione (ingresso severo, uscita permissiva) ----
+    private static final float  IDLE_SPEED_KMH          = 2.5f;
+    private static final double IDLE_VSPEED_MS          = 0.15;
+    private static final double LIFT_ENTER_VSPEED_MS    = 0.5;
+    private static final double LIFT_EXIT_VSPEED_MS     = 0.1;
+    private static final double LIFT_ENTER_HEADING_VAR  = 0.25;
+    private static final double LIFT_HOLD_HEADING_VAR   = 0.10;
+    private static final float  LIFT_HOLD_MIN_SPEED_KMH = 3f;
+    private static final double DESCENT_ENTER_VSPEED_MS = -0.4;
+    private static final double DESCENT_EXIT_VSPEED_MS  = -0.1;
+
+    // ---- Tempi minimi di permanenza prima di un cambio di stato ----
+    private static final long LIFT_ENTER_DWELL_MS = 20_000L;
+    private static final long LIFT_EXIT_DWELL_MS  = 30_000L;
+    private static final long DEFAULT_DWELL_MS    = 8_000L;
+
+    // ---- Discese ----
+    private static final float MIN_RUN_VERTICAL_M = 20f;      // sotto: non è una discesa
+    private static final long  RUN_IDLE_CLOSE_MS  = 5 * 60_000L; // sosta che chiude la discesa
+    private static final float MOVING_SPEED_KMH   = 2f;       // soglia per la media velocità
+
+    // ---- Stato filtri ----
+    private boolean hasFix = false;
+    private long    lastTimeMs;
+    private double  lastLat, lastLon;
+    private double  smoothedAltitude;
+    private double  verticalSpeedMs;
+
+    private final double[] headingSin = new double[HEADING_WINDOW];
+    private final double[] headingCos = new double[HEADING_WINDOW];
+    private int    headingCount = 0;
+    private int    headingPos   = 0;
+    private double headingAnchorLat, headingAnchorLon;
+
+    // ---- Stato segmentazione ----
+    private Segment segment      = Segment.IDLE;
+    private long    segmentSince = 0L;
+    private Segment pending      = null;
+    private long    pendingSince = 0L;
+
+    private RunAccumulator openRun    = null;
+    private RunAccumulator pendingRun = null;
+    private final List<RunStats> completedRuns = new ArrayList<>();
+
+    /**
+     * Elabora un fix GPS.
+     *
+     * @param timeMs    timestamp del fix (ms)
+     * @param lat       latitudine (gradi)
+     * @param lon       longitudine (gradi)
+     * @param altitudeM quota GPS grezza (m)
+     * @param speedKmh  velocità orizzontale già calcolata (km/h)
+     * @return il segmento corrente dopo il fix
+     */
+    public Segment onFix(long timeMs, double lat, double lon, double altitudeM, float speedKmh) {
+        if (!hasFix || timeMs - lastTimeMs > DROPOUT_MS) {
+            resetFilters(timeMs, lat, lon, altitudeM);
+            return segment;
+        }
+
+        double dtS = (timeMs - lastTimeMs) / 1000.0;
+        if (dtS <= 0) return segment;
+
+        double stepM   = GeoMath.distanceMeters(lastLat, lastLon, lat, lon);
+        double prevAlt = smoothedAltitude;
+        smoothedAltitude += alpha(dtS, ALTITUDE_TAU_S) * (altitudeM - smoothedAltitude);
+        double rawVSpeed = (smoothedAltitude - prevAlt) / dtS;
+        verticalSpeedMs += alpha(dtS, VSPEED_TAU_S) * (rawVSpeed - verticalSpeedMs);
+        updateHeading(lat, lon);
+
+        Segment candidate = classify(speedKmh);
+        updatePending(candidate, timeMs, prevAlt);
+
+        // La discesa aperta non conta i campioni che già sembrano impianto;
+        // quella "in prova" raccoglie i dati mentre DESCENT matura il tempo di permanenza.
+        if (openRun != null && candidate != Segment.LIFT) {
+            openRun.add(timeMs, stepM, smoothedAltitude, speedKmh);
+        }
+        if (pendingRun != null) {
+            pendingRun.add(timeMs, stepM, smoothedAltitude, speedKmh);
+        }
+
+        if (pending != null && timeMs - pendingSince >= dwellFor(pending)) {
+            switchTo(pending, timeMs);
+        }
+        if (openRun != null && segment == Segment.IDLE && timeMs - segmentSince >= RUN_IDLE_CLOSE_MS) {
+            closeRun();
+        }
+
+        lastTimeMs = timeMs;
+        lastLat    = lat;
+        lastLon    = lon;
+        return segment;
+    }
+
+    /**
+     * Chiude la discesa eventualmente aperta e restituisce tutte le discese della sessione.
+     */
+    public List<RunStats> finish() {
+        if (openRun != null) closeRun();
+        return getCompletedRuns();
+    }
+
+    public Segment getSegment()          { return segment; }
+    public boolean isRidingLift()        { return segment == Segment.LIFT; }
+    public double  getVerticalSpeedMs()  { return verticalSpeedMs; }
+    public double  getSmoothedAltitude() { return smoothedAltitude; }
+
+    /**
+     * Discese concluse + quella in corso, ma solo se ha già il dislivello minimo: una discesa
+     * che {@link #finish()} scarterebbe non va contata, o il numero mostrato potrebbe calare.
+     */
+    public int getRunCount() {
+        boolean openValid = openRun != null
+                && openRun.vertical.getDescentMeters() >= MIN_RUN_VERTICAL_M;
+        return completedRuns.size() + (openValid ? 1 : 0);
+    }
+
+    public List<RunStats> getCompletedRuns() {
+        return Collections.unmodifiableList(new ArrayList<>(completedRuns));
+    }
+
+    // -------- Classificazione --------
+
+    private Segment classify(float speedKmh) {
+        double headingVar = headingVariance();
+
+        // Isteresi: si resta nello stato corrente finché le soglie di uscita non sono superate
+        if (segment == Segment.LIFT) {
+            boolean climbing = verticalSpeedMs > LIFT_EXIT_VSPEED_MS;
+            boolean straightCruise = speedKmh >= LIFT_HOLD_MIN_SPEED_KMH
+                    && headingVar <= LIFT_HOLD_HEADING_VAR
+                    && verticalSpeedMs > DESCENT_EXIT_VSPEED_MS;
+            if (climbing || straightCruise) return Segment.LIFT;
+        }
+        if (segment == Segment.DESCENT && verticalSpeedMs < DESCENT_EXIT_VSPEED_MS) {
+            return Segment.DESCENT;
+        }
+
+        if (speedKmh < IDLE_SPEED_KMH && Math.abs(verticalSpeedMs) < IDLE_VSPEED_MS) {
+            return Segment.IDLE;
+        }
+        if (verticalSpeedMs > LIFT_ENTER_VSPEED_MS && headingVar <= LIFT_ENTER_HEADING_VAR) {
+            return Segment.LIFT;
+        }
+        if (verticalSpeedMs < DESCENT_ENTER_VSPEED_MS) {
+            return Segment.DESCENT;
+        }
+        return Segment.TRAVERSE;
+    }
+
+    private void updatePending(Segment candidate, long timeMs, double startAltitude) {
+        if (candidate == segment) {
+            pending    = null;
+            pendingRun = null;
+            return;
+        }
+        if (candidate != pending) {
+            pending      = candidate;
+            pendingSince = timeMs;
+            pendingRun   = (candidate == Segment.DESCENT && openRun == null)
+                    ? new RunAccumulator(timeMs, startAltitude) : null;
+        }
+    }
+
+    private long dwellFor(Segment next) {
+        if (next == Segment.LIFT)    return LIFT_ENTER_DWELL_MS;
+        if (segment == Segment.LIFT) return LIFT_EXIT_DWELL_MS;
+        return DEFAULT_DWELL_MS;
+    }
+
+    private void switchTo(Segment next, long timeMs) {
+        if (next == Segment.DESCENT && openRun == null) {
+            openRun = pendingRun != null ? pendingRun : new RunAccumulator(timeMs, smoothedAltitude);
+        } else if (next == Segment.LIFT && openRun != null) {
+            closeRun();
+        }
+        segment      = next;
+        segmentSince = timeMs;
+        pending      = null;
+        pendingRun   = null;
+    }
+
+    private void closeRun() {
+        if (openRun.vertical.getDescentMeters() >= MIN_RUN_VERTICAL_M) {
+            completedRuns.add(openRun.toStats());
+        }
+        openRun = null;
+    }
+
+    // -------- Filtri --------
+
+    private void resetFilters(long timeMs, double lat, double lon, double altitudeM) {
+        hasFix           = true;
+        lastTimeMs       = timeMs;
+        lastLat          = lat;
+        lastLon          = lon;
+        smoothedAltitude = altitudeM;
+        verticalSpeedMs  = 0;
+        headingCount     = 0;
+        headingPos       = 0;
+        headingAnchorLat = lat;
+        headingAnchorLon = lon;
+        if (segmentSince == 0L) segmentSince = timeMs;
+    }
+
+    /** Coefficiente EMA per un passo dt con costante di tempo tau */
+    private static double alpha(double dtS, double tauS) {
+        return dtS / (tauS + dtS);
+    }
+
+    private void updateHeading(double lat, double lon) {
+        double moved = GeoMath.distanceMeters(headingAnchorLat, headingAnchorLon, lat, lon);
+        if (moved < HEADING_MIN_STEP_M) return;
+
+        double bearing = GeoMath.bearingRadians(headingAnchorLat, headingAnchorLon, lat, lon);
+        headingSin[headingPos] = Math.sin(bearing);
+        headingCos[headingPos] = Math.cos(bearing);
+        headingPos = (headingPos + 1) % HEADING_WINDOW;
+        if (headingCount < HEADING_WINDOW) headingCount++;
+        headingAnchorLat = lat;
+        headingAnchorLon = lon;
+    }
+
+    /**
+     * Varianza circolare (0 = rotta costante, 1 = direzioni uniformi).
+     * Con meno di 3 campioni la rotta è ignota: si restituisce il massimo.
+     */
+    private double headingVariance() {
+        if (headingCount < 3) return 1.0;
+        double sumSin = 0, sumCos = 0;
+        for (int i = 0; i < headingCount; i++) {
+            sumSin += headingSin[i];
+            sumCos += headingCos[i];
+        }
+        double meanResultant = Math.sqrt(sumSin * sumSin + sumCos * sumCos) / headingCount;
+        return 1.0 - meanResultant;
+    }
+
+    // -------- Accumulatore di discesa --------
+
+    private static final class RunAccumulator {
+        final long startTimeMs;
+        final VerticalAccumulator vertical = new VerticalAccumulator();
+        long   endTimeMs;
+        double distanceM    = 0;
+        float  maxSpeedKmh  = 0f;
+        double sumSpeedKmh  = 0;
+        int    speedSamples = 0;
+
+        RunAccumulator(long startTimeMs, double startAltitude) {
+            this.startTimeMs = startTimeMs;
+            this.endTimeMs   = startTimeMs;
+            vertical.onAltitude(startAltitude);
+        }
+
+        void add(long timeMs, double stepM, double smoothedAltitude, float speedKmh) {
+            endTimeMs = timeMs;
+            distanceM += stepM;
+            vertical.onAltitude(smoothedAltitude);
+            if (speedKmh > maxSpeedKmh) maxSpeedKmh = speedKmh;
+            if (speedKmh > MOVING_SPEED_KMH) {
+                sumSpeedKmh += speedKmh;
+                speedSamples++;
+            }
+        }
+
+        RunStats toStats() {
+            float avg = speedSamples > 0 ? (float) (sumSpeedKmh / speedSamples) : 0f;
+            return new RunStats(startTimeMs, endTimeMs, vertical.getDescentMeters(),
+                    (float) distanceM, maxSpeedKmh, avg);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package it.unisa.skiscore.tracker;
+
+import java.util.List;
+
+/**
+ * Implementazione della pipeline di tracking usata dal servizio di tracking dell'app
+ * (SkiLocationService):
+ *
+ *   1. velocità: dal chip GPS se affidabile, altrimenti spazio / tempo;
+ *   2. quota: fusione barometro + GPS ({@link AltitudeFusion});
+ *   3. segmentazione impianto / discesa / traverso / sosta ({@link SegmentationEngine});
+ *   4. dislivello con isteresi ({@link VerticalAccumulator});
+ *   5. distanza e velocità massima / media, solo fuori dagli impianti.
+ *
+ * Classe in puro Java: può essere eseguita sulla JVM dai test e dal replay.
+ */
+public class SkiTrackProcessor implements TrackProcessor {
+
+    private static final float DEFAULT_VERTICAL_ACCURACY_M = 15f;  // se il fix non la riporta
+    private static final float MIN_CHIP_SPEED_MS           = 0.3f; // sotto: ricavata dagli spostamenti
+    private static final float MIN_STEP_M                  = 0.5f; // passi più corti: rumore
+    private static final float MAX_SPEED_KMH               = 200f; // oltre: salto GPS
+    private static final float MOVING_SPEED_KMH            = 2f;   // soglia per la media
+
+    private final AltitudeFusion      altitudeFusion = new AltitudeFusion();
+    private final SegmentationEngine  segmentation   = new SegmentationEngine();
+    private final VerticalAccumulator vertical       = new VerticalAccumulator();
+
+    private boolean hasLast = false;
+    private long    lastTimeMs;
+    private double  lastLat, lastLon;
+
+    private float speedKmh            = 0f;
+    private float altitudeM           = 0f;
+    private float totalDistanceMeters = 0f;
+    private float maxSpeedKmh         = 0f;
+    private float sumSpeedKmh         = 0f;
+    private int   speedSampleCount    = 0;
+
+    @Override
+    public void onPressure(long timestampMs, float pressureHpa) {
+        altitudeFusion.onPressure(timestampMs, pressureHpa);
+    }
+
+    @Override
+    public boolean onFix(GpsFix fix) {
+        long timeMs = fix.getTimeMs();
+        if (hasLast && timeMs <= lastTimeMs) return false;
+
+        double stepMeters = hasLast
+                ? GeoMath.distanceMeters(lastLat, lastLon, fix.getLat(), fix.getLon()) : 0;
+
+        // ---- 1. Velocità istantanea ----
+        speedKmh = computeSpeedKmh(fix, stepMeters);
+
+        // ---- 2. Quota: fusione barometro + GPS (solo GPS se manca il barometro) ----
+        float verticalAccuracy = fix.hasVerticalAccuracy()
+                ? fix.getVerticalAccuracyM() : DEFAULT_VERTICAL_ACCURACY_M;
+        double altitude = altitudeFusion.onGpsAltitude(timeMs, fix.getAltitudeM(), verticalAccuracy);
+        altitudeM = (float) altitude;
+
+        // ---- 3. Segmentazione + dislivello sulla quota filtrata ----
+        segmentation.onFix(timeMs, fix.getLat(), fix.getLon(), altitude, speedKmh);
+        vertical.onAltitude(segmentation.getSmoothedAltitude());
+
+        // ---- 4. Distanza e statistiche (solo se non in impianto) ----
+        if (!segmentation.isRidingLift() && hasLast
+                && stepMeters > MIN_STEP_M && speedKmh < MAX_SPEED_KMH) {
+            totalDistanceMeters += (float) stepMeters;
+            if (speedKmh > MOVING_SPEED_KMH) {
+                sumSpeedKmh += speedKmh;
+                speedSampleCount++;
+            }
+            if (speedKmh > maxSpeedKmh) maxSpeedKmh = speedKmh;
+        }
+
+        hasLast    = true;
+        lastTimeMs = timeMs;
+        lastLat    = fix.getLat();
+        lastLon    = fix.getLon();
+        return true;
+    }
+
+    /**
+     * Velocità in km/h. Priorità: chip GPS → derivata da spazio / tempo.
+     */
+    private float computeSpeedKmh(GpsFix fix, double stepMeters) {
+        if (fix.hasSpeed() && fix.getSpeedMs() >= MIN_CHIP_SPEED_MS) {
+            return fix.getSpeedMs() * 3.6f;
+        }
+        if (hasLast) {
+            long dtMs = fix.getTimeMs() - lastTimeMs;
+            if (dtMs > 0) return (float) (stepMeters / (dtMs / 1000.0) * 3.6);
+        }
+        return 0f;
+    }
+
+    @Override public float   getSpeedKmh()       { return speedKmh; }
+    @Override public float   getAltitudeM()      { return altitudeM; }
+    @Override public float   getDistanceMeters() { return totalDistanceMeters; }
+    @Override public float   getMaxSpeedKmh()    { return maxSpeedKmh; }
+    @Override public boolean isRidingLift()      { return segmentation.isRidingLift(); }
+    @Override public float   getDescentMeters()  { return vertical.getDescentMeters(); }
+    @Override public float   getAscentMeters()   { return vertical.getAscentMeters(); }
+    @Override public int     getRunCount()       { return segmentation.getRunCount(); }
+
+    @Override
+    public float getAvgSpeedKmh() {
+        return speedSampleCount > 0 ? sumSpeedKmh / speedSampleCount : 0f;
+    }
+
+    @Override
+    public List<RunStats> finish() {
+        return segmentation.finish();
+    }
+}
@@ -0,0 +1,45 @@
+package it.unisa.skiscore.tracker;
+
+import java.util.List;
+
+/**
+ * Algoritmo di tracking di una sessione, separato dal Service e da Android:
+ * riceve fix GPS e campioni di pressione e mantiene le statistiche della sessione.
+ *
+ * Non è thread-safe: fix e pressione vanno consegnati dallo stesso thread.
+ */
+public interface TrackProcessor extends PressureSource.Listener {
+
+    /**
+     * Elabora un fix.
+     *
+     * @return false se il fix è stato scartato (duplicato o fuori ordine)
+     */
+    boolean onFix(GpsFix fix);
+
+    /** Velocità dell'ultimo fix accettato (km/h) */
+    float getSpeedKmh();
+
+    /** Quota dell'ultimo fix accettato, fusa col barometro se disponibile (m) */
+    float getAltitudeM();
+
+    /** Distanza percorsa in discesa (impianti esclusi) (m) */
+    float getDistanceMeters();
+
+    float getMaxSpeedKmh();
+
+    /** Velocità media in movimento, impianti esclusi (km/h) */
+    float getAvgSpeedKmh();
+
+    boolean isRidingLift();
+
+    float getDescentMeters();
+
+    float getAscentMeters();
+
+    /** Discese completate più quella in corso, se già valida */
+    int getRunCount();
+
+    /** Chiude la discesa in corso e restituisce tutte le discese della sessione */
+    List<RunStats> finish();
+}
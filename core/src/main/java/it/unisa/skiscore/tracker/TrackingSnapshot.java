@@ -0,0 +1,74 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Fotografia immutabile dello stato del tracking, pubblicata dal servizio di tracking
+ * dell'app (SkiLocationService).
+ *
+ * La UI la legge dal LiveData esposto dal Binder; il tempo trascorso non è
+ * incluso perché la UI lo ricava da {@link #getStartTimeMs()} con il proprio cronometro.
+ */
+public final class TrackingSnapshot {
+
+    /** Stato iniziale: nessuna sessione avviata dal Service */
+    public static final TrackingSnapshot EMPTY =
+            new TrackingSnapshot(false, 0L, 0f, 0f, 0f, 0f, false, 0f, 0f, 0f, 0);
+
+    private final boolean tracking;
+    private final long    startTimeMs;
+    private final float   speedKmh;
+    private final float   distanceKm;
+    private final float   maxSpeedKmh;
+    private final float   avgSpeedKmh;
+    private final boolean ridingLift;
+    private final float   altitudeM;
+    private final float   descentM;
+    private final float   ascentM;
+    private final int     runCount;
+
+    public TrackingSnapshot(boolean tracking, long startTimeMs, float speedKmh, float distanceKm,
+                            float maxSpeedKmh, float avgSpeedKmh, boolean ridingLift,
+                            float altitudeM, float descentM, float ascentM, int runCount) {
+        this.tracking    = tracking;
+        this.startTimeMs = startTimeMs;
+        this.speedKmh    = speedKmh;
+        this.distanceKm  = distanceKm;
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.avgSpeedKmh = avgSpeedKmh;
+        this.ridingLift  = ridingLift;
+        this.altitudeM   = altitudeM;
+        this.descentM    = descentM;
+        this.ascentM     = ascentM;
+        this.runCount    = runCount;
+    }
+
+    public boolean isTracking()     { return tracking; }
+    public long    getStartTimeMs() { return startTimeMs; }
+    public float   getSpeedKmh()    { return speedKmh; }
+    public float   getDistanceKm()  { return distanceKm; }
+    public float   getMaxSpeedKmh() { return maxSpeedKmh; }
+    public float   getAvgSpeedKmh() { return avgSpeedKmh; }
+    public boolean isRidingLift()   { return ridingLift; }
+    public float   getAltitudeM()   { return altitudeM; }
+    public float   getDescentM()    { return descentM; }
+    public float   getAscentM()     { return ascentM; }
+    public int     getRunCount()    { return runCount; }
+
+    /**
+     * true se almeno un valore mostrato dalla UI cambierebbe, alla stessa precisione
+     * con cui viene visualizzato. Evita di notificare gli osservatori per variazioni invisibili.
+     */
+    public boolean differsVisiblyFrom(TrackingSnapshot other) {
+        if (other == null) return true;
+        return tracking != other.tracking
+                || startTimeMs != other.startTimeMs
+                || ridingLift != other.ridingLift
+                || runCount != other.runCount
+                || Math.round(speedKmh * 10) != Math.round(other.speedKmh * 10)
+                || Math.round(distanceKm * 100) != Math.round(other.distanceKm * 100)
+                || Math.round(maxSpeedKmh * 10) != Math.round(other.maxSpeedKmh * 10)
+                || Math.round(avgSpeedKmh * 10) != Math.round(other.avgSpeedKmh * 10)
+                || Math.round(descentM) != Math.round(other.descentM)
+                || Math.round(ascentM) != Math.round(other.ascentM)
+                || Math.round(altitudeM) != Math.round(other.altitudeM);
+    }
+}
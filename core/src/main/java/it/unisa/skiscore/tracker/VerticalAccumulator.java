@@ -0,0 +1,55 @@
+package it.unisa.skiscore.tracker;
+
+/**
+ * Accumula dislivello in discesa e in salita da un segnale di quota già filtrato.
+ *
+ * Isteresi sul rumore: una variazione viene contata solo quando la quota si
+ * allontana di almeno {@code thresholdMeters} dall'ultimo punto di ancoraggio;
+ * a quel punto si conta l'intero scarto e l'ancora si sposta. Le oscillazioni
+ * più piccole della soglia (rumore residuo) non gonfiano i totali.
+ */
+public class VerticalAccumulator {
+
+    /** Soglia di default: sopra il rumore residuo di una quota GPS filtrata */
+    public static final double DEFAULT_THRESHOLD_M = 3.0;
+
+    private final double thresholdMeters;
+
+    private boolean hasAnchor = false;
+    private double  anchorAltitude;
+    private double  descentMeters = 0;
+    private double  ascentMeters  = 0;
+
+    public VerticalAccumulator() {
+        this(DEFAULT_THRESHOLD_M);
+    }
+
+    public VerticalAccumulator(double thresholdMeters) {
+        this.thresholdMeters = thresholdMeters;
+    }
+
+    /**
+     * @param smoothedAltitudeM quota filtrata corrente (m)
+     */
+    public void onAltitude(double smoothedAltitudeM) {
+        if (!hasAnchor) {
+            anchorAltitude = smoothedAltitudeM;
+            hasAnchor = true;
+            return;
+        }
+        double delta = smoothedAltitudeM - anchorAltitude;
+        if (delta >= thresholdMeters) {
+            ascentMeters += delta;
+            anchorAltitude = smoothedAltitudeM;
+        } else if (delta <= -thresholdMeters) {
+            descentMeters -= delta;
+            anchorAltitude = smoothedAltitudeM;
+        }
+    }
+
+    /** Metri di dislivello negativo accumulati (valore positivo) */
+    public float getDescentMeters() { return (float) descentMeters; }
+
+    /** Metri di dislivello positivo accumulati */
+    public float getAscentMeters()  { return (float) ascentMeters; }
+}
@@ -0,0 +1,354 @@
+package it.unisa.skiscore.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import it.unisa.skiscore.db.AppDatabase;
+import it.unisa.skiscore.db.FavoriteDao;
+import it.unisa.skiscore.db.FavoriteResort;
+import it.unisa.skiscore.db.Resort;
+import it.unisa.skiscore.model.SkiResort;
+
+/**
+ * Manages favorite ski resorts, stored in the favorites table of the Room database.
+ *
+ * The process-wide instance loads the table once, in the background, and then answers
+ * every read from memory ({@link #isFavorite} is a HashSet lookup of the resort id). No call
+ * ever waits for that load: the first one opens Room, runs any pending migration and moves
+ * the legacy favorites, which can take far longer than a frame. Until it is done the
+ * manager is simply "not loaded yet" ({@link #isLoaded}): reads answer as if there were no
+ * favorites, and writes are queued behind the load and applied when it completes. Screens
+ * that show a star before then correct it from {@link #loadFavorites} or the change events.
+ *
+ * Once loaded, writes update memory at once and are persisted in order on a single
+ * background thread. Favorites saved by older versions as a Gson blob in
+ * SharedPreferences are moved to the table on the first load.
+ *
+ * Every change is announced to the registered {@link OnFavoritesChangedListener}s with its
+ * exact delta, so screens stay in sync with stars toggled elsewhere without reloading.
+ */
+public final class FavoritesManager {
+
+    /** Legacy storage, read once and cleared by {@link #migrateFromPreferences} */
+    private static final String PREFS_NAME = "skiscore_favorites";
+    private static final String KEY_FAVORITES = "favorites_list";
+
+    /** Receives the favorites once the first load is complete, on the main thread. */
+    public interface OnFavoritesLoadedListener {
+        void onFavoritesLoaded(List<SkiResort> favorites);
+    }
+
+    /**
+     * Changes to the favorites, delivered on the main thread right after they are made.
+     * Positions refer to the list returned by {@link #getFavorites()}; the resorts passed
+     * are copies the listener may keep.
+     */
+    public interface OnFavoritesChangedListener {
+        /** {@code resort} was appended at {@code position} */
+        void onFavoriteAdded(SkiResort resort, int position);
+
+        /** {@code resort} was removed from {@code position} */
+        void onFavoriteRemoved(SkiResort resort, int position);
+
+        /** {@code resort} was moved from {@code fromPosition} to {@code toPosition} */
+        void onFavoriteMoved(SkiResort resort, int fromPosition, int toPosition);
+    }
+
+    private static volatile FavoritesManager INSTANCE;
+
+    private final Context appContext;
+    private final AppDatabase db;
+    /** Single thread: writes reach the database in the order they were made */
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Future<?> loaded;
+
+    // Copy of the table in display order, and its ids; guarded by this
+    private final List<SkiResort> favorites = new ArrayList<>();
+    private final Set<Long> ids = new HashSet<>();
+    /** Changes made before the load completed and not applied yet; guarded by this */
+    private int queuedChanges;
+
+    private final List<OnFavoritesChangedListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static FavoritesManager getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (FavoritesManager.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new FavoritesManager(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private FavoritesManager(Context appContext) {
+        this.appContext = appContext;
+        this.db = AppDatabase.getInstance(appContext);
+        this.loaded = dbExecutor.submit(this::load);
+    }
+
+    /** True once the table has been read; before that reads see no favorites. */
+    public boolean isLoaded() {
+        return loaded.isDone();
+    }
+
+    /**
+     * Delivers the favorites on the main thread without blocking it while the table loads.
+     * Called at once when they are already loaded.
+     */
+    public void loadFavorites(OnFavoritesLoadedListener listener) {
+        if (loaded.isDone()) {
+            listener.onFavoritesLoaded(getFavorites());
+            return;
+        }
+        // Queued after the load on the same executor
+        dbExecutor.execute(() -> mainHandler.post(
+                () -> listener.onFavoritesLoaded(getFavorites())));
+    }
+
+    /** Registers a listener; remove it when the screen goes away (e.g. in onDestroyView). */
+    public void addOnFavoritesChangedListener(OnFavoritesChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeOnFavoritesChangedListener(OnFavoritesChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get all favorite resorts, in display order; empty until {@link #isLoaded()}, so screens
+     * should go through {@link #loadFavorites}. The resorts are fresh copies: callers may
+     * attach weather data to them.
+     */
+    public List<SkiResort> getFavorites() {
+        if (!isLoaded()) return new ArrayList<>();
+        synchronized (this) {
+            List<SkiResort> copy = new ArrayList<>(favorites.size());
+            for (SkiResort f : favorites) {
+                SkiResort resort = new SkiResort(f.getName(), f.getCountry(),
+                        f.getLatitude(), f.getLongitude());
+                resort.setFavorite(true);
+                copy.add(resort);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Add a resort to favorites, after the existing ones. Before the first load completes
+     * the change is applied (and announced) right after it.
+     */
+    public void addFavorite(SkiResort resort) {
+        resort.setFavorite(true);
+        FavoriteResort row = FavoriteResort.from(resort);
+        Resort tag = Resort.from(resort);
+        whenLoaded(() -> add(row, tag));
+    }
+
+    private void add(FavoriteResort row, Resort tag) {
+        int position;
+        synchronized (this) {
+            if (!ids.add(row.id)) return;
+            position = favorites.size();
+            favorites.add(row.toSkiResort());
+        }
+        dbExecutor.execute(() -> db.runInTransaction(() -> {
+            db.favoriteDao().insertAtEnd(row);
+            // Starred resorts are also candidates for tagging recorded sessions
+            db.resortDao().insertAll(Collections.singletonList(tag));
+        }));
+        SkiResort added = row.toSkiResort();
+        dispatch(l -> l.onFavoriteAdded(added, position));
+    }
+
+    /**
+     * Remove a resort from favorites. Before the first load completes the change is applied
+     * (and announced) right after it.
+     */
+    public void removeFavorite(SkiResort resort) {
+        SkiResort removed = FavoriteResort.from(resort).toSkiResort();
+        whenLoaded(() -> remove(removed));
+    }
+
+    private void remove(SkiResort resort) {
+        long id = resort.getId();
+        int position = -1;
+        synchronized (this) {
+            if (!ids.remove(id)) return;
+            for (int i = 0; i < favorites.size(); i++) {
+                if (favorites.get(i).getId() == id) {
+                    favorites.remove(i);
+                    position = i;
+                    break;
+                }
+            }
+        }
+        dbExecutor.execute(() -> db.favoriteDao().delete(id));
+        int removedAt = position;
+        dispatch(l -> l.onFavoriteRemoved(resort, removedAt));
+    }
+
+    /**
+     * Moves the favorite at {@code from} to {@code to}, shifting the ones in between.
+     * Ignored if either position is no longer in the list, as when a queued removal got
+     * there first.
+     */
+    public void moveFavorite(int from, int to) {
+        if (from == to) return;
+        whenLoaded(() -> move(from, to));
+    }
+
+    private void move(int from, int to) {
+        List<Long> order;
+        SkiResort moved;
+        synchronized (this) {
+            int size = favorites.size();
+            if (from < 0 || from >= size || to < 0 || to >= size) return;
+            moved = favorites.remove(from);
+            favorites.add(to, moved);
+            order = new ArrayList<>(favorites.size());
+            for (SkiResort f : favorites) order.add(f.getId());
+        }
+        dbExecutor.execute(() -> db.favoriteDao().setOrder(order));
+        SkiResort copy = FavoriteResort.from(moved).toSkiResort();
+        dispatch(l -> l.onFavoriteMoved(copy, from, to));
+    }
+
+    /**
+     * Check if a resort is in favorites. False for every resort until {@link #isLoaded()}:
+     * callers showing a star before then correct it from {@link #loadFavorites}.
+     */
+    public boolean isFavorite(SkiResort resort) {
+        if (!isLoaded()) return false;
+        synchronized (this) {
+            return ids.contains(resort.getId());
+        }
+    }
+
+    /**
+     * Toggle favorite status. Before the first load completes the current status is the one
+     * the caller shows ({@link SkiResort#isFavorite()}).
+     * @return true if the resort is now a favorite, false if removed
+     */
+    public boolean toggleFavorite(SkiResort resort) {
+        boolean favorite = isLoaded() ? isFavorite(resort) : resort.isFavorite();
+        if (favorite) {
+            removeFavorite(resort);
+            resort.setFavorite(false);
+            return false;
+        } else {
+            addFavorite(resort);
+            resort.setFavorite(true);
+            return true;
+        }
+    }
+
+    /**
+     * Blocks until every write made so far has reached the database. Never call it from the
+     * main thread: it exists so benchmarks can keep the write queue out of the measured time.
+     */
+    @VisibleForTesting
+    public void awaitPendingWrites() throws InterruptedException {
+        try {
+            // Single thread: the empty task runs after everything queued before it
+            dbExecutor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // ---- Change events ----
+
+    private interface Event {
+        void deliver(OnFavoritesChangedListener listener);
+    }
+
+    /** Delivers an event to every listener on the main thread, synchronously when already on it */
+    private void dispatch(Event event) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            for (OnFavoritesChangedListener l : listeners) event.deliver(l);
+        } else {
+            mainHandler.post(() -> {
+                for (OnFavoritesChangedListener l : listeners) event.deliver(l);
+            });
+        }
+    }
+
+    // ---- Loading ----
+
+    private void load() {
+        migrateFromPreferences();
+        List<FavoriteResort> rows = db.favoriteDao().getAll();
+        synchronized (this) {
+            for (FavoriteResort row : rows) {
+                favorites.add(row.toSkiResort());
+                ids.add(row.id);
+            }
+        }
+    }
+
+    /** One-time move of the favorites saved by older versions as JSON in SharedPreferences. */
+    private void migrateFromPreferences() {
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String json = prefs.getString(KEY_FAVORITES, null);
+        if (json == null) return;
+
+        Type listType = new TypeToken<List<SkiResort>>() {}.getType();
+        List<SkiResort> legacy = new Gson().fromJson(json, listType);
+        if (legacy != null && !legacy.isEmpty()) {
+            db.runInTransaction(() -> {
+                FavoriteDao dao = db.favoriteDao();
+                for (SkiResort resort : legacy) dao.insertAtEnd(FavoriteResort.from(resort));
+                db.resortDao().insertFavorites(legacy);
+            });
+        }
+        // Only once the rows are committed, so an interrupted move is retried
+        prefs.edit().remove(KEY_FAVORITES).commit();
+    }
+
+    /**
+     * Runs a change now if the favorites are loaded, otherwise queues it on the executor
+     * right behind the load, so it never blocks the caller and is never lost. Changes made
+     * while earlier ones are still queued are queued too, to keep them in order.
+     */
+    private void whenLoaded(Runnable change) {
+        boolean now;
+        synchronized (this) {
+            now = isLoaded() && queuedChanges == 0;
+            if (!now) queuedChanges++;
+        }
+        if (now) {
+            change.run();
+            return;
+        }
+        dbExecutor.execute(() -> {
+            try {
+                change.run();
+            } finally {
+                synchronized (this) {
+                    queuedChanges--;
+                }
+            }
+        });
+    }
+}
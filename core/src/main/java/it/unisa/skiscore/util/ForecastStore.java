@@ -0,0 +1,133 @@
+package it.unisa.skiscore.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unisa.skiscore.api.OwmForecastResponse;
+
+/**
+ * Process-wide store of the 5-day/3-hour forecasts already downloaded, keyed by
+ * {@link it.unisa.skiscore.model.SkiResort#getId()}.
+ *
+ * Each forecast is indexed once by day: the slots of a day are a contiguous range of the
+ * chronological list, so {@link Forecast#slotsFor(String)} is a map lookup plus a sub-list
+ * view instead of a scan of all 40 items. The detail screen stores what it fetches and the
+ * hourly screen reads it back, going to the network only on a miss or a stale entry.
+ * Bounded, least recently used entries go first. Thread-safe.
+ */
+public final class ForecastStore {
+
+    /** The forecast model runs every 3 hours; half an hour keeps the slots close enough */
+    public static final long MAX_AGE_MS = 30 * 60_000L;
+
+    private static final int MAX_ENTRIES = 16;
+
+    private static final ForecastStore INSTANCE = new ForecastStore(MAX_ENTRIES);
+
+    /** A downloaded forecast with its day → slot-range index */
+    public static final class Forecast {
+        public final OwmForecastResponse response;
+        public final long fetchedAtMs;
+        private final List<OwmForecastResponse.ForecastItem> slots;
+        /** "yyyy-MM-dd" → {from, to} (to exclusive) into {@link #slots} */
+        private final Map<String, int[]> dayRanges;
+        private final List<String> days;
+
+        Forecast(OwmForecastResponse response, long fetchedAtMs) {
+            this.response = response;
+            this.fetchedAtMs = fetchedAtMs;
+            this.slots = chronological(response.list);
+            this.dayRanges = new HashMap<>();
+            List<String> dayList = new ArrayList<>();
+            int start = 0;
+            for (int i = 1; i <= slots.size(); i++) {
+                String day = dayOf(slots.get(start));
+                if (i < slots.size() && day.equals(dayOf(slots.get(i)))) continue;
+                dayRanges.put(day, new int[]{start, i});
+                dayList.add(day);
+                start = i;
+            }
+            this.days = Collections.unmodifiableList(dayList);
+        }
+
+        /** The 3-hour slots of {@code day} ("yyyy-MM-dd"), in order; empty if not covered */
+        public List<OwmForecastResponse.ForecastItem> slotsFor(String day) {
+            int[] range = day != null ? dayRanges.get(day) : null;
+            if (range == null) return Collections.emptyList();
+            return Collections.unmodifiableList(slots.subList(range[0], range[1]));
+        }
+
+        /** Covered days, chronological */
+        public List<String> getDays() {
+            return days;
+        }
+
+        public boolean isFresh() {
+            return isFresh(System.currentTimeMillis());
+        }
+
+        boolean isFresh(long nowMs) {
+            return nowMs - fetchedAtMs < MAX_AGE_MS;
+        }
+
+        /** OWM returns the list in time order; sort a copy only if it ever does not */
+        private static List<OwmForecastResponse.ForecastItem> chronological(
+                List<OwmForecastResponse.ForecastItem> list) {
+            List<OwmForecastResponse.ForecastItem> items = new ArrayList<>();
+            if (list == null) return items;
+            for (OwmForecastResponse.ForecastItem item : list) {
+                if (item != null && item.dtTxt != null && item.dtTxt.length() >= 10) items.add(item);
+            }
+            for (int i = 1; i < items.size(); i++) {
+                if (items.get(i - 1).dtTxt.compareTo(items.get(i).dtTxt) > 0) {
+                    // "yyyy-MM-dd HH:mm:ss" sorts chronologically as text
+                    Collections.sort(items, (a, b) -> a.dtTxt.compareTo(b.dtTxt));
+                    break;
+                }
+            }
+            return items;
+        }
+
+        private static String dayOf(OwmForecastResponse.ForecastItem item) {
+            return item.dtTxt.substring(0, 10);
+        }
+    }
+
+    private final Map<Long, Forecast> entries;
+
+    ForecastStore(int maxEntries) {
+        entries = new LinkedHashMap<Long, Forecast>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Forecast> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static ForecastStore getInstance() {
+        return INSTANCE;
+    }
+
+    /** Indexes and stores a forecast just downloaded for a resort. */
+    public Forecast put(long resortId, OwmForecastResponse response) {
+        return put(resortId, response, System.currentTimeMillis());
+    }
+
+    Forecast put(long resortId, OwmForecastResponse response, long nowMs) {
+        // Indexing happens outside the lock
+        Forecast forecast = new Forecast(response, nowMs);
+        synchronized (this) {
+            entries.put(resortId, forecast);
+        }
+        return forecast;
+    }
+
+    /** The stored forecast for a resort, fresh or not; null if none was downloaded. */
+    public synchronized Forecast get(long resortId) {
+        return entries.get(resortId);
+    }
+}
@@ -0,0 +1,75 @@
+package it.unisa.skiscore.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import it.unisa.skiscore.model.WeatherData;
+
+/**
+ * Process-wide store of the latest current weather per resort, keyed by
+ * {@link it.unisa.skiscore.model.SkiResort#getId()}.
+ *
+ * The home cards fill it as their weather arrives, so the detail screen can open already
+ * populated (no weather in the Intent extras) and only hits the network when the entry is
+ * missing or older than {@link #MAX_AGE_MS}. Bounded, least recently used entries go first.
+ * Thread-safe.
+ */
+public final class WeatherCache {
+
+    /** OpenWeatherMap refreshes current conditions about every 10 minutes */
+    public static final long MAX_AGE_MS = 10 * 60_000L;
+
+    private static final int MAX_ENTRIES = 64;
+
+    private static final WeatherCache INSTANCE = new WeatherCache(MAX_ENTRIES);
+
+    /** A cached observation with the Ski Score computed from it */
+    public static final class Entry {
+        public final WeatherData data;
+        public final int skiScore;
+        public final long fetchedAtMs;
+
+        Entry(WeatherData data, int skiScore, long fetchedAtMs) {
+            this.data = data;
+            this.skiScore = skiScore;
+            this.fetchedAtMs = fetchedAtMs;
+        }
+
+        public boolean isFresh() {
+            return isFresh(System.currentTimeMillis());
+        }
+
+        boolean isFresh(long nowMs) {
+            return nowMs - fetchedAtMs < MAX_AGE_MS;
+        }
+    }
+
+    private final Map<Long, Entry> entries;
+
+    WeatherCache(int maxEntries) {
+        entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static WeatherCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** Stores the weather just fetched for a resort, replacing any older entry. */
+    public void put(long resortId, WeatherData data, int skiScore) {
+        put(resortId, data, skiScore, System.currentTimeMillis());
+    }
+
+    synchronized void put(long resortId, WeatherData data, int skiScore, long nowMs) {
+        entries.put(resortId, new Entry(data, skiScore, nowMs));
+    }
+
+    /** The latest weather for a resort, fresh or not; null if it was never fetched. */
+    public synchronized Entry get(long resortId) {
+        return entries.get(resortId);
+    }
+}
@@ -0,0 +1,69 @@
+package it.unisa.skiscore.analytics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import it.unisa.skiscore.db.SeasonCalendar;
+import it.unisa.skiscore.db.WeeklyStats;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Zero-filling and trailing sums of {@link SeasonAnalytics#rolling}.
+ */
+public class SeasonAnalyticsTest {
+
+    /** A Monday (2026-01-05) */
+    private static final int WEEK0 = SeasonCalendar.weekStart(20_458);
+
+    @Test
+    public void weekStart_isAMonday() {
+        assertEquals(20_458, WEEK0);
+        assertEquals(WEEK0, SeasonCalendar.weekStart(WEEK0 + 6));
+        assertEquals(WEEK0 - 7, SeasonCalendar.weekStart(WEEK0 - 1));
+    }
+
+    @Test
+    public void missingWeeks_areZeroFilled() {
+        List<WeekVolume> out = SeasonAnalytics.rolling(
+                Collections.singletonList(week(2, 30f, 4000f)), WEEK0, 4, 1);
+        assertEquals(4, out.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(WEEK0 + 7 * i, out.get(i).getWeekStart());
+            assertEquals(i == 2 ? 30f : 0f, out.get(i).getDistanceKm(), 0f);
+            assertEquals(out.get(i).getDistanceKm(), out.get(i).getRollingDistanceKm(), 0f);
+        }
+    }
+
+    @Test
+    public void trailingSums_includeWeeksBeforeTheFirstShown() {
+        List<WeeklyStats> rows = Arrays.asList(
+                week(-2, 10f, 1000f), week(-1, 20f, 2000f), week(0, 40f, 4000f), week(3, 5f, 500f));
+        List<WeekVolume> out = SeasonAnalytics.rolling(rows, WEEK0, 4, 3);
+        // Window of 3 weeks ending at weeks 0, 1, 2, 3
+        assertEquals(70f, out.get(0).getRollingDistanceKm(), 1e-4f);
+        assertEquals(60f, out.get(1).getRollingDistanceKm(), 1e-4f);
+        assertEquals(40f, out.get(2).getRollingDistanceKm(), 1e-4f);
+        assertEquals(5f,  out.get(3).getRollingDistanceKm(), 1e-4f);
+        assertEquals(7000f, out.get(0).getRollingVerticalDropM(), 1e-2f);
+        assertEquals(500f,  out.get(3).getRollingVerticalDropM(), 1e-2f);
+    }
+
+    @Test
+    public void verticalPerHour_handlesEmptyDuration() {
+        assertEquals(0f, SeasonAnalytics.verticalPerHour(1000f, 0L), 0f);
+        assertEquals(2000f, SeasonAnalytics.verticalPerHour(6000f, 3 * 3_600_000L), 1e-3f);
+    }
+
+    private static WeeklyStats week(int index, float km, float vertical) {
+        WeeklyStats w = new WeeklyStats(WEEK0 + 7 * index);
+        w.sessionCount = 1;
+        w.totalDistance = km;
+        w.verticalDrop = vertical;
+        w.totalDuration = 5 * 3_600_000L;
+        return w;
+    }
+}
@@ -0,0 +1,77 @@
+package it.unisa.skiscore.db;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import it.unisa.skiscore.model.SkiResort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Position ids and the nearest-resort choice used to tag sessions.
+ */
+public class ResortTest {
+
+    @Test
+    public void idOf_isStableAndTellsResortsApart() {
+        assertEquals(SkiResort.idOf(45.9336, 7.6297), SkiResort.idOf(45.9336, 7.6297));
+        assertNotEquals(SkiResort.idOf(45.9336, 7.6297), SkiResort.idOf(45.9336, 7.6298));
+
+        Set<Long> ids = new HashSet<>();
+        for (Resort r : ResortCatalogue.RESORTS) ids.add(r.id);
+        assertEquals(ResortCatalogue.RESORTS.size(), ids.size());
+    }
+
+    @Test
+    public void skiResortEquality_followsTheId() {
+        SkiResort search = new SkiResort("Breuil-Cervinia", "IT", 45.9336, 7.6297);
+        SkiResort stored = new SkiResort();
+        stored.setName("Cervinia");
+        stored.setLatitude(45.9336);
+        stored.setLongitude(7.6297);
+        assertEquals(search.getId(), stored.getId());
+        assertEquals(search, stored);
+        assertEquals(search.hashCode(), stored.hashCode());
+
+        stored.setLongitude(7.70);
+        assertNotEquals(search, stored);
+    }
+
+    @Test
+    public void distance_matchesAKnownBaseline() {
+        // Cervinia → Zermatt, ~12.5 km as the crow flies
+        double d = Resort.distanceM(TrackPoint.toE7(45.9336), TrackPoint.toE7(7.6297),
+                TrackPoint.toE7(46.0207), TrackPoint.toE7(7.7491));
+        assertTrue("distance " + d, d > 12_000 && d < 13_500);
+    }
+
+    @Test
+    public void nearest_picksTheClosestWithinRange() {
+        TrackCentroid c = new TrackCentroid();
+        // A day on the Plateau Rosa side of Cervinia
+        c.add(TrackPoint.toE7(45.94), TrackPoint.toE7(7.66));
+        c.add(TrackPoint.toE7(45.92), TrackPoint.toE7(7.68));
+        Resort r = Resort.nearest(ResortCatalogue.RESORTS, c.getLatE7(), c.getLonE7(),
+                ResortDao.MAX_TAG_DISTANCE_M);
+        assertEquals("Cervinia", r.name);
+
+        // Salerno: no resort within range
+        assertNull(Resort.nearest(ResortCatalogue.RESORTS, TrackPoint.toE7(40.68),
+                TrackPoint.toE7(14.77), ResortDao.MAX_TAG_DISTANCE_M));
+    }
+
+    @Test
+    public void favorites_shareTheCataloguePositionId() {
+        Resort favorite = new Resort("Breuil-Cervinia", "IT", 45.9336, 7.6297);
+        Resort catalogue = ResortCatalogue.RESORTS.get(0);
+        assertEquals(catalogue.id, favorite.id);
+        assertSame(catalogue, Resort.nearest(ResortCatalogue.RESORTS,
+                favorite.latE7, favorite.lonE7, 1.0));
+    }
+}
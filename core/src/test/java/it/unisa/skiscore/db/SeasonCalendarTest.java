@@ -0,0 +1,72 @@
+package it.unisa.skiscore.db;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Day and season bucketing used by the season statistics.
+ */
+public class SeasonCalendarTest {
+
+    private static final TimeZone ROME = TimeZone.getTimeZone("Europe/Rome");
+    private static final TimeZone UTC  = TimeZone.getTimeZone("UTC");
+
+    @Test
+    public void localDay_followsTheRecordingTimeZone() {
+        // 2026-01-15 00:30 in Rome is still the 14th in UTC
+        long t = time(ROME, 2026, Calendar.JANUARY, 15, 0, 30);
+        assertEquals(SeasonCalendar.localDay(t, ROME), SeasonCalendar.localDay(t, UTC) + 1);
+        assertEquals(day(2026, Calendar.JANUARY, 15), SeasonCalendar.localDay(t, ROME));
+    }
+
+    @Test
+    public void localDay_handlesDaylightSavingTime() {
+        // 2026-03-29 is the DST switch in Rome: 23:30 local is 21:30 UTC
+        long t = time(ROME, 2026, Calendar.MARCH, 29, 23, 30);
+        assertEquals(day(2026, Calendar.MARCH, 29), SeasonCalendar.localDay(t, ROME));
+        long morning = time(ROME, 2026, Calendar.MARCH, 29, 0, 30);
+        assertEquals(day(2026, Calendar.MARCH, 29), SeasonCalendar.localDay(morning, ROME));
+    }
+
+    @Test
+    public void localDay_beforeEpochRoundsDown() {
+        assertEquals(-1, SeasonCalendar.localDay(-1L, UTC));
+    }
+
+    @Test
+    public void season_startsOnFirstOfSeptember() {
+        assertEquals(2025, SeasonCalendar.seasonOf(day(2025, Calendar.SEPTEMBER, 1)));
+        assertEquals(2025, SeasonCalendar.seasonOf(day(2026, Calendar.FEBRUARY, 10)));
+        assertEquals(2025, SeasonCalendar.seasonOf(day(2026, Calendar.AUGUST, 31)));
+        assertEquals(2024, SeasonCalendar.seasonOf(day(2025, Calendar.AUGUST, 31)));
+    }
+
+    @Test
+    public void seasonBounds_matchSeasonOf() {
+        for (int season = 2020; season <= 2030; season++) {
+            int first = SeasonCalendar.firstDay(season);
+            int last  = SeasonCalendar.lastDay(season);
+            assertEquals(season, SeasonCalendar.seasonOf(first));
+            assertEquals(season, SeasonCalendar.seasonOf(last));
+            assertEquals(season - 1, SeasonCalendar.seasonOf(first - 1));
+            assertEquals(season + 1, SeasonCalendar.seasonOf(last + 1));
+        }
+    }
+
+    private static long time(TimeZone zone, int year, int month, int dayOfMonth, int hour, int minute) {
+        Calendar c = new GregorianCalendar(zone);
+        c.clear();
+        c.set(year, month, dayOfMonth, hour, minute);
+        return c.getTimeInMillis();
+    }
+
+    /** Epoch day of a calendar date */
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) (time(UTC, year, month, dayOfMonth, 0, 0) / 86_400_000L);
+    }
+}
@@ -0,0 +1,210 @@
+package it.unisa.skiscore.export;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Round-trip tests for the streaming GPX and FIT writers/readers on generated tracks.
+ */
+public class TrackFormatsTest {
+
+    private static final long START_MS = 1_705_000_000_250L;
+
+    /** One generated fix */
+    private static final class Point {
+        final long time; final int latE7, lonE7; final float altitude, speed;
+
+        Point(long time, int latE7, int lonE7, float altitude, float speed) {
+            this.time = time; this.latE7 = latE7; this.lonE7 = lonE7;
+            this.altitude = altitude; this.speed = speed;
+        }
+    }
+
+    /** Collects parsed tracks */
+    private static final class Collector implements TrackHandler {
+        final List<List<Point>> tracks = new ArrayList<>();
+        long count = 0;
+
+        @Override public void onTrackStart() { tracks.add(new ArrayList<>()); }
+
+        @Override public void onPoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh) {
+            tracks.get(tracks.size() - 1).add(new Point(timeMs, latE7, lonE7, altitudeM, speedKmh));
+            count++;
+        }
+
+        @Override public void onTrackEnd() {}
+    }
+
+    /** Random walk around an Alpine resort, one fix every ~3 s; odd seeds use negative longitudes */
+    private static List<Point> generateTrack(int n, long seed) {
+        Random r = new Random(seed);
+        List<Point> pts = new ArrayList<>(n);
+        int lat = 459_123_456, lon = (seed % 2 == 0 ? 1 : -1) * 69_876_543;
+        double alt = 2200;
+        for (int i = 0; i < n; i++) {
+            lat += r.nextInt(400) - 200;
+            lon += r.nextInt(400) - 200;
+            alt += r.nextGaussian() * 3;
+            pts.add(new Point(START_MS + i * 3_000L + r.nextInt(999), lat, lon,
+                    (float) alt, (float) (r.nextDouble() * 90)));
+        }
+        return pts;
+    }
+
+    private static byte[] writeGpx(List<List<Point>> tracks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GpxWriter gpx = new GpxWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            for (int t = 0; t < tracks.size(); t++) {
+                gpx.beginTrack("Sessione <" + t + "> & co");
+                for (Point p : tracks.get(t)) gpx.writePoint(p.time, p.latE7, p.lonE7, p.altitude, p.speed);
+                gpx.endTrack();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] writeFit(List<Point> track) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (FitWriter fit = new FitWriter(bytes, track.size(), START_MS)) {
+            for (Point p : track) fit.writePoint(p.time, p.latE7, p.lonE7, p.altitude, p.speed);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void gpx_roundTripsMultipleTracks() throws IOException {
+        List<List<Point>> tracks = new ArrayList<>();
+        tracks.add(generateTrack(500, 1));
+        tracks.add(generateTrack(300, 2));
+
+        Collector c = new Collector();
+        GpxReader.read(new ByteArrayInputStream(writeGpx(tracks)), c);
+
+        assertEquals(2, c.tracks.size());
+        for (int t = 0; t < tracks.size(); t++) {
+            List<Point> in = tracks.get(t), out = c.tracks.get(t);
+            assertEquals(in.size(), out.size());
+            for (int i = 0; i < in.size(); i++) {
+                Point a = in.get(i), b = out.get(i);
+                assertEquals(a.time, b.time);
+                assertEquals(a.latE7, b.latE7);
+                assertEquals(a.lonE7, b.lonE7);
+                assertEquals(a.altitude, b.altitude, 0.051);
+                assertEquals(a.speed, b.speed, 0.02);
+            }
+        }
+    }
+
+    @Test
+    public void gpx_readsForeignFileWithOffsetsAndNoExtensions() throws IOException {
+        String gpx = "<?xml version=\"1.0\"?>\n"
+                + "<gpx version=\"1.0\" xmlns=\"http://www.topografix.com/GPX/1/0\">"
+                + "<trk><name>x</name><trkseg>"
+                + "<trkpt lat=\"46.5\" lon=\"-0.25\"><time>2024-02-29T23:59:59+01:00</time></trkpt>"
+                + "<trkpt lat=\"46.6\" lon=\"-0.26\"><ele>1800</ele></trkpt>"
+                + "<trkpt lat=\"46.7\" lon=\"-0.27\"><ele>1790.5</ele><time>2024-03-01T00:00:02.5Z</time>"
+                + "<speed>10</speed></trkpt>"
+                + "</trkseg></trk></gpx>";
+        Collector c = new Collector();
+        GpxReader.read(new ByteArrayInputStream(gpx.getBytes(StandardCharsets.UTF_8)), c);
+
+        List<Point> pts = c.tracks.get(0);
+        assertEquals(2, pts.size()); // the point without <time> is skipped
+        assertEquals(1_709_247_599_000L, pts.get(0).time);
+        assertEquals(465_000_000, pts.get(0).latE7);
+        assertEquals(-2_500_000, pts.get(0).lonE7);
+        assertTrue(Float.isNaN(pts.get(0).speed));
+        assertEquals(1_709_251_202_500L, pts.get(1).time);
+        assertEquals(1790.5f, pts.get(1).altitude, 0f);
+        assertEquals(36f, pts.get(1).speed, 1e-4);
+    }
+
+    @Test
+    public void fit_roundTripsWithinFormatResolution() throws IOException {
+        List<Point> track = generateTrack(2000, 3);
+        Collector c = new Collector();
+        FitReader.read(new ByteArrayInputStream(writeFit(track)), c);
+
+        assertEquals(1, c.tracks.size());
+        List<Point> out = c.tracks.get(0);
+        assertEquals(track.size(), out.size());
+        for (int i = 0; i < track.size(); i++) {
+            Point a = track.get(i), b = out.get(i);
+            assertEquals(Math.floorDiv(a.time, 1000L) * 1000L, b.time);   // 1 s resolution
+            assertEquals(a.latE7, b.latE7, 1);                             // semicircles
+            assertEquals(a.lonE7, b.lonE7, 1);
+            assertEquals(a.altitude, b.altitude, 0.11);                    // 0.2 m steps
+            assertEquals(a.speed, b.speed, 0.0036 / 2 + 1e-4);             // 1 mm/s steps
+        }
+    }
+
+    @Test
+    public void fit_corruptedByteFailsCrc() throws IOException {
+        byte[] fit = writeFit(generateTrack(50, 4));
+        fit[fit.length / 2] ^= 0x01;
+        try {
+            FitReader.read(new ByteArrayInputStream(fit), new Collector());
+            fail("corruption not detected");
+        } catch (IOException expected) {
+            // CRC mismatch or a broken message layout, both are fine
+        }
+    }
+
+    @Test
+    public void fit_declaredPointCountIsEnforced() throws IOException {
+        try {
+            new FitWriter(new ByteArrayOutputStream(), 2, START_MS).close();
+            fail("missing points not detected");
+        } catch (IllegalStateException expected) {
+            // header already promised two records
+        }
+    }
+
+    @Test
+    public void iso8601_roundTripsAcrossLeapDaysAndEpochs() {
+        long[] samples = {0L, 951_782_400_000L, 1_709_164_799_999L, -86_400_001L, 4_102_444_800_123L};
+        for (long t : samples) {
+            StringBuilder sb = new StringBuilder();
+            Iso8601.appendUtc(sb, t);
+            assertEquals(sb.toString(), t, Iso8601.parse(sb));
+        }
+        StringBuilder sb = new StringBuilder();
+        Iso8601.appendUtc(sb, 951_782_400_000L);
+        assertEquals("2000-02-29T00:00:00Z", sb.toString());
+    }
+
+    /** A full season of points must stream through both formats in a few seconds. */
+    @Test
+    public void seasonSizedExport_streamsQuickly() throws IOException {
+        final int n = 300_000;
+        List<Point> track = generateTrack(n, 5);
+        List<List<Point>> tracks = new ArrayList<>();
+        tracks.add(track);
+
+        long t0 = System.nanoTime();
+        byte[] gpx = writeGpx(tracks);
+        Collector gpxIn = new Collector();
+        GpxReader.read(new ByteArrayInputStream(gpx), gpxIn);
+        byte[] fit = writeFit(track);
+        Collector fitIn = new Collector();
+        FitReader.read(new ByteArrayInputStream(fit), fitIn);
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+        assertEquals(n, gpxIn.count);
+        assertEquals(n, fitIn.count);
+        assertEquals(14 + 15 + 8 + 21 + 17L * n + 2, fit.length);
+        assertTrue("round trip of " + n + " points took " + elapsedMs + " ms", elapsedMs < 15_000);
+    }
+}
@@ -0,0 +1,188 @@
+package it.unisa.skiscore.replay;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.export.GpxWriter;
+import it.unisa.skiscore.tracker.GpsFix;
+import it.unisa.skiscore.tracker.SimulatedPressureSource;
+import it.unisa.skiscore.tracker.SkiTrackProcessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the tracking pipeline on synthetic ski days through {@link ReplayEngine}.
+ */
+public class ReplayEngineTest {
+
+    private static final long START_MS = 1_706_000_000_000L;
+
+    /** Four laps: 6 min lift (+400 m), queue, 5 min run (-400 m), break */
+    private static SyntheticTrackGenerator day(long seed) {
+        SyntheticTrackGenerator gen = new SyntheticTrackGenerator(seed, START_MS, 3000, 46.5, 11.8, 1600);
+        for (int lap = 0; lap < 4; lap++) {
+            gen.idle(120).lift(360, 400).idle(60).run(300, 400);
+        }
+        return gen.idle(120);
+    }
+
+    private static ReplayEngine.Result replay(SyntheticTrackGenerator gen, SkiTrackProcessor p)
+            throws InterruptedException {
+        return new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE).replay(gen.build(), p, null, null);
+    }
+
+    @Test
+    public void cleanDay_findsEveryRunAndTheVertical() throws InterruptedException {
+        SyntheticTrackGenerator gen = day(1).withNoise(3, 5, 0.3);
+        SkiTrackProcessor p = new SkiTrackProcessor();
+        ReplayEngine.Result r = replay(gen, p);
+
+        assertEquals(gen.getTrueRunCount(), r.runs.size());
+        assertEquals(gen.getTrueDescentM(), p.getDescentMeters(), gen.getTrueDescentM() * 0.1);
+        assertEquals(gen.getTrueAscentM(), p.getAscentMeters(), gen.getTrueAscentM() * 0.1);
+        // 5 min at ~11 m/s per run, lifts excluded from the distance
+        assertEquals(4 * 300 * 11.0, p.getDistanceMeters(), 4 * 300 * 11.0 * 0.15);
+    }
+
+    @Test
+    public void dropoutsAndOutliers_neitherSplitNorInventRuns() throws InterruptedException {
+        SyntheticTrackGenerator gen = new SyntheticTrackGenerator(2, START_MS, 3000, 46.5, 11.8, 1600)
+                .withNoise(4, 8, 0.5)
+                .withOutliers(0.02, 150);
+        for (int lap = 0; lap < 3; lap++) {
+            gen.idle(90).lift(360, 400).idle(30)
+               .run(120, 160).dropout(45, 60).run(135, 180);
+        }
+        SkiTrackProcessor p = new SkiTrackProcessor();
+        ReplayEngine.Result r = replay(gen, p);
+
+        assertEquals(3, r.runs.size());
+        assertEquals(gen.getTrueDescentM(), p.getDescentMeters(), gen.getTrueDescentM() * 0.15);
+    }
+
+    @Test
+    public void withoutChipSpeed_speedIsDerivedFromPositions() throws InterruptedException {
+        SyntheticTrackGenerator gen = day(3).withNoise(2, 4, 0).withoutChipSpeed();
+        SkiTrackProcessor p = new SkiTrackProcessor();
+        ReplayEngine.Result r = replay(gen, p);
+
+        assertEquals(gen.getTrueRunCount(), r.runs.size());
+        assertEquals(4 * 300 * 11.0, p.getDistanceMeters(), 4 * 300 * 11.0 * 0.1);
+        assertTrue("max speed " + p.getMaxSpeedKmh(), p.getMaxSpeedKmh() < 60);
+    }
+
+    @Test
+    public void barometer_improvesVerticalOnNoisyGps() throws InterruptedException {
+        SyntheticTrackGenerator gen = day(4).withNoise(4, 20, 0.3);
+
+        SkiTrackProcessor gpsOnly = new SkiTrackProcessor();
+        replay(gen, gpsOnly);
+
+        SkiTrackProcessor fused = new SkiTrackProcessor();
+        SimulatedPressureSource baro = new SimulatedPressureSource(gen, START_MS, 1000, 5, 0.05, 9);
+        new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE).replay(gen.build(), fused, baro, null);
+
+        double gpsError   = Math.abs(gpsOnly.getDescentMeters() - gen.getTrueDescentM());
+        double fusedError = Math.abs(fused.getDescentMeters() - gen.getTrueDescentM());
+        assertTrue("fused " + fusedError + " m vs GPS " + gpsError + " m", fusedError < gpsError);
+        assertEquals(gen.getTrueDescentM(), fused.getDescentMeters(), gen.getTrueDescentM() * 0.05);
+    }
+
+    @Test
+    public void pocketModeBatches_fuseEachFixWithThePressureOfItsTime() throws InterruptedException {
+        // Fixes up to 60 s late (pocket mode), while the barometer has already reached "now"
+        SyntheticTrackGenerator gen = day(4).withNoise(4, 20, 0.3);
+        List<GpsFix> fixes = gen.build();
+        SkiTrackProcessor live = new SkiTrackProcessor(), pocket = new SkiTrackProcessor();
+        new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE).replay(fixes, live,
+                new SimulatedPressureSource(gen, START_MS, 1000, 10, 0.05, 9), null);
+        ReplayEngine.Result r = new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE)
+                .withFixBatching(60_000)
+                .replay(fixes, pocket, new SimulatedPressureSource(gen, START_MS, 1000, 10, 0.05, 9), null);
+
+        assertEquals(gen.getTrueRunCount(), r.runs.size());
+        assertEquals(gen.getTrueDescentM(), pocket.getDescentMeters(), gen.getTrueDescentM() * 0.02);
+        assertEquals(live.getDescentMeters(), pocket.getDescentMeters(), 20);
+        assertEquals(live.getDistanceMeters(), pocket.getDistanceMeters(), live.getDistanceMeters() * 0.01);
+    }
+
+    @Test
+    public void replay_isDeterministic() throws InterruptedException {
+        SkiTrackProcessor a = new SkiTrackProcessor(), b = new SkiTrackProcessor();
+        replay(day(5).withNoise(4, 8, 0.5).withOutliers(0.01, 100), a);
+        replay(day(5).withNoise(4, 8, 0.5).withOutliers(0.01, 100), b);
+
+        assertEquals(a.getDistanceMeters(), b.getDistanceMeters(), 0f);
+        assertEquals(a.getDescentMeters(), b.getDescentMeters(), 0f);
+        assertEquals(a.getMaxSpeedKmh(), b.getMaxSpeedKmh(), 0f);
+        assertEquals(a.getRunCount(), b.getRunCount());
+    }
+
+    @Test
+    public void acceleratedReplay_waitsScaledTrackTime() throws InterruptedException {
+        SyntheticTrackGenerator gen = day(6);
+        final long[] slept = {0};
+        ReplayEngine.Result r = new ReplayEngine(600, ms -> slept[0] += ms)
+                .replay(gen.build(), new SkiTrackProcessor(), null, null);
+
+        assertEquals(gen.getEndTimeMs() - gen.getStartTimeMs(), r.trackDurationMs);
+        assertEquals(r.trackDurationMs / 600.0, slept[0], r.acceptedFixes); // ±1 ms per fix
+    }
+
+    @Test
+    public void duplicateAndOutOfOrderFixes_areRejected() throws InterruptedException {
+        List<GpsFix> fixes = new ArrayList<>(day(7).build());
+        fixes.add(100, fixes.get(99));
+        fixes.add(200, fixes.get(150));
+        ReplayEngine.Result r = new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE)
+                .replay(fixes, new SkiTrackProcessor(), null, null);
+        assertEquals(2, r.rejectedFixes);
+    }
+
+    @Test
+    public void recordedGpx_replaysLikeTheOriginal() throws IOException, InterruptedException {
+        List<GpsFix> original = day(8).withNoise(3, 5, 0.3).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GpxWriter gpx = new GpxWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            gpx.beginTrack("replay");
+            for (GpsFix f : original) {
+                gpx.writePoint(f.getTimeMs(), (int) Math.round(f.getLat() * 1e7),
+                        (int) Math.round(f.getLon() * 1e7), (float) f.getAltitudeM(), f.getSpeedMs() * 3.6f);
+            }
+        }
+        List<GpsFix> recorded = RecordedTrack.fromGpx(new ByteArrayInputStream(bytes.toByteArray()));
+
+        SkiTrackProcessor a = new SkiTrackProcessor(), b = new SkiTrackProcessor();
+        ReplayEngine engine = new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE);
+        engine.replay(original, a, null, null);
+        engine.replay(recorded, b, null, null);
+
+        assertEquals(a.getRunCount(), b.getRunCount());
+        assertEquals(a.getDescentMeters(), b.getDescentMeters(), 2);
+        assertEquals(a.getDistanceMeters(), b.getDistanceMeters(), a.getDistanceMeters() * 0.001);
+    }
+
+    /** A 100-day season (~300k fixes): nothing dropped, every run found. Timing is in :benchmark. */
+    @Test
+    public void fullSeason_replaysEveryFixAndRun() throws InterruptedException {
+        SyntheticTrackGenerator gen = new SyntheticTrackGenerator(9, START_MS, 3000, 46.5, 11.8, 1600)
+                .withNoise(4, 8, 0.5).withOutliers(0.005, 100);
+        for (int lap = 0; lap < 100 * 12; lap++) gen.idle(60).lift(360, 400).run(300, 400).idle(60);
+        List<GpsFix> fixes = gen.build();
+
+        ReplayEngine.Result r = new ReplayEngine(ReplayEngine.AS_FAST_AS_POSSIBLE)
+                .replay(fixes, new SkiTrackProcessor(), null, null);
+
+        assertEquals(fixes.size(), r.acceptedFixes);
+        assertEquals(0, r.rejectedFixes);
+        assertEquals(gen.getTrueRunCount(), r.runs.size());
+    }
+}
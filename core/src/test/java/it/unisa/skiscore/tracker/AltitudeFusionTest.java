@@ -0,0 +1,112 @@
+package it.unisa.skiscore.tracker;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Validates {@link AltitudeFusion} against {@link SimulatedPressureSource},
+ * so the fusion can be checked on a machine without a barometer.
+ */
+public class AltitudeFusionTest {
+
+    private static final long START_MS    = 1_700_000_000_000L;
+    private static final long GPS_STEP_MS = 3_000L;
+
+    /** 2 minutes flat at 1500 m, 5 minutes of lift at +1 m/s, then flat again. */
+    private static final SimulatedPressureSource.AltitudeProfile LIFT_PROFILE = t -> {
+        double s = (t - START_MS) / 1000.0;
+        if (s < 120) return 1500;
+        if (s < 420) return 1500 + (s - 120);
+        return 1800;
+    };
+
+    @Test
+    public void pressureAltitudeConversion_roundTrips() {
+        for (double alt = -100; alt <= 4000; alt += 250) {
+            double p = AltitudeFusion.altitudeToPressure(alt);
+            assertEquals(alt, AltitudeFusion.pressureToAltitude(p), 0.01);
+        }
+        assertEquals(0.0, AltitudeFusion.pressureToAltitude(AltitudeFusion.SEA_LEVEL_HPA), 1e-9);
+    }
+
+    @Test
+    public void withoutBarometer_gpsAltitudeIsPassedThrough() {
+        AltitudeFusion fusion = new AltitudeFusion();
+        assertFalse(fusion.isBarometerActive(START_MS));
+        assertEquals(1234.5, fusion.onGpsAltitude(START_MS, 1234.5, 10f), 0.0);
+    }
+
+    @Test
+    public void fusedAltitude_isMuchSteadierThanGps() {
+        double[] rms = runLiftScenario(1, 0);
+        double gpsRms = rms[0], fusedRms = rms[1];
+        assertTrue("GPS RMS error too low for a meaningful test: " + gpsRms, gpsRms > 10);
+        assertTrue("fused RMS error " + fusedRms + " vs GPS " + gpsRms, fusedRms < 5);
+    }
+
+    @Test
+    public void batchedFifoDelivery_isCompensatedByExtrapolation() {
+        // 10 s of samples per delivery, as with a 10 s maxReportLatency
+        double[] rms = runLiftScenario(10, 0);
+        assertTrue("fused RMS error with batching: " + rms[1], rms[1] < 8);
+    }
+
+    @Test
+    public void lateGpsFixes_useThePressureOfTheirOwnTime() {
+        // Pocket mode: fixes delivered up to 60 s late, the barometer is already ahead
+        double[] rms = runLiftScenario(10, 60_000);
+        assertTrue("fused RMS error with late fixes: " + rms[1], rms[1] < 5);
+    }
+
+    @Test
+    public void gpsBiasIsRemoved_butBarometerDriftIsTracked() {
+        // Slow weather drift: +0.5 hPa over 10 minutes (~4 m of apparent descent)
+        SimulatedPressureSource.AltitudeProfile flat = t -> 2000;
+        AltitudeFusion fusion = new AltitudeFusion();
+        PressureSource.Listener drifting = (ts, hPa) ->
+                fusion.onPressure(ts, (float) (hPa + 0.5 * (ts - START_MS) / 600_000.0));
+        SimulatedPressureSource baro = new SimulatedPressureSource(flat, START_MS, 1000, 1, 0.02, 7);
+        baro.start(drifting);
+
+        Random gpsNoise = new Random(11);
+        double fused = 0;
+        for (long t = START_MS; t <= START_MS + 600_000; t += GPS_STEP_MS) {
+            baro.advanceTo(t);
+            fused = fusion.onGpsAltitude(t, 2000 + 25 + gpsNoise.nextGaussian() * 8, 10f);
+        }
+        // The constant +25 m GPS bias cannot be told apart from truth, the drift is absorbed
+        assertEquals(2025, fused, 6);
+    }
+
+    /**
+     * @param gpsDelayMs how far the barometer is ahead of each fix when it is fused
+     * @return {gps RMS error, fused RMS error} over the lift profile, after 60 s of warm-up
+     */
+    private static double[] runLiftScenario(int batchSize, long gpsDelayMs) {
+        AltitudeFusion fusion = new AltitudeFusion();
+        SimulatedPressureSource baro =
+                new SimulatedPressureSource(LIFT_PROFILE, START_MS, 1000, batchSize, 0.06, 42);
+        baro.start(fusion::onPressure);
+
+        Random gpsNoise = new Random(3);
+        double gpsSq = 0, fusedSq = 0;
+        int n = 0;
+        for (long t = START_MS; t <= START_MS + 600_000; t += GPS_STEP_MS) {
+            baro.advanceTo(t + gpsDelayMs);
+            double truth = LIFT_PROFILE.altitudeAt(t);
+            double gps = truth + gpsNoise.nextGaussian() * 15;
+            double fused = fusion.onGpsAltitude(t, gps, 15f);
+            if (t - START_MS >= 60_000) {
+                gpsSq   += (gps - truth) * (gps - truth);
+                fusedSq += (fused - truth) * (fused - truth);
+                n++;
+            }
+        }
+        return new double[]{Math.sqrt(gpsSq / n), Math.sqrt(fusedSq / n)};
+    }
+}
@@ -0,0 +1,182 @@
+package it.unisa.skiscore.tracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import it.unisa.skiscore.tracker.SegmentationEngine.Segment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hysteresis and dwell times of {@link SegmentationEngine}, fed with hand-built
+ * fix streams (3 s apart, like the service).
+ */
+public class SegmentationEngineTest {
+
+    private static final long START_MS = 1_706_000_000_000L;
+    private static final long STEP_MS  = 3_000L;
+
+    @Test
+    public void liftThenRun_switchesOnlyAfterTheDwellTime() {
+        Feed feed = new Feed(1);
+        feed.move(60, 0, 0, false);                 // queue
+        long liftStart = feed.timeMs;
+        feed.move(360, 4, 1.2, false);              // chairlift, +430 m
+        long runStart = feed.timeMs;
+        feed.move(240, 11, -1.5, true);             // run, -360 m
+
+        long liftAt = feed.firstTimeIn(Segment.LIFT, liftStart);
+        long runAt  = feed.firstTimeIn(Segment.DESCENT, runStart);
+        assertTrue("lift after " + (liftAt - liftStart) + " ms", liftAt - liftStart >= 20_000);
+        assertTrue("lift after " + (liftAt - liftStart) + " ms", liftAt - liftStart <= 60_000);
+        // Leaving a lift needs 30 s of a different candidate
+        assertTrue("run after " + (runAt - runStart) + " ms", runAt - runStart >= 30_000);
+        assertTrue("run after " + (runAt - runStart) + " ms", runAt - runStart <= 75_000);
+        assertEquals(EnumSet.of(Segment.LIFT), feed.segmentsBetween(liftAt, runStart));
+
+        List<RunStats> runs = feed.engine.finish();
+        assertEquals(1, runs.size());
+        assertEquals(360, runs.get(0).getVerticalDropMeters(), 40);
+    }
+
+    @Test
+    public void shortStopOnARun_neitherFlipsNorSplitsIt() {
+        Feed feed = new Feed(2);
+        feed.move(120, 11, -1.5, true);
+        long descentAt = feed.firstTimeIn(Segment.DESCENT, START_MS);
+        feed.move(15, 0, 0, false);                 // stop to wait for a friend
+        feed.move(120, 11, -1.5, true);
+
+        assertEquals(EnumSet.of(Segment.DESCENT), feed.segmentsBetween(descentAt, feed.timeMs));
+        assertEquals(1, feed.engine.finish().size());
+    }
+
+    @Test
+    public void noisyAltitudeOnALift_doesNotFlipIt() {
+        Feed feed = new Feed(3).withNoise(6, 2);
+        feed.move(600, 4, 1.2, false);
+        long liftAt = feed.firstTimeIn(Segment.LIFT, START_MS);
+
+        assertEquals(EnumSet.of(Segment.LIFT), feed.segmentsBetween(liftAt, feed.timeMs));
+        assertEquals(0, feed.engine.finish().size());
+    }
+
+    @Test
+    public void flatStretchOfALift_isHeldByTheStraightCruise() {
+        Feed feed = new Feed(4);
+        feed.move(240, 4, 1.2, false);
+        long liftAt = feed.firstTimeIn(Segment.LIFT, START_MS);
+        feed.move(120, 4, 0, false);                // flat section of the chairlift
+        feed.move(120, 4, 1.2, false);
+
+        assertEquals(EnumSet.of(Segment.LIFT), feed.segmentsBetween(liftAt, feed.timeMs));
+    }
+
+    @Test
+    public void noisySpeedInAQueue_staysIdle() {
+        // GPS speed jitters around the idle threshold while standing still
+        Feed feed = new Feed(5).withNoise(3, 1.5);
+        feed.move(600, 0.3, 0, false);
+
+        assertEquals(EnumSet.of(Segment.IDLE), feed.segmentsBetween(START_MS, feed.timeMs));
+        assertEquals(0, feed.engine.finish().size());
+    }
+
+    @Test
+    public void shortDrop_isNotCountedWhileOpen() {
+        Feed feed = new Feed(6);
+        feed.move(15, 11, -1.0, true);              // 15 m lower, then a long stop
+        feed.move(180, 0, 0, false);
+
+        assertEquals(0, feed.maxRunCount);
+        assertEquals(0, feed.engine.finish().size());
+    }
+
+    @Test
+    public void runCount_neverGoesDown() {
+        Feed feed = new Feed(7);
+        feed.move(120, 11, -1.5, true);
+        feed.move(240, 4, 1.2, false);
+        feed.move(120, 11, -1.5, true);
+
+        assertEquals(feed.lastRunCount, feed.maxRunCount);
+        assertEquals(2, feed.engine.finish().size());
+    }
+
+    /** Feeds an engine with straight or zig-zag motion, optionally with GPS noise. */
+    private static final class Feed {
+        private static final double METERS_PER_DEG_LAT = 111_320.0;
+        private static final double BEARING_RAD       = Math.toRadians(30);
+
+        final SegmentationEngine engine = new SegmentationEngine();
+        final List<long[]> history = new ArrayList<>(); // {time, segment ordinal}
+        private final Random random;
+        private double altitudeNoiseM = 0, speedNoiseKmh = 0;
+
+        /** {@link SegmentationEngine#getRunCount()} after the last fix, and its peak */
+        int    lastRunCount, maxRunCount;
+        long   timeMs   = START_MS;
+        double lat      = 46.5, lon = 11.8, altitude = 1500;
+
+        Feed(long seed) {
+            random = new Random(seed);
+            fix(0);
+        }
+
+        Feed withNoise(double altitudeM, double speedKmh) {
+            altitudeNoiseM = altitudeM;
+            speedNoiseKmh  = speedKmh;
+            return this;
+        }
+
+        /**
+         * @param speedMs  horizontal speed; uphill bearing for a lift, downhill for a run
+         * @param vSpeedMs vertical speed (m/s)
+         * @param zigzag   alternate ±50° every 12 s, like turns on a run
+         */
+        void move(long durationS, double speedMs, double vSpeedMs, boolean zigzag) {
+            long start = timeMs;
+            for (long i = 0; i < durationS * 1000 / STEP_MS; i++) {
+                double bearing = vSpeedMs < 0 ? BEARING_RAD + Math.PI : BEARING_RAD;
+                if (zigzag) bearing += (timeMs - start) / 12_000 % 2 == 0 ? 0.87 : -0.87;
+                double d = speedMs * STEP_MS / 1000.0;
+                lat += d * Math.cos(bearing) / METERS_PER_DEG_LAT;
+                lon += d * Math.sin(bearing) / (METERS_PER_DEG_LAT * Math.cos(Math.toRadians(lat)));
+                altitude += vSpeedMs * STEP_MS / 1000.0;
+                timeMs += STEP_MS;
+                fix(speedMs);
+            }
+        }
+
+        private void fix(double speedMs) {
+            double alt = altitude + random.nextGaussian() * altitudeNoiseM;
+            float speedKmh = (float) Math.max(0, speedMs * 3.6 + random.nextGaussian() * speedNoiseKmh);
+            Segment s = engine.onFix(timeMs, lat, lon, alt, speedKmh);
+            history.add(new long[]{timeMs, s.ordinal()});
+            lastRunCount = engine.getRunCount();
+            maxRunCount  = Math.max(maxRunCount, lastRunCount);
+        }
+
+        long firstTimeIn(Segment segment, long fromMs) {
+            for (long[] h : history) {
+                if (h[0] >= fromMs && h[1] == segment.ordinal()) return h[0];
+            }
+            throw new AssertionError("never in " + segment + " after " + (fromMs - START_MS) + " ms");
+        }
+
+        /** Segments reported by the fixes in [fromMs, toMs) */
+        Set<Segment> segmentsBetween(long fromMs, long toMs) {
+            Set<Segment> seen = EnumSet.noneOf(Segment.class);
+            for (long[] h : history) {
+                if (h[0] >= fromMs && h[0] < toMs) seen.add(Segment.values()[(int) h[1]]);
+            }
+            return seen;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package it.unisa.skiscore.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import it.unisa.skiscore.api.OwmForecastResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Day index of the stored forecasts read by the hourly screen.
+ */
+public class ForecastStoreTest {
+
+    @Test
+    public void slotsFor_returnsTheDayInOrder() {
+        // 40 slots from 2026-01-14 21:00: the first and last day are partial
+        ForecastStore.Forecast f = new ForecastStore(4).put(1L, forecast(40, 21), 0L);
+        assertEquals(Arrays.asList("2026-01-14", "2026-01-15", "2026-01-16",
+                "2026-01-17", "2026-01-18", "2026-01-19"), f.getDays());
+        assertEquals(1, f.slotsFor("2026-01-14").size());
+        List<OwmForecastResponse.ForecastItem> day = f.slotsFor("2026-01-16");
+        assertEquals(8, day.size());
+        assertEquals("2026-01-16 00:00:00", day.get(0).dtTxt);
+        assertEquals("2026-01-16 21:00:00", day.get(7).dtTxt);
+        assertEquals(7, f.slotsFor("2026-01-19").size());
+        assertTrue(f.slotsFor("2026-01-20").isEmpty());
+        assertTrue(f.slotsFor(null).isEmpty());
+    }
+
+    @Test
+    public void slotsFor_sortsAnOutOfOrderList() {
+        OwmForecastResponse r = forecast(16, 0);
+        OwmForecastResponse.ForecastItem first = r.list.remove(0);
+        r.list.add(first);
+        r.list.add(null);
+        ForecastStore.Forecast f = new ForecastStore(4).put(1L, r, 0L);
+        assertEquals(2, f.getDays().size());
+        assertSame(first, f.slotsFor("2026-01-14").get(0));
+        assertEquals(8, f.slotsFor("2026-01-14").size());
+    }
+
+    @Test
+    public void entries_expireAndAreBounded() {
+        ForecastStore store = new ForecastStore(2);
+        ForecastStore.Forecast f = store.put(1L, forecast(8, 0), 1_000L);
+        assertTrue(f.isFresh(1_000L + ForecastStore.MAX_AGE_MS - 1));
+        assertFalse(f.isFresh(1_000L + ForecastStore.MAX_AGE_MS));
+
+        store.put(2L, forecast(8, 0), 0L);
+        store.get(1L); // 1 is now the most recently used
+        store.put(3L, forecast(8, 0), 0L);
+        assertSame(f, store.get(1L));
+        assertNull(store.get(2L));
+    }
+
+    /** {@code count} 3-hour slots starting on 2026-01-14 at {@code firstHour} */
+    private static OwmForecastResponse forecast(int count, int firstHour) {
+        OwmForecastResponse r = new OwmForecastResponse();
+        r.list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int hours = firstHour + 3 * i;
+            OwmForecastResponse.ForecastItem item = new OwmForecastResponse.ForecastItem();
+            item.dtTxt = String.format("2026-01-%02d %02d:00:00", 14 + hours / 24, hours % 24);
+            r.list.add(item);
+        }
+        return r;
+    }
+}
@@ -0,0 +1,50 @@
+package it.unisa.skiscore.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.export.FitReader;
+import it.unisa.skiscore.export.GpxReader;
+import it.unisa.skiscore.export.TrackHandler;
+import it.unisa.skiscore.tracker.GpsFix;
+
+/**
+ * Carica una sessione registrata (GPX o FIT esportati, o di altre app) come
+ * sequenza di {@link GpsFix} per il {@link ReplayEngine}. Le tracce del file
+ * vengono concatenate.
+ */
+public final class RecordedTrack {
+
+    private RecordedTrack() {}
+
+    public static List<GpsFix> fromGpx(InputStream in) throws IOException {
+        Collector c = new Collector();
+        GpxReader.read(in, c);
+        return c.fixes;
+    }
+
+    public static List<GpsFix> fromFit(InputStream in) throws IOException {
+        Collector c = new Collector();
+        FitReader.read(in, c);
+        return c.fixes;
+    }
+
+    private static final class Collector implements TrackHandler {
+        final List<GpsFix> fixes = new ArrayList<>();
+
+        @Override
+        public void onTrackStart() {}
+
+        @Override
+        public void onPoint(long timeMs, int latE7, int lonE7, float altitudeM, float speedKmh) {
+            // Quota già elaborata alla registrazione: nessuna accuratezza verticale
+            fixes.add(new GpsFix(timeMs, latE7 / 1e7, lonE7 / 1e7, altitudeM,
+                    speedKmh / 3.6f, Float.NaN));
+        }
+
+        @Override
+        public void onTrackEnd() {}
+    }
+}
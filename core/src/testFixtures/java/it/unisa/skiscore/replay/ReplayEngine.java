@@ -0,0 +1,135 @@
+package it.unisa.skiscore.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unisa.skiscore.tracker.GpsFix;
+import it.unisa.skiscore.tracker.RunStats;
+import it.unisa.skiscore.tracker.SimulatedPressureSource;
+import it.unisa.skiscore.tracker.TrackProcessor;
+
+/**
+ * Riproduce una traccia (registrata o sintetica) attraverso un {@link TrackProcessor},
+ * a tempo accelerato: con un fattore 600 un'ora di sci dura 6 secondi, con
+ * {@link #AS_FAST_AS_POSSIBLE} non si attende affatto (test e benchmark).
+ *
+ * Se è presente un barometro simulato, i suoi campioni vengono consegnati al
+ * processore fino all'istante di consegna di ogni fix, come farebbe il sensore reale.
+ * Con {@link #withFixBatching(long)} i fix arrivano a blocchi, come in modalità tasca:
+ * il barometro è già avanti di tutto il ritardo del blocco.
+ */
+public class ReplayEngine {
+
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /** Attesa tra due fix; sostituibile nei test per non dormire davvero */
+    public interface Sleeper {
+        void sleep(long ms) throws InterruptedException;
+    }
+
+    /** Notificato dopo ogni fix elaborato, con lo stato aggiornato del processore */
+    public interface Listener {
+        void onFix(GpsFix fix, boolean accepted, TrackProcessor processor);
+    }
+
+    /** Esito di un replay */
+    public static final class Result {
+        public final int  acceptedFixes;
+        public final int  rejectedFixes;
+        public final long trackDurationMs;
+        public final long wallTimeNs;
+        public final List<RunStats> runs;
+
+        Result(int acceptedFixes, int rejectedFixes, long trackDurationMs, long wallTimeNs,
+               List<RunStats> runs) {
+            this.acceptedFixes   = acceptedFixes;
+            this.rejectedFixes   = rejectedFixes;
+            this.trackDurationMs = trackDurationMs;
+            this.wallTimeNs      = wallTimeNs;
+            this.runs            = runs;
+        }
+
+        /** Fix elaborati al secondo (tempo reale) */
+        public double fixesPerSecond() {
+            return (acceptedFixes + rejectedFixes) / (wallTimeNs / 1e9);
+        }
+    }
+
+    private final double  speedFactor;
+    private final Sleeper sleeper;
+    private long fixBatchMs = 0;
+
+    public ReplayEngine(double speedFactor) {
+        this(speedFactor, Thread::sleep);
+    }
+
+    public ReplayEngine(double speedFactor, Sleeper sleeper) {
+        if (!(speedFactor > 0)) throw new IllegalArgumentException("speedFactor must be > 0");
+        this.speedFactor = speedFactor;
+        this.sleeper     = sleeper;
+    }
+
+    /**
+     * Consegna i fix a blocchi, come il FusedLocationProvider con maxUpdateDelay: un blocco
+     * parte quando il fix più vecchio ha atteso {@code maxDelayMs}. 0 = ogni fix subito.
+     */
+    public ReplayEngine withFixBatching(long maxDelayMs) {
+        if (maxDelayMs < 0) throw new IllegalArgumentException("maxDelayMs must be >= 0");
+        this.fixBatchMs = maxDelayMs;
+        return this;
+    }
+
+    /**
+     * Riproduce {@code fixes} nell'ordine dato e chiude la sessione.
+     *
+     * @param barometer barometro simulato da collegare al processore, o null
+     * @param listener  osservatore dei singoli fix, o null
+     */
+    public Result replay(Iterable<GpsFix> fixes, TrackProcessor processor,
+                         SimulatedPressureSource barometer, Listener listener)
+            throws InterruptedException {
+        if (barometer != null) barometer.start(processor);
+
+        int[] counts = new int[2]; // {accettati, scartati}
+        List<GpsFix> batch = new ArrayList<>();
+        long batchDueMs = 0;
+        long firstTime = Long.MIN_VALUE, lastTime = Long.MIN_VALUE;
+        long wallStart = System.nanoTime();
+        for (GpsFix fix : fixes) {
+            long t = fix.getTimeMs();
+            if (firstTime == Long.MIN_VALUE) firstTime = t;
+            else if (!Double.isInfinite(speedFactor) && t > lastTime) {
+                long waitMs = Math.round((t - lastTime) / speedFactor);
+                if (waitMs > 0) sleeper.sleep(waitMs);
+            }
+            if (!batch.isEmpty() && t > batchDueMs) {
+                deliver(batch, batchDueMs, processor, barometer, listener, counts);
+            }
+            if (batch.isEmpty()) batchDueMs = t + fixBatchMs;
+            batch.add(fix);
+            lastTime = Math.max(lastTime, t);
+        }
+        // Allo STOP i fix in attesa vengono consegnati subito
+        if (!batch.isEmpty()) {
+            deliver(batch, Math.min(batchDueMs, lastTime), processor, barometer, listener, counts);
+        }
+        List<RunStats> runs = processor.finish();
+        long wallNs = System.nanoTime() - wallStart;
+
+        if (barometer != null) barometer.stop();
+        long duration = firstTime == Long.MIN_VALUE ? 0 : lastTime - firstTime;
+        return new Result(counts[0], counts[1], duration, wallNs, runs);
+    }
+
+    /** Consegna un blocco all'istante {@code atMs}: prima la pressione fino a lì, poi i fix */
+    private static void deliver(List<GpsFix> batch, long atMs, TrackProcessor processor,
+                                SimulatedPressureSource barometer, Listener listener, int[] counts) {
+        if (barometer != null) barometer.advanceTo(atMs);
+        for (GpsFix fix : batch) {
+            boolean ok = processor.onFix(fix);
+            counts[ok ? 0 : 1]++;
+            if (listener != null) listener.onFix(fix, ok, processor);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,220 @@
+package it.unisa.skiscore.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import it.unisa.skiscore.tracker.GpsFix;
+import it.unisa.skiscore.tracker.SimulatedPressureSource;
+
+/**
+ * Generatore deterministico di giornate di sci sintetiche, per il replay.
+ *
+ * La giornata si compone concatenando tratti ({@link #lift}, {@link #run}, {@link #idle},
+ * {@link #dropout}); il percorso "vero" viene campionato ogni {@code fixIntervalMs}
+ * e sporcato con rumore GPS e salti anomali a partire dal seme. Il generatore
+ * conosce la verità (dislivello, discese) e fa da profilo di quota per
+ * {@link SimulatedPressureSource}, così i test possono confrontare l'uscita
+ * della pipeline con valori attesi.
+ */
+public class SyntheticTrackGenerator implements SimulatedPressureSource.AltitudeProfile {
+
+    private static final double METERS_PER_DEG_LAT = 111_320.0;
+    private static final double LIFT_SPEED_MS      = 4.0;
+    private static final double RUN_SPEED_MS       = 11.0;
+    private static final long   TURN_PERIOD_MS     = 12_000L;  // mezzo curvone in discesa
+
+    private final long fixIntervalMs;
+    private final Random random;
+    private final long noiseSeed;
+
+    // Percorso vero, un campione per intervallo
+    private long[]   truthTimes  = new long[1024];
+    private double[] truthLat    = new double[1024];
+    private double[] truthLon    = new double[1024];
+    private double[] truthAlt    = new double[1024];
+    private double[] truthSpeed  = new double[1024];
+    private int      truthSize   = 0;
+    private final List<long[]> dropouts = new ArrayList<>(); // {da, a}
+
+    private long   timeMs;
+    private double lat, lon, altitude;
+    private double downhillBearing;
+
+    private double horizontalNoiseM = 0, verticalNoiseM = 0, speedNoiseMs = 0;
+    private double outlierProbability = 0, outlierMeters = 0;
+    private boolean chipSpeed = true;
+
+    private double trueDescentM = 0, trueAscentM = 0;
+    private int    runCount = 0;
+
+    /**
+     * @param seed          seme del generatore di rumore
+     * @param startTimeMs   istante del primo fix
+     * @param fixIntervalMs intervallo tra i fix (3000 come il Service)
+     */
+    public SyntheticTrackGenerator(long seed, long startTimeMs, long fixIntervalMs,
+                                   double startLat, double startLon, double startAltitudeM) {
+        this.random          = new Random(seed);
+        this.timeMs          = startTimeMs;
+        this.fixIntervalMs   = fixIntervalMs;
+        this.lat             = startLat;
+        this.lon             = startLon;
+        this.altitude        = startAltitudeM;
+        this.downhillBearing = random.nextDouble() * 2 * Math.PI;
+        this.noiseSeed       = random.nextLong();
+        sample(0);
+    }
+
+    // ---- Rumore ----
+
+    /** Rumore gaussiano su posizione (m), quota (m) e velocità del chip (m/s) */
+    public SyntheticTrackGenerator withNoise(double horizontalM, double verticalM, double speedMs) {
+        this.horizontalNoiseM = horizontalM;
+        this.verticalNoiseM   = verticalM;
+        this.speedNoiseMs     = speedMs;
+        return this;
+    }
+
+    /** Con probabilità {@code probability} un fix salta di {@code meters} in direzione casuale */
+    public SyntheticTrackGenerator withOutliers(double probability, double meters) {
+        this.outlierProbability = probability;
+        this.outlierMeters      = meters;
+        return this;
+    }
+
+    /** Fix senza velocità del chip: la pipeline deve ricavarla dagli spostamenti */
+    public SyntheticTrackGenerator withoutChipSpeed() {
+        this.chipSpeed = false;
+        return this;
+    }
+
+    // ---- Tratti della giornata ----
+
+    /** Risalita in linea retta a velocità costante */
+    public SyntheticTrackGenerator lift(long durationS, double verticalM) {
+        double bearing = downhillBearing + Math.PI;
+        move(durationS, verticalM, t -> bearing, LIFT_SPEED_MS);
+        trueAscentM += verticalM;
+        return this;
+    }
+
+    /** Discesa a curvoni, alternando ±50° attorno alla linea di massima pendenza */
+    public SyntheticTrackGenerator run(long durationS, double verticalM) {
+        long start = timeMs;
+        move(durationS, -verticalM,
+                t -> downhillBearing + ((t - start) / TURN_PERIOD_MS % 2 == 0 ? 0.87 : -0.87),
+                RUN_SPEED_MS);
+        trueDescentM += verticalM;
+        runCount++;
+        return this;
+    }
+
+    /** Sosta ferma (fila all'impianto, rifugio) */
+    public SyntheticTrackGenerator idle(long durationS) {
+        move(durationS, 0, t -> 0, 0);
+        return this;
+    }
+
+    /** Buco GPS: nessun fix per la durata, mentre si continua a scendere */
+    public SyntheticTrackGenerator dropout(long durationS, double verticalM) {
+        long from = timeMs;
+        run(durationS, verticalM);
+        runCount--; // continua la discesa precedente, non ne apre una nuova
+        dropouts.add(new long[]{from + 1, timeMs});
+        return this;
+    }
+
+    private interface Bearing {
+        double at(long timeMs);
+    }
+
+    private void move(long durationS, double deltaAltitudeM, Bearing bearing, double speedMs) {
+        long steps = Math.max(1, durationS * 1000 / fixIntervalMs);
+        double dtS = fixIntervalMs / 1000.0;
+        double dAlt = deltaAltitudeM / steps;
+        for (long i = 0; i < steps; i++) {
+            double b = bearing.at(timeMs);
+            double d = speedMs * dtS;
+            lat += d * Math.cos(b) / METERS_PER_DEG_LAT;
+            lon += d * Math.sin(b) / (METERS_PER_DEG_LAT * Math.cos(Math.toRadians(lat)));
+            altitude += dAlt;
+            timeMs += fixIntervalMs;
+            sample(speedMs);
+        }
+    }
+
+    private void sample(double speedMs) {
+        if (truthSize == truthTimes.length) {
+            int n = truthSize * 2;
+            truthTimes = Arrays.copyOf(truthTimes, n);
+            truthLat   = Arrays.copyOf(truthLat, n);
+            truthLon   = Arrays.copyOf(truthLon, n);
+            truthAlt   = Arrays.copyOf(truthAlt, n);
+            truthSpeed = Arrays.copyOf(truthSpeed, n);
+        }
+        truthTimes[truthSize] = timeMs;
+        truthLat[truthSize]   = lat;
+        truthLon[truthSize]   = lon;
+        truthAlt[truthSize]   = altitude;
+        truthSpeed[truthSize] = speedMs;
+        truthSize++;
+    }
+
+    // ---- Uscita ----
+
+    /** Fix rumorosi della giornata, in ordine di tempo (ogni chiamata produce gli stessi fix) */
+    public List<GpsFix> build() {
+        Random noise = new Random(noiseSeed);
+        List<GpsFix> fixes = new ArrayList<>(truthSize);
+        int dropout = 0;
+        for (int i = 0; i < truthSize; i++) {
+            long t = truthTimes[i];
+            while (dropout < dropouts.size() && t > dropouts.get(dropout)[1]) dropout++;
+            boolean inDropout = dropout < dropouts.size()
+                    && t >= dropouts.get(dropout)[0] && t <= dropouts.get(dropout)[1];
+
+            // Il rumore viene estratto anche per i fix scartati, così un buco non sposta gli altri
+            double north = noise.nextGaussian() * horizontalNoiseM;
+            double east  = noise.nextGaussian() * horizontalNoiseM;
+            double up    = noise.nextGaussian() * verticalNoiseM;
+            double speed = Math.max(0, truthSpeed[i] + noise.nextGaussian() * speedNoiseMs);
+            if (noise.nextDouble() < outlierProbability) {
+                double b = noise.nextDouble() * 2 * Math.PI;
+                north += outlierMeters * Math.cos(b);
+                east  += outlierMeters * Math.sin(b);
+                up    += outlierMeters * (noise.nextBoolean() ? 0.5 : -0.5);
+            }
+            if (inDropout) continue;
+
+            double fixLat = truthLat[i] + north / METERS_PER_DEG_LAT;
+            double fixLon = truthLon[i] + east / (METERS_PER_DEG_LAT * Math.cos(Math.toRadians(truthLat[i])));
+            fixes.add(new GpsFix(t, fixLat, fixLon, truthAlt[i] + up,
+                    chipSpeed ? (float) speed : Float.NaN,
+                    verticalNoiseM > 0 ? (float) verticalNoiseM : Float.NaN));
+        }
+        return Collections.unmodifiableList(fixes);
+    }
+
+    /** Quota vera all'istante {@code timeMs}, interpolata linearmente */
+    @Override
+    public double altitudeAt(long timeMs) {
+        int lo = 0, hi = truthSize - 1;
+        if (timeMs <= truthTimes[lo]) return truthAlt[lo];
+        if (timeMs >= truthTimes[hi]) return truthAlt[hi];
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (truthTimes[mid] <= timeMs) lo = mid; else hi = mid;
+        }
+        double f = (timeMs - truthTimes[lo]) / (double) (truthTimes[hi] - truthTimes[lo]);
+        return truthAlt[lo] + (truthAlt[hi] - truthAlt[lo]) * f;
+    }
+
+    public long   getStartTimeMs()    { return truthTimes[0]; }
+    public long   getEndTimeMs()      { return timeMs; }
+    public double getTrueDescentM()   { return trueDescentM; }
+    public double getTrueAscentM()    { return trueAscentM; }
+    public int    getTrueRunCount()   { return runCount; }
+}
@@ -0,0 +1,92 @@
+package it.unisa.skiscore.tracker;
+
+import java.util.Random;
+
+/**
+ * Barometro simulato per validare {@link AltitudeFusion} senza sensore reale.
+ *
+ * Genera la pressione corrispondente a un profilo di quota, con rumore gaussiano,
+ * a intervalli regolari; i campioni vengono consegnati a blocchi di
+ * {@code batchSize} come farebbe il FIFO hardware. Il tempo avanza solo tramite
+ * {@link #advanceTo(long)}, così i test sono deterministici.
+ */
+public class SimulatedPressureSource implements PressureSource {
+
+    /** Quota reale (m) in funzione del tempo (ms) */
+    public interface AltitudeProfile {
+        double altitudeAt(long timeMs);
+    }
+
+    private final AltitudeProfile profile;
+    private final long   samplingPeriodMs;
+    private final int    batchSize;
+    private final double noiseHpa;
+    private final Random random;
+
+    private final long[]  batchTimes;
+    private final float[] batchPressures;
+    private int  batchCount = 0;
+    private long nextSampleTimeMs;
+    private Listener listener;
+
+    /**
+     * @param profile          profilo di quota da simulare
+     * @param startTimeMs      istante del primo campione
+     * @param samplingPeriodMs intervallo tra i campioni
+     * @param batchSize        campioni per consegna (1 = nessun batching)
+     * @param noiseHpa         deviazione standard del rumore (hPa)
+     * @param seed             seme del generatore, per risultati ripetibili
+     */
+    public SimulatedPressureSource(AltitudeProfile profile, long startTimeMs, long samplingPeriodMs,
+                                   int batchSize, double noiseHpa, long seed) {
+        this.profile          = profile;
+        this.nextSampleTimeMs = startTimeMs;
+        this.samplingPeriodMs = samplingPeriodMs;
+        this.batchSize        = Math.max(1, batchSize);
+        this.noiseHpa         = noiseHpa;
+        this.random           = new Random(seed);
+        this.batchTimes       = new long[this.batchSize];
+        this.batchPressures   = new float[this.batchSize];
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void stop() {
+        listener   = null;
+        batchCount = 0;
+    }
+
+    /**
+     * Genera tutti i campioni fino a {@code timeMs} compreso; consegna i blocchi completi.
+     */
+    public void advanceTo(long timeMs) {
+        while (nextSampleTimeMs <= timeMs) {
+            double pressure = AltitudeFusion.altitudeToPressure(profile.altitudeAt(nextSampleTimeMs))
+                    + random.nextGaussian() * noiseHpa;
+            batchTimes[batchCount]     = nextSampleTimeMs;
+            batchPressures[batchCount] = (float) pressure;
+            batchCount++;
+            nextSampleTimeMs += samplingPeriodMs;
+            if (batchCount == batchSize) flush();
+        }
+    }
+
+    /** Consegna subito i campioni in attesa (come SensorManager.flush) */
+    public void flush() {
+        if (listener != null) {
+            for (int i = 0; i < batchCount; i++) {
+                listener.onPressure(batchTimes[i], batchPressures[i]);
+            }
+        }
+        batchCount = 0;
+    }
+}
@@ -0,0 +1,53 @@
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+android {
+    namespace = "it.unisa.skiscore.macrobenchmark"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        // Baseline profile generation needs API 28+ (rooted) or 33+
+        minSdk = 28
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    buildTypes {
+        // Matches the "benchmark" build type of :app (release, signed with the debug key)
+        create("benchmark") {
+            isDebuggable = true
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    // Recorded API responses served by the mock web server (shared with :benchmark)
+    sourceSets {
+        getByName("main").assets.srcDir("../fixtures")
+    }
+
+    targetProjectPath = ":app"
+    experimentalProperties["android.experimental.self-instrumenting"] = true
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+    implementation(libs.okhttp.mockwebserver)
+}
+
+androidComponents {
+    beforeVariants(selector().all()) {
+        it.enable = it.buildType == "benchmark"
+    }
+}
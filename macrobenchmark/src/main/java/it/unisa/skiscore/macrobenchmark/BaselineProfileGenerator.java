@@ -0,0 +1,35 @@
+package it.unisa.skiscore.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the baseline profile of the startup and Home render path.
+ *
+ * Run on an API 33+ device (or a rooted API 28+ one) with
+ * ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+ * -Pandroid.testInstrumentationRunnerArguments.class=it.unisa.skiscore.macrobenchmark.BaselineProfileGenerator
+ * then copy the generated *-baseline-prof.txt over app/src/main/baseline-prof.txt.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule rule = new BaselineProfileRule();
+
+    @Test
+    public void startupAndHome() {
+        rule.collect(StartupBenchmark.PACKAGE, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+            StartupBenchmark.waitForHome(scope.getDevice());
+            return Unit.INSTANCE;
+        });
+    }
+}
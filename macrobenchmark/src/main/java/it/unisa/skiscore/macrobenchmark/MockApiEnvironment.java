@@ -0,0 +1,99 @@
+package it.unisa.skiscore.macrobenchmark;
+
+import android.content.Context;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.UiDevice;
+
+import org.junit.rules.ExternalResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Puts the device in a known state before a benchmark: the weather and geocoding APIs are
+ * answered by a local mock web server with the recorded responses in /fixtures (the
+ * "benchmark" build of :app points its base URL at {@link #PORT}), and favorites and diary
+ * are filled by the app's BenchmarkSeedReceiver; runtime permissions are granted up front.
+ * Timings then depend on neither the network nor on what happened to be on the device.
+ */
+public class MockApiEnvironment extends ExternalResource {
+
+    static final int PORT = 8088;
+
+    private static final String[] PERMISSIONS = {
+            "android.permission.ACCESS_FINE_LOCATION",
+            "android.permission.ACCESS_COARSE_LOCATION",
+            "android.permission.POST_NOTIFICATIONS"
+    };
+
+    private MockWebServer server;
+
+    @Override
+    protected void before() throws Throwable {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        String current = readAsset(context, "owm_current.json");
+        String forecast = readAsset(context, "owm_forecast.json");
+        String search = readAsset(context, "geocoding_search.json");
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath() == null ? "" : request.getPath();
+                int query = path.indexOf('?');
+                if (query >= 0) path = path.substring(0, query);
+                switch (path) {
+                    case "/data/2.5/weather":  return json(current);
+                    case "/data/2.5/forecast": return json(forecast);
+                    case "/v1/search":         return json(search);
+                    default:                   return new MockResponse().setResponseCode(404);
+                }
+            }
+        });
+        server.start(InetAddress.getByName("127.0.0.1"), PORT);
+
+        // Seeding writes straight to Room: stop the app so that the next start reads it back
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        device.executeShellCommand("am broadcast -f 32 -n "
+                + StartupBenchmark.PACKAGE + "/.BenchmarkSeedReceiver");
+        device.executeShellCommand("am force-stop " + StartupBenchmark.PACKAGE);
+        // The Tracker tab asks for these when first shown: no dialog in the middle of a run
+        for (String permission : PERMISSIONS) {
+            device.executeShellCommand("pm grant " + StartupBenchmark.PACKAGE + " " + permission);
+        }
+    }
+
+    @Override
+    protected void after() {
+        try {
+            server.shutdown();
+        } catch (IOException ignored) {
+            // The port is freed when the instrumentation process exits anyway
+        }
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body);
+    }
+
+    private static String readAsset(Context context, String name) throws IOException {
+        try (InputStream in = context.getAssets().open(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) out.write(buffer, 0, n);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package it.unisa.skiscore.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timings of the three interactions that draw the most rows: flinging through the
+ * favorites on Home, opening a resort's detail page from its card, and flinging through
+ * the diary. Runs against the seeded data and the mock API of {@link MockApiEnvironment},
+ * with the baseline profile installed as on a Play Store install.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    private static final String PACKAGE = StartupBenchmark.PACKAGE;
+    private static final int ITERATIONS = 5;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Rule
+    public MockApiEnvironment environment = new MockApiEnvironment();
+
+    @Test
+    public void homeScroll() {
+        rule.measureRepeated(
+                PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    StartupBenchmark.waitForHome(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    fling(scope.getDevice(), "rv_resorts");
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void resortDetailOpen() {
+        rule.measureRepeated(
+                PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    StartupBenchmark.waitForHome(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    device.findObject(By.res(PACKAGE, "tv_resort_name")).click();
+                    // Forecast rows are bound once both requests have been answered
+                    device.wait(Until.hasObject(By.res(PACKAGE, "rv_forecast").hasChild(
+                            By.depth(1))), TIMEOUT_MS);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void diaryScroll() {
+        rule.measureRepeated(
+                PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    UiDevice device = scope.getDevice();
+                    StartupBenchmark.waitForHome(device);
+                    device.findObject(By.res(PACKAGE, "nav_diary")).click();
+                    device.wait(Until.hasObject(By.res(PACKAGE, "rv_sessions")), TIMEOUT_MS);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    fling(scope.getDevice(), "rv_sessions");
+                    return Unit.INSTANCE;
+                });
+    }
+
+    /** Down to the end of the list and back up */
+    private static void fling(UiDevice device, String listId) {
+        UiObject2 list = device.findObject(By.res(PACKAGE, listId));
+        // Keeps the gesture away from the system navigation edges
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+}
@@ -0,0 +1,77 @@
+package it.unisa.skiscore.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import kotlin.Unit;
+
+/**
+ * Cold start of the app to the Home tab: time to initial display (first frame) and time to
+ * full display (favorites listed with their weather, see HomeFragment#loadFavorites).
+ *
+ * The two compilation modes bracket the effect of the baseline profile: None is a fresh
+ * install without any AOT compilation, Partial installs the shipped profile first.
+ * The favorites and their weather come from {@link MockApiEnvironment}, so full display
+ * always waits for the same 20 cards and never for the network.
+ * Run with ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest on a physical device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    static final String PACKAGE = "it.unisa.skiscore";
+    private static final int ITERATIONS = 10;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Rule
+    public MockApiEnvironment environment = new MockApiEnvironment();
+
+    @Test
+    public void coldStartWithoutCompilation() {
+        startup(new CompilationMode.None());
+    }
+
+    @Test
+    public void coldStartWithBaselineProfile() {
+        startup(new CompilationMode.Partial());
+    }
+
+    private void startup(CompilationMode mode) {
+        rule.measureRepeated(
+                PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                mode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    waitForHome(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+
+    /** The favorites list, or the empty state when there are none */
+    static void waitForHome(UiDevice device) {
+        device.wait(Until.hasObject(By.res(
+                Pattern.compile(PACKAGE + ":id/(rv_resorts|ll_empty_state)"))), TIMEOUT_MS);
+    }
+}
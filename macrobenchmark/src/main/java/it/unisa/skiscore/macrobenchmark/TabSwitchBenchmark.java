@@ -0,0 +1,73 @@
+package it.unisa.skiscore.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import kotlin.Unit;
+
+/**
+ * Bottom-nav switches Home → Diario → Tracker → Home, twice per iteration. The trace
+ * section "MainActivity.switchTab" wraps each switch in the app (Sum = total for the six
+ * switches), the frame timings cover what the user sees. The first round of an iteration
+ * creates the Diary and Tracker tabs, the second only shows the retained ones.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TabSwitchBenchmark {
+
+    private static final String PACKAGE = StartupBenchmark.PACKAGE;
+    private static final int ITERATIONS = 10;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Rule
+    public MockApiEnvironment environment = new MockApiEnvironment();
+
+    @Test
+    public void switchTabs() {
+        rule.measureRepeated(
+                PACKAGE,
+                Arrays.asList(
+                        new TraceSectionMetric("MainActivity.switchTab",
+                                TraceSectionMetric.Mode.Sum.INSTANCE),
+                        new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    StartupBenchmark.waitForHome(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    for (int round = 0; round < 2; round++) {
+                        select(device, "nav_diary", "rv_sessions");
+                        select(device, "nav_tracker", "btnStartStop");
+                        select(device, "nav_home", "rv_resorts");
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private static void select(UiDevice device, String tab, String content) {
+        device.findObject(By.res(PACKAGE, tab)).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, content)), TIMEOUT_MS);
+        device.waitForIdle();
+    }
+}
@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "SkiScore"
 include(":app")
+include(":core")
+include(":macrobenchmark")
+include(":benchmark")
  
\ No newline at end of file